@@ -0,0 +1,101 @@
+package com.springboottest.user_management_api.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Latencies of one endpoint in nanoseconds. Response time counts from the moment the request
+ * was scheduled to start, so time spent queued behind a slow server or a stalled generator is
+ * included. That is the coordinated omission correction for an open-loop generator. Service
+ * time counts from the actual send and shows what a closed-loop tool would have reported.
+ * */
+public class EndpointStats {
+
+    private final String name;
+    private final Histogram responseTime = new ConcurrentHistogram(3);
+    private final Histogram serviceTime = new ConcurrentHistogram(3);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public EndpointStats(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public void record(long intendedStart, long actualStart, long end, int status) {
+        responseTime.recordValue(end - intendedStart);
+        serviceTime.recordValue(end - actualStart);
+        if (status < 400) {
+            successes.increment();
+        } else if (status == 429 || status == 503) {
+            rejections.increment();
+        } else if (status < 500) {
+            clientErrors.increment();
+        } else {
+            failures.increment();
+        }
+    }
+
+    public void recordFailure(long intendedStart, long end) {
+        responseTime.recordValue(end - intendedStart);
+        failures.increment();
+    }
+
+    public long count() {
+        return responseTime.getTotalCount();
+    }
+
+    public String summary() {
+        return String.format("%-32s %8d %8d %8d %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                name, count(), successes.sum(), rejections.sum(), clientErrors.sum(),
+                failures.sum(),
+                millis(responseTime.getValueAtPercentile(50)),
+                millis(responseTime.getValueAtPercentile(90)),
+                millis(responseTime.getValueAtPercentile(99)),
+                millis(responseTime.getValueAtPercentile(99.9)),
+                millis(responseTime.getMaxValue()),
+                millis(serviceTime.getValueAtPercentile(99)));
+    }
+
+    public static String header() {
+        return String.format("%-32s %8s %8s %8s %8s %8s %9s %9s %9s %9s %9s %9s",
+                "endpoint", "count", "2xx", "shed", "4xx", "failed", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms",
+                "max ms", "svc p99");
+    }
+
+    /*
+    * Full percentile distributions in the .hgrm format, which the HdrHistogram plotter reads
+    * */
+    public void writeDistribution(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        String file = name.replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(file + ".hgrm")))) {
+            responseTime.outputPercentileDistribution(out, 1_000_000.0);
+        }
+        try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(file + "-service.hgrm")))) {
+            serviceTime.outputPercentileDistribution(out, 1_000_000.0);
+        }
+    }
+
+    /*
+    * Response time at the percentile in milliseconds
+    * */
+    public double percentileMillis(double percentile) {
+        return millis(responseTime.getValueAtPercentile(percentile));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
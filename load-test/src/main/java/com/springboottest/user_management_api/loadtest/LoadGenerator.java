@@ -0,0 +1,176 @@
+package com.springboottest.user_management_api.loadtest;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Open-loop generator: requests start on a fixed schedule at the target rate, each on its own
+ * virtual thread, whether or not earlier ones have answered. A slow server therefore builds up
+ * in-flight requests instead of quietly lowering the offered load.
+ * */
+public class LoadGenerator {
+
+    private final LoadTestOptions options;
+    private final UserApi api;
+
+    // seeded users are read and updated and never deleted, so reads do not turn into 404s;
+    // users created during the run feed deletes, and deleted ones feed restores
+    private final ConcurrentLinkedDeque<Long> activeIds = new ConcurrentLinkedDeque<>();
+    private final ConcurrentLinkedDeque<Long> deletedIds = new ConcurrentLinkedDeque<>();
+    private volatile List<Long> readIds = List.of();
+
+    private final Operation[] schedule;
+
+    public LoadGenerator(LoadTestOptions options, UserApi api) {
+        this.options = options;
+        this.api = api;
+        this.schedule = weightedSchedule(options.mix());
+    }
+
+    public void seed() throws InterruptedException {
+        readIds = api.seed(options.seedUsers());
+    }
+
+    /*
+    * Runs the schedule for the given time. Returns the number of requests started
+    * */
+    public long run(Duration duration, Map<Operation, EndpointStats> stats) {
+        SplittableRandom random = new SplittableRandom(options.seed());
+        long intervalNanos = (long) (1_000_000_000L / options.rate());
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        long started = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intendedStart = start + i * intervalNanos;
+                if (intendedStart - end >= 0) {
+                    break;
+                }
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                Operation operation = schedule[random.nextInt(schedule.length)];
+                long userPick = random.nextLong();
+                String clientId = "load-" + random.nextInt(options.clients());
+                EndpointStats endpointStats = stats != null ? stats.get(operation) : null;
+                executor.execute(() -> execute(operation, userPick, clientId, intendedStart, endpointStats));
+                started++;
+            }
+        }
+        return started;
+    }
+
+    public static Map<Operation, EndpointStats> newStats(LoadTestOptions options) {
+        Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+        options.mix().keySet().forEach(operation -> stats.put(operation, new EndpointStats(operation.name().toLowerCase())));
+        return stats;
+    }
+
+    private void execute(Operation operation, long userPick, String clientId, long intendedStart, EndpointStats stats) {
+        long actualStart = System.nanoTime();
+        try {
+            HttpRequest request = request(operation, userPick, clientId);
+            if (request == null) {
+                return;
+            }
+            HttpResponse<String> response = api.send(request);
+            afterResponse(operation, request, response);
+            if (stats != null) {
+                stats.record(intendedStart, actualStart, System.nanoTime(), response.statusCode());
+            }
+        } catch (Exception e) {
+            if (stats != null) {
+                stats.recordFailure(intendedStart, System.nanoTime());
+            }
+        }
+    }
+
+    /*
+    * null when the operation has nothing to act on yet, e.g. a restore before any delete
+    * */
+    private HttpRequest request(Operation operation, long userPick, String clientId) {
+        List<Long> ids = readIds;
+        long readId = ids.get((int) Math.floorMod(userPick, (long) ids.size()));
+        return switch (operation) {
+            case LIST -> api.builder("?max_records=20&offset=" + Math.floorMod(userPick, 10), clientId).GET().build();
+            case GET -> api.builder("/" + readId, clientId).GET().build();
+            case CREATE -> api.createRequest(clientId);
+            case UPDATE -> api.builder("/" + readId, clientId)
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(
+                            "{\"first_name\":\"Updated\",\"last_name\":\"Load\",\"birth_date\":\"1991-02-03\"}"))
+                    .build();
+            case SETTINGS -> api.builder("/" + readId + "/settings", clientId)
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(
+                            "{\"settings\":[{\"biometric_login\":\"" + (userPick % 2 == 0) + "\"}]}"))
+                    .build();
+            case DELETE -> {
+                Long id = activeIds.pollFirst();
+                yield id == null ? null : api.builder("/" + id, clientId).DELETE().build();
+            }
+            case RESTORE -> {
+                Long id = deletedIds.pollFirst();
+                yield id == null ? null : api.builder("/" + id + "/refresh", clientId)
+                        .PUT(HttpRequest.BodyPublishers.noBody())
+                        .build();
+            }
+        };
+    }
+
+    private void afterResponse(Operation operation, HttpRequest request, HttpResponse<String> response) {
+        if (response.statusCode() >= 300) {
+            // the user keeps its state, put it back so it is not lost to later deletes and restores
+            Long id = pathId(request);
+            if (operation == Operation.DELETE && id != null) {
+                activeIds.addLast(id);
+            } else if (operation == Operation.RESTORE && id != null) {
+                deletedIds.addLast(id);
+            }
+            return;
+        }
+        switch (operation) {
+            case CREATE -> {
+                Long id = UserApi.createdId(response);
+                if (id != null) {
+                    activeIds.addLast(id);
+                }
+            }
+            case DELETE -> deletedIds.addLast(pathId(request));
+            case RESTORE -> activeIds.addLast(pathId(request));
+            default -> {
+            }
+        }
+    }
+
+    private static Long pathId(HttpRequest request) {
+        String[] segments = request.uri().getPath().split("/");
+        for (int i = segments.length - 1; i >= 0; i--) {
+            if (!segments[i].isEmpty() && Character.isDigit(segments[i].charAt(0))) {
+                return Long.parseLong(segments[i]);
+            }
+        }
+        return null;
+    }
+
+    /*
+    * Operations repeated by weight, picking a random slot gives the mix
+    * */
+    private static Operation[] weightedSchedule(Map<Operation, Integer> mix) {
+        return mix.entrySet().stream()
+                .flatMap(entry -> java.util.stream.Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Operation[]::new);
+    }
+}
@@ -0,0 +1,56 @@
+package com.springboottest.user_management_api.loadtest;
+
+import java.util.Map;
+
+/*
+ * Boots the application on a random port (or uses --target), seeds users, warms up, then drives
+ * the configured mix open-loop and prints per-endpoint latency percentiles.
+ *
+ * Options: --rate=requests per second, --duration=PT30S, --warmup=PT10S, --seed-users=1000,
+ * --clients=distinct X-Client-Id values, --mix=get:60,list:10,..., --seed=42, --target=http://host:port,
+ * --output-dir=build/load-test. Any other --key=value is passed to the application.
+ * */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+
+        LocalApplication application = options.target() == null ? LocalApplication.start(options.applicationArgs()) : null;
+        try {
+            UserApi api = new UserApi(application != null ? application.baseUrl() : options.target());
+            LoadGenerator generator = new LoadGenerator(options, api);
+            generator.seed();
+
+            if (!options.warmup().isZero()) {
+                System.out.printf("Warming up for %s at %.0f req/s%n", options.warmup(), options.rate());
+                generator.run(options.warmup(), null);
+            }
+
+            System.out.printf("Running %s at %.0f req/s, mix %s%n", options.duration(), options.rate(), options.mix());
+            Map<Operation, EndpointStats> stats = LoadGenerator.newStats(options);
+            long start = System.nanoTime();
+            long started = generator.run(options.duration(), stats);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            report(options, stats, started, seconds);
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+
+    private static void report(LoadTestOptions options, Map<Operation, EndpointStats> stats, long started,
+                               double seconds) throws Exception {
+        System.out.printf("%nStarted %d requests in %.1fs, %.0f req/s offered%n", started, seconds, started / seconds);
+        System.out.println("Response time from the scheduled start (coordinated omission corrected), svc p99 from the actual send");
+        System.out.println(EndpointStats.header());
+        for (EndpointStats endpointStats : stats.values()) {
+            if (endpointStats.count() > 0) {
+                System.out.println(endpointStats.summary());
+                endpointStats.writeDistribution(options.outputDir());
+            }
+        }
+        System.out.println("Percentile distributions written to " + options.outputDir().toAbsolutePath());
+    }
+}
@@ -0,0 +1,83 @@
+package com.springboottest.user_management_api.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Options given as --name=value. Anything not listed here is passed on to the application
+ * */
+public record LoadTestOptions(
+        double rate,
+        Duration duration,
+        Duration warmup,
+        int seedUsers,
+        int clients,
+        Map<Operation, Integer> mix,
+        long seed,
+        String target,
+        Path outputDir,
+        List<String> applicationArgs) {
+
+    private static final String DEFAULT_MIX = "get:60,list:10,create:10,update:10,settings:5,delete:3,restore:2";
+
+    public static LoadTestOptions parse(String[] args) {
+        double rate = 200;
+        Duration duration = Duration.ofSeconds(30);
+        Duration warmup = Duration.ofSeconds(10);
+        int seedUsers = 1_000;
+        int clients = 500;
+        String mix = DEFAULT_MIX;
+        long seed = 42;
+        String target = null;
+        Path outputDir = Path.of("build", "load-test");
+        List<String> applicationArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String name = equals > 0 ? arg.substring(0, equals) : arg;
+            String value = equals > 0 ? arg.substring(equals + 1) : "";
+            switch (name) {
+                case "--rate" -> rate = Double.parseDouble(value);
+                case "--duration" -> duration = Duration.parse(value);
+                case "--warmup" -> warmup = Duration.parse(value);
+                case "--seed-users" -> seedUsers = Integer.parseInt(value);
+                case "--clients" -> clients = Integer.parseInt(value);
+                case "--mix" -> mix = value;
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--target" -> target = value;
+                case "--output-dir" -> outputDir = Path.of(value);
+                default -> applicationArgs.add(arg);
+            }
+        }
+        if (rate <= 0) {
+            throw new IllegalArgumentException("--rate must be positive");
+        }
+        return new LoadTestOptions(rate, duration, warmup, seedUsers, clients, parseMix(mix), seed, target,
+                outputDir, applicationArgs);
+    }
+
+    /*
+    * operation:weight pairs, e.g. get:80,update:20
+    * */
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entries look like get:60, got " + entry);
+            }
+            int weight = Integer.parseInt(parts[1]);
+            if (weight > 0) {
+                weights.put(Operation.valueOf(parts[0].toUpperCase()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("--mix needs at least one operation with a positive weight");
+        }
+        return weights;
+    }
+}
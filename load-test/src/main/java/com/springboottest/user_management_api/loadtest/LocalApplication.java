@@ -0,0 +1,41 @@
+package com.springboottest.user_management_api.loadtest;
+
+import com.springboottest.user_management_api.UserManagementApiApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * The application booted in this JVM on a random port, used when no --target is given
+ * */
+public class LocalApplication implements AutoCloseable {
+
+    private final ConfigurableApplicationContext context;
+
+    private LocalApplication(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    public static LocalApplication start(List<String> applicationArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.springboottest.user_management_api.exception=OFF"));
+        args.addAll(applicationArgs);
+        return new LocalApplication(new SpringApplicationBuilder(UserManagementApiApplication.class)
+                .run(args.toArray(String[]::new)));
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,14 @@
+package com.springboottest.user_management_api.loadtest;
+
+/*
+ * UserController calls the generator can mix
+ * */
+public enum Operation {
+    LIST,
+    GET,
+    CREATE,
+    UPDATE,
+    SETTINGS,
+    DELETE,
+    RESTORE
+}
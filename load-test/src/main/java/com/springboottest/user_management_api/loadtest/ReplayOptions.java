@@ -0,0 +1,50 @@
+package com.springboottest.user_management_api.loadtest;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Options given as --name=value. Anything not listed here is passed on to the application
+ * */
+public record ReplayOptions(
+        Path trace,
+        double speed,
+        int seedUsers,
+        String target,
+        String label,
+        Path baseline,
+        Path outputDir,
+        List<String> applicationArgs) {
+
+    public static ReplayOptions parse(String[] args) {
+        Path trace = Path.of("data", "traffic", "capture.jsonl");
+        double speed = 1.0;
+        int seedUsers = 1_000;
+        String target = null;
+        String label = "current";
+        Path baseline = null;
+        Path outputDir = Path.of("build", "replay");
+        List<String> applicationArgs = new ArrayList<>();
+
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            String name = equals > 0 ? arg.substring(0, equals) : arg;
+            String value = equals > 0 ? arg.substring(equals + 1) : "";
+            switch (name) {
+                case "--trace" -> trace = Path.of(value);
+                case "--speed" -> speed = Double.parseDouble(value);
+                case "--seed-users" -> seedUsers = Integer.parseInt(value);
+                case "--target" -> target = value;
+                case "--label" -> label = value;
+                case "--baseline" -> baseline = Path.of(value);
+                case "--output-dir" -> outputDir = Path.of(value);
+                default -> applicationArgs.add(arg);
+            }
+        }
+        if (speed <= 0) {
+            throw new IllegalArgumentException("--speed must be positive");
+        }
+        return new ReplayOptions(trace, speed, seedUsers, target, label, baseline, outputDir, applicationArgs);
+    }
+}
@@ -0,0 +1,112 @@
+package com.springboottest.user_management_api.loadtest;
+
+import com.springboottest.user_management_api.dto.event.TrafficTrace;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Replays a trace captured with app.traffic-capture against a local instance (or --target) and
+ * compares the latencies with an earlier replay, typically of the previous build:
+ *
+ *   ./gradlew :load-test:replay --args="--trace=capture.jsonl --label=main"
+ *   ./gradlew :load-test:replay --args="--trace=capture.jsonl --label=branch --baseline=build/replay/main.csv"
+ *
+ * Options: --trace, --speed=1.0 (2.0 replays twice as fast), --seed-users=1000, --target=http://host:port,
+ * --label, --baseline=summary csv of an earlier replay, --output-dir=build/replay.
+ * Any other --key=value is passed to the application.
+ * */
+public class TrafficReplayMain {
+
+    private static final String CSV_HEADER = "endpoint,count,p50_ms,p90_ms,p99_ms,p99.9_ms";
+
+    public static void main(String[] args) throws Exception {
+        ReplayOptions options = ReplayOptions.parse(args);
+        List<TrafficTrace> traces = TrafficReplayer.load(options.trace());
+        if (traces.isEmpty()) {
+            throw new IllegalArgumentException(options.trace() + " holds no traces");
+        }
+        double recordedSeconds = (traces.get(traces.size() - 1).getArrivalMicros()
+                - traces.get(0).getArrivalMicros()) / 1e6;
+
+        LocalApplication application = options.target() == null ? LocalApplication.start(options.applicationArgs()) : null;
+        try {
+            UserApi api = new UserApi(application != null ? application.baseUrl() : options.target());
+            TrafficReplayer replayer = new TrafficReplayer(api, api.seed(options.seedUsers()));
+
+            System.out.printf("Replaying %d traces recorded over %.1fs at %.1fx%n",
+                    traces.size(), recordedSeconds, options.speed());
+            long start = System.nanoTime();
+            replayer.replay(traces, options.speed());
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%nReplayed in %.1fs, %d traces skipped%n", seconds, replayer.skipped());
+            System.out.println(EndpointStats.header());
+            replayer.stats().values().forEach(endpointStats -> System.out.println(endpointStats.summary()));
+
+            Path summary = writeSummary(options, replayer.stats());
+            System.out.println("Summary written to " + summary.toAbsolutePath());
+            if (options.baseline() != null) {
+                compare(readSummary(options.baseline()), replayer.stats(), options.label());
+            }
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+        }
+    }
+
+    private static Path writeSummary(ReplayOptions options, Map<String, EndpointStats> stats) throws IOException {
+        Files.createDirectories(options.outputDir());
+        Path summary = options.outputDir().resolve(options.label() + ".csv");
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(summary))) {
+            out.println(CSV_HEADER);
+            for (EndpointStats endpointStats : stats.values()) {
+                out.printf("%s,%d,%.3f,%.3f,%.3f,%.3f%n", endpointStats.name(), endpointStats.count(),
+                        endpointStats.percentileMillis(50), endpointStats.percentileMillis(90),
+                        endpointStats.percentileMillis(99), endpointStats.percentileMillis(99.9));
+            }
+        }
+        return summary;
+    }
+
+    /*
+    * endpoint -> {p50, p99} of an earlier replay
+    * */
+    private static Map<String, double[]> readSummary(Path path) throws IOException {
+        Map<String, double[]> baseline = new HashMap<>();
+        for (String line : Files.readAllLines(path)) {
+            String[] columns = line.split(",");
+            if (columns.length < 6 || CSV_HEADER.equals(line)) {
+                continue;
+            }
+            baseline.put(columns[0], new double[]{Double.parseDouble(columns[2]), Double.parseDouble(columns[4])});
+        }
+        return baseline;
+    }
+
+    private static void compare(Map<String, double[]> baseline, Map<String, EndpointStats> stats, String label) {
+        System.out.printf("%nChange against the baseline, %s%n", label);
+        System.out.printf("%-32s %10s %10s %8s %10s %10s %8s%n",
+                "endpoint", "base p50", "p50", "change", "base p99", "p99", "change");
+        for (EndpointStats endpointStats : stats.values()) {
+            double[] base = baseline.get(endpointStats.name());
+            if (base == null) {
+                continue;
+            }
+            double p50 = endpointStats.percentileMillis(50);
+            double p99 = endpointStats.percentileMillis(99);
+            System.out.printf("%-32s %10.2f %10.2f %+7.1f%% %10.2f %10.2f %+7.1f%%%n", endpointStats.name(),
+                    base[0], p50, change(base[0], p50), base[1], p99, change(base[1], p99));
+        }
+    }
+
+    private static double change(double base, double current) {
+        return base > 0 ? (current - base) / base * 100 : 0;
+    }
+}
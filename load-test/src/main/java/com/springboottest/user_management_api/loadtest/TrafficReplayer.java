@@ -0,0 +1,166 @@
+package com.springboottest.user_management_api.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboottest.user_management_api.dto.event.TrafficTrace;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/*
+ * Plays captured traces back open-loop, keeping the recorded gaps divided by the speed factor.
+ * Recorded user ids are mapped onto seeded users by hash, so a user that was hot in the capture
+ * stays hot in the replay. Masked ssns are replaced with fresh ones, the API rejects duplicates.
+ * */
+public class TrafficReplayer {
+
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final String MASKED_VALUE = "\"" + TrafficTrace.MASK + "\"";
+
+    private final UserApi api;
+    private final List<Long> userIds;
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final LongAdder skipped = new LongAdder();
+
+    public TrafficReplayer(UserApi api, List<Long> userIds) {
+        this.api = api;
+        this.userIds = userIds;
+    }
+
+    public static List<TrafficTrace> load(Path path) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        List<TrafficTrace> traces = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    traces.add(objectMapper.readValue(line, TrafficTrace.class));
+                }
+            }
+        }
+        traces.sort(Comparator.comparing(TrafficTrace::getArrivalMicros));
+        return traces;
+    }
+
+    public void replay(List<TrafficTrace> traces, double speed) {
+        if (traces.isEmpty()) {
+            return;
+        }
+        long firstArrival = traces.get(0).getArrivalMicros();
+        long start = System.nanoTime();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (TrafficTrace trace : traces) {
+                long intendedStart = start + (long) ((trace.getArrivalMicros() - firstArrival) * 1_000 / speed);
+                long wait = intendedStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                HttpRequest request = request(trace);
+                if (request == null) {
+                    skipped.increment();
+                    continue;
+                }
+                EndpointStats endpointStats = stats.computeIfAbsent(endpoint(trace), EndpointStats::new);
+                executor.execute(() -> execute(request, intendedStart, endpointStats));
+            }
+        }
+    }
+
+    /*
+    * Stats by endpoint, in endpoint order
+    * */
+    public Map<String, EndpointStats> stats() {
+        return new TreeMap<>(stats);
+    }
+
+    public long skipped() {
+        return skipped.sum();
+    }
+
+    private void execute(HttpRequest request, long intendedStart, EndpointStats endpointStats) {
+        long actualStart = System.nanoTime();
+        try {
+            HttpResponse<String> response = api.send(request);
+            endpointStats.record(intendedStart, actualStart, System.nanoTime(), response.statusCode());
+        } catch (Exception e) {
+            endpointStats.recordFailure(intendedStart, System.nanoTime());
+        }
+    }
+
+    /*
+    * null for traces that cannot be replayed, a write whose body was too large or not JSON
+    * */
+    private HttpRequest request(TrafficTrace trace) {
+        String body = trace.getBody();
+        if (body == null && trace.getBodyHash() != null) {
+            return null;
+        }
+        if (!trace.getPath().startsWith("/v1/users")) {
+            return null;
+        }
+
+        String path = mapIds(trace.getPath().substring("/v1/users".length()));
+        if (trace.getQuery() != null) {
+            path += "?" + mapQuery(trace.getQuery());
+        }
+        HttpRequest.Builder builder = api.builder(path, trace.getClient() != null ? trace.getClient() : "replay");
+        if (body == null) {
+            return builder.method(trace.getMethod(), HttpRequest.BodyPublishers.noBody()).build();
+        }
+        while (body.contains(MASKED_VALUE)) {
+            body = body.replaceFirst(Pattern.quote(MASKED_VALUE), "\"" + api.nextSsn() + "\"");
+        }
+        return builder.header("Content-Type", "application/json")
+                .method(trace.getMethod(), HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String mapIds(String path) {
+        return ID_SEGMENT.matcher(path).replaceAll(match -> "/" + localId(match.group().substring(1)));
+    }
+
+    /*
+    * Ids listed in ids= are mapped like path ids, everything else is kept as recorded
+    * */
+    private String mapQuery(String query) {
+        List<String> params = new ArrayList<>();
+        for (String param : query.split("&")) {
+            if (param.startsWith("ids=")) {
+                List<String> ids = new ArrayList<>();
+                for (String id : param.substring("ids=".length()).split(",|%2C")) {
+                    ids.add(id.chars().allMatch(Character::isDigit) && !id.isEmpty() ? localId(id) : id);
+                }
+                param = "ids=" + String.join(",", ids);
+            }
+            params.add(param);
+        }
+        return String.join("&", params);
+    }
+
+    private String localId(String recordedId) {
+        long hash = Long.parseLong(recordedId) * 0x9e3779b97f4a7c15L;
+        return String.valueOf(userIds.get((int) Math.floorMod(hash ^ (hash >>> 32), (long) userIds.size())));
+    }
+
+    static String endpoint(TrafficTrace trace) {
+        return trace.getMethod() + " " + ID_SEGMENT.matcher(trace.getPath()).replaceAll("/{id}");
+    }
+}
@@ -0,0 +1,126 @@
+package com.springboottest.user_management_api.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * HTTP access to the user API shared by the load generator and the replayer
+ * */
+public class UserApi {
+
+    private static final Pattern USER_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final AtomicLong nextSsn;
+
+    public UserApi(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        // unique across runs against a long-lived target, at most 16 digits
+        this.nextSsn = new AtomicLong((System.currentTimeMillis() % 1_000_000_000L) * 1_000_000L);
+    }
+
+    public String baseUrl() {
+        return baseUrl;
+    }
+
+    /*
+    * Create users in parallel and return their ids
+    * */
+    public List<Long> seed(int users) throws InterruptedException {
+        Semaphore permits = new Semaphore(32);
+        ConcurrentLinkedDeque<Long> seeded = new ConcurrentLinkedDeque<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                // a client id per user keeps seeding clear of the per-client rate limit
+                String clientId = "seed-" + i;
+                permits.acquire();
+                executor.execute(() -> {
+                    try {
+                        Long id = seedUser(clientId);
+                        if (id != null) {
+                            seeded.add(id);
+                        }
+                    } catch (Exception e) {
+                        // counted below as missing seed users
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        if (seeded.isEmpty()) {
+            throw new IllegalStateException("Seeding created no users, is " + baseUrl + " reachable?");
+        }
+        System.out.printf("Seeded %d of %d users%n", seeded.size(), users);
+        return List.copyOf(seeded);
+    }
+
+    private Long seedUser(String clientId) throws Exception {
+        for (int attempt = 0; attempt < 5; attempt++) {
+            HttpResponse<String> response = send(createRequest(clientId));
+            if (response.statusCode() != 429 && response.statusCode() != 503) {
+                return createdId(response);
+            }
+            long retryAfter = response.headers().firstValueAsLong("Retry-After").orElse(1);
+            Thread.sleep(Duration.ofSeconds(retryAfter));
+        }
+        return null;
+    }
+
+    public HttpRequest createRequest(String clientId) {
+        return builder("", clientId)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"ssn\":\"" + nextSsn()
+                        + "\",\"first_name\":\"Load\",\"last_name\":\"Test\",\"birth_date\":\"1990-01-01\"}"))
+                .build();
+    }
+
+    /*
+    * A fresh ssn for every create, the API rejects duplicates
+    * */
+    public String nextSsn() {
+        return String.valueOf(nextSsn.incrementAndGet());
+    }
+
+    /*
+    * Request for path below /v1/users, query included
+    * */
+    public HttpRequest.Builder builder(String path, String clientId) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/v1/users" + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("X-Client-Id", clientId)
+                .header("Accept", "application/json");
+    }
+
+    public HttpResponse<String> send(HttpRequest request) throws Exception {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /*
+    * Id of the user a create returned, null when it was not created
+    * */
+    public static Long createdId(HttpResponse<String> response) {
+        if (response.statusCode() != 201) {
+            return null;
+        }
+        Matcher matcher = USER_ID.matcher(response.body());
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : null;
+    }
+}
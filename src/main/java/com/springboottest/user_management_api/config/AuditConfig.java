@@ -0,0 +1,37 @@
+package com.springboottest.user_management_api.config;
+
+import com.springboottest.user_management_api.service.interfaces.UserAuditService;
+import com.springboottest.user_management_api.util.AuditActorContext;
+import com.springboottest.user_management_api.util.UserAuditEventListener;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.AuditorAware;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.audit", name = "enabled", havingValue = "true")
+public class AuditConfig {
+
+    /*
+     * Registered with Hibernate directly, entity listeners would not see the previous state
+     * */
+    @Bean
+    public UserAuditEventListener userAuditEventListener(EntityManagerFactory entityManagerFactory,
+                                                         UserAuditService userAuditService,
+                                                         AuditorAware<String> auditorProvider) {
+        UserAuditEventListener listener = new UserAuditEventListener(userAuditService,
+                () -> auditorProvider.getCurrentAuditor().orElse(AuditActorContext.SYSTEM));
+
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+        return listener;
+    }
+}
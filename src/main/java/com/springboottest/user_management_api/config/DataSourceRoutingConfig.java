@@ -0,0 +1,79 @@
+package com.springboottest.user_management_api.config;
+
+import com.springboottest.user_management_api.config.datasource.LaggingReplicaSync;
+import com.springboottest.user_management_api.config.datasource.ReadWriteRoutingDataSource;
+import com.springboottest.user_management_api.config.properties.DataSourceRoutingProperties;
+import com.springboottest.user_management_api.service.interfaces.ChangeFeedService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/*
+ * Replaces the auto-configured datasource with a primary and a replica pool when routing is enabled
+ * */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("app.datasource.primary")
+    public DataSourceProperties primaryDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("app.datasource.primary.hikari")
+    public HikariDataSource primaryDataSource() {
+        return primaryDataSourceProperties().initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean(autowireCandidate = false)
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        return replicaDataSourceProperties().initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    /*
+    * Lazy proxy defers the pool choice until the first statement of the transaction
+    * */
+    @Bean
+    @Primary
+    public DataSource dataSource() {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource(), replicaDataSource()));
+    }
+
+    /*
+    * Only for a local replica database, its own connection since the replica pool is read-only
+    * */
+    @Bean(initMethod = "initialize", destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "app.datasource.routing", name = "replica-lag")
+    public LaggingReplicaSync laggingReplicaSync(DataSourceRoutingProperties routingProperties,
+                                                 ChangeFeedService changeFeedService) {
+        DataSourceProperties replica = replicaDataSourceProperties();
+        LaggingReplicaSync replicaSync = new LaggingReplicaSync(primaryDataSource(),
+                new DriverManagerDataSource(replica.determineUrl(), replica.determineUsername(),
+                        replica.determinePassword()),
+                routingProperties.getReplicaLag());
+        changeFeedService.addCommitListener(userIds -> replicaSync.commitObserved());
+        return replicaSync;
+    }
+}
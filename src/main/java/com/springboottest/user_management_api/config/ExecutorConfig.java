@@ -0,0 +1,57 @@
+package com.springboottest.user_management_api.config;
+
+import com.springboottest.user_management_api.config.datasource.DataSourceRoutingContext;
+import com.springboottest.user_management_api.config.properties.BulkheadProperties;
+import com.springboottest.user_management_api.util.AuditActorContext;
+import com.springboottest.user_management_api.util.Bulkhead;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    /*
+     * Runs admin bulk jobs one at a time, a few more may queue behind
+     * */
+    @Bean
+    public ThreadPoolTaskExecutor bulkOperationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("bulk-op-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /*
+     * Runs UserController reads, so slow writes cannot take the threads cheap reads need
+     * */
+    @Bean
+    public Bulkhead readBulkhead(BulkheadProperties bulkheadProperties, MeterRegistry meterRegistry) {
+        BulkheadProperties.Pool pool = bulkheadProperties.getRead();
+        return new Bulkhead("read", pool.getThreads(), pool.getQueueCapacity(), pool.getDeadline(),
+                ExecutorConfig::propagateRequestContext, meterRegistry);
+    }
+
+    /*
+     * Runs UserController writes. The deadline only covers the wait in the queue, a write that
+     * started may commit and is answered with its outcome
+     * */
+    @Bean
+    public Bulkhead writeBulkhead(BulkheadProperties bulkheadProperties, MeterRegistry meterRegistry) {
+        BulkheadProperties.Pool pool = bulkheadProperties.getWrite();
+        return new Bulkhead("write", pool.getThreads(), pool.getQueueCapacity(), pool.getDeadline(), true,
+                ExecutorConfig::propagateRequestContext, meterRegistry);
+    }
+
+    /*
+     * The primary override and the actor are thread bound, a request's work on a bulkhead keeps both
+     * */
+    private static Runnable propagateRequestContext(Runnable task) {
+        return DataSourceRoutingContext.propagate(AuditActorContext.propagate(task));
+    }
+}
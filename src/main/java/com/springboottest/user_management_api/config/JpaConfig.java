@@ -1,5 +1,6 @@
 package com.springboottest.user_management_api.config;
 
+import com.springboottest.user_management_api.util.AuditActorContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.AuditorAware;
@@ -13,6 +14,6 @@ public class JpaConfig {
 
     @Bean
     public AuditorAware<String> auditorProvider() {
-        return () -> Optional.of("SYSTEM");
+        return () -> Optional.of(AuditActorContext.current());
     }
 }
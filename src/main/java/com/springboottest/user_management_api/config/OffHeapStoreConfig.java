@@ -0,0 +1,60 @@
+package com.springboottest.user_management_api.config;
+
+import com.springboottest.user_management_api.config.properties.OffHeapStoreProperties;
+import com.springboottest.user_management_api.util.OffHeapUserStore;
+import com.springboottest.user_management_api.util.UserEventLog;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "app.off-heap", name = "enabled", havingValue = "true")
+public class OffHeapStoreConfig {
+
+    /*
+     * Users held in native memory segments, rebuilt from the event log when persistence is on
+     * and lost with the process otherwise
+     * */
+    @Bean
+    public OffHeapUserStore offHeapUserStore(OffHeapStoreProperties offHeapStoreProperties,
+                                             ObjectProvider<UserEventLog> userEventLog,
+                                             MeterRegistry meterRegistry) throws IOException {
+        OffHeapUserStore store = new OffHeapUserStore(offHeapStoreProperties.getPageRecords(),
+                offHeapStoreProperties.getExpectedUsers());
+        UserEventLog eventLog = userEventLog.getIfAvailable();
+        if (eventLog != null) {
+            long start = System.nanoTime();
+            store.recover(eventLog);
+            log.info("Off-heap store recovered {} users up to log seq {} in {} ms", store.size(),
+                    eventLog.lastSeq(), (System.nanoTime() - start) / 1_000_000);
+        }
+
+        Gauge.builder("users.offheap.records", store, OffHeapUserStore::size)
+                .description("Users held by the off-heap store, deleted ones included")
+                .register(meterRegistry);
+        Gauge.builder("users.offheap.bytes", store, OffHeapUserStore::allocatedBytes)
+                .description("Native memory allocated for user records")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        return store;
+    }
+
+    /*
+     * Segments and snapshots in one directory, closing it waits for the last group commit
+     * */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "app.off-heap.persistence", name = "enabled", havingValue = "true")
+    public UserEventLog userEventLog(OffHeapStoreProperties offHeapStoreProperties) throws IOException {
+        OffHeapStoreProperties.Persistence persistence = offHeapStoreProperties.getPersistence();
+        return new UserEventLog(Path.of(persistence.getDirectory()), persistence.getSegmentBytes(),
+                persistence.getCommitDelay());
+    }
+}
@@ -0,0 +1,32 @@
+package com.springboottest.user_management_api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboottest.user_management_api.config.properties.SettingsSchemaProperties;
+import com.springboottest.user_management_api.util.SettingsSchemaRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Slf4j
+@Configuration
+public class SettingsSchemaConfig {
+
+    /*
+     * A schema file that is missing or invalid at startup fails the startup, later it only fails the reload
+     * */
+    @Bean
+    public SettingsSchemaRegistry settingsSchemaRegistry(SettingsSchemaProperties settingsSchemaProperties,
+                                                         ObjectMapper objectMapper) throws IOException {
+        if (settingsSchemaProperties.getPath().isBlank()) {
+            return SettingsSchemaRegistry.builtIn();
+        }
+
+        Path path = Path.of(settingsSchemaProperties.getPath()).toAbsolutePath();
+        SettingsSchemaRegistry registry = SettingsSchemaRegistry.fromFile(path, objectMapper);
+        log.info("Loaded {} setting definitions from {}", registry.current().defaults().size(), path);
+        return registry;
+    }
+}
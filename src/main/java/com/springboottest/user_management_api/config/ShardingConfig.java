@@ -0,0 +1,91 @@
+package com.springboottest.user_management_api.config;
+
+import com.springboottest.user_management_api.config.datasource.ShardRoutingDataSource;
+import com.springboottest.user_management_api.config.properties.DataSourceRoutingProperties;
+import com.springboottest.user_management_api.config.properties.ShardingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Replaces the auto-configured datasource with one pool per shard when sharding is enabled
+ * */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    private final ShardingProperties shardingProperties;
+
+    public ShardingConfig(ShardingProperties shardingProperties, DataSourceRoutingProperties routingProperties) {
+        if (routingProperties.isEnabled()) {
+            throw new IllegalStateException("app.sharding cannot be combined with app.datasource.routing");
+        }
+        this.shardingProperties = shardingProperties;
+    }
+
+    @Bean(autowireCandidate = false)
+    public ShardRoutingDataSource shardRoutingDataSource() {
+        List<HikariDataSource> pools = new ArrayList<>();
+        List<ShardingProperties.Shard> shards = shardingProperties.getShards();
+        for (int i = 0; i < shards.size(); i++) {
+            ShardingProperties.Shard shard = shards.get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("shard-" + i);
+            pool.setJdbcUrl(shard.getUrl());
+            pool.setUsername(shard.getUsername());
+            pool.setPassword(shard.getPassword());
+            pool.setMaximumPoolSize(shard.getMaximumPoolSize());
+            pools.add(pool);
+        }
+        return new ShardRoutingDataSource(pools);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource() {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource());
+    }
+
+    /*
+    * Migrate every shard with the auto-configured Flyway settings, then align the users
+    * identity so shard k only hands out ids k+1 modulo the shard count
+    * */
+    @Bean
+    public FlywayMigrationStrategy shardedMigrationStrategy() {
+        return flyway -> {
+            List<HikariDataSource> shards = shardRoutingDataSource().getShards();
+            for (int shard = 0; shard < shards.size(); shard++) {
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(shards.get(shard))
+                        .load()
+                        .migrate();
+                alignUserIdentity(new JdbcTemplate(shards.get(shard)), shard, shards.size());
+            }
+        };
+    }
+
+    private void alignUserIdentity(JdbcTemplate jdbcTemplate, int shard, int shardCount) {
+        // archived users keep their id, it must not be handed out again
+        Long maxId = jdbcTemplate.queryForObject(
+                "SELECT GREATEST((SELECT COALESCE(MAX(id), 0) FROM users), " +
+                        "(SELECT COALESCE(MAX(id), 0) FROM users_archive))", Long.class);
+        long next = maxId + 1 + Math.floorMod(shard - maxId, shardCount);
+
+        jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + next);
+        jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN id SET INCREMENT BY " + shardCount);
+        log.info("Shard {} of {} continues user ids at {}", shard, shardCount, next);
+    }
+}
@@ -0,0 +1,23 @@
+package com.springboottest.user_management_api.config;
+
+import com.springboottest.user_management_api.config.properties.SingleFlightProperties;
+import com.springboottest.user_management_api.dto.response.UserResponse;
+import com.springboottest.user_management_api.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Optional;
+
+@Configuration
+public class SingleFlightConfig {
+
+    /*
+     * Concurrent reads of the same user share one fetch, empty when the user is not active
+     * */
+    @Bean
+    public SingleFlight<Long, Optional<UserResponse>> userLoads(SingleFlightProperties singleFlightProperties,
+                                                                MeterRegistry meterRegistry) {
+        return new SingleFlight<>("user", singleFlightProperties.getFollowerTimeout(), meterRegistry);
+    }
+}
@@ -0,0 +1,38 @@
+package com.springboottest.user_management_api.config;
+
+import com.springboottest.user_management_api.UserManagementApiApplication;
+import com.springboottest.user_management_api.controller.AdminUserController;
+import com.springboottest.user_management_api.controller.UserChangeController;
+import com.springboottest.user_management_api.service.implementation.BulkSettingsServiceImpl;
+import com.springboottest.user_management_api.service.implementation.ChangeFeedStreamServiceImpl;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+@Configuration
+public class StartupConfig {
+
+    /*
+     * Beans that serve neither the user endpoints nor scheduled jobs, created on first use
+     * */
+    private static final Set<Class<?>> RARELY_USED = Set.of(
+            AdminUserController.class,
+            BulkSettingsServiceImpl.class,
+            UserChangeController.class,
+            ChangeFeedStreamServiceImpl.class);
+
+    /*
+     * Only applies with spring.main.lazy-initialization, as in the fast-startup profile.
+     * Application beans stay eager so the first user request never pays for creating them,
+     * and scheduled jobs are only registered for beans that exist. Framework beans off the
+     * request path, like actuator endpoints, become lazy
+     * */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerApplicationBeans() {
+        String applicationPackage = UserManagementApiApplication.class.getPackageName();
+        return (beanName, beanDefinition, beanType) -> beanType.getPackageName().startsWith(applicationPackage)
+                && !RARELY_USED.contains(beanType);
+    }
+}
@@ -0,0 +1,20 @@
+package com.springboottest.user_management_api.config;
+
+import com.springboottest.user_management_api.config.properties.UserCacheProperties;
+import com.springboottest.user_management_api.util.UserResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UserCacheConfig {
+
+    /*
+     * Always present for the user service, holding nothing while the cache is disabled
+     * */
+    @Bean
+    public UserResponseCache userResponseCache(UserCacheProperties userCacheProperties, MeterRegistry meterRegistry) {
+        return new UserResponseCache(userCacheProperties.isEnabled() ? userCacheProperties.getMaxEntries() : 0,
+                userCacheProperties.getTtl(), meterRegistry);
+    }
+}
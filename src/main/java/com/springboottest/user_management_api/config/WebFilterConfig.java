@@ -0,0 +1,91 @@
+package com.springboottest.user_management_api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboottest.user_management_api.config.properties.AuditProperties;
+import com.springboottest.user_management_api.config.properties.ConcurrencyLimitProperties;
+import com.springboottest.user_management_api.config.properties.RateLimitProperties;
+import com.springboottest.user_management_api.config.properties.TrafficCaptureProperties;
+import com.springboottest.user_management_api.filter.AuditActorFilter;
+import com.springboottest.user_management_api.filter.ConcurrencyLimitFilter;
+import com.springboottest.user_management_api.filter.RateLimitFilter;
+import com.springboottest.user_management_api.filter.TrafficCaptureFilter;
+import com.springboottest.user_management_api.util.TrafficTraceLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+@Configuration
+public class WebFilterConfig {
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "app.traffic-capture", name = "enabled", havingValue = "true")
+    public TrafficTraceLog trafficTraceLog(TrafficCaptureProperties trafficCaptureProperties,
+                                           ObjectMapper objectMapper,
+                                           MeterRegistry meterRegistry) throws IOException {
+        return new TrafficTraceLog(Path.of(trafficCaptureProperties.getFilePath()),
+                trafficCaptureProperties.getQueueCapacity(), objectMapper, meterRegistry);
+    }
+
+    /*
+     * Captures ahead of the limits, the trace should hold every arrival including the ones shed
+     * */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.traffic-capture", name = "enabled", havingValue = "true")
+    public FilterRegistrationBean<TrafficCaptureFilter> trafficCaptureFilter(TrafficCaptureProperties trafficCaptureProperties,
+                                                                             ObjectMapper objectMapper,
+                                                                             TrafficTraceLog trafficTraceLog) {
+        FilterRegistrationBean<TrafficCaptureFilter> registration = new FilterRegistrationBean<>(
+                new TrafficCaptureFilter(trafficCaptureProperties, objectMapper, trafficTraceLog));
+        registration.addUrlPatterns("/v1/users", "/v1/users/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /*
+     * Names the actor of every write, on the request thread so the bulkheads can carry it along
+     * */
+    @Bean
+    public FilterRegistrationBean<AuditActorFilter> auditActorFilter(AuditProperties auditProperties) {
+        FilterRegistrationBean<AuditActorFilter> registration = new FilterRegistrationBean<>(
+                new AuditActorFilter(auditProperties));
+        registration.addUrlPatterns("/v1/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 30);
+        return registration;
+    }
+
+    /*
+     * Rate limit the user API ahead of every other filter, rejected requests cost almost nothing
+     * */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties rateLimitProperties,
+                                                                   ObjectMapper objectMapper,
+                                                                   MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+                new RateLimitFilter(rateLimitProperties, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/v1/users", "/v1/users/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /*
+     * Runs after the rate limit, a client over its budget should not take a concurrency slot
+     * */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ConcurrencyLimitProperties concurrencyLimitProperties,
+                                                                                 ObjectMapper objectMapper,
+                                                                                 MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(concurrencyLimitProperties, objectMapper, meterRegistry));
+        registration.addUrlPatterns("/v1/users", "/v1/users/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+}
@@ -0,0 +1,7 @@
+package com.springboottest.user_management_api.config.datasource;
+
+public enum DataSourceRoute {
+
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,42 @@
+package com.springboottest.user_management_api.config.datasource;
+
+/**
+ * Per thread override that keeps read-only transactions on the primary,
+ * set for the duration of a request that must read its own writes.
+ */
+public final class DataSourceRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    private DataSourceRoutingContext() {
+    }
+
+    public static void forcePrimary() {
+        PRIMARY_FORCED.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimaryForced() {
+        return PRIMARY_FORCED.get() != null;
+    }
+
+    public static void clear() {
+        PRIMARY_FORCED.remove();
+    }
+
+    /*
+    * Carry the caller's override to a task that runs on another thread
+    * */
+    public static Runnable propagate(Runnable task) {
+        boolean primaryForced = isPrimaryForced();
+        return () -> {
+            if (primaryForced) {
+                forcePrimary();
+            }
+            try {
+                task.run();
+            } finally {
+                clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,231 @@
+package com.springboottest.user_management_api.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stands in for a streaming replica when the replica is a second local H2 database. After a
+ * commit the primary's rows are read in one snapshot, and the lag later they replace the
+ * replica's rows in one replica transaction. Reads routed to the replica are really stale
+ * for that long. Each copy reads the whole primary, so this only suits local runs and tests.
+ * Writes that record no user change, like the archival job, reach the replica with the next copy.
+ */
+@Slf4j
+public class LaggingReplicaSync {
+
+    private static final String TABLES = "SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES " +
+            "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE' ORDER BY TABLE_NAME";
+    private static final String COPIED_COLUMNS = "SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS " +
+            "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = ? AND IS_GENERATED = 'NEVER' ORDER BY ORDINAL_POSITION";
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Duration lag;
+    private final ScheduledExecutorService copier;
+
+    // a snapshot not started yet also covers every commit observed until it starts
+    private final AtomicBoolean snapshotQueued = new AtomicBoolean();
+
+    // held open so an in-memory replica outlives its pool, used on the copier thread only after initialize
+    private Connection replicaConnection;
+
+    public LaggingReplicaSync(DataSource primary, DataSource replica, Duration lag) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lag = lag;
+        this.copier = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /*
+    * Create the primary's schema on the replica without foreign keys, so a copy can replace
+    * tables in any order, and copy the current rows
+    * */
+    public void initialize() throws SQLException {
+        replicaConnection = replica.getConnection();
+        List<String> schema = new ArrayList<>();
+        try (Connection connection = primary.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet script = statement.executeQuery("SCRIPT NODATA")) {
+            while (script.next()) {
+                String sql = script.getString(1);
+                if (!sql.contains("FOREIGN KEY")) {
+                    schema.add(sql);
+                }
+            }
+        }
+        try (Statement statement = replicaConnection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String sql : schema) {
+                statement.execute(sql);
+            }
+        }
+        apply(snapshot());
+        log.info("Local replica in sync, following the primary {} behind", lag);
+    }
+
+    /*
+    * Copy the primary as of now into the replica once the lag has passed
+    * */
+    public void commitObserved() {
+        long commitNanos = System.nanoTime();
+        if (snapshotQueued.compareAndSet(false, true)) {
+            copier.execute(() -> snapshotAndSchedule(commitNanos));
+        }
+    }
+
+    /*
+    * Startup runners like the dataset seeder write without recording user changes
+    * */
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        commitObserved();
+    }
+
+    public void shutdown() throws SQLException {
+        copier.shutdownNow();
+        if (replicaConnection != null) {
+            replicaConnection.close();
+        }
+    }
+
+    private void snapshotAndSchedule(long commitNanos) {
+        snapshotQueued.set(false);
+        try {
+            List<TableRows> snapshot = snapshot();
+            long delay = lag.toNanos() - (System.nanoTime() - commitNanos);
+            copier.schedule(() -> applyQuietly(snapshot), Math.max(0, delay), TimeUnit.NANOSECONDS);
+        } catch (SQLException e) {
+            log.warn("Reading the primary for the replica failed, it catches up with the next commit", e);
+        }
+    }
+
+    private void applyQuietly(List<TableRows> snapshot) {
+        try {
+            apply(snapshot);
+        } catch (SQLException e) {
+            log.warn("Copying into the replica failed, it catches up with the next commit", e);
+        }
+    }
+
+    /*
+    * Every table read in one repeatable read transaction, so the copy is one point in time
+    * */
+    private List<TableRows> snapshot() throws SQLException {
+        try (Connection connection = primary.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try {
+                List<TableRows> tables = new ArrayList<>();
+                for (String table : tables(connection)) {
+                    List<String> columns = copiedColumns(connection, table);
+                    List<Object[]> rows = new ArrayList<>();
+                    try (Statement statement = connection.createStatement();
+                         ResultSet resultSet = statement.executeQuery(
+                                 "SELECT " + columnList(columns) + " FROM " + quote(table))) {
+                        while (resultSet.next()) {
+                            Object[] row = new Object[columns.size()];
+                            for (int i = 0; i < row.length; i++) {
+                                row[i] = resultSet.getObject(i + 1);
+                            }
+                            rows.add(row);
+                        }
+                    }
+                    tables.add(new TableRows(table, columns, rows));
+                }
+                return tables;
+            } finally {
+                connection.rollback();
+            }
+        }
+    }
+
+    /*
+    * Replace every table in one transaction, replica readers see the old rows until it commits
+    * */
+    private void apply(List<TableRows> snapshot) throws SQLException {
+        Connection connection = replicaConnection;
+        connection.setAutoCommit(false);
+        try {
+            for (TableRows table : snapshot) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate("DELETE FROM " + quote(table.name()));
+                }
+                if (table.rows().isEmpty()) {
+                    continue;
+                }
+                String insert = "INSERT INTO " + quote(table.name()) + " (" + columnList(table.columns()) +
+                        ") VALUES (" + String.join(", ", table.columns().stream().map(column -> "?").toList()) + ")";
+                try (PreparedStatement statement = connection.prepareStatement(insert)) {
+                    for (Object[] row : table.rows()) {
+                        for (int i = 0; i < row.length; i++) {
+                            statement.setObject(i + 1, row[i]);
+                        }
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    private static List<String> tables(Connection connection) throws SQLException {
+        List<String> tables = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(TABLES)) {
+            while (resultSet.next()) {
+                tables.add(resultSet.getString(1));
+            }
+        }
+        return tables;
+    }
+
+    /*
+    * Generated columns are computed again on the replica
+    * */
+    private static List<String> copiedColumns(Connection connection, String table) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(COPIED_COLUMNS)) {
+            statement.setString(1, table);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    columns.add(resultSet.getString(1));
+                }
+            }
+        }
+        return columns;
+    }
+
+    private static String columnList(List<String> columns) {
+        return String.join(", ", columns.stream().map(LaggingReplicaSync::quote).toList());
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier + '"';
+    }
+
+    private record TableRows(String name, List<String> columns, List<Object[]> rows) {
+    }
+}
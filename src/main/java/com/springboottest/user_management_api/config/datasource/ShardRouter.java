@@ -0,0 +1,148 @@
+package com.springboottest.user_management_api.config.datasource;
+
+import com.springboottest.user_management_api.config.properties.ShardingProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Maps users to shards and runs work against a shard. Without sharding there is exactly
+ * one shard and every call runs inline, so callers do not need a separate code path.
+ *
+ * Users are placed by a hash of their padded SSN, so the per shard unique SSN index is
+ * also global. Shard k hands out ids k+1, k+1+n, k+1+2n..., so the shard of an existing
+ * user follows from its id alone.
+ */
+@Component
+public class ShardRouter {
+
+    private final int shardCount;
+    private final ExecutorService scatterExecutor;
+
+    public ShardRouter(ShardingProperties shardingProperties) {
+        this.shardCount = shardingProperties.isEnabled() ? shardingProperties.getShards().size() : 1;
+        if (shardCount < 1) {
+            throw new IllegalStateException("app.sharding.enabled requires at least one app.sharding.shards entry");
+        }
+        this.scatterExecutor = shardCount > 1
+                ? Executors.newFixedThreadPool(shardCount, runnable -> {
+                    Thread thread = new Thread(runnable, "shard-scatter");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardOfUser(long userId) {
+        return Math.floorMod(userId - 1, shardCount);
+    }
+
+    public int shardOfSsn(String paddedSsn) {
+        // finalizer of SplitMix64, spreads sequential ssns evenly
+        long hash = Long.parseLong(paddedSsn);
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        hash = hash ^ (hash >>> 31);
+        return Math.floorMod(hash, shardCount);
+    }
+
+    /**
+     * Run work with the shard selected, must be called outside a transaction
+     * since a transaction stays on the shard of its first statement
+     */
+    public <T> T onShard(int shard, Supplier<T> work) {
+        if (shardCount == 1) {
+            return work.get();
+        }
+        if (ShardContext.current() != shard && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch to shard " + shard
+                    + " inside a transaction on shard " + ShardContext.current());
+        }
+
+        Integer previous = ShardContext.get();
+
+        ShardContext.set(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardContext.set(previous);
+        }
+    }
+
+    public void runOnShard(int shard, Runnable work) {
+        onShard(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /*
+    * Run work on every shard one after another, results in shard order
+    * */
+    public <T> List<T> onEachShard(IntFunction<T> work) {
+        List<T> results = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int current = shard;
+            results.add(onShard(current, () -> work.apply(current)));
+        }
+        return results;
+    }
+
+    /*
+    * Run work on every shard in parallel, results in shard order
+    * */
+    public <T> List<T> scatter(IntFunction<T> work) {
+        if (shardCount == 1) {
+            return List.of(work.apply(0));
+        }
+
+        List<CompletableFuture<T>> futures = new ArrayList<>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            int current = shard;
+            futures.add(CompletableFuture.supplyAsync(() -> onShard(current, () -> work.apply(current)), scatterExecutor));
+        }
+
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /*
+    * Group user ids by shard keeping their relative order
+    * */
+    public Map<Integer, List<Long>> groupByShard(Collection<Long> userIds) {
+        Map<Integer, List<Long>> groups = new LinkedHashMap<>();
+        for (Long userId : userIds) {
+            groups.computeIfAbsent(shardOfUser(userId), shard -> new ArrayList<>()).add(userId);
+        }
+        return groups;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.springboottest.user_management_api.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.archival")
+public class ArchivalProperties {
+
+    /*
+     * Enable the scheduled archival job
+     * */
+    private boolean enabled = true;
+
+    /*
+     * Users soft-deleted longer than this many days are archived
+     * */
+    private int retentionDays = 30;
+
+    /*
+     * Users moved per transaction
+     * */
+    private int chunkSize = 500;
+
+    /*
+     * Pause between chunks so the job never holds a pooled connection for long
+     * */
+    private long pauseMillis = 200;
+
+    /*
+     * Upper bound on chunks per run, the rest is picked up by the next run
+     * */
+    private int maxChunksPerRun = 100;
+
+    /*
+     * Delay before the first run after startup
+     * */
+    private Duration initialDelay = Duration.ofMinutes(1);
+
+    /*
+     * Delay between the end of one run and the start of the next
+     * */
+    private Duration interval = Duration.ofHours(1);
+}
@@ -0,0 +1,48 @@
+package com.springboottest.user_management_api.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.audit")
+public class AuditProperties {
+
+    /*
+     * Record field level history of users and settings into user_audit_log
+     * */
+    private boolean enabled = true;
+
+    /*
+     * Records waiting for the writer, commits that find it full spill to the file instead of waiting
+     * */
+    private int queueCapacity = 10_000;
+
+    /*
+     * Rows per JDBC batch insert
+     * */
+    private int batchSize = 500;
+
+    /*
+     * Longest the writer waits for a record before checking for shutdown
+     * */
+    private Duration pollInterval = Duration.ofMillis(200);
+
+    /*
+     * Records that could not be queued or written are appended here and inserted later
+     * */
+    private String spillPath = "./data/audit/spill.jsonl";
+
+    /*
+     * Delay between the end of one spill replay and the start of the next
+     * */
+    private Duration replayInterval = Duration.ofMinutes(1);
+
+    /*
+     * Header naming the client, recorded as the actor of its writes
+     * */
+    private String actorHeader = "X-Client-Id";
+}
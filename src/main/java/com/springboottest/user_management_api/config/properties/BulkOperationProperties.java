@@ -0,0 +1,26 @@
+package com.springboottest.user_management_api.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.bulk")
+public class BulkOperationProperties {
+
+    /*
+     * Users touched per transaction
+     * */
+    private int chunkSize = 1000;
+
+    /*
+     * Pause between chunks to leave room for request traffic
+     * */
+    private long pauseMillis = 50;
+
+    /*
+     * Finished jobs kept for status lookups
+     * */
+    private int retainedJobs = 100;
+}
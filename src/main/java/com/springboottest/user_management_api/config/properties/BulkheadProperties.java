@@ -0,0 +1,49 @@
+package com.springboottest.user_management_api.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.bulkhead")
+public class BulkheadProperties {
+
+    /*
+     * Threads serving GET requests. Read and write threads together should not exceed the
+     * connection pool, otherwise one class can still wait on connections the other holds
+     * */
+    private Pool read = new Pool(7, 100, Duration.ofSeconds(2));
+
+    /*
+     * Threads serving every other request
+     * */
+    private Pool write = new Pool(3, 50, Duration.ofSeconds(5));
+
+    @Getter
+    @Setter
+    public static class Pool {
+        private int threads;
+
+        /*
+         * Requests waiting for a thread, beyond this they are rejected with 503
+         * */
+        private int queueCapacity;
+
+        /*
+         * Time from submission after which the request is answered with 503, writes only while still queued
+         * */
+        private Duration deadline;
+
+        public Pool() {
+        }
+
+        public Pool(int threads, int queueCapacity, Duration deadline) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+            this.deadline = deadline;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.springboottest.user_management_api.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.change-feed")
+public class ChangeFeedProperties {
+
+    /*
+     * Recent changes kept in memory, rounded up to a power of two
+     * */
+    private int ringCapacity = 4096;
+
+    /*
+     * Upper bound on changes returned per request
+     * */
+    private int maxPageSize = 500;
+
+    /*
+     * Changes older than this are pruned from the database
+     * */
+    private Duration retention = Duration.ofDays(7);
+
+    /*
+     * How often streaming subscribers are sent new changes
+     * */
+    private Duration streamPollInterval = Duration.ofMillis(250);
+
+    /*
+     * Streams are closed after this long, clients reconnect with their last cursor
+     * */
+    private Duration streamTimeout = Duration.ofMinutes(30);
+}
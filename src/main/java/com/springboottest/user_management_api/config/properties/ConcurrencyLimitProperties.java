@@ -0,0 +1,55 @@
+package com.springboottest.user_management_api.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    /*
+     * GET and HEAD, limited separately so write storms cannot take their slots
+     * */
+    private Limit read = new Limit(40, 8, 400);
+
+    /*
+     * Every other method
+     * */
+    private Limit write = new Limit(20, 4, 200);
+
+    /*
+     * How far the current latency may rise above the baseline before the limit shrinks, 2.0 means double
+     * */
+    private double tolerance = 2.0;
+
+    /*
+     * Fraction of each new estimate applied to the limit, lower is steadier but slower to react
+     * */
+    private double smoothing = 0.2;
+
+    /*
+     * Number of samples the baseline latency averages over
+     * */
+    private int baselineWindow = 600;
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int initialLimit;
+        private int minLimit;
+        private int maxLimit;
+
+        public Limit() {
+        }
+
+        public Limit(int initialLimit, int minLimit, int maxLimit) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+        }
+    }
+}
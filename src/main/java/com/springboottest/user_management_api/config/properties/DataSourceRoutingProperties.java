@@ -0,0 +1,39 @@
+package com.springboottest.user_management_api.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class DataSourceRoutingProperties {
+
+    /*
+     * Send read-only transactions to app.datasource.replica, everything else to app.datasource.primary
+     * */
+    private boolean enabled = false;
+
+    /*
+     * After a client's successful write its reads stay on the primary this long, covers replica lag
+     * */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /*
+     * Set when the replica is a separate local database, the application then copies the primary into it
+     * this long after each user change commits. Unset for a real replica the database keeps in sync
+     * */
+    private Duration replicaLag;
+
+    /*
+     * Header identifying the client, the remote address is used when absent
+     * */
+    private String clientIdHeader = "X-Client-Id";
+
+    /*
+     * Upper bound on clients remembered inside their window
+     * */
+    private int maxTrackedClients = 10_000;
+}
@@ -0,0 +1,78 @@
+package com.springboottest.user_management_api.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.off-heap")
+public class OffHeapStoreProperties {
+
+    /*
+     * Serve the user API from the in-memory off-heap store instead of JPA, see application-off-heap.yaml
+     * */
+    private boolean enabled = false;
+
+    /*
+     * Records per native memory page, rounded up to a power of two
+     * */
+    private int pageRecords = 4096;
+
+    /*
+     * Users the id and ssn indexes are sized for up front, they grow past it
+     * */
+    private int expectedUsers = 100_000;
+
+    /*
+     * Users soft-deleted longer than this are dropped and their slots reused
+     * */
+    private Duration purgeAfter = Duration.ofDays(30);
+
+    /*
+     * Upper bound on users dropped per purge run, the rest is picked up by the next run
+     * */
+    private int purgeBatchSize = 10_000;
+
+    /*
+     * Delay between the end of one purge run and the start of the next
+     * */
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    /*
+     * Event log and snapshots that make the store survive restarts
+     * */
+    private Persistence persistence = new Persistence();
+
+    @Getter
+    @Setter
+    public static class Persistence {
+
+        /*
+         * Journal every mutation and rebuild the store from the latest snapshot plus the log on startup
+         * */
+        private boolean enabled = false;
+
+        /*
+         * Directory holding the log segments and snapshots, owned by one process at a time
+         * */
+        private String directory = "./data/off-heap";
+
+        /*
+         * Size of each memory mapped log segment, one entry is a little over 440 bytes
+         * */
+        private int segmentBytes = 64 * 1024 * 1024;
+
+        /*
+         * How long the sync thread waits for more writers before each fsync, zero syncs right away
+         * */
+        private Duration commitDelay = Duration.ofMillis(1);
+
+        /*
+         * Delay between snapshots, each one lets the log segments it covers go and bounds recovery
+         * */
+        private Duration snapshotInterval = Duration.ofMinutes(10);
+    }
+}
@@ -0,0 +1,57 @@
+package com.springboottest.user_management_api.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+
+    /*
+     * Run the relay, while enabled changes it has not relayed are never pruned
+     * */
+    private boolean enabled = true;
+
+    /*
+     * Sink implementation, memory or file
+     * */
+    private String sink = "memory";
+
+    /*
+     * Events handed to the sink per publish call
+     * */
+    private int batchSize = 200;
+
+    /*
+     * Upper bound on batches per relay run, so one run cannot monopolize the scheduler
+     * */
+    private int maxBatchesPerRun = 50;
+
+    /*
+     * Delay between relay runs
+     * */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /*
+     * Publish attempts per batch before the run gives up and the next run retries
+     * */
+    private int maxAttempts = 5;
+
+    private Duration initialBackoff = Duration.ofMillis(100);
+
+    private Duration maxBackoff = Duration.ofSeconds(5);
+
+    /*
+     * Events the in-memory sink holds before it pushes back on the relay
+     * */
+    private int memoryCapacity = 10_000;
+
+    /*
+     * JSON lines file the file sink appends to
+     * */
+    private String filePath = "./data/outbox/user-events.jsonl";
+}
@@ -0,0 +1,56 @@
+package com.springboottest.user_management_api.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /*
+     * Client identity, the API key wins over the client id, the remote address is the fallback
+     * */
+    private String apiKeyHeader = "X-API-Key";
+    private String clientIdHeader = "X-Client-Id";
+
+    /*
+     * Budget for GET and HEAD requests
+     * */
+    private Budget read = new Budget(200, 100);
+
+    /*
+     * Budget for every other method
+     * */
+    private Budget write = new Budget(50, 20);
+
+    /*
+     * Upper bound on clients with a bucket, idle buckets are dropped first
+     * */
+    private int maxClients = 10_000;
+
+    @Getter
+    @Setter
+    public static class Budget {
+        /*
+         * Burst size
+         * */
+        private long capacity;
+
+        /*
+         * Sustained requests per second
+         * */
+        private double refillPerSecond;
+
+        public Budget() {
+        }
+
+        public Budget(long capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+}
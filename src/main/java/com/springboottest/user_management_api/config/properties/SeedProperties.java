@@ -0,0 +1,51 @@
+package com.springboottest.user_management_api.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.seed")
+public class SeedProperties {
+
+    /*
+     * Generate the synthetic dataset below on startup, see the seed profile
+     * */
+    private boolean enabled = false;
+
+    /*
+     * Exit once the dataset is written instead of serving requests
+     * */
+    private boolean exitWhenDone = true;
+
+    /*
+     * Users to generate, on top of any already in the database
+     * */
+    private long users = 1_000_000;
+
+    /*
+     * Share of generated users that are soft-deleted
+     * */
+    private double deletedRatio = 0.1;
+
+    /*
+     * Random seed, the same seed and users always give the same dataset
+     * */
+    private long seed = 42;
+
+    /*
+     * Generated ssns are this number plus the user's position in the run, padded to 16 digits
+     * */
+    private long ssnBase = 7_000_000_000_000_000L;
+
+    /*
+     * Users per JDBC batch and transaction
+     * */
+    private int batchSize = 5000;
+
+    /*
+     * Connections writing in parallel
+     * */
+    private int writers = Math.min(4, Runtime.getRuntime().availableProcessors());
+}
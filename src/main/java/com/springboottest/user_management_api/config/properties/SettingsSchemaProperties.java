@@ -0,0 +1,23 @@
+package com.springboottest.user_management_api.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.settings-schema")
+public class SettingsSchemaProperties {
+
+    /*
+     * JSON file of setting definitions, the built-in UserSettingKey settings apply while empty
+     * */
+    private String path = "";
+
+    /*
+     * How often the file is checked for changes, a changed file replaces the schema without a restart
+     * */
+    private Duration reloadInterval = Duration.ofSeconds(10);
+}
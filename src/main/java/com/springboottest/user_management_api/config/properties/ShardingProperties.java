@@ -0,0 +1,39 @@
+package com.springboottest.user_management_api.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    /*
+     * Spread users over the shards below instead of the single spring.datasource
+     * */
+    private boolean enabled = false;
+
+    /*
+     * Shard databases, the position in this list is the shard number and must never change
+     * */
+    private List<Shard> shards = new ArrayList<>();
+
+    /*
+     * Deepest user an offset page may reach, every shard reads all users up to it.
+     * Deeper pages are read with the after_id cursor
+     * */
+    private int maxOffsetRows = 10_000;
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,18 @@
+package com.springboottest.user_management_api.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.single-flight")
+public class SingleFlightProperties {
+
+    /*
+     * How long a request waits on another request's load of the same user before loading it itself
+     * */
+    private Duration followerTimeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,27 @@
+package com.springboottest.user_management_api.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.startup")
+public class StartupProperties {
+
+    private Training training = new Training();
+
+    @Getter
+    @Setter
+    public static class Training {
+        /*
+         * Drive the user endpoints once ready and exit, used to record the JDK startup cache
+         * */
+        private boolean enabled = false;
+
+        /*
+         * Rounds of calls over every endpoint, enough for the hot paths to be loaded and profiled
+         * */
+        private int iterations = 50;
+    }
+}
@@ -0,0 +1,54 @@
+package com.springboottest.user_management_api.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.traffic-capture")
+public class TrafficCaptureProperties {
+
+    /*
+     * Record user API requests for replay, off unless asked for
+     * */
+    private boolean enabled = false;
+
+    /*
+     * Append-only trace file, one JSON line per request
+     * */
+    private String filePath = "./data/traffic/capture.jsonl";
+
+    /*
+     * Share of requests recorded, 1.0 records all of them
+     * */
+    private double sampleRate = 1.0;
+
+    /*
+     * Traces waiting for the writer, further ones are dropped rather than slowing requests down
+     * */
+    private int queueCapacity = 10_000;
+
+    /*
+     * Request bodies above this size are recorded by hash only
+     * */
+    private int maxBodyBytes = 4096;
+
+    /*
+     * Body fields whose value never reaches the trace file, at any depth
+     * */
+    private List<String> maskedFields = new ArrayList<>(List.of("ssn"));
+
+    /*
+     * Header identifying the client, recorded hashed so replay keeps the per-client skew
+     * */
+    private String clientIdHeader = "X-Client-Id";
+
+    /*
+     * Secret keying the client and body hashes, blank draws a random key per run
+     * */
+    private String hashKey = "";
+}
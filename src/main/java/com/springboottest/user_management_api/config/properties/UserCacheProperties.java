@@ -0,0 +1,45 @@
+package com.springboottest.user_management_api.config.properties;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.user-cache")
+public class UserCacheProperties {
+
+    /*
+     * Serve single user reads from an in-memory cache invalidated by the change feed
+     * */
+    private boolean enabled = false;
+
+    /*
+     * Users held at most, the coldest tenth is evicted when it fills up
+     * */
+    private int maxEntries = 100_000;
+
+    /*
+     * Longest a user is served from the cache after it was loaded. Writes through this instance
+     * invalidate at once, writes through other instances are seen at the latest after this.
+     * Zero keeps users until invalidated, only correct with a single writing instance
+     * */
+    private Duration ttl = Duration.ofSeconds(30);
+
+    /*
+     * Where the hot set is exported to and warmed from on startup
+     * */
+    private String snapshotPath = "./data/cache/user-cache.bin";
+
+    /*
+     * Most read users written to each snapshot
+     * */
+    private int snapshotEntries = 50_000;
+
+    /*
+     * Delay between the end of one export and the start of the next, one more runs on shutdown
+     * */
+    private Duration snapshotInterval = Duration.ofMinutes(5);
+}
@@ -0,0 +1,50 @@
+package com.springboottest.user_management_api.controller;
+
+import com.springboottest.user_management_api.dto.request.BulkUpdateSettingsRequest;
+import com.springboottest.user_management_api.dto.response.BulkOperationResponse;
+import com.springboottest.user_management_api.service.interfaces.BulkSettingsService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/v1/admin/users")
+@RequiredArgsConstructor
+@Validated
+public class AdminUserController {
+
+    private final BulkSettingsService bulkSettingsService;
+
+    /**
+     * PUT /v1/admin/users/settings - Apply settings to a cohort of users in the background
+     * */
+    @PutMapping("/settings")
+    public ResponseEntity<BulkOperationResponse> bulkUpdateSettings(
+            @Valid @RequestBody BulkUpdateSettingsRequest request
+    ) {
+        log.info("PUT /v1/admin/users/settings - createdAfter: {}, createdBefore: {}",
+                request.getCreatedAfter(), request.getCreatedBefore());
+        BulkOperationResponse response = bulkSettingsService.startBulkUpdate(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
+    /**
+     * GET /v1/admin/users/settings/jobs/{jobId} - Get progress of a bulk settings job
+     * */
+    @GetMapping("/settings/jobs/{jobId}")
+    public ResponseEntity<BulkOperationResponse> getBulkUpdateStatus(@PathVariable String jobId) {
+        log.info("GET /v1/admin/users/settings/jobs/{}", jobId);
+        BulkOperationResponse response = bulkSettingsService.getBulkUpdateStatus(jobId);
+        return ResponseEntity.ok(response);
+    }
+}
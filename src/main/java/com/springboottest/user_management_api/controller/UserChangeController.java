@@ -0,0 +1,56 @@
+package com.springboottest.user_management_api.controller;
+
+import com.springboottest.user_management_api.dto.response.UserChangesResponse;
+import com.springboottest.user_management_api.service.interfaces.ChangeFeedService;
+import com.springboottest.user_management_api.service.interfaces.ChangeFeedStreamService;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Slf4j
+@RestController
+@RequestMapping("/v1/users/changes")
+@RequiredArgsConstructor
+@Validated
+public class UserChangeController {
+
+    private final ChangeFeedService changeFeedService;
+    private final ChangeFeedStreamService changeFeedStreamService;
+
+    /**
+     * GET /v1/users/changes?cursor= - Get user changes committed after the cursor, in seq order
+     * */
+    @GetMapping
+    public ResponseEntity<UserChangesResponse> getChanges(
+            @RequestParam(name = "cursor", defaultValue = "0") @Min(0) long cursor,
+            @RequestParam(name = "limit", defaultValue = "100") @Min(1) @Max(500) int limit
+    ) {
+        log.info("GET /v1/users/changes - cursor: {}, limit: {}", cursor, limit);
+        UserChangesResponse response = changeFeedService.getChanges(cursor, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * GET /v1/users/changes/stream?cursor= - Stream user changes as server-sent events,
+     * reconnecting clients resume from Last-Event-ID
+     * */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(name = "cursor", defaultValue = "0") @Min(0) long cursor,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        long from = lastEventId != null ? lastEventId : cursor;
+        log.info("GET /v1/users/changes/stream - cursor: {}", from);
+        return changeFeedStreamService.subscribe(from);
+    }
+}
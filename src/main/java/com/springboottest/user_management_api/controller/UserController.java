@@ -3,13 +3,27 @@ package com.springboottest.user_management_api.controller;
 import com.springboottest.user_management_api.dto.request.CreateUserRequest;
 import com.springboottest.user_management_api.dto.request.UpdateUserRequest;
 import com.springboottest.user_management_api.dto.request.UpdateUserSettingsRequest;
+import com.springboottest.user_management_api.dto.request.UserIdsRequest;
+import com.springboottest.user_management_api.dto.response.BulkUserResultResponse;
+import com.springboottest.user_management_api.dto.response.UserBatchResponse;
+import com.springboottest.user_management_api.dto.response.UserCountResponse;
 import com.springboottest.user_management_api.dto.response.UserListResponse;
 import com.springboottest.user_management_api.dto.response.UserResponse;
+import com.springboottest.user_management_api.dto.response.UserSettingsResponse;
+import com.springboottest.user_management_api.exception.InvalidRequestException;
 import com.springboottest.user_management_api.service.interfaces.UserService;
+import com.springboottest.user_management_api.util.Bulkhead;
+import com.springboottest.user_management_api.util.ResponseUtil;
+import com.springboottest.user_management_api.util.enums.UserField;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -19,10 +33,20 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/*
+ * Handlers return at once and run their UserService call on the read or write bulkhead,
+ * the Tomcat thread is free again until the response is ready to be written
+ * */
 @Slf4j
 @RestController
 @RequestMapping("/v1/users")
@@ -30,85 +54,198 @@ import org.springframework.web.bind.annotation.RestController;
 @Validated
 public class UserController {
 
+    private static final String SETTINGS_FORMAT_OBJECT = "object";
+    private static final String SETTINGS_FORMAT_LIST = "list";
+
     private final UserService userService;
+    private final Bulkhead readBulkhead;
+    private final Bulkhead writeBulkhead;
 
     /**
-     * GET /v1/users - Get paginated list of active users
+     * GET /v1/users - Get paginated list of active users, fields=id,first_name selects only those.
+     * after_id pages by cursor instead of offset, each response carries the next_after_id to pass on
      * */
     @GetMapping
-    public ResponseEntity<UserListResponse> getAllUsers(
+    public CompletableFuture<ResponseEntity<UserListResponse>> getAllUsers(
             @RequestParam(name = "max_records", defaultValue = "5") @Min(1) int maxRecords,
-            @RequestParam(name = "offset", defaultValue = "0") @Min(0) int offset
+            @RequestParam(name = "offset", defaultValue = "0") @Min(0) int offset,
+            @RequestParam(name = "after_id", required = false) @Min(0) Long afterId,
+            @RequestParam(name = "include_total", defaultValue = "false") boolean includeTotal,
+            @RequestParam(name = "fields", required = false) String fields
     ) {
 
-        log.info("GET /v1/users - maxRecords: {}, offset: {}", maxRecords, offset);
-        UserListResponse response = userService.getAllUsers(maxRecords, offset);
-        return ResponseEntity.ok(response);
+        log.info("GET /v1/users - maxRecords: {}, offset: {}, afterId: {}", maxRecords, offset, afterId);
+        Set<UserField> fieldSet = fields != null ? UserField.parse(fields, false) : null;
+        if (afterId != null) {
+            if (offset != 0) {
+                throw new InvalidRequestException("offset and after_id cannot be combined");
+            }
+            return readBulkhead.submit(() -> ResponseEntity.ok(fieldSet == null
+                    ? userService.getUsersAfter(afterId, maxRecords, includeTotal)
+                    : userService.getUsersAfter(afterId, maxRecords, includeTotal, fieldSet)));
+        }
+        // the first row of the page must stay addressable as an int
+        if ((long) offset * maxRecords > Integer.MAX_VALUE - maxRecords) {
+            throw new InvalidRequestException("offset is out of range, page further with after_id");
+        }
+
+        if (fieldSet == null) {
+            return readBulkhead.submit(() -> ResponseEntity.ok(userService.getAllUsers(maxRecords, offset, includeTotal)));
+        }
+
+        return readBulkhead.submit(() ->
+                ResponseEntity.ok(userService.getAllUsers(maxRecords, offset, includeTotal, fieldSet)));
     }
 
     /**
-     * GET /v1/users/{id} - Get user by ID with settings
+     * GET /v1/users/count - Get number of active users
+     * */
+    @GetMapping("/count")
+    public CompletableFuture<ResponseEntity<UserCountResponse>> getActiveUserCount() {
+        log.info("GET /v1/users/count");
+        return readBulkhead.submit(() -> ResponseEntity.ok(UserCountResponse.builder()
+                .total(userService.getActiveUserCount())
+                .build()));
+    }
+
+    /**
+     * GET /v1/users/{id} - Get user by ID with settings, fields=id,user_settings selects only those
      * */
     @GetMapping("/{id}")
-    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<UserResponse>> getUserById(
+            @PathVariable Long id,
+            @RequestParam(name = "fields", required = false) String fields
+    ) {
         log.info("GET /v1/users/{}", id);
-        UserResponse response = userService.getUserById(id);
-        return ResponseEntity.ok(response);
+        if (fields == null) {
+            return readBulkhead.submit(() -> ResponseEntity.ok(userService.getUserById(id)));
+        }
+
+        Set<UserField> fieldSet = UserField.parse(fields, true);
+        return readBulkhead.submit(() -> ResponseEntity.ok(userService.getUserById(id, fieldSet)));
+    }
+
+    /**
+     * GET /v1/users/{id}/settings - Get only the settings of a user, as one object or with
+     * format=list in the list of maps shape, answered 304 when If-None-Match names its ETag
+     * */
+    @GetMapping("/{id}/settings")
+    public CompletableFuture<ResponseEntity<UserSettingsResponse>> getUserSettings(
+            @PathVariable Long id,
+            @RequestParam(name = "format", defaultValue = SETTINGS_FORMAT_OBJECT)
+            @Pattern(regexp = SETTINGS_FORMAT_OBJECT + "|" + SETTINGS_FORMAT_LIST) String format,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        log.info("GET /v1/users/{}/settings - format: {}", id, format);
+        return readBulkhead.submit(() -> {
+            Map<String, String> settings = userService.getUserSettings(id);
+            String eTag = ResponseUtil.settingsETag(settings, format);
+            if (ResponseUtil.matchesETag(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache())
+                        .build();
+            }
+
+            UserSettingsResponse.UserSettingsResponseBuilder response = UserSettingsResponse.builder().userId(id);
+            if (SETTINGS_FORMAT_LIST.equals(format)) {
+                response.userSettings(settings.entrySet().stream()
+                        .map(setting -> Map.of(setting.getKey(), setting.getValue()))
+                        .toList());
+            } else {
+                response.settings(settings);
+            }
+            return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(response.build());
+        });
+    }
+
+    /**
+     * GET /v1/users?ids=1,2,3 - Get many active users by ID with settings
+     * */
+    @GetMapping(params = "ids")
+    public CompletableFuture<ResponseEntity<UserBatchResponse>> getUsersByIds(
+            @RequestParam(name = "ids") @NotEmpty @Size(max = UserIdsRequest.MAX_IDS) List<Long> ids
+    ) {
+        log.info("GET /v1/users - ids: {}", ids.size());
+        return readBulkhead.submit(() -> ResponseEntity.ok(userService.getUsersByIds(ids)));
+    }
+
+    /**
+     * POST /v1/users/lookup - Get many active users by ID, for id lists too long for a query string
+     * */
+    @PostMapping("/lookup")
+    public CompletableFuture<ResponseEntity<UserBatchResponse>> lookupUsers(@Valid @RequestBody UserIdsRequest request) {
+        log.info("POST /v1/users/lookup - ids: {}", request.getIds().size());
+        return readBulkhead.submit(() -> ResponseEntity.ok(userService.getUsersByIds(request.getIds())));
     }
 
     /**
      * POST /v1/users - Create new user
      * */
     @PostMapping
-    public ResponseEntity<UserResponse> createUser(@Valid @RequestBody CreateUserRequest request) {
+    public CompletableFuture<ResponseEntity<UserResponse>> createUser(@Valid @RequestBody CreateUserRequest request) {
         log.info("POST /v1/users - Creating user with SSN: {}", request.getSsn());
-        UserResponse response = userService.createUser(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        return writeBulkhead.submit(() -> ResponseEntity.status(HttpStatus.CREATED).body(userService.createUser(request)));
     }
 
     /**
      * PUT /v1/users/{id} - Update user
      * */
     @PutMapping("/{id}")
-    public ResponseEntity<UserResponse> updateUser(
+    public CompletableFuture<ResponseEntity<UserResponse>> updateUser(
             @PathVariable Long id,
             @Valid @RequestBody UpdateUserRequest request
     ) {
         log.info("PUT /v1/users/{}", id);
-        UserResponse response = userService.updateUser(id, request);
-        return ResponseEntity.ok(response);
+        return writeBulkhead.submit(() -> ResponseEntity.ok(userService.updateUser(id, request)));
     }
 
     /**
      * PUT /v1/users/{id}/settings - Update user settings
      * */
     @PutMapping("/{id}/settings")
-    public ResponseEntity<UserResponse> updateUserSettings(
+    public CompletableFuture<ResponseEntity<UserResponse>> updateUserSettings(
             @PathVariable Long id,
             @Valid @RequestBody UpdateUserSettingsRequest request
     ) {
         log.info("PUT /v1/users/{}/settings", id);
-        UserResponse response = userService.updateUserSettings(id, request.getSettings());
-        return ResponseEntity.ok(response);
+        return writeBulkhead.submit(() -> ResponseEntity.ok(userService.updateUserSettings(id, request.getSettings())));
     }
 
     /**
      * DELETE /v1/users/{id} - Soft delete user
      * */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<Void>> deleteUser(@PathVariable Long id) {
         log.info("DELETE /v1/users/{}", id);
-        userService.deleteUser(id);
-        return ResponseEntity.noContent().build();
+        return writeBulkhead.submit(() -> {
+            userService.deleteUser(id);
+            return ResponseEntity.noContent().build();
+        });
     }
 
     /**
      * PUT /v1/users/{id}/refresh - Restore soft-deleted user
      * */
     @PutMapping("/{id}/refresh")
-    public ResponseEntity<UserResponse> restoreUser(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<UserResponse>> restoreUser(@PathVariable Long id) {
         log.info("PUT /v1/users/{}/refresh", id);
-        UserResponse response = userService.restoreUser(id);
-        return ResponseEntity.ok(response);
+        return writeBulkhead.submit(() -> ResponseEntity.ok(userService.restoreUser(id)));
+    }
+
+    /**
+     * POST /v1/users/bulk-delete - Soft delete many users
+     * */
+    @PostMapping("/bulk-delete")
+    public CompletableFuture<ResponseEntity<BulkUserResultResponse>> deleteUsers(@Valid @RequestBody UserIdsRequest request) {
+        log.info("POST /v1/users/bulk-delete - ids: {}", request.getIds().size());
+        return writeBulkhead.submit(() -> ResponseEntity.ok(userService.deleteUsers(request.getIds())));
+    }
+
+    /**
+     * POST /v1/users/bulk-restore - Restore many soft-deleted users
+     * */
+    @PostMapping("/bulk-restore")
+    public CompletableFuture<ResponseEntity<BulkUserResultResponse>> restoreUsers(@Valid @RequestBody UserIdsRequest request) {
+        log.info("POST /v1/users/bulk-restore - ids: {}", request.getIds().size());
+        return writeBulkhead.submit(() -> ResponseEntity.ok(userService.restoreUsers(request.getIds())));
     }
 }
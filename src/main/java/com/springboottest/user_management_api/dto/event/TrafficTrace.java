@@ -0,0 +1,57 @@
+package com.springboottest.user_management_api.dto.event;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TrafficTrace {
+
+    /*
+     * Value written in place of masked body fields
+     * */
+    public static final String MASK = "***";
+
+    /*
+     * Arrival time in microseconds since the epoch, replay keeps the gaps between traces
+     * */
+    @JsonProperty("at")
+    private Long arrivalMicros;
+
+    private String method;
+
+    private String path;
+
+    private String query;
+
+    /*
+     * Hash of the client id header or remote address
+     * */
+    private String client;
+
+    /*
+     * Request body with the masked fields replaced, absent for bodies that are not JSON or too large
+     * */
+    private String body;
+
+    /*
+     * Hash of the original body, or of its first max-body-bytes for larger ones,
+     * tells identical requests apart without keeping their content
+     * */
+    @JsonProperty("body_hash")
+    private String bodyHash;
+
+    private Integer status;
+
+    @JsonProperty("micros")
+    private Long durationMicros;
+}
@@ -0,0 +1,47 @@
+package com.springboottest.user_management_api.dto.event;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/*
+ * One changed field of a user or one of their settings. Also the line format of the spill file
+ * */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserAuditRecord {
+
+    @JsonProperty("user_id")
+    private Long userId;
+
+    @JsonProperty("entity_type")
+    private String entityType;
+
+    @JsonProperty("entity_id")
+    private Long entityId;
+
+    /*
+     * Entity property for users, the setting key for settings
+     * */
+    @JsonProperty("field_name")
+    private String fieldName;
+
+    @JsonProperty("old_value")
+    private String oldValue;
+
+    @JsonProperty("new_value")
+    private String newValue;
+
+    private String actor;
+
+    @JsonProperty("changed_time")
+    private Instant changedTime;
+}
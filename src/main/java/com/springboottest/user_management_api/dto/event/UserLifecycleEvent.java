@@ -0,0 +1,32 @@
+package com.springboottest.user_management_api.dto.event;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserLifecycleEvent {
+
+    /*
+     * Change feed seq, increasing in delivery order, consumers dedupe redeliveries on it
+     * */
+    @JsonProperty("event_id")
+    private Long eventId;
+
+    @JsonProperty("user_id")
+    private Long userId;
+
+    private String type;
+
+    @JsonProperty("occurred_time")
+    private Instant occurredTime;
+}
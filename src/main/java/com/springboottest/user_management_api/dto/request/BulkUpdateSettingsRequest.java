@@ -0,0 +1,44 @@
+package com.springboottest.user_management_api.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.springboottest.user_management_api.util.validator.annotation.user_settings.UserSettingKeyValidator;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkUpdateSettingsRequest {
+
+    @NotEmpty(message = "Settings map is required")
+    @UserSettingKeyValidator
+    private List<Map<String, String>> settings;
+
+    /*
+     * Only users created at or after this time, unbounded when absent
+     * */
+    @JsonProperty("created_after")
+    private Instant createdAfter;
+
+    /*
+     * Only users created before this time, unbounded when absent
+     * */
+    @JsonProperty("created_before")
+    private Instant createdBefore;
+
+    /*
+     * Also update soft-deleted users
+     * */
+    @JsonProperty("include_deleted")
+    private boolean includeDeleted;
+}
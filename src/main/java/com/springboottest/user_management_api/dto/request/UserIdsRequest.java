@@ -0,0 +1,26 @@
+package com.springboottest.user_management_api.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserIdsRequest {
+
+    public static final int MAX_IDS = 500;
+
+    @NotEmpty(message = "Ids are required")
+    @Size(max = MAX_IDS, message = "At most 500 ids can be requested at once")
+    private List<@NotNull Long> ids;
+}
@@ -0,0 +1,45 @@
+package com.springboottest.user_management_api.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOperationResponse {
+
+    @JsonProperty("job_id")
+    private String jobId;
+
+    private String status;
+
+    @JsonProperty("total_users")
+    private Long totalUsers;
+
+    @JsonProperty("processed_users")
+    private Long processedUsers;
+
+    @JsonProperty("updated_settings")
+    private Long updatedSettings;
+
+    @JsonProperty("created_settings")
+    private Long createdSettings;
+
+    @JsonProperty("started_time")
+    private Instant startedTime;
+
+    @JsonProperty("finished_time")
+    private Instant finishedTime;
+
+    private String error;
+}
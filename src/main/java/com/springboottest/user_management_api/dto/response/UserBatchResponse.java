@@ -0,0 +1,26 @@
+package com.springboottest.user_management_api.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserBatchResponse {
+
+    private List<UserResponse> users;
+
+    /*
+     * Requested ids with no active user
+     * */
+    @JsonProperty("missing_ids")
+    private List<Long> missingIds;
+}
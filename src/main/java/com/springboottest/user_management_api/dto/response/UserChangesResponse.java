@@ -0,0 +1,44 @@
+package com.springboottest.user_management_api.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserChangesResponse {
+
+    private List<Change> changes;
+
+    /*
+     * Pass back as cursor to continue after the last returned change
+     * */
+    @JsonProperty("next_cursor")
+    private Long nextCursor;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Change {
+        private Long seq;
+
+        @JsonProperty("user_id")
+        private Long userId;
+
+        private String type;
+
+        @JsonProperty("changed_time")
+        private Instant changedTime;
+    }
+}
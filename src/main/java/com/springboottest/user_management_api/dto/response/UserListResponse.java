@@ -1,5 +1,6 @@
 package com.springboottest.user_management_api.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -23,4 +24,23 @@ public class UserListResponse {
     private Integer maxRecords;
 
     private Integer offset;
+
+    /*
+     * Cursor the page was read after, only set when paging by after_id
+     * */
+    @JsonProperty("after_id")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long afterId;
+
+    /*
+     * Cursor for the next page, the id of the last user when the page is full
+     * */
+    @JsonProperty("next_after_id")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long nextAfterId;
+
+    /*
+     * Total active users, only set when requested
+     * */
+    private Long total;
 }
@@ -0,0 +1,33 @@
+package com.springboottest.user_management_api.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Settings of one user, either as one object of key to value or in the list of single entry
+ * maps shape of UserResponse. Only one of the two is set
+ * */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserSettingsResponse {
+
+    @JsonProperty("user_id")
+    private Long userId;
+
+    private Map<String, String> settings;
+
+    @JsonProperty("user_settings")
+    private List<Map<String, String>> userSettings;
+}
@@ -0,0 +1,33 @@
+package com.springboottest.user_management_api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "outbox_relay_offsets")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxRelayOffset {
+
+    @Id
+    @Column(name = "relay_name", length = 50)
+    private String relayName;
+
+    @Column(name = "last_seq", nullable = false)
+    private Long lastSeq;
+
+    @Column(name = "updated_time", nullable = false)
+    private Instant updatedTime;
+}
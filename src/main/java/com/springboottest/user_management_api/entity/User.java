@@ -14,6 +14,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -55,7 +56,13 @@ public class User extends BaseEntity {
     @Column(name = "deleted_time")
     private Instant deletedTime;
 
+    // generated by the database, holds the id only while the user is active
+    @Column(name = "active_id", insertable = false, updatable = false)
+    private Long activeId;
+
+    // settings of users loaded together are initialized with one IN query per batch
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     @Builder.Default
     private List<UserSetting> userSettings = new ArrayList<>();
 
@@ -0,0 +1,67 @@
+package com.springboottest.user_management_api.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/*
+ * Archived copy of a soft-deleted user, rows are written and removed in bulk by
+ * UserArchiveRepository so the entity is only used for reads
+ * */
+@Getter
+@Setter
+@Entity
+@Table(name = "users_archive")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "ssn", nullable = false, unique = true, length = 16)
+    private String ssn;
+
+    @Column(name = "first_name", nullable = false, length = 100)
+    private String firstName;
+
+    @Column(name = "middle_name", length = 100)
+    private String middleName;
+
+    @Column(name = "family_name", nullable = false, length = 100)
+    private String familyName;
+
+    @Column(name = "birth_date", nullable = false)
+    private LocalDate birthDate;
+
+    @Column(name = "is_active", nullable = false)
+    private Boolean isActive;
+
+    @Column(name = "deleted_time")
+    private Instant deletedTime;
+
+    @Column(name = "created_time", nullable = false)
+    private Instant createdTime;
+
+    @Column(name = "updated_time", nullable = false)
+    private Instant updatedTime;
+
+    @Column(name = "created_by", nullable = false, length = 100)
+    private String createdBy;
+
+    @Column(name = "updated_by", nullable = false, length = 100)
+    private String updatedBy;
+
+    @Column(name = "archived_time", nullable = false)
+    private Instant archivedTime;
+}
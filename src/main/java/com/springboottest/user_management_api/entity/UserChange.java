@@ -0,0 +1,41 @@
+package com.springboottest.user_management_api.entity;
+
+import com.springboottest.user_management_api.util.enums.UserChangeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "user_changes")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserChange {
+
+    // assigned by ChangeFeedService at commit time, not generated
+    @Id
+    @Column(name = "seq")
+    private Long seq;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 20)
+    private UserChangeType changeType;
+
+    @Column(name = "changed_time", nullable = false)
+    private Instant changedTime;
+}
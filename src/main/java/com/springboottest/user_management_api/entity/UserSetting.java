@@ -9,6 +9,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -16,7 +17,9 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "user_settings")
+@Table(name = "user_settings", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_settings_user_key", columnNames = {"user_id", "setting_key"})
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,14 @@
+package com.springboottest.user_management_api.exception;
+
+import lombok.Getter;
+
+@Getter
+public class DeadlineExceededException extends RuntimeException {
+
+    private final long deadlineMillis;
+
+    public DeadlineExceededException(long deadlineMillis) {
+        super(String.format("Request did not complete within %d ms", deadlineMillis));
+        this.deadlineMillis = deadlineMillis;
+    }
+}
@@ -0,0 +1,14 @@
+package com.springboottest.user_management_api.exception;
+
+import lombok.Getter;
+
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final String priority;
+
+    public ServiceOverloadedException(String priority) {
+        super(String.format("Too many concurrent %s requests", priority));
+        this.priority = priority;
+    }
+}
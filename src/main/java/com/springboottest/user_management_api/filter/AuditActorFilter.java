@@ -0,0 +1,38 @@
+package com.springboottest.user_management_api.filter;
+
+import com.springboottest.user_management_api.config.properties.AuditProperties;
+import com.springboottest.user_management_api.util.AuditActorContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/*
+ * Makes the client named by the actor header the actor of everything the request writes.
+ * A request without the header acts as ANONYMOUS, never as SYSTEM
+ * */
+public class AuditActorFilter extends OncePerRequestFilter {
+
+    static final String ANONYMOUS = "ANONYMOUS";
+
+    private final AuditProperties auditProperties;
+
+    public AuditActorFilter(AuditProperties auditProperties) {
+        this.auditProperties = auditProperties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String actor = request.getHeader(auditProperties.getActorHeader());
+        AuditActorContext.set(actor != null && !actor.isBlank() ? actor : ANONYMOUS);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            AuditActorContext.clear();
+        }
+    }
+}
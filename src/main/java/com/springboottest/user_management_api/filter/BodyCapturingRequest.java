@@ -0,0 +1,100 @@
+package com.springboottest.user_management_api.filter;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Reads up to limit bytes of the body up front and hands them to the application followed by
+ * the rest of the stream, so the captured prefix exists even when nothing downstream reads the body.
+ * Non-blocking reads see the captured prefix as ready data; a body captured whole is reported
+ * complete to the listener at once, otherwise the listener is passed on to the wrapped stream.
+ * */
+class BodyCapturingRequest extends HttpServletRequestWrapper {
+
+    private final byte[] captured;
+    private final boolean complete;
+    private ServletInputStream inputStream;
+    private BufferedReader reader;
+
+    BodyCapturingRequest(HttpServletRequest request, int limit) throws IOException {
+        super(request);
+        this.captured = request.getContentLengthLong() == 0 ? new byte[0] : request.getInputStream().readNBytes(limit);
+        // readNBytes only stops short of limit at the end of the stream
+        this.complete = captured.length < limit;
+    }
+
+    /*
+    * Up to limit bytes of the body, a body of exactly limit bytes may have been cut off
+    * */
+    byte[] getCapturedBody() {
+        return captured;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (inputStream == null) {
+            ByteArrayInputStream prefix = new ByteArrayInputStream(captured);
+            ServletInputStream rest = super.getInputStream();
+            InputStream body = new SequenceInputStream(prefix, rest);
+            inputStream = new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return body.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    return body.read(buffer, offset, length);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return prefix.available() == 0 && (complete || rest.isFinished());
+                }
+
+                @Override
+                public boolean isReady() {
+                    return prefix.available() > 0 || complete || rest.isReady();
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    if (!complete) {
+                        rest.setReadListener(readListener);
+                        return;
+                    }
+                    try {
+                        if (prefix.available() > 0) {
+                            readListener.onDataAvailable();
+                        }
+                        readListener.onAllDataRead();
+                    } catch (IOException | RuntimeException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (reader == null) {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+            reader = new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+        return reader;
+    }
+}
@@ -0,0 +1,145 @@
+package com.springboottest.user_management_api.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboottest.user_management_api.config.properties.ConcurrencyLimitProperties;
+import com.springboottest.user_management_api.util.AdaptiveConcurrencyLimiter;
+import com.springboottest.user_management_api.util.enums.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Sheds user API requests with 503 once more are in flight than the adaptive limit of their
+ * class allows, so a slow database queues work at the client instead of in Tomcat and the pool
+ * */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final Counter shedReads;
+    private final Counter shedWrites;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.readLimiter = limiter(properties, properties.getRead());
+        this.writeLimiter = limiter(properties, properties.getWrite());
+        this.shedReads = register(meterRegistry, "read", readLimiter);
+        this.shedWrites = register(meterRegistry, "write", writeLimiter);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean read = RequestClassifier.isRead(request);
+        AdaptiveConcurrencyLimiter limiter = read ? readLimiter : writeLimiter;
+
+        if (!limiter.tryAcquire()) {
+            (read ? shedReads : shedWrites).increment();
+            FilterErrorResponses.write(response, objectMapper, HttpStatus.SERVICE_UNAVAILABLE, 1,
+                    ErrorCode.SERVICE_OVERLOADED.getCode(),
+                    ErrorCode.SERVICE_OVERLOADED.formatMessage(read ? "read" : "write"));
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(limiter, start));
+            } else if (completed) {
+                limiter.release(System.nanoTime() - start);
+            } else {
+                limiter.release();
+            }
+        }
+    }
+
+    /*
+    * The change stream holds its request open for minutes by design, it must not occupy a read slot
+    * */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().endsWith("/changes/stream");
+    }
+
+    public AdaptiveConcurrencyLimiter getReadLimiter() {
+        return readLimiter;
+    }
+
+    public AdaptiveConcurrencyLimiter getWriteLimiter() {
+        return writeLimiter;
+    }
+
+    private static AdaptiveConcurrencyLimiter limiter(ConcurrencyLimitProperties properties,
+                                                      ConcurrencyLimitProperties.Limit limit) {
+        return new AdaptiveConcurrencyLimiter(limit.getInitialLimit(), limit.getMinLimit(), limit.getMaxLimit(),
+                properties.getTolerance(), properties.getSmoothing(), properties.getBaselineWindow());
+    }
+
+    private static Counter register(MeterRegistry meterRegistry, String priority, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("priority", priority)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("priority", priority)
+                .register(meterRegistry);
+        return Counter.builder("concurrency.shed").tag("priority", priority).register(meterRegistry);
+    }
+
+    /*
+    * Async requests hold their slot until the response is complete, not until the Tomcat thread is returned
+    * */
+    private static class ReleaseOnComplete implements AsyncListener {
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private ReleaseOnComplete(AdaptiveConcurrencyLimiter limiter, long start) {
+            this.limiter = limiter;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            if (released.compareAndSet(false, true)) {
+                limiter.release();
+            }
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
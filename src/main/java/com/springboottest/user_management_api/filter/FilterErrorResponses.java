@@ -0,0 +1,35 @@
+package com.springboottest.user_management_api.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboottest.user_management_api.dto.response.ErrorResponse;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.util.List;
+
+/*
+ * Filters reject before a handler exists, so GlobalExceptionHandler never sees them.
+ * This renders the same ErrorResponse shape directly
+ * */
+final class FilterErrorResponses {
+
+    private FilterErrorResponses() {
+    }
+
+    static void write(HttpServletResponse response, ObjectMapper objectMapper, HttpStatus status,
+                      long retryAfterSeconds, int code, String message) throws IOException {
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .status(status.name())
+                .code(code)
+                .message(List.of(message))
+                .build();
+
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
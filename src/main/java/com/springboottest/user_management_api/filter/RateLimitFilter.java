@@ -0,0 +1,124 @@
+package com.springboottest.user_management_api.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboottest.user_management_api.config.properties.RateLimitProperties;
+import com.springboottest.user_management_api.util.TokenBucket;
+import com.springboottest.user_management_api.util.enums.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Per client token buckets with separate read and write budgets, rejecting with 429 once a
+ * client has used its budget so one client cannot hold every request thread and connection
+ * */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties rateLimitProperties;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, ClientBuckets> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final Counter rejectedReads;
+    private final Counter rejectedWrites;
+
+    public RateLimitFilter(RateLimitProperties rateLimitProperties, ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.rateLimitProperties = rateLimitProperties;
+        this.objectMapper = objectMapper;
+        this.rejectedReads = Counter.builder("rate.limit.rejected").tag("budget", "read").register(meterRegistry);
+        this.rejectedWrites = Counter.builder("rate.limit.rejected").tag("budget", "write").register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long now = System.nanoTime();
+        boolean read = RequestClassifier.isRead(request);
+
+        ClientBuckets client = buckets.get(clientKey(request));
+        if (client == null) {
+            if (buckets.size() >= rateLimitProperties.getMaxClients()) {
+                evict(now);
+            }
+            client = buckets.computeIfAbsent(clientKey(request), key -> new ClientBuckets(now));
+        }
+
+        long waitNanos = (read ? client.read : client.write).tryAcquire(now);
+        if (waitNanos > 0) {
+            reject(response, read, waitNanos);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response, boolean read, long waitNanos) throws IOException {
+        (read ? rejectedReads : rejectedWrites).increment();
+        long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+
+        FilterErrorResponses.write(response, objectMapper, HttpStatus.TOO_MANY_REQUESTS, retryAfter,
+                ErrorCode.TOO_MANY_REQUESTS.getCode(),
+                ErrorCode.TOO_MANY_REQUESTS.formatMessage(read ? "read" : "write", retryAfter));
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(rateLimitProperties.getApiKeyHeader());
+        if (apiKey != null && !apiKey.isBlank()) {
+            return "key:" + apiKey;
+        }
+        String clientId = request.getHeader(rateLimitProperties.getClientIdHeader());
+        if (clientId != null && !clientId.isBlank()) {
+            return "id:" + clientId;
+        }
+        return "addr:" + request.getRemoteAddr();
+    }
+
+    /*
+    * One thread sweeps at a time, dropping full buckets first. If the map is still over the
+    * bound every client is active and arbitrary ones are dropped, which only resets their budget
+    * */
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.values().removeIf(client -> client.isIdle(now));
+            Iterator<String> keys = buckets.keySet().iterator();
+            while (buckets.size() >= rateLimitProperties.getMaxClients() && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private class ClientBuckets {
+        private final TokenBucket read;
+        private final TokenBucket write;
+
+        private ClientBuckets(long now) {
+            RateLimitProperties.Budget readBudget = rateLimitProperties.getRead();
+            RateLimitProperties.Budget writeBudget = rateLimitProperties.getWrite();
+            this.read = new TokenBucket(readBudget.getCapacity(), readBudget.getRefillPerSecond(), now);
+            this.write = new TokenBucket(writeBudget.getCapacity(), writeBudget.getRefillPerSecond(), now);
+        }
+
+        private boolean isIdle(long now) {
+            return read.isFull(now) && write.isFull(now);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.springboottest.user_management_api.filter;
+
+import com.springboottest.user_management_api.config.datasource.DataSourceRoutingContext;
+import com.springboottest.user_management_api.config.properties.DataSourceRoutingProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Keeps a client's reads on the primary for a short window after its own write,
+ * so a PUT followed by a GET never observes a replica that has not caught up yet
+ * */
+@Component
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final DataSourceRoutingProperties routingProperties;
+
+    // client key -> nanoTime until which its reads go to the primary
+    private final Map<String, Long> recentWriters = new ConcurrentHashMap<>();
+
+    public ReadYourWritesFilter(DataSourceRoutingProperties routingProperties) {
+        this.routingProperties = routingProperties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String clientKey = clientKey(request);
+
+        if (!RequestClassifier.isRead(request)) {
+            // opened before the write runs, the client may see the response before this filter returns
+            if (recentWriters.size() >= routingProperties.getMaxTrackedClients()) {
+                evictExpired();
+            }
+            recentWriters.put(clientKey, System.nanoTime() + routingProperties.getReadYourWritesWindow().toNanos());
+        } else {
+            Long until = recentWriters.get(clientKey);
+            if (until != null) {
+                if (System.nanoTime() - until < 0) {
+                    DataSourceRoutingContext.forcePrimary();
+                } else {
+                    recentWriters.remove(clientKey, until);
+                }
+            }
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DataSourceRoutingContext.clear();
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String clientId = request.getHeader(routingProperties.getClientIdHeader());
+        return clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr();
+    }
+
+    /*
+    * Drop expired clients, if every client is still inside its window the map is cleared,
+    * which only costs those clients a possibly stale read
+    * */
+    private void evictExpired() {
+        long now = System.nanoTime();
+        recentWriters.values().removeIf(until -> now - until >= 0);
+        if (recentWriters.size() >= routingProperties.getMaxTrackedClients()) {
+            recentWriters.clear();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.springboottest.user_management_api.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Set;
+
+/*
+ * Decides whether a request only reads, for the filters that budget, limit or route reads and
+ * writes apart. Safe methods read, and so do the POST endpoints that only take their ids in a body
+ * because they would not fit a query string
+ * */
+final class RequestClassifier {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private static final Set<String> READ_ONLY_POSTS = Set.of("/v1/users/lookup");
+
+    private RequestClassifier() {
+    }
+
+    static boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (READ_METHODS.contains(method)) {
+            return true;
+        }
+        return "POST".equals(method)
+                && READ_ONLY_POSTS.contains(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+}
@@ -0,0 +1,191 @@
+package com.springboottest.user_management_api.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.springboottest.user_management_api.config.properties.TrafficCaptureProperties;
+import com.springboottest.user_management_api.dto.event.TrafficTrace;
+import com.springboottest.user_management_api.util.TrafficTraceLog;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+ * Records a sanitized trace of each user API request for the replayer: arrival time, method,
+ * path, query, a hashed client, the body with the masked fields blanked out and a hash of the
+ * original body, and status and duration once the response is complete. Both hashes are HMACs
+ * under the configured hash key, so a trace file alone cannot be used to guess a masked SSN or
+ * a client id back from them.
+ * */
+public class TrafficCaptureFilter extends OncePerRequestFilter {
+
+    private static final String HASH_ALGORITHM = "HmacSHA256";
+
+    private final TrafficCaptureProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TrafficTraceLog traceLog;
+    private final Set<String> maskedFields;
+    private final SecretKeySpec hashKey;
+
+    public TrafficCaptureFilter(TrafficCaptureProperties properties, ObjectMapper objectMapper,
+                                TrafficTraceLog traceLog) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.traceLog = traceLog;
+        this.maskedFields = Set.copyOf(properties.getMaskedFields());
+        this.hashKey = new SecretKeySpec(hashKeyBytes(properties.getHashKey()), HASH_ALGORITHM);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (ThreadLocalRandom.current().nextDouble() >= properties.getSampleRate()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Instant arrival = Instant.now();
+        long start = System.nanoTime();
+        // read up front, a request the limits reject never has its body read and the stream is gone afterwards
+        BodyCapturingRequest capturingRequest = new BodyCapturingRequest(request, properties.getMaxBodyBytes() + 1);
+        try {
+            filterChain.doFilter(capturingRequest, response);
+        } finally {
+            if (capturingRequest.isAsyncStarted()) {
+                capturingRequest.getAsyncContext().addListener(new RecordOnComplete(capturingRequest, arrival, start));
+            } else {
+                record(capturingRequest, response, arrival, start);
+            }
+        }
+    }
+
+    private void record(BodyCapturingRequest request, HttpServletResponse response, Instant arrival, long start) {
+        long durationMicros = (System.nanoTime() - start) / 1_000;
+        byte[] body = request.getCapturedBody();
+
+        traceLog.append(TrafficTrace.builder()
+                .arrivalMicros(ChronoUnit.MICROS.between(Instant.EPOCH, arrival))
+                .method(request.getMethod())
+                .path(request.getRequestURI())
+                .query(request.getQueryString())
+                .client(hash(clientKey(request).getBytes(StandardCharsets.UTF_8)))
+                .body(maskedBody(body))
+                .bodyHash(body.length > 0 ? hash(body) : null)
+                .status(response.getStatus())
+                .durationMicros(durationMicros)
+                .build());
+    }
+
+    /*
+    * null when there is no body, it is larger than the limit or not JSON
+    * */
+    private String maskedBody(byte[] body) {
+        if (body.length == 0 || body.length > properties.getMaxBodyBytes()) {
+            return null;
+        }
+        try {
+            JsonNode tree = objectMapper.readTree(body);
+            mask(tree);
+            return objectMapper.writeValueAsString(tree);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void mask(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            for (Map.Entry<String, JsonNode> field : object.properties()) {
+                if (maskedFields.contains(field.getKey())) {
+                    field.setValue(object.textNode(TrafficTrace.MASK));
+                } else {
+                    mask(field.getValue());
+                }
+            }
+        } else if (node.isArray()) {
+            node.forEach(this::mask);
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String clientId = request.getHeader(properties.getClientIdHeader());
+        return clientId != null && !clientId.isBlank() ? clientId : request.getRemoteAddr();
+    }
+
+    private String hash(byte[] value) {
+        try {
+            Mac mac = Mac.getInstance(HASH_ALGORITHM);
+            mac.init(hashKey);
+            return HexFormat.of().formatHex(mac.doFinal(value), 0, 8);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(HASH_ALGORITHM + " is not available", e);
+        }
+    }
+
+    /*
+    * Without a configured key every instance draws its own, hashes then only match within one run
+    * */
+    private static byte[] hashKeyBytes(String configured) {
+        if (configured != null && !configured.isBlank()) {
+            return configured.getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+
+    /*
+    * Async requests are recorded once the response is complete, with its final status
+    * */
+    private class RecordOnComplete implements AsyncListener {
+        private final BodyCapturingRequest request;
+        private final Instant arrival;
+        private final long start;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        private RecordOnComplete(BodyCapturingRequest request, Instant arrival, long start) {
+            this.request = request;
+            this.arrival = arrival;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            if (recorded.compareAndSet(false, true)) {
+                record(request, (HttpServletResponse) event.getSuppliedResponse(), arrival, start);
+            }
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            onComplete(event);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            onComplete(event);
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
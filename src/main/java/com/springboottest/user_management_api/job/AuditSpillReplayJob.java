@@ -0,0 +1,34 @@
+package com.springboottest.user_management_api.job;
+
+import com.springboottest.user_management_api.service.interfaces.UserAuditService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/*
+ * Inserts audit records spilled while the queue was full or the database was failing,
+ * the first run also picks up spills left by a previous process
+ * */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.audit", name = "enabled", havingValue = "true")
+public class AuditSpillReplayJob {
+
+    private final UserAuditService userAuditService;
+
+    @Scheduled(initialDelayString = "${app.audit.replay-interval:PT1M}",
+            fixedDelayString = "${app.audit.replay-interval:PT1M}")
+    public void run() {
+        try {
+            int replayed = userAuditService.replaySpill();
+            if (replayed > 0) {
+                log.info("Replayed {} spilled audit records", replayed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Audit spill replay failed, retrying next run", e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.springboottest.user_management_api.job;
+
+import com.springboottest.user_management_api.service.interfaces.ChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/*
+ * Periodically removes change feed entries past their retention
+ * */
+@Component
+@RequiredArgsConstructor
+public class ChangeFeedPruneJob {
+
+    private final ChangeFeedService changeFeedService;
+
+    @Scheduled(initialDelayString = "${app.change-feed.prune-interval:PT1H}",
+            fixedDelayString = "${app.change-feed.prune-interval:PT1H}")
+    public void run() {
+        changeFeedService.prune();
+    }
+}
@@ -0,0 +1,323 @@
+package com.springboottest.user_management_api.job;
+
+import com.springboottest.user_management_api.config.datasource.ShardRouter;
+import com.springboottest.user_management_api.config.properties.SeedProperties;
+import com.springboottest.user_management_api.service.interfaces.UserCountService;
+import com.springboottest.user_management_api.util.SsnUtil;
+import com.springboottest.user_management_api.util.enums.UserSettingKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+ * Writes a synthetic dataset straight through JDBC batches, bypassing JPA, so millions of users
+ * load in minutes. Every value of a user is drawn from a random stream keyed by the seed and the
+ * user's position in the run, and ids are handed out in position order, so the same seed and
+ * user count always give the same rows whatever the writer count. A run over existing data
+ * continues at the position after the highest ssn already taken from app.seed.ssn-base up.
+ * Checked at runtime like the startup training run, AOT processing freezes conditions at build time.
+ * */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DatasetSeeder implements ApplicationRunner {
+
+    private static final String INSERT_USER = "INSERT INTO users (id, ssn, first_name, middle_name, family_name, " +
+            "birth_date, is_active, deleted_time, created_time, updated_time, created_by, updated_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SETTING =
+            "INSERT INTO user_settings (user_id, setting_key, setting_value) VALUES (?, ?, ?)";
+    private static final String SEEDED_BY = "SEED";
+
+    private static final String[] FIRST_NAMES = {"James", "Mary", "John", "Patricia", "Robert", "Jennifer",
+            "Michael", "Linda", "David", "Elizabeth", "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica",
+            "Thomas", "Sarah", "Budi", "Siti", "Agus", "Dewi", "Wei", "Mei", "Hiroshi", "Yuki", "Ahmed", "Fatima"};
+    private static final String[] FAMILY_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Wilson", "Anderson", "Taylor",
+            "Santoso", "Wijaya", "Pratama", "Chen", "Wang", "Tanaka", "Sato", "Khan", "Ali"};
+
+    // share of users that turned each boolean setting on, the rest keep the default
+    private static final double BIOMETRIC_LOGIN_ON = 0.45;
+    private static final double PUSH_NOTIFICATION_ON = 0.7;
+    private static final double SMS_NOTIFICATION_ON = 0.2;
+    private static final double SHOW_ONBOARDING_ON = 0.05;
+    private static final double WIDGET_ORDER_CHANGED = 0.25;
+
+    private static final Duration ACCOUNT_AGE = Duration.ofDays(3 * 365);
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final SeedProperties seedProperties;
+    private final DataSource dataSource;
+    private final ShardRouter shardRouter;
+    private final UserCountService userCountService;
+    private final ApplicationContext applicationContext;
+
+    private long firstPosition;
+    private long nextPosition;
+    private long[] nextIdByShard;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!seedProperties.isEnabled()) {
+            return;
+        }
+        seed();
+        if (seedProperties.isExitWhenDone()) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+
+    /*
+    * Generate app.seed.users users after the ones already present. Returns the number written
+    * */
+    public long seed() throws InterruptedException {
+        long users = seedProperties.getUsers();
+        int writers = Math.max(1, seedProperties.getWriters());
+        Instant now = Instant.now();
+
+        firstPosition = firstFreePosition();
+        nextPosition = firstPosition;
+        nextIdByShard = firstIdByShard();
+        log.info("Seeding {} users with seed {} and {} writers, ids continue at {}, ssns at {}",
+                users, seedProperties.getSeed(), writers, nextIdByShard[0], ssn(firstPosition));
+
+        long startNanos = System.nanoTime();
+        long written = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            List<Future<Long>> results = new ArrayList<>(writers);
+            for (int i = 0; i < writers; i++) {
+                results.add(executor.submit(() -> write(now, startNanos)));
+            }
+            for (Future<Long> result : results) {
+                written += result.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Seeding failed", e.getCause());
+        }
+
+        shardRouter.onEachShard(shard -> {
+            continueIdentity(shard);
+            return null;
+        });
+        userCountService.reconcile();
+
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        log.info("Seeded {} users in {}s, {} users/s", written, String.format("%.1f", seconds),
+                Math.round(written / seconds));
+        return written;
+    }
+
+    private long write(Instant now, long startNanos) {
+        long written = 0;
+        Chunk chunk;
+        while ((chunk = nextChunk()) != null) {
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                Chunk current = chunk;
+                int target = shard;
+                shardRouter.onShard(shard, () -> writeChunk(current, target, now));
+            }
+            written += chunk.size();
+            long done = chunk.start() - firstPosition + chunk.size();
+            if ((chunk.start() - firstPosition) / seedProperties.getBatchSize() % 200 == 0) {
+                log.info("Seeded {} of {} users, {}s", done, seedProperties.getUsers(),
+                        Duration.ofNanos(System.nanoTime() - startNanos).toSeconds());
+            }
+        }
+        return written;
+    }
+
+    /*
+    * Claim the next positions and their ids, under a lock so ids follow position order
+    * whichever writer gets there first. Shards hand out their own id sequence like the identity does
+    * */
+    private synchronized Chunk nextChunk() {
+        long remaining = firstPosition + seedProperties.getUsers() - nextPosition;
+        if (remaining <= 0) {
+            return null;
+        }
+        int size = (int) Math.min(seedProperties.getBatchSize(), remaining);
+        long start = nextPosition;
+        nextPosition += size;
+
+        int[] shards = new int[size];
+        long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            int shard = shardRouter.shardOfSsn(ssn(start + i));
+            shards[i] = shard;
+            ids[i] = nextIdByShard[shard];
+            nextIdByShard[shard] += shardRouter.shardCount();
+        }
+        return new Chunk(start, shards, ids);
+    }
+
+    private Void writeChunk(Chunk chunk, int shard, Instant now) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement users = connection.prepareStatement(INSERT_USER);
+                 PreparedStatement settings = connection.prepareStatement(INSERT_SETTING)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    if (chunk.shards()[i] == shard) {
+                        addUser(users, settings, chunk.start() + i, chunk.ids()[i], now);
+                    }
+                }
+                users.executeBatch();
+                settings.executeBatch();
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot write seed users from position " + chunk.start(), e);
+        }
+        return null;
+    }
+
+    private void addUser(PreparedStatement users, PreparedStatement settings, long position, long id, Instant now)
+            throws SQLException {
+        SplittableRandom random = new SplittableRandom(seedProperties.getSeed() + position * GOLDEN_GAMMA);
+
+        Instant created = now.minusSeconds(random.nextLong(ACCOUNT_AGE.toSeconds()));
+        Instant updated = created.plusSeconds(random.nextLong(Duration.between(created, now).toSeconds() + 1));
+        boolean deleted = random.nextDouble() < seedProperties.getDeletedRatio();
+        Instant deletedTime = deleted
+                ? updated.plusSeconds(random.nextLong(Duration.between(updated, now).toSeconds() + 1))
+                : null;
+
+        users.setLong(1, id);
+        users.setString(2, ssn(position));
+        users.setString(3, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+        if (random.nextDouble() < 0.3) {
+            users.setString(4, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+        } else {
+            users.setNull(4, Types.VARCHAR);
+        }
+        users.setString(5, FAMILY_NAMES[random.nextInt(FAMILY_NAMES.length)]);
+        users.setDate(6, Date.valueOf(LocalDate.of(1950, 1, 1).plusDays(random.nextInt(55 * 365))));
+        users.setBoolean(7, !deleted);
+        if (deleted) {
+            users.setObject(8, deletedTime.atOffset(ZoneOffset.UTC));
+        } else {
+            users.setNull(8, Types.TIMESTAMP_WITH_TIMEZONE);
+        }
+        users.setObject(9, created.atOffset(ZoneOffset.UTC));
+        users.setObject(10, (deleted ? deletedTime : updated).atOffset(ZoneOffset.UTC));
+        users.setString(11, SEEDED_BY);
+        users.setString(12, SEEDED_BY);
+        users.addBatch();
+
+        // every user gets the full set of keys, like createUser does with the defaults
+        for (UserSettingKey key : UserSettingKey.values()) {
+            settings.setLong(1, id);
+            settings.setString(2, key.getKey());
+            settings.setString(3, settingValue(key, random));
+            settings.addBatch();
+        }
+    }
+
+    private static String settingValue(UserSettingKey key, SplittableRandom random) {
+        return switch (key) {
+            case BIOMETRIC_LOGIN -> String.valueOf(random.nextDouble() < BIOMETRIC_LOGIN_ON);
+            case PUSH_NOTIFICATION -> String.valueOf(random.nextDouble() < PUSH_NOTIFICATION_ON);
+            case SMS_NOTIFICATION -> String.valueOf(random.nextDouble() < SMS_NOTIFICATION_ON);
+            case SHOW_ONBOARDING -> String.valueOf(random.nextDouble() < SHOW_ONBOARDING_ON);
+            case WIDGET_ORDER -> random.nextDouble() < WIDGET_ORDER_CHANGED
+                    ? widgetOrder(random)
+                    : key.getDefaultValue();
+        };
+    }
+
+    private static String widgetOrder(SplittableRandom random) {
+        int[] widgets = {1, 2, 3, 4, 5};
+        for (int i = widgets.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = widgets[i];
+            widgets[i] = widgets[j];
+            widgets[j] = swap;
+        }
+        StringBuilder order = new StringBuilder();
+        for (int widget : widgets) {
+            order.append(order.isEmpty() ? "" : ",").append(widget);
+        }
+        return order.toString();
+    }
+
+    private String ssn(long position) {
+        return SsnUtil.padSSN(String.valueOf(seedProperties.getSsnBase() + position));
+    }
+
+    /*
+    * Position after the highest ssn at or above the base on any shard, live or archived,
+    * so a second run never reuses an ssn of the first
+    * */
+    private long firstFreePosition() {
+        String base = ssn(0);
+        return shardRouter.onEachShard(shard -> new JdbcTemplate(dataSource).queryForObject(
+                "SELECT MAX(ssn) FROM (SELECT ssn FROM users WHERE ssn >= ? " +
+                        "UNION ALL SELECT ssn FROM users_archive WHERE ssn >= ?)", String.class, base, base))
+                .stream()
+                .filter(Objects::nonNull)
+                .mapToLong(ssn -> Long.parseLong(ssn) - seedProperties.getSsnBase() + 1)
+                .max()
+                .orElse(0);
+    }
+
+    /*
+    * First free id on each shard, past the live and archived users of every shard
+    * since ids are unique across shards
+    * */
+    private long[] firstIdByShard() {
+        long maxId = shardRouter.onEachShard(shard -> new JdbcTemplate(dataSource).queryForObject(
+                "SELECT GREATEST((SELECT COALESCE(MAX(id), 0) FROM users), " +
+                        "(SELECT COALESCE(MAX(id), 0) FROM users_archive))", Long.class))
+                .stream()
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(0);
+
+        int shardCount = shardRouter.shardCount();
+        long[] firstIds = new long[shardCount];
+        for (int shard = 0; shard < shardCount; shard++) {
+            firstIds[shard] = maxId + 1 + Math.floorMod(shard - maxId, shardCount);
+        }
+        return firstIds;
+    }
+
+    /*
+    * The seeded ids were set explicitly, move the identity past them
+    * */
+    private void continueIdentity(int shard) {
+        new JdbcTemplate(dataSource).execute("ALTER TABLE users ALTER COLUMN id RESTART WITH " + nextIdByShard[shard]);
+    }
+
+    private record Chunk(long start, int[] shards, long[] ids) {
+
+        int size() {
+            return ids.length;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.springboottest.user_management_api.job;
+
+import com.springboottest.user_management_api.config.properties.OffHeapStoreProperties;
+import com.springboottest.user_management_api.util.OffHeapUserStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/*
+ * The off-heap counterpart of the archival job. There is no archive to move users into,
+ * users soft-deleted past the retention are dropped and their record slots reused
+ * */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.off-heap", name = "enabled", havingValue = "true")
+public class OffHeapPurgeJob {
+
+    private final OffHeapUserStore offHeapUserStore;
+    private final OffHeapStoreProperties offHeapStoreProperties;
+
+    @Scheduled(initialDelayString = "${app.off-heap.purge-interval:PT1H}",
+            fixedDelayString = "${app.off-heap.purge-interval:PT1H}")
+    public void run() {
+        Instant cutoff = Instant.now().minus(offHeapStoreProperties.getPurgeAfter());
+        int purged = offHeapUserStore.purgeDeletedBefore(cutoff, offHeapStoreProperties.getPurgeBatchSize());
+        if (purged > 0) {
+            log.info("Off-heap purge finished, {} users deleted before {} dropped", purged, cutoff);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.springboottest.user_management_api.job;
+
+import com.springboottest.user_management_api.util.OffHeapUserStore;
+import com.springboottest.user_management_api.util.UserEventLog;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/*
+ * Snapshots the off-heap store so recovery only replays the log written since the last one,
+ * and once more on shutdown so a clean restart replays nothing
+ * */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.off-heap.persistence", name = "enabled", havingValue = "true")
+public class OffHeapSnapshotJob {
+
+    private final OffHeapUserStore offHeapUserStore;
+    private final UserEventLog userEventLog;
+
+    private long snapshotSeq = -1;
+
+    @Scheduled(initialDelayString = "${app.off-heap.persistence.snapshot-interval:PT10M}",
+            fixedDelayString = "${app.off-heap.persistence.snapshot-interval:PT10M}")
+    public synchronized void run() {
+        if (userEventLog.lastSeq() == snapshotSeq) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            snapshotSeq = offHeapUserStore.writeSnapshot();
+            log.info("Off-heap snapshot of {} users up to log seq {} written in {} ms", offHeapUserStore.size(),
+                    snapshotSeq, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.error("Off-heap snapshot failed, the log keeps growing until the next one succeeds", e);
+        }
+    }
+
+    @PreDestroy
+    void snapshotOnShutdown() {
+        run();
+    }
+}
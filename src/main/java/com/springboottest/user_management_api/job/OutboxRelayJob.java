@@ -0,0 +1,23 @@
+package com.springboottest.user_management_api.job;
+
+import com.springboottest.user_management_api.service.interfaces.OutboxRelayService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/*
+ * Drains committed user changes to the event sink in the background
+ * */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelayJob {
+
+    private final OutboxRelayService outboxRelayService;
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:PT1S}")
+    public void run() {
+        outboxRelayService.relay();
+    }
+}
@@ -0,0 +1,31 @@
+package com.springboottest.user_management_api.job;
+
+import com.springboottest.user_management_api.util.SettingsSchemaRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/*
+ * Picks up edits of the settings schema file, a no-op with the built-in schema
+ * */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SettingsSchemaReloadJob {
+
+    private final SettingsSchemaRegistry settingsSchemaRegistry;
+
+    @Scheduled(initialDelayString = "${app.settings-schema.reload-interval:PT10S}",
+            fixedDelayString = "${app.settings-schema.reload-interval:PT10S}")
+    public void run() {
+        try {
+            if (settingsSchemaRegistry.reloadIfChanged()) {
+                log.info("Reloaded settings schema, {} settings defined",
+                        settingsSchemaRegistry.current().defaults().size());
+            }
+        } catch (Exception e) {
+            log.error("Settings schema reload failed, keeping the current schema", e);
+        }
+    }
+}
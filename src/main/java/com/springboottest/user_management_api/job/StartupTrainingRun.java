@@ -0,0 +1,102 @@
+package com.springboottest.user_management_api.job;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.springboottest.user_management_api.config.properties.StartupProperties;
+import com.springboottest.user_management_api.dto.request.CreateUserRequest;
+import com.springboottest.user_management_api.dto.request.UpdateUserRequest;
+import com.springboottest.user_management_api.dto.request.UpdateUserSettingsRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Training run for the JDK startup cache: once ready, call every user endpoint over HTTP
+ * so the classes of the real request path are loaded, then exit so the JVM writes the cache.
+ * Checked at runtime instead of through a condition, AOT processing freezes conditions at build time.
+ * */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StartupTrainingRun {
+
+    private final StartupProperties startupProperties;
+    private final RestClient.Builder restClientBuilder;
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        if (!startupProperties.getTraining().isEnabled()) {
+            return;
+        }
+        int port = ((WebServerApplicationContext) event.getApplicationContext()).getWebServer().getPort();
+        RestClient client = restClientBuilder.baseUrl("http://localhost:" + port + "/v1/users").build();
+
+        int iterations = startupProperties.getTraining().getIterations();
+        log.info("Training run, calling the user endpoints {} times", iterations);
+        for (int i = 0; i < iterations; i++) {
+            try {
+                exercise(client, i);
+            } catch (RestClientException e) {
+                log.warn("Training call failed: {}", e.getMessage());
+            }
+        }
+
+        log.info("Training run finished, exiting");
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+
+    private void exercise(RestClient client, int iteration) {
+        // a client id per round, the rate limiter would otherwise reject most of the run
+        String clientId = "startup-training-" + iteration;
+
+        JsonNode created = client.post()
+                .header("X-Client-Id", clientId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(CreateUserRequest.builder()
+                        .ssn(String.valueOf(900_000_000L + iteration))
+                        .firstName("Training")
+                        .lastName("User")
+                        .birthDate(LocalDate.of(1990, 1, 1))
+                        .build())
+                .retrieve()
+                .body(JsonNode.class);
+        long id = created.path("user_data").path("id").asLong();
+
+        client.get().uri("/{id}", id).header("X-Client-Id", clientId).retrieve().toBodilessEntity();
+        client.get().uri("?max_records=10&offset=0&include_total=true").header("X-Client-Id", clientId)
+                .retrieve().toBodilessEntity();
+        client.get().uri("?ids={id},{missing}", id, id + 1_000_000).header("X-Client-Id", clientId)
+                .retrieve().toBodilessEntity();
+        client.get().uri("/count").header("X-Client-Id", clientId).retrieve().toBodilessEntity();
+        client.put().uri("/{id}", id)
+                .header("X-Client-Id", clientId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(UpdateUserRequest.builder()
+                        .firstName("Trained")
+                        .lastName("User")
+                        .birthDate(LocalDate.of(1991, 2, 2))
+                        .build())
+                .retrieve()
+                .toBodilessEntity();
+        client.put().uri("/{id}/settings", id)
+                .header("X-Client-Id", clientId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(UpdateUserSettingsRequest.builder()
+                        .settings(List.of(Map.of("biometric_login", "true")))
+                        .build())
+                .retrieve()
+                .toBodilessEntity();
+        client.delete().uri("/{id}", id).header("X-Client-Id", clientId).retrieve().toBodilessEntity();
+        client.put().uri("/{id}/refresh", id).header("X-Client-Id", clientId).retrieve().toBodilessEntity();
+    }
+}
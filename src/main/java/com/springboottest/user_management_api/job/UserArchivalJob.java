@@ -0,0 +1,62 @@
+package com.springboottest.user_management_api.job;
+
+import com.springboottest.user_management_api.config.datasource.ShardRouter;
+import com.springboottest.user_management_api.config.properties.ArchivalProperties;
+import com.springboottest.user_management_api.service.interfaces.UserArchiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/*
+ * Moves users soft-deleted longer than the retention window into the archive tables.
+ * Each chunk is its own short transaction, with a pause in between so the job only
+ * ever holds one pooled connection briefly and request threads are not starved.
+ * */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.archival", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UserArchivalJob {
+
+    private final UserArchiveService userArchiveService;
+    private final ArchivalProperties archivalProperties;
+    private final ShardRouter shardRouter;
+
+    @Scheduled(initialDelayString = "${app.archival.initial-delay:PT1M}",
+            fixedDelayString = "${app.archival.interval:PT1H}")
+    public void run() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(archivalProperties.getRetentionDays()));
+        int chunkSize = archivalProperties.getChunkSize();
+
+        int total = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            int current = shard;
+            for (int chunk = 0; chunk < archivalProperties.getMaxChunksPerRun(); chunk++) {
+                int archived = shardRouter.onShard(current, () -> userArchiveService.archiveChunk(cutoff, chunkSize));
+                total += archived;
+                if (archived < chunkSize || !pause()) {
+                    break;
+                }
+            }
+        }
+
+        if (total > 0) {
+            log.info("Archival run finished, {} users deleted before {} archived", total, cutoff);
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(archivalProperties.getPauseMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.springboottest.user_management_api.job;
+
+import com.springboottest.user_management_api.config.properties.ChangeFeedProperties;
+import com.springboottest.user_management_api.config.properties.UserCacheProperties;
+import com.springboottest.user_management_api.dto.response.UserChangesResponse;
+import com.springboottest.user_management_api.service.interfaces.ChangeFeedService;
+import com.springboottest.user_management_api.util.UserCacheSnapshot;
+import com.springboottest.user_management_api.util.UserResponseCache;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/*
+ * Exports the most read users on a schedule and on shutdown, and warms the cache from the last
+ * export on startup. Warming runs as an application runner, so the readiness probe keeps
+ * refusing traffic until the cache is loaded.
+ * An export carries the change feed seq it is current up to. Users changed after that seq are
+ * left out of the warm-up, and an export the feed can no longer vouch for, older than its
+ * retention or ahead of its latest seq after a database reset, is dropped whole.
+ * */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.user-cache", name = "enabled", havingValue = "true")
+public class UserCacheSnapshotJob implements ApplicationRunner {
+
+    private final UserResponseCache userResponseCache;
+    private final ChangeFeedService changeFeedService;
+    private final UserCacheProperties userCacheProperties;
+    private final ChangeFeedProperties changeFeedProperties;
+
+    // exports wait for the warm-up, an export of a cache still filling would replace a better one
+    private volatile boolean warmed;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        try {
+            int loaded = warm();
+            log.info("User cache warmed with {} users in {} ms", loaded, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.warn("User cache snapshot unreadable, starting cold", e);
+        } finally {
+            warmed = true;
+        }
+    }
+
+    /*
+     * Load the last export into the cache, returns the number of users loaded
+     * */
+    public int warm() throws IOException {
+        Optional<UserCacheSnapshot.Snapshot> read = UserCacheSnapshot.read(snapshotPath());
+        if (read.isEmpty()) {
+            log.info("No user cache snapshot at {}, starting cold", snapshotPath());
+            return 0;
+        }
+
+        UserCacheSnapshot.Snapshot snapshot = read.get();
+        if (snapshot.exportedAt().isBefore(Instant.now().minus(changeFeedProperties.getRetention()))) {
+            log.info("User cache snapshot from {} is older than the change feed retention, discarding it",
+                    snapshot.exportedAt());
+            return 0;
+        }
+        if (snapshot.changeSeq() > changeFeedService.getLatestSeq()) {
+            log.info("User cache snapshot at change seq {} is ahead of the change feed at {}, discarding it",
+                    snapshot.changeSeq(), changeFeedService.getLatestSeq());
+            return 0;
+        }
+
+        Set<Long> changed = changedSince(snapshot.changeSeq());
+        List<UserResponseCache.Entry> current = snapshot.entries().stream()
+                .filter(entry -> !changed.contains(entry.id()))
+                .toList();
+        log.info("User cache snapshot has {} users, {} changed since seq {}", snapshot.entries().size(),
+                snapshot.entries().size() - current.size(), snapshot.changeSeq());
+        return userResponseCache.preload(current);
+    }
+
+    @Scheduled(initialDelayString = "${app.user-cache.snapshot-interval:PT5M}",
+            fixedDelayString = "${app.user-cache.snapshot-interval:PT5M}")
+    public synchronized void export() {
+        if (!warmed) {
+            return;
+        }
+
+        // taken before reading the entries, a write after it is replayed from the feed on warm-up
+        long changeSeq = changeFeedService.getLatestSeq();
+        List<UserResponseCache.Entry> hottest = userResponseCache.hottest(userCacheProperties.getSnapshotEntries());
+        if (hottest.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            UserCacheSnapshot.write(snapshotPath(), changeSeq, Instant.now(), hottest);
+            log.info("User cache snapshot of {} users at change seq {} written in {} ms", hottest.size(), changeSeq,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            log.error("User cache snapshot failed, the previous one is kept", e);
+        }
+    }
+
+    @PreDestroy
+    void exportOnShutdown() {
+        export();
+    }
+
+    private Set<Long> changedSince(long cursor) {
+        Set<Long> changed = new HashSet<>();
+        while (true) {
+            UserChangesResponse page = changeFeedService.getChanges(cursor, changeFeedProperties.getMaxPageSize());
+            if (page.getChanges().isEmpty()) {
+                return changed;
+            }
+            page.getChanges().forEach(change -> changed.add(change.getUserId()));
+            cursor = page.getNextCursor();
+        }
+    }
+
+    private Path snapshotPath() {
+        return Path.of(userCacheProperties.getSnapshotPath());
+    }
+}
@@ -0,0 +1,22 @@
+package com.springboottest.user_management_api.job;
+
+import com.springboottest.user_management_api.service.interfaces.UserCountService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/*
+ * Periodically corrects the active user counter against the database
+ * */
+@Component
+@RequiredArgsConstructor
+public class UserCountReconcileJob {
+
+    private final UserCountService userCountService;
+
+    @Scheduled(initialDelayString = "${app.user-count.reconcile-interval:PT5M}",
+            fixedDelayString = "${app.user-count.reconcile-interval:PT5M}")
+    public void run() {
+        userCountService.reconcile();
+    }
+}
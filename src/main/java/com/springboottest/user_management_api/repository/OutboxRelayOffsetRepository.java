@@ -0,0 +1,22 @@
+package com.springboottest.user_management_api.repository;
+
+import com.springboottest.user_management_api.entity.OutboxRelayOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxRelayOffsetRepository extends JpaRepository<OutboxRelayOffset, String> {
+
+    /*
+     * Find the slowest relay position, changes after it must not be pruned
+     * */
+    @Query("SELECT MIN(o.lastSeq) FROM OutboxRelayOffset o")
+    Long findMinLastSeq();
+
+    /*
+     * Find the furthest relay position, new changes must be numbered after it
+     * */
+    @Query("SELECT MAX(o.lastSeq) FROM OutboxRelayOffset o")
+    Long findMaxLastSeq();
+}
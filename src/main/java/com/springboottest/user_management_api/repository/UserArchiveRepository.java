@@ -0,0 +1,88 @@
+package com.springboottest.user_management_api.repository;
+
+import com.springboottest.user_management_api.entity.UserArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface UserArchiveRepository extends JpaRepository<UserArchive, Long> {
+
+    /*
+     * Find ids of users soft-deleted before the cutoff, oldest id first, limited to one chunk.
+     * The rows stay locked until the chunk commits, a restore of one of them waits for it
+     * */
+    @Query(value = "SELECT id FROM users WHERE is_active = FALSE AND deleted_time < :cutoff " +
+            "ORDER BY id FETCH FIRST :limit ROWS ONLY FOR UPDATE", nativeQuery = true)
+    List<Long> findArchivableUserIds(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    /*
+     * Copy settings of the given users into the archive. This and the statements below repeat the
+     * archivable condition, a user restored since the ids were found is left where it is
+     * */
+    @Modifying
+    @Query(value = "INSERT INTO user_settings_archive (id, user_id, setting_key, setting_value) " +
+            "SELECT s.id, s.user_id, s.setting_key, s.setting_value FROM user_settings s " +
+            "JOIN users u ON u.id = s.user_id " +
+            "WHERE s.user_id IN (:ids) AND u.is_active = FALSE AND u.deleted_time < :cutoff",
+            nativeQuery = true)
+    int copySettingsToArchive(@Param("ids") List<Long> ids, @Param("cutoff") Instant cutoff);
+
+    /*
+     * Copy the given users into the archive
+     * */
+    @Modifying
+    @Query(value = "INSERT INTO users_archive (id, ssn, first_name, middle_name, family_name, birth_date, " +
+            "is_active, deleted_time, created_time, updated_time, created_by, updated_by, archived_time) " +
+            "SELECT id, ssn, first_name, middle_name, family_name, birth_date, is_active, deleted_time, " +
+            "created_time, updated_time, created_by, updated_by, :archivedTime FROM users " +
+            "WHERE id IN (:ids) AND is_active = FALSE AND deleted_time < :cutoff",
+            nativeQuery = true)
+    int copyUsersToArchive(@Param("ids") List<Long> ids, @Param("cutoff") Instant cutoff,
+                           @Param("archivedTime") Instant archivedTime);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_settings WHERE user_id IN (SELECT id FROM users " +
+            "WHERE id IN (:ids) AND is_active = FALSE AND deleted_time < :cutoff)", nativeQuery = true)
+    int deleteSettings(@Param("ids") List<Long> ids, @Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query(value = "DELETE FROM users WHERE id IN (:ids) AND is_active = FALSE AND deleted_time < :cutoff",
+            nativeQuery = true)
+    int deleteUsers(@Param("ids") List<Long> ids, @Param("cutoff") Instant cutoff);
+
+    /*
+     * Move an archived user back into the live tables, used by restore
+     * */
+    @Modifying
+    @Query(value = "INSERT INTO users (id, ssn, first_name, middle_name, family_name, birth_date, " +
+            "is_active, deleted_time, created_time, updated_time, created_by, updated_by) " +
+            "SELECT id, ssn, first_name, middle_name, family_name, birth_date, is_active, deleted_time, " +
+            "created_time, updated_time, created_by, updated_by FROM users_archive WHERE id = :id",
+            nativeQuery = true)
+    int copyUserFromArchive(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_settings (id, user_id, setting_key, setting_value) " +
+            "SELECT id, user_id, setting_key, setting_value FROM user_settings_archive WHERE user_id = :id",
+            nativeQuery = true)
+    int copySettingsFromArchive(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_settings_archive WHERE user_id = :id", nativeQuery = true)
+    int deleteArchivedSettings(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "DELETE FROM users_archive WHERE id = :id", nativeQuery = true)
+    int deleteArchivedUser(@Param("id") Long id);
+
+    /**
+     * Check if SSN is held by an archived user
+     */
+    boolean existsBySsn(String ssn);
+}
@@ -0,0 +1,42 @@
+package com.springboottest.user_management_api.repository;
+
+import com.springboottest.user_management_api.entity.UserChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface UserChangeRepository extends JpaRepository<UserChange, Long> {
+
+    /*
+     * Find changes after the cursor in sequence order
+     * */
+    List<UserChange> findBySeqGreaterThanOrderBySeq(Long cursor, Limit limit);
+
+    /*
+     * Find changes after the cursor up to maxSeq in sequence order
+     * */
+    @Query("SELECT c FROM UserChange c WHERE c.seq > :cursor AND c.seq <= :maxSeq ORDER BY c.seq")
+    List<UserChange> findBySeqBetween(@Param("cursor") long cursor, @Param("maxSeq") long maxSeq, Limit limit);
+
+    /*
+     * Find highest sequence written so far, used to continue numbering after restart
+     * */
+    @Query("SELECT COALESCE(MAX(c.seq), 0) FROM UserChange c")
+    long findMaxSeq();
+
+    /*
+     * Remove changes older than the retention window, up to maxSeq
+     * */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserChange c WHERE c.changedTime < :cutoff AND c.seq <= :maxSeq")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff, @Param("maxSeq") long maxSeq);
+}
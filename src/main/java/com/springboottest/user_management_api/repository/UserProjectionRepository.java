@@ -0,0 +1,30 @@
+package com.springboottest.user_management_api.repository;
+
+import com.springboottest.user_management_api.dto.response.UserResponse;
+import com.springboottest.user_management_api.util.enums.UserField;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/*
+ * Reads of active users that select only the columns of the requested fields
+ * */
+public interface UserProjectionRepository {
+
+    /*
+     * Find active user by id, only the requested columns are set
+     * */
+    Optional<UserResponse.UserData> findActiveUserData(Long id, Set<UserField> fields);
+
+    /*
+     * Find a page of active users in activeId order, only the requested columns are set
+     * */
+    List<UserResponse.UserData> findActiveUserData(Set<UserField> fields, Pageable page);
+
+    /*
+     * Find active users with ids after the cursor in activeId order, only the requested columns are set
+     * */
+    List<UserResponse.UserData> findActiveUserDataAfter(Set<UserField> fields, long afterId, int limit);
+}
@@ -0,0 +1,97 @@
+package com.springboottest.user_management_api.repository;
+
+import com.springboottest.user_management_api.dto.response.UserResponse;
+import com.springboottest.user_management_api.util.enums.UserField;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/*
+ * Each field set is compiled once into its select list and the order its columns are read
+ * back in, Hibernate then finds the parsed query under the same JPQL string every time.
+ * There are at most 2^12 column sets, so the plans are never evicted. Settings are not a
+ * column, a field set asking for them is read here without them
+ * */
+@RequiredArgsConstructor
+public class UserProjectionRepositoryImpl implements UserProjectionRepository {
+
+    private final EntityManager entityManager;
+
+    private final Map<Set<UserField>, ProjectionPlan> plans = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<UserResponse.UserData> findActiveUserData(Long id, Set<UserField> fields) {
+        ProjectionPlan plan = planFor(fields);
+        return entityManager.createQuery(plan.byIdQuery(), Object[].class)
+                .setParameter("id", id)
+                .getResultStream()
+                .findFirst()
+                .map(plan::map);
+    }
+
+    @Override
+    public List<UserResponse.UserData> findActiveUserData(Set<UserField> fields, Pageable page) {
+        ProjectionPlan plan = planFor(fields);
+        return entityManager.createQuery(plan.pageQuery(), Object[].class)
+                .setFirstResult((int) page.getOffset())
+                .setMaxResults(page.getPageSize())
+                .getResultStream()
+                .map(plan::map)
+                .toList();
+    }
+
+    @Override
+    public List<UserResponse.UserData> findActiveUserDataAfter(Set<UserField> fields, long afterId, int limit) {
+        ProjectionPlan plan = planFor(fields);
+        return entityManager.createQuery(plan.afterQuery(), Object[].class)
+                .setParameter("afterId", afterId)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(plan::map)
+                .toList();
+    }
+
+    private ProjectionPlan planFor(Set<UserField> fields) {
+        return plans.computeIfAbsent(EnumSet.copyOf(fields), ProjectionPlan::compile);
+    }
+
+    /*
+     * Select list and column order of one field set, id is always selected first
+     * */
+    private record ProjectionPlan(List<UserField> columns, String byIdQuery, String pageQuery,
+                                  String afterQuery) {
+
+        static ProjectionPlan compile(Set<UserField> fields) {
+            List<UserField> columns = EnumSet.copyOf(fields).stream()
+                    .filter(UserField::isColumn)
+                    .collect(Collectors.toList());
+            if (!columns.contains(UserField.ID)) {
+                columns.addFirst(UserField.ID);
+            }
+
+            String select = columns.stream()
+                    .map(field -> "u." + field.getAttribute())
+                    .collect(Collectors.joining(", ", "SELECT ", " FROM User u "));
+            return new ProjectionPlan(List.copyOf(columns),
+                    select + "WHERE u.id = :id AND u.activeId IS NOT NULL",
+                    select + "WHERE u.activeId IS NOT NULL ORDER BY u.activeId",
+                    select + "WHERE u.activeId > :afterId ORDER BY u.activeId");
+        }
+
+        UserResponse.UserData map(Object[] row) {
+            UserResponse.UserData.UserDataBuilder data = UserResponse.UserData.builder();
+            for (int i = 0; i < columns.size(); i++) {
+                columns.get(i).getSetter().accept(data, row[i]);
+            }
+            return data.build();
+        }
+    }
+}
@@ -1,24 +1,59 @@
 package com.springboottest.user_management_api.repository;
 
 import com.springboottest.user_management_api.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserProjectionRepository {
 
     /*
-    * Find active users with pagination
+     * Whether a user is active and since when it is deleted
+     * */
+    interface DeletionState {
+        Long getId();
+
+        Boolean getIsActive();
+
+        Instant getDeletedTime();
+    }
+
+    /*
+    * Find active users with pagination, served by the idx_users_active_id index
     * */
-    @Query("SELECT u FROM User u WHERE u.isActive = true AND u.deletedTime IS NULL")
+    @Query(value = "SELECT u FROM User u WHERE u.activeId IS NOT NULL ORDER BY u.activeId",
+            countQuery = "SELECT COUNT(u) FROM User u WHERE u.activeId IS NOT NULL")
     Page<User> findAllActiveUsers(Pageable page);
 
+    /*
+     * Find one page of active users without the count query a Page result triggers
+     * */
+    @Query("SELECT u FROM User u WHERE u.activeId IS NOT NULL ORDER BY u.activeId")
+    List<User> findActiveUsers(Pageable page);
+
+    /*
+     * Find the active users with ids after the cursor, seeks straight into the idx_users_active_id index
+     * */
+    @Query("SELECT u FROM User u WHERE u.activeId > :afterId ORDER BY u.activeId")
+    List<User> findActiveUsersAfter(@Param("afterId") long afterId, Limit limit);
+
+    /*
+     * Count active users, used to seed and reconcile the in-memory counter
+     * */
+    @Query("SELECT COUNT(u) FROM User u WHERE u.activeId IS NOT NULL")
+    long countActiveUsers();
+
     /*
      * Find active users by id
      * */
@@ -26,12 +61,73 @@ public interface UserRepository extends JpaRepository<User, Long> {
             " true AND u.deletedTime IS NULL")
     Optional<User> findActiveUserById(@Param("id") Long id);
 
+    /*
+     * Find active users by ids, settings are batch fetched when first accessed
+     * */
+    @Query("SELECT u FROM User u WHERE u.id IN :ids AND u.isActive = true AND u.deletedTime IS NULL")
+    List<User> findActiveUsersByIds(@Param("ids") Collection<Long> ids);
+
+    /*
+     * Find which of the given ids belong to active users
+     * */
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids AND u.isActive = true AND u.deletedTime IS NULL")
+    List<Long> findActiveIds(@Param("ids") Collection<Long> ids);
+
+    /*
+     * Find which of the given ids belong to soft-deleted users
+     * */
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids AND (u.isActive = false OR u.deletedTime IS NOT NULL)")
+    List<Long> findDeletedIds(@Param("ids") Collection<Long> ids);
+
+    /*
+     * Deletion state of the given users, what a bulk restore changes
+     * */
+    @Query("SELECT u.id AS id, u.isActive AS isActive, u.deletedTime AS deletedTime FROM User u WHERE u.id IN :ids")
+    List<DeletionState> findDeletionStates(@Param("ids") Collection<Long> ids);
+
+    /*
+     * Soft delete active users in one statement
+     * */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.isActive = false, u.deletedTime = :now, u.updatedTime = :now " +
+            "WHERE u.id IN :ids AND u.isActive = true AND u.deletedTime IS NULL")
+    int softDeleteByIds(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    /*
+     * Restore soft-deleted users in one statement
+     * */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.isActive = true, u.deletedTime = NULL, u.updatedTime = :now " +
+            "WHERE u.id IN :ids AND (u.isActive = false OR u.deletedTime IS NOT NULL)")
+    int restoreByIds(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
     /*
      * Find user by ID including soft-deleted (for restore operation)
      * */
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.userSettings WHERE u.id = :id")
     Optional<User> findAllUserById(@Param("id") Long id);
 
+    /*
+     * Find next ids of a created-time cohort after the given id, for chunked bulk operations
+     * */
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId AND u.createdTime >= :createdAfter " +
+            "AND u.createdTime < :createdBefore AND (:includeDeleted = true OR u.activeId IS NOT NULL) " +
+            "ORDER BY u.id")
+    List<Long> findCohortIds(@Param("afterId") Long afterId,
+                             @Param("createdAfter") Instant createdAfter,
+                             @Param("createdBefore") Instant createdBefore,
+                             @Param("includeDeleted") boolean includeDeleted,
+                             Limit limit);
+
+    /*
+     * Count users of a created-time cohort
+     * */
+    @Query("SELECT COUNT(u) FROM User u WHERE u.createdTime >= :createdAfter " +
+            "AND u.createdTime < :createdBefore AND (:includeDeleted = true OR u.activeId IS NOT NULL)")
+    long countCohort(@Param("createdAfter") Instant createdAfter,
+                     @Param("createdBefore") Instant createdBefore,
+                     @Param("includeDeleted") boolean includeDeleted);
+
     /**
      * Check if SSN exists (for create operation)
      */
@@ -7,18 +7,80 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserSettingRepository extends JpaRepository<UserSetting, Long> {
 
+    /*
+     * Key and value of one setting, nothing else of the row or its user is loaded
+     * */
+    interface SettingValue {
+        String getKey();
+
+        String getValue();
+    }
+
+    /*
+     * One setting row with its owner, what a bulk settings chunk reads for the audit
+     * */
+    interface SettingState {
+        Long getId();
+
+        Long getUserId();
+
+        String getKey();
+
+        String getValue();
+    }
+
     /*
     * Find all settings for specific user
     * */
     @Query("SELECT us FROM UserSetting us WHERE us.user.id = :userId")
     List<UserSetting> findByUserId(@Param("userId") Long userId);
 
+    /*
+     * Settings of an active user as key value pairs ordered by key. The user is only joined to
+     * check it is active, empty for an unknown or deleted user as well as for one without settings
+     * */
+    @Query("SELECT us.key AS key, us.value AS value FROM UserSetting us " +
+            "WHERE us.user.id = :userId AND us.user.activeId IS NOT NULL ORDER BY us.key")
+    List<SettingValue> findActiveUserSettingValues(@Param("userId") Long userId);
+
+    /*
+     * Set one setting for many users, rows already holding the value are left untouched
+     * */
+    @Modifying
+    @Query(value = "UPDATE user_settings SET setting_value = :value " +
+            "WHERE user_id IN (:userIds) AND setting_key = :key AND setting_value <> :value",
+            nativeQuery = true)
+    int updateSettingForUsers(@Param("userIds") List<Long> userIds,
+                              @Param("key") String key,
+                              @Param("value") String value);
+
+    /*
+     * Current rows of the given keys for the given users
+     * */
+    @Query("SELECT us.id AS id, us.user.id AS userId, us.key AS key, us.value AS value FROM UserSetting us " +
+            "WHERE us.user.id IN :userIds AND us.key IN :keys")
+    List<SettingState> findSettingStates(@Param("userIds") Collection<Long> userIds,
+                                         @Param("keys") Collection<String> keys);
+
+    /*
+     * Create one setting for those of the given users that do not have it yet
+     * */
+    @Modifying
+    @Query(value = "INSERT INTO user_settings (user_id, setting_key, setting_value) " +
+            "SELECT u.id, :key, :value FROM users u WHERE u.id IN (:userIds) " +
+            "AND NOT EXISTS (SELECT 1 FROM user_settings us WHERE us.user_id = u.id AND us.setting_key = :key)",
+            nativeQuery = true)
+    int insertMissingSettingForUsers(@Param("userIds") List<Long> userIds,
+                                     @Param("key") String key,
+                                     @Param("value") String value);
+
     /*
      * Find specific setting by user id and key
      * */
@@ -0,0 +1,254 @@
+package com.springboottest.user_management_api.service.implementation;
+
+import com.springboottest.user_management_api.config.datasource.ShardRouter;
+import com.springboottest.user_management_api.config.properties.BulkOperationProperties;
+import com.springboottest.user_management_api.dto.request.BulkUpdateSettingsRequest;
+import com.springboottest.user_management_api.dto.response.BulkOperationResponse;
+import com.springboottest.user_management_api.exception.InvalidRequestException;
+import com.springboottest.user_management_api.exception.ResourceNotFoundException;
+import com.springboottest.user_management_api.exception.ServiceOverloadedException;
+import com.springboottest.user_management_api.repository.UserRepository;
+import com.springboottest.user_management_api.repository.UserSettingRepository;
+import com.springboottest.user_management_api.service.interfaces.BulkSettingsService;
+import com.springboottest.user_management_api.service.interfaces.ChangeFeedService;
+import com.springboottest.user_management_api.util.AuditActorContext;
+import com.springboottest.user_management_api.util.SettingsSchemaRegistry;
+import com.springboottest.user_management_api.util.UserAuditEventListener;
+import com.springboottest.user_management_api.util.enums.UserChangeType;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkSettingsServiceImpl implements BulkSettingsService {
+
+    private final UserRepository userRepository;
+    private final UserSettingRepository userSettingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor bulkOperationExecutor;
+    private final BulkOperationProperties bulkOperationProperties;
+    private final ChangeFeedService changeFeedService;
+    private final ShardRouter shardRouter;
+    private final SettingsSchemaRegistry settingsSchemaRegistry;
+    private final EntityManager entityManager;
+    private final ObjectProvider<UserAuditEventListener> userAuditEventListener;
+
+    private final Map<String, BulkJob> jobs = new ConcurrentHashMap<>();
+
+    @Override
+    public BulkOperationResponse startBulkUpdate(BulkUpdateSettingsRequest request) {
+        // Convert list of maps to single map
+        Map<String, String> settingsMap = new HashMap<>();
+        for (Map<String, String> setting : request.getSettings()) {
+            settingsMap.putAll(setting);
+        }
+
+        List<String> validationErrors = settingsSchemaRegistry.current().validate(settingsMap);
+        if (!validationErrors.isEmpty()) {
+            log.error("Invalid settings for bulk update: {}", validationErrors);
+            throw new InvalidRequestException(validationErrors);
+        }
+
+        // users created while the job runs already get current defaults, so the cohort ends now
+        BulkJob job = new BulkJob(
+                UUID.randomUUID().toString(),
+                settingsMap,
+                request.getCreatedAfter() != null ? request.getCreatedAfter() : Instant.EPOCH,
+                request.getCreatedBefore() != null ? request.getCreatedBefore() : Instant.now(),
+                request.isIncludeDeleted()
+        );
+
+        evictFinishedJobs();
+        jobs.put(job.id, job);
+        try {
+            // the job acts as the client that started it
+            bulkOperationExecutor.execute(AuditActorContext.propagate(() -> run(job)));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.id);
+            throw new ServiceOverloadedException("bulk settings");
+        }
+
+        log.info("Queued bulk settings job {} for {}", job.id, settingsMap.keySet());
+        return job.toResponse();
+    }
+
+    @Override
+    public BulkOperationResponse getBulkUpdateStatus(String jobId) {
+        BulkJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException(String.format("Cannot find bulk job with id %s", jobId));
+        }
+        return job.toResponse();
+    }
+
+    /*
+    * Apply the settings to the cohort, one shard after another
+    * */
+    private void run(BulkJob job) {
+        job.status = BulkStatus.RUNNING;
+        job.startedTime = Instant.now();
+        int chunkSize = bulkOperationProperties.getChunkSize();
+
+        try {
+            job.totalUsers.set(shardRouter.onEachShard(shard ->
+                            userRepository.countCohort(job.createdAfter, job.createdBefore, job.includeDeleted))
+                    .stream()
+                    .mapToLong(Long::longValue)
+                    .sum());
+
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                runOnShard(job, shard, chunkSize);
+            }
+
+            job.status = BulkStatus.COMPLETED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.status = BulkStatus.FAILED;
+            job.error = "Interrupted";
+        } catch (RuntimeException e) {
+            log.error("Bulk settings job {} failed", job.id, e);
+            job.status = BulkStatus.FAILED;
+            job.error = e.getMessage();
+        } finally {
+            job.finishedTime = Instant.now();
+        }
+    }
+
+    /*
+    * Walk one shard's part of the cohort by id in chunks, each chunk applies every setting with two
+    * set-based statements in its own short transaction
+    * */
+    private void runOnShard(BulkJob job, int shard, int chunkSize) throws InterruptedException {
+        long afterId = 0L;
+        while (true) {
+            long cursor = afterId;
+            List<Long> ids = shardRouter.onShard(shard, () -> userRepository.findCohortIds(cursor,
+                    job.createdAfter, job.createdBefore, job.includeDeleted, Limit.of(chunkSize)));
+            if (ids.isEmpty()) {
+                return;
+            }
+
+            shardRouter.runOnShard(shard, () -> transactionTemplate.executeWithoutResult(status -> {
+                UserAuditEventListener auditListener = userAuditEventListener.getIfAvailable();
+                Map<Long, String> oldValues = auditListener == null ? Map.of() : settingValues(job, ids);
+                job.settings.forEach((key, value) -> {
+                    job.updatedSettings.addAndGet(userSettingRepository.updateSettingForUsers(ids, key, value));
+                    job.createdSettings.addAndGet(userSettingRepository.insertMissingSettingForUsers(ids, key, value));
+                });
+                if (auditListener != null) {
+                    auditListener.auditBulkSettingUpdate(entityManager, settingChanges(job, ids, oldValues));
+                }
+                changeFeedService.recordChanges(ids, UserChangeType.SETTINGS_UPDATED);
+            }));
+
+            job.processedUsers.addAndGet(ids.size());
+            afterId = ids.get(ids.size() - 1);
+            log.info("Bulk settings job {}: {}/{} users processed",
+                    job.id, job.processedUsers.get(), job.totalUsers.get());
+
+            if (ids.size() < chunkSize) {
+                return;
+            }
+            Thread.sleep(bulkOperationProperties.getPauseMillis());
+        }
+    }
+
+    /*
+    * Value of every existing row the chunk may change, by setting id
+    * */
+    private Map<Long, String> settingValues(BulkJob job, List<Long> ids) {
+        Map<Long, String> values = new HashMap<>();
+        for (UserSettingRepository.SettingState state : userSettingRepository.findSettingStates(ids, job.settings.keySet())) {
+            values.put(state.getId(), state.getValue());
+        }
+        return values;
+    }
+
+    /*
+    * The bulk statements raise no entity events, so the chunk's rows are read again and compared
+    * with their values from before, in the same transaction. Rows created by the chunk had none
+    * */
+    private List<UserAuditEventListener.SettingChange> settingChanges(BulkJob job, List<Long> ids,
+                                                                      Map<Long, String> oldValues) {
+        List<UserAuditEventListener.SettingChange> changes = new ArrayList<>();
+        for (UserSettingRepository.SettingState state : userSettingRepository.findSettingStates(ids, job.settings.keySet())) {
+            changes.add(new UserAuditEventListener.SettingChange(state.getUserId(), state.getId(), state.getKey(),
+                    oldValues.get(state.getId()), state.getValue()));
+        }
+        return changes;
+    }
+
+    private void evictFinishedJobs() {
+        int overflow = jobs.size() - bulkOperationProperties.getRetainedJobs() + 1;
+        if (overflow <= 0) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(job -> job.finishedTime != null)
+                .sorted(Comparator.comparing((BulkJob job) -> job.finishedTime))
+                .limit(overflow)
+                .forEach(job -> jobs.remove(job.id));
+    }
+
+    private enum BulkStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private static class BulkJob {
+        private final String id;
+        private final Map<String, String> settings;
+        private final Instant createdAfter;
+        private final Instant createdBefore;
+        private final boolean includeDeleted;
+
+        private final AtomicLong totalUsers = new AtomicLong();
+        private final AtomicLong processedUsers = new AtomicLong();
+        private final AtomicLong updatedSettings = new AtomicLong();
+        private final AtomicLong createdSettings = new AtomicLong();
+        private volatile BulkStatus status = BulkStatus.QUEUED;
+        private volatile Instant startedTime;
+        private volatile Instant finishedTime;
+        private volatile String error;
+
+        private BulkJob(String id, Map<String, String> settings, Instant createdAfter,
+                        Instant createdBefore, boolean includeDeleted) {
+            this.id = id;
+            this.settings = settings;
+            this.createdAfter = createdAfter;
+            this.createdBefore = createdBefore;
+            this.includeDeleted = includeDeleted;
+        }
+
+        private BulkOperationResponse toResponse() {
+            return BulkOperationResponse.builder()
+                    .jobId(id)
+                    .status(status.name())
+                    .totalUsers(totalUsers.get())
+                    .processedUsers(processedUsers.get())
+                    .updatedSettings(updatedSettings.get())
+                    .createdSettings(createdSettings.get())
+                    .startedTime(startedTime)
+                    .finishedTime(finishedTime)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.springboottest.user_management_api.service.implementation;
+
+import com.springboottest.user_management_api.config.datasource.ShardRouter;
+import com.springboottest.user_management_api.config.properties.ChangeFeedProperties;
+import com.springboottest.user_management_api.config.properties.OutboxProperties;
+import com.springboottest.user_management_api.dto.response.UserChangesResponse;
+import com.springboottest.user_management_api.entity.UserChange;
+import com.springboottest.user_management_api.repository.OutboxRelayOffsetRepository;
+import com.springboottest.user_management_api.repository.UserChangeRepository;
+import com.springboottest.user_management_api.service.interfaces.ChangeFeedService;
+import com.springboottest.user_management_api.util.ChangeRingBuffer;
+import com.springboottest.user_management_api.util.enums.UserChangeType;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/*
+ * Numbers user changes with one seq counter per process and serves them in seq order from a
+ * ring buffer of recent changes, or from the change table for older cursors.
+ * A transaction takes its seqs just before it commits, under a lock that only covers handing
+ * them out, so writers never wait for each other's database commit. Seqs can therefore commit
+ * out of order: readers only see changes up to the visible seq, below the oldest seq whose
+ * transaction has not completed yet. The cost is that a slow commit holds back the visibility
+ * of every change sequenced after it, but no writer.
+ * The counter lives in this process and is seeded from the table on startup, so only one
+ * instance may write to a change table. A second writer would need a database sequence and a
+ * visibility bound shared between instances.
+ * */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+
+    private final UserChangeRepository userChangeRepository;
+    private final EntityManager entityManager;
+    private final OutboxRelayOffsetRepository outboxRelayOffsetRepository;
+    private final ChangeFeedProperties changeFeedProperties;
+    private final OutboxProperties outboxProperties;
+    private final ShardRouter shardRouter;
+
+    /*
+    * Held while seqs are handed out and while completed transactions are published, never
+    * across a database commit
+    * */
+    private final ReentrantLock sequenceLock = new ReentrantLock();
+
+    private final List<Consumer<List<Long>>> commitListeners = new CopyOnWriteArrayList<>();
+
+    // transactions holding seqs that are not completed or not published yet, by first seq, under sequenceLock
+    private final NavigableMap<Long, PendingChanges> inFlight = new TreeMap<>();
+
+    // last seq handed out, under sequenceLock
+    private long lastSeq;
+    // every seq up to this one is committed and published or rolled back
+    private volatile long visibleSeq;
+    private ChangeRingBuffer ringBuffer;
+
+    /*
+    * Numbering continues after the newest change kept and the furthest relay position, so a
+    * seq is never handed out twice even if pruning emptied the table
+    * */
+    @PostConstruct
+    void initialize() {
+        long maxSeq = shardRouter.onEachShard(shard -> userChangeRepository.findMaxSeq()).stream()
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(0);
+        Long relayedSeq = outboxRelayOffsetRepository.findMaxLastSeq();
+        lastSeq = Math.max(maxSeq, relayedSeq != null ? relayedSeq : 0);
+        visibleSeq = lastSeq;
+        ringBuffer = new ChangeRingBuffer(changeFeedProperties.getRingCapacity(), lastSeq);
+        log.info("Change feed continuing after seq {}", lastSeq);
+    }
+
+    @Override
+    public void recordChange(Long userId, UserChangeType type) {
+        recordChanges(List.of(userId), type);
+    }
+
+    @Override
+    public void recordChanges(Collection<Long> userIds, UserChangeType type) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Recording a user change requires an active transaction");
+        }
+
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+
+        Instant now = Instant.now();
+        for (Long userId : userIds) {
+            pending.changes.add(UserChange.builder()
+                    .userId(userId)
+                    .changeType(type)
+                    .changedTime(now)
+                    .build());
+        }
+    }
+
+    @Override
+    public void addCommitListener(Consumer<List<Long>> listener) {
+        commitListeners.add(listener);
+    }
+
+    @Override
+    public UserChangesResponse getChanges(long cursor, int limit) {
+        int pageSize = Math.min(limit, changeFeedProperties.getMaxPageSize());
+
+        // recent cursors are served from memory, older ones from the table
+        List<UserChange> changes = ringBuffer.readAfter(cursor, pageSize)
+                .orElseGet(() -> readFromTable(cursor, pageSize));
+
+        List<UserChangesResponse.Change> changeList = changes.stream()
+                .map(change -> UserChangesResponse.Change.builder()
+                        .seq(change.getSeq())
+                        .userId(change.getUserId())
+                        .type(change.getChangeType().name())
+                        .changedTime(change.getChangedTime())
+                        .build())
+                .collect(Collectors.toList());
+
+        return UserChangesResponse.builder()
+                .changes(changeList)
+                .nextCursor(changes.isEmpty() ? cursor : changes.get(changes.size() - 1).getSeq())
+                .build();
+    }
+
+    @Override
+    public long getLatestSeq() {
+        return visibleSeq;
+    }
+
+    @Override
+    public int prune() {
+        Instant cutoff = Instant.now().minus(changeFeedProperties.getRetention());
+
+        // the change table doubles as the outbox, keep what the relay has not delivered
+        Long relayedSeq = outboxProperties.isEnabled() ? outboxRelayOffsetRepository.findMinLastSeq() : null;
+        long maxSeq = outboxProperties.isEnabled() ? (relayedSeq != null ? relayedSeq : 0) : Long.MAX_VALUE;
+
+        // the newest change of each shard is always kept, it carries the seq numbering over a restart
+        int deleted = shardRouter.onEachShard(shard -> userChangeRepository.deleteOlderThan(cutoff,
+                        Math.min(maxSeq, userChangeRepository.findMaxSeq() - 1))).stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+        if (deleted > 0) {
+            log.info("Pruned {} user changes older than {}", deleted, cutoff);
+        }
+        return deleted;
+    }
+
+    /*
+    * Each shard holds the changes of its own users, seqs are global so the pages merge by seq
+    * */
+    private List<UserChange> readFromTable(long cursor, int pageSize) {
+        // rows above the visible seq may be committed while a lower seq is not yet
+        long maxSeq = visibleSeq;
+        if (shardRouter.shardCount() == 1) {
+            return userChangeRepository.findBySeqBetween(cursor, maxSeq, Limit.of(pageSize));
+        }
+        return shardRouter.scatter(shard -> userChangeRepository.findBySeqBetween(cursor, maxSeq, Limit.of(pageSize)))
+                .stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(UserChange::getSeq))
+                .limit(pageSize)
+                .collect(Collectors.toList());
+    }
+
+    /*
+    * Publish every completed transaction at the head of the in-flight queue in seq order,
+    * stopping at the first one still committing
+    * */
+    private void publishCompleted() {
+        while (!inFlight.isEmpty() && inFlight.firstEntry().getValue().completed) {
+            PendingChanges head = inFlight.pollFirstEntry().getValue();
+            if (head.committed) {
+                head.changes.forEach(ringBuffer::publish);
+            }
+        }
+        visibleSeq = inFlight.isEmpty() ? lastSeq : inFlight.firstKey() - 1;
+    }
+
+    /*
+    * Changes of one transaction, sequenced and inserted just before it commits
+    * */
+    private class PendingChanges implements TransactionSynchronization {
+
+        private final List<UserChange> changes = new ArrayList<>();
+
+        // set under sequenceLock
+        private long firstSeq;
+        private long lastSeq;
+        private boolean completed;
+        private boolean committed;
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // write the transaction's own rows first, a failure there leaves no seq behind
+            entityManager.flush();
+
+            sequenceLock.lock();
+            try {
+                firstSeq = ChangeFeedServiceImpl.this.lastSeq + 1;
+                for (UserChange change : changes) {
+                    change.setSeq(++ChangeFeedServiceImpl.this.lastSeq);
+                }
+                lastSeq = ChangeFeedServiceImpl.this.lastSeq;
+                inFlight.put(firstSeq, this);
+            } finally {
+                sequenceLock.unlock();
+            }
+
+            for (UserChange change : changes) {
+                entityManager.persist(change);
+            }
+            entityManager.flush();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ChangeFeedServiceImpl.this);
+            if (firstSeq == 0) {
+                return;
+            }
+            sequenceLock.lock();
+            try {
+                // rolled back seqs are simply skipped, consumers only rely on order
+                completed = true;
+                committed = status == STATUS_COMMITTED;
+                publishCompleted();
+            } finally {
+                sequenceLock.unlock();
+            }
+
+            if (status == STATUS_COMMITTED && !commitListeners.isEmpty()) {
+                List<Long> userIds = changes.stream().map(UserChange::getUserId).distinct().toList();
+                for (Consumer<List<Long>> listener : commitListeners) {
+                    try {
+                        listener.accept(userIds);
+                    } catch (RuntimeException e) {
+                        log.warn("Change commit listener failed", e);
+                    }
+                }
+            }
+        }
+    }
+}
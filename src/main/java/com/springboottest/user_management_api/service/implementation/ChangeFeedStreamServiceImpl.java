@@ -0,0 +1,98 @@
+package com.springboottest.user_management_api.service.implementation;
+
+import com.springboottest.user_management_api.config.properties.ChangeFeedProperties;
+import com.springboottest.user_management_api.dto.response.UserChangesResponse;
+import com.springboottest.user_management_api.service.interfaces.ChangeFeedService;
+import com.springboottest.user_management_api.service.interfaces.ChangeFeedStreamService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class ChangeFeedStreamServiceImpl implements ChangeFeedStreamService {
+
+    private final ChangeFeedService changeFeedService;
+    private final ChangeFeedProperties changeFeedProperties;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService dispatcher;
+
+    public ChangeFeedStreamServiceImpl(ChangeFeedService changeFeedService,
+                                       ChangeFeedProperties changeFeedProperties) {
+        this.changeFeedService = changeFeedService;
+        this.changeFeedProperties = changeFeedProperties;
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long interval = changeFeedProperties.getStreamPollInterval().toMillis();
+        dispatcher.scheduleWithFixedDelay(this::dispatch, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SseEmitter subscribe(long cursor) {
+        SseEmitter emitter = new SseEmitter(changeFeedProperties.getStreamTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, cursor);
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        log.info("Change feed stream opened after seq {}, {} subscribers", cursor, subscribers.size());
+        return emitter;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /*
+    * Push everything each subscriber has not seen yet, one subscriber failing does not affect others
+    * */
+    private void dispatch() {
+        for (Subscriber subscriber : subscribers) {
+            try {
+                UserChangesResponse page;
+                do {
+                    page = changeFeedService.getChanges(subscriber.cursor, changeFeedProperties.getMaxPageSize());
+                    for (UserChangesResponse.Change change : page.getChanges()) {
+                        subscriber.emitter.send(SseEmitter.event()
+                                .id(String.valueOf(change.getSeq()))
+                                .name("change")
+                                .data(change));
+                    }
+                    subscriber.cursor = page.getNextCursor();
+                } while (page.getChanges().size() == changeFeedProperties.getMaxPageSize());
+            } catch (IOException | RuntimeException e) {
+                log.debug("Closing change feed stream after seq {}: {}", subscriber.cursor, e.getMessage());
+                subscribers.remove(subscriber);
+                subscriber.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private long cursor;
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.springboottest.user_management_api.service.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboottest.user_management_api.config.properties.OutboxProperties;
+import com.springboottest.user_management_api.dto.event.UserLifecycleEvent;
+import com.springboottest.user_management_api.service.interfaces.UserEventSink;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/*
+ * Appends events as JSON lines, each batch is one write forced to disk before it counts as accepted
+ * */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "app.outbox", name = "sink", havingValue = "file")
+public class FileUserEventSink implements UserEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+
+    public FileUserEventSink(ObjectMapper objectMapper, OutboxProperties outboxProperties) throws IOException {
+        this.objectMapper = objectMapper;
+        Path path = Path.of(outboxProperties.getFilePath()).toAbsolutePath();
+        Files.createDirectories(path.getParent());
+        this.channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        log.info("Relaying user events to {}", path);
+    }
+
+    @Override
+    public int publish(List<UserLifecycleEvent> events) {
+        StringBuilder lines = new StringBuilder(events.size() * 96);
+        try {
+            for (UserLifecycleEvent event : events) {
+                lines.append(objectMapper.writeValueAsString(event)).append('\n');
+            }
+
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize user event", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return events.size();
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,51 @@
+package com.springboottest.user_management_api.service.implementation;
+
+import com.springboottest.user_management_api.config.properties.OutboxProperties;
+import com.springboottest.user_management_api.dto.event.UserLifecycleEvent;
+import com.springboottest.user_management_api.service.interfaces.UserEventSink;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/*
+ * Bounded queue for local testing, once full it accepts nothing until consumers drain it
+ * */
+@Service
+@ConditionalOnProperty(prefix = "app.outbox", name = "sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryUserEventSink implements UserEventSink {
+
+    private final BlockingQueue<UserLifecycleEvent> queue;
+
+    public InMemoryUserEventSink(OutboxProperties outboxProperties) {
+        this.queue = new ArrayBlockingQueue<>(outboxProperties.getMemoryCapacity());
+    }
+
+    @Override
+    public int publish(List<UserLifecycleEvent> events) {
+        int accepted = 0;
+        for (UserLifecycleEvent event : events) {
+            if (!queue.offer(event)) {
+                break;
+            }
+            accepted++;
+        }
+        return accepted;
+    }
+
+    /*
+    * Take up to max events in delivery order
+    * */
+    public List<UserLifecycleEvent> drain(int max) {
+        List<UserLifecycleEvent> events = new ArrayList<>(Math.min(max, queue.size()));
+        queue.drainTo(events, max);
+        return events;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+}
@@ -0,0 +1,464 @@
+package com.springboottest.user_management_api.service.implementation;
+
+import com.springboottest.user_management_api.dto.request.CreateUserRequest;
+import com.springboottest.user_management_api.dto.request.UpdateUserRequest;
+import com.springboottest.user_management_api.dto.response.BulkUserResultResponse;
+import com.springboottest.user_management_api.dto.response.UserBatchResponse;
+import com.springboottest.user_management_api.dto.response.UserListResponse;
+import com.springboottest.user_management_api.dto.response.UserResponse;
+import com.springboottest.user_management_api.exception.DuplicateResourceException;
+import com.springboottest.user_management_api.exception.InvalidRequestException;
+import com.springboottest.user_management_api.exception.ResourceNotFoundException;
+import com.springboottest.user_management_api.service.interfaces.UserService;
+import com.springboottest.user_management_api.util.OffHeapUserStore;
+import com.springboottest.user_management_api.util.OffHeapUserStore.UserRecord;
+import com.springboottest.user_management_api.util.ResponseUtil;
+import com.springboottest.user_management_api.util.SsnUtil;
+import com.springboottest.user_management_api.util.enums.BulkUserStatus;
+import com.springboottest.user_management_api.util.enums.UserField;
+import com.springboottest.user_management_api.util.enums.UserSettingKey;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/*
+ * The user API served from OffHeapUserStore, no Hibernate on the request path. Users survive a
+ * restart only with the store's event log enabled, writes are not recorded in the change feed,
+ * which stays JPA backed.
+ * Same contract as UserServiceImpl, every operation is one atomic store call
+ * */
+@Slf4j
+@Primary
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.off-heap", name = "enabled", havingValue = "true")
+public class OffHeapUserServiceImpl implements UserService {
+
+    private static final byte[] DEFAULT_WIDGET_ORDER =
+            parseWidgetOrder(UserSettingKey.WIDGET_ORDER.getDefaultValue());
+
+    private final OffHeapUserStore offHeapUserStore;
+    private final AuditorAware<String> auditorProvider;
+
+    @Override
+    public UserListResponse getAllUsers(int maxRecords, int offset, boolean includeTotal) {
+        log.info("Fetching users with maxRecords: {}, offset: {}", maxRecords, offset);
+
+        List<UserResponse.UserData> userDataList = offHeapUserStore
+                .findActive((long) offset * maxRecords, maxRecords).stream()
+                .map(this::mapToUserData)
+                .collect(Collectors.toList());
+
+        return UserListResponse.builder()
+                .userData(userDataList)
+                .maxRecords(maxRecords)
+                .offset(offset)
+                .total(includeTotal ? offHeapUserStore.activeCount() : null)
+                .build();
+    }
+
+    /*
+    * Records are read whole from off-heap memory, the fields only trim the response
+    * */
+    @Override
+    public UserListResponse getAllUsers(int maxRecords, int offset, boolean includeTotal, Set<UserField> fields) {
+        UserListResponse users = getAllUsers(maxRecords, offset, includeTotal);
+        users.setUserData(users.getUserData().stream()
+                .map(userData -> ResponseUtil.trimUserData(userData, fields))
+                .collect(Collectors.toList()));
+        return users;
+    }
+
+    @Override
+    public UserListResponse getUsersAfter(long afterId, int maxRecords, boolean includeTotal) {
+        log.info("Fetching users with maxRecords: {}, afterId: {}", maxRecords, afterId);
+
+        List<UserResponse.UserData> userDataList = offHeapUserStore.findActiveAfter(afterId, maxRecords).stream()
+                .map(this::mapToUserData)
+                .collect(Collectors.toList());
+
+        return ResponseUtil.afterPage(userDataList, afterId, maxRecords,
+                includeTotal ? offHeapUserStore.activeCount() : null);
+    }
+
+    /*
+    * The cursor is taken before trimming, the fields may leave the id out
+    * */
+    @Override
+    public UserListResponse getUsersAfter(long afterId, int maxRecords, boolean includeTotal, Set<UserField> fields) {
+        UserListResponse users = getUsersAfter(afterId, maxRecords, includeTotal);
+        users.setUserData(users.getUserData().stream()
+                .map(userData -> ResponseUtil.trimUserData(userData, fields))
+                .collect(Collectors.toList()));
+        return users;
+    }
+
+    @Override
+    public long getActiveUserCount() {
+        return offHeapUserStore.activeCount();
+    }
+
+    @Override
+    public UserResponse getUserById(Long id) {
+        log.info("Fetching user by id: {}", id);
+
+        return findActive(id)
+                .map(this::mapToUserResponse)
+                .orElseThrow(() -> new ResourceNotFoundException(id));
+    }
+
+    @Override
+    public UserResponse getUserById(Long id, Set<UserField> fields) {
+        return ResponseUtil.trimUserResponse(getUserById(id), fields);
+    }
+
+    @Override
+    public Map<String, String> getUserSettings(Long id) {
+        log.info("Fetching settings of user id: {}", id);
+
+        UserRecord user = findActive(id).orElseThrow(() -> new ResourceNotFoundException(id));
+        Map<String, String> settings = new TreeMap<>();
+        for (UserSettingKey key : UserSettingKey.values()) {
+            settings.put(key.getKey(), settingValue(user, key));
+        }
+        return settings;
+    }
+
+    @Override
+    public UserBatchResponse getUsersByIds(List<Long> ids) {
+        LinkedHashSet<Long> requestedIds = new LinkedHashSet<>(ids);
+        log.info("Fetching {} users by id", requestedIds.size());
+
+        List<UserResponse> users = new ArrayList<>(requestedIds.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requestedIds) {
+            findActive(id).ifPresentOrElse(
+                    user -> users.add(mapToUserResponse(user)),
+                    () -> missingIds.add(id));
+        }
+
+        return UserBatchResponse.builder()
+                .users(users)
+                .missingIds(missingIds)
+                .build();
+    }
+
+    @Override
+    public UserResponse createUser(CreateUserRequest request) {
+        log.info("Creating new user with SSN: {}", request.getSsn());
+
+        // pad ssn with leading zeros
+        String paddedSsn = SsnUtil.padSSN(request.getSsn());
+        long ssn = Long.parseLong(paddedSsn);
+
+        //check if ssn already exist, deleted users keep their ssn reserved
+        if (offHeapUserStore.existsBySsn(ssn)) {
+            log.error("SSN already exists: {}", paddedSsn);
+            throw new DuplicateResourceException(paddedSsn);
+        }
+
+        //validate birthdate
+        validateBirthDate(request.getBirthDate());
+
+        Instant now = Instant.now();
+        String auditor = currentAuditor();
+        UserRecord user = new UserRecord(0, ssn, request.getFirstName(),
+                request.getMiddleName(), request.getLastName(), request.getBirthDate(), true,
+                now, now, null, auditor, auditor, defaultSettingFlags(), DEFAULT_WIDGET_ORDER.clone());
+
+        // the insert checks the ssn again atomically, a concurrent create may have taken it
+        UserRecord savedUser = offHeapUserStore.insert(user)
+                .orElseThrow(() -> {
+                    log.error("SSN already exists: {}", paddedSsn);
+                    return new DuplicateResourceException(paddedSsn);
+                });
+        log.info("User created successfully with id: {}", savedUser.id());
+
+        return mapToUserResponse(savedUser);
+    }
+
+    @Override
+    public UserResponse updateUser(Long id, UpdateUserRequest request) {
+        log.info("Updating user with id: {}", id);
+
+        UserRecord updatedUser = offHeapUserStore.update(id, user -> {
+            if (!user.active()) {
+                throw new ResourceNotFoundException(id);
+            }
+
+            // validate birthdate
+            validateBirthDate(request.getBirthDate());
+
+            //update only allowed fields
+            return new UserRecord(user.id(), user.ssn(), request.getFirstName(), request.getMiddleName(),
+                    request.getLastName(), request.getBirthDate(), true, user.createdTime(), Instant.now(),
+                    null, user.createdBy(), currentAuditor(), user.settingFlags(), user.widgetOrder());
+        }).orElseThrow(() -> new ResourceNotFoundException(id));
+        log.info("User updated successfully with id: {}", id);
+
+        return mapToUserResponse(updatedUser);
+    }
+
+    @Override
+    public void deleteUser(Long id) {
+        log.info("Soft deleting user with id: {}", id);
+
+        offHeapUserStore.update(id, user -> {
+            if (!user.active()) {
+                throw new ResourceNotFoundException(id);
+            }
+            return withActive(user, false, Instant.now());
+        }).orElseThrow(() -> new ResourceNotFoundException(id));
+        log.info("User soft deleted successfully with id: {}", id);
+    }
+
+    @Override
+    public UserResponse restoreUser(Long id) {
+        log.info("Restoring user with id: {}", id);
+
+        UserRecord restoredUser = offHeapUserStore.update(id, user -> {
+            // check if user is actually deleted
+            if (user.active()) {
+                log.warn("User with id {} is already active", id);
+                throw new InvalidRequestException("User is already active");
+            }
+            return withActive(user, true, Instant.now());
+        }).orElseThrow(() -> new ResourceNotFoundException(id));
+        log.info("User restored successfully with id: {}", id);
+
+        return mapToUserResponse(restoredUser);
+    }
+
+    @Override
+    public BulkUserResultResponse deleteUsers(List<Long> ids) {
+        Map<Long, BulkUserStatus> results = new LinkedHashMap<>();
+        Instant now = Instant.now();
+
+        for (Long id : new LinkedHashSet<>(ids)) {
+            // ids that are not active are reported as not found, like deleteUser
+            BulkUserStatus[] status = {BulkUserStatus.NOT_FOUND};
+            offHeapUserStore.update(id, user -> {
+                if (!user.active()) {
+                    return user;
+                }
+                status[0] = BulkUserStatus.DELETED;
+                return withActive(user, false, now);
+            });
+            results.put(id, status[0]);
+        }
+
+        log.info("Bulk soft deleted {} of {} users", countSucceeded(results), results.size());
+        return toBulkResult(results);
+    }
+
+    @Override
+    public BulkUserResultResponse restoreUsers(List<Long> ids) {
+        Map<Long, BulkUserStatus> results = new LinkedHashMap<>();
+        Instant now = Instant.now();
+
+        for (Long id : new LinkedHashSet<>(ids)) {
+            BulkUserStatus[] status = {BulkUserStatus.NOT_FOUND};
+            offHeapUserStore.update(id, user -> {
+                if (user.active()) {
+                    status[0] = BulkUserStatus.ALREADY_ACTIVE;
+                    return user;
+                }
+                status[0] = BulkUserStatus.RESTORED;
+                return withActive(user, true, now);
+            });
+            results.put(id, status[0]);
+        }
+
+        log.info("Bulk restored {} of {} users", countSucceeded(results), results.size());
+        return toBulkResult(results);
+    }
+
+    @Override
+    public UserResponse updateUserSettings(Long id, List<Map<String, String>> settings) {
+        log.info("Updating settings for user with id: {}", id);
+
+        // Convert list of maps to single map
+        Map<String, String> settingsMap = new HashMap<>();
+        for (Map<String, String> setting : settings) {
+            settingsMap.putAll(setting);
+        }
+
+        UserRecord updatedUser = offHeapUserStore.update(id, user -> {
+            if (!user.active()) {
+                throw new ResourceNotFoundException(id);
+            }
+
+            // validate all settings first
+            List<String> validationErrors = UserSettingKey.validateSettings(settingsMap);
+            if (!validationErrors.isEmpty()) {
+                log.error("Invalid settings for user id {}: {}", id, validationErrors);
+                throw new InvalidRequestException(validationErrors);
+            }
+
+            int settingFlags = user.settingFlags();
+            byte[] widgetOrder = user.widgetOrder();
+            for (Map.Entry<String, String> setting : settingsMap.entrySet()) {
+                UserSettingKey key = UserSettingKey.fromKey(setting.getKey()).orElseThrow();
+                if (key == UserSettingKey.WIDGET_ORDER) {
+                    widgetOrder = parseWidgetOrder(setting.getValue());
+                } else if (Boolean.parseBoolean(setting.getValue())) {
+                    settingFlags |= flagOf(key);
+                } else {
+                    settingFlags &= ~flagOf(key);
+                }
+            }
+
+            // settings are not part of the user row, updated time stays as it is like with JPA
+            return new UserRecord(user.id(), user.ssn(), user.firstName(), user.middleName(),
+                    user.familyName(), user.birthDate(), true, user.createdTime(), user.updatedTime(),
+                    null, user.createdBy(), user.updatedBy(), settingFlags, widgetOrder);
+        }).orElseThrow(() -> new ResourceNotFoundException(id));
+
+        log.info("Successfully updated {} settings for user id: {}", settingsMap.size(), id);
+        return mapToUserResponse(updatedUser);
+    }
+
+    private Optional<UserRecord> findActive(Long id) {
+        return offHeapUserStore.find(id).filter(UserRecord::active);
+    }
+
+    private UserRecord withActive(UserRecord user, boolean active, Instant now) {
+        return new UserRecord(user.id(), user.ssn(), user.firstName(), user.middleName(), user.familyName(),
+                user.birthDate(), active, user.createdTime(), now, active ? null : now,
+                user.createdBy(), currentAuditor(), user.settingFlags(), user.widgetOrder());
+    }
+
+    private String currentAuditor() {
+        return auditorProvider.getCurrentAuditor().orElse(null);
+    }
+
+    /*
+    * validate birthdate cannot be older than 100 years
+    * */
+    private void validateBirthDate(LocalDate birthDate) {
+        LocalDate hundredYrsAgo = LocalDate.now().minusYears(100);
+        if (birthDate.isBefore(hundredYrsAgo)) {
+            log.error("Birth date is older than 100 years: {}", birthDate);
+
+            throw new InvalidRequestException(
+                    String.format("Birth date cannot be older than " +
+                            "100 years, rejected value: %s", birthDate)
+            );
+        }
+    }
+
+    /*
+    * boolean settings are one bit each, at the position of their key
+    * */
+    private static int flagOf(UserSettingKey key) {
+        return 1 << key.ordinal();
+    }
+
+    private static int defaultSettingFlags() {
+        int settingFlags = 0;
+        for (UserSettingKey key : UserSettingKey.values()) {
+            if (key != UserSettingKey.WIDGET_ORDER && Boolean.parseBoolean(key.getDefaultValue())) {
+                settingFlags |= flagOf(key);
+            }
+        }
+        return settingFlags;
+    }
+
+    /*
+    * "3,1,2,5,4" as one byte per position, the value is validated against the key's pattern before
+    * */
+    private static byte[] parseWidgetOrder(String value) {
+        String[] positions = value.split(",");
+        byte[] widgetOrder = new byte[OffHeapUserStore.WIDGET_ORDER_BYTES];
+        for (int i = 0; i < widgetOrder.length; i++) {
+            widgetOrder[i] = Byte.parseByte(positions[i]);
+        }
+        return widgetOrder;
+    }
+
+    private static String formatWidgetOrder(byte[] widgetOrder) {
+        StringBuilder value = new StringBuilder(widgetOrder.length * 2);
+        for (byte position : widgetOrder) {
+            if (!value.isEmpty()) {
+                value.append(',');
+            }
+            value.append(position);
+        }
+        return value.toString();
+    }
+
+    private UserResponse.UserData mapToUserData(UserRecord user) {
+        return UserResponse.UserData.builder()
+                .id(user.id())
+                .ssn(String.format("%0" + SsnUtil.SSN_LENGTH + "d", user.ssn()))
+                .firstName(user.firstName())
+                .middleName(user.middleName())
+                .familyName(user.familyName())
+                .birthDate(user.birthDate())
+                .createdTime(user.createdTime())
+                .updatedTime(user.updatedTime())
+                .createdBy(user.createdBy())
+                .updatedBy(user.updatedBy())
+                .isActive(user.active())
+                .deletedTime(user.deletedTime())
+                .build();
+    }
+
+    private static String settingValue(UserRecord user, UserSettingKey key) {
+        return key == UserSettingKey.WIDGET_ORDER
+                ? formatWidgetOrder(user.widgetOrder())
+                : String.valueOf((user.settingFlags() & flagOf(key)) != 0);
+    }
+
+    private UserResponse mapToUserResponse(UserRecord user) {
+        List<Map<String, String>> settingList = new ArrayList<>(UserSettingKey.values().length);
+        for (UserSettingKey key : UserSettingKey.values()) {
+            settingList.add(Map.of(key.getKey(), settingValue(user, key)));
+        }
+
+        return UserResponse.builder()
+                .userData(mapToUserData(user))
+                .userSettings(settingList)
+                .build();
+    }
+
+    private static int countSucceeded(Map<Long, BulkUserStatus> results) {
+        return (int) results.values().stream().filter(BulkUserStatus::isSuccess).count();
+    }
+
+    /*
+    * map per id outcomes to bulk response
+    * */
+    private BulkUserResultResponse toBulkResult(Map<Long, BulkUserStatus> results) {
+        List<BulkUserResultResponse.UserResult> userResults = results.entrySet().stream()
+                .map(entry -> BulkUserResultResponse.UserResult.builder()
+                        .id(entry.getKey())
+                        .status(entry.getValue().name())
+                        .message(entry.getValue().formatMessage(entry.getKey()))
+                        .build())
+                .collect(Collectors.toList());
+
+        int succeeded = countSucceeded(results);
+        return BulkUserResultResponse.builder()
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(userResults)
+                .build();
+    }
+}
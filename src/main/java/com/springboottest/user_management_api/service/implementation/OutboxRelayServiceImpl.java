@@ -0,0 +1,177 @@
+package com.springboottest.user_management_api.service.implementation;
+
+import com.springboottest.user_management_api.config.properties.OutboxProperties;
+import com.springboottest.user_management_api.dto.event.UserLifecycleEvent;
+import com.springboottest.user_management_api.dto.response.UserChangesResponse;
+import com.springboottest.user_management_api.entity.OutboxRelayOffset;
+import com.springboottest.user_management_api.repository.OutboxRelayOffsetRepository;
+import com.springboottest.user_management_api.service.interfaces.ChangeFeedService;
+import com.springboottest.user_management_api.service.interfaces.OutboxRelayService;
+import com.springboottest.user_management_api.service.interfaces.UserEventSink;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/*
+ * Relays the change feed to the configured sink. The change feed table is the outbox, it is
+ * already written in the mutating transaction in seq order, so the relay only keeps its
+ * position. The position moves after the sink accepts, giving at-least-once delivery.
+ * */
+@Slf4j
+@Service
+public class OutboxRelayServiceImpl implements OutboxRelayService {
+
+    static final String RELAY_NAME = "user-events";
+
+    private final ChangeFeedService changeFeedService;
+    private final OutboxRelayOffsetRepository outboxRelayOffsetRepository;
+    private final UserEventSink userEventSink;
+    private final OutboxProperties outboxProperties;
+
+    private final Counter publishedEvents;
+    private final Counter publishFailures;
+    private final Counter backpressureEvents;
+    private final Timer batchTimer;
+
+    private volatile long relayedSeq = -1;
+    private volatile Instant pendingSince;
+
+    public OutboxRelayServiceImpl(ChangeFeedService changeFeedService,
+                                  OutboxRelayOffsetRepository outboxRelayOffsetRepository,
+                                  UserEventSink userEventSink,
+                                  OutboxProperties outboxProperties,
+                                  MeterRegistry meterRegistry) {
+        this.changeFeedService = changeFeedService;
+        this.outboxRelayOffsetRepository = outboxRelayOffsetRepository;
+        this.userEventSink = userEventSink;
+        this.outboxProperties = outboxProperties;
+
+        this.publishedEvents = Counter.builder("outbox.relay.events")
+                .description("Events accepted by the sink")
+                .register(meterRegistry);
+        this.publishFailures = Counter.builder("outbox.relay.failures")
+                .description("Failed publish attempts")
+                .register(meterRegistry);
+        this.backpressureEvents = Counter.builder("outbox.relay.backpressure")
+                .description("Batches the sink only partly accepted")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to publish one batch, retries included")
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.lag", this, relay -> relay.relayedSeq < 0
+                        ? 0 : Math.max(0, relay.changeFeedService.getLatestSeq() - relay.relayedSeq))
+                .description("Change seqs committed but not yet relayed, gaps from rollbacks included")
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.lag.seconds", this, relay -> relay.pendingSince == null
+                        ? 0 : Duration.between(relay.pendingSince, Instant.now()).toMillis() / 1000.0)
+                .description("Age of the oldest change waiting to be relayed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized int relay() {
+        long cursor = getRelayedSeq();
+        int batchSize = outboxProperties.getBatchSize();
+        int relayed = 0;
+
+        for (int batch = 0; batch < outboxProperties.getMaxBatchesPerRun(); batch++) {
+            UserChangesResponse page = changeFeedService.getChanges(cursor, batchSize);
+            if (page.getChanges().isEmpty()) {
+                pendingSince = null;
+                break;
+            }
+
+            List<UserLifecycleEvent> events = page.getChanges().stream()
+                    .map(change -> UserLifecycleEvent.builder()
+                            .eventId(change.getSeq())
+                            .userId(change.getUserId())
+                            .type(change.getType())
+                            .occurredTime(change.getChangedTime())
+                            .build())
+                    .collect(Collectors.toList());
+            pendingSince = events.get(0).getOccurredTime();
+
+            int accepted = batchTimer.record(() -> publishWithRetry(events));
+            if (accepted > 0) {
+                cursor = events.get(accepted - 1).getEventId();
+                saveRelayedSeq(cursor);
+                publishedEvents.increment(accepted);
+                relayed += accepted;
+            }
+
+            // sink is full or failing, leave the rest for the next run
+            if (accepted < events.size()) {
+                if (accepted >= 0) {
+                    backpressureEvents.increment();
+                    pendingSince = events.get(accepted).getOccurredTime();
+                }
+                break;
+            }
+            if (events.size() < batchSize) {
+                pendingSince = null;
+                break;
+            }
+        }
+
+        if (relayed > 0) {
+            log.debug("Relayed {} user events up to seq {}", relayed, cursor);
+        }
+        return relayed;
+    }
+
+    @Override
+    public long getRelayedSeq() {
+        if (relayedSeq < 0) {
+            relayedSeq = outboxRelayOffsetRepository.findById(RELAY_NAME)
+                    .map(OutboxRelayOffset::getLastSeq)
+                    .orElse(0L);
+        }
+        return relayedSeq;
+    }
+
+    /*
+    * Returns events accepted, or -1 once every attempt failed
+    * */
+    private int publishWithRetry(List<UserLifecycleEvent> events) {
+        long backoff = outboxProperties.getInitialBackoff().toMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return userEventSink.publish(events);
+            } catch (RuntimeException e) {
+                publishFailures.increment();
+                if (attempt >= outboxProperties.getMaxAttempts()) {
+                    log.error("Publishing {} user events from seq {} failed after {} attempts",
+                            events.size(), events.get(0).getEventId(), attempt, e);
+                    return -1;
+                }
+                log.warn("Publishing user events failed, attempt {} of {}: {}",
+                        attempt, outboxProperties.getMaxAttempts(), e.getMessage());
+            }
+
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+            backoff = Math.min(backoff * 2, outboxProperties.getMaxBackoff().toMillis());
+        }
+    }
+
+    private void saveRelayedSeq(long seq) {
+        outboxRelayOffsetRepository.save(OutboxRelayOffset.builder()
+                .relayName(RELAY_NAME)
+                .lastSeq(seq)
+                .updatedTime(Instant.now())
+                .build());
+        relayedSeq = seq;
+    }
+}
@@ -0,0 +1,243 @@
+package com.springboottest.user_management_api.service.implementation;
+
+import com.springboottest.user_management_api.config.datasource.ShardRouter;
+import com.springboottest.user_management_api.config.properties.ShardingProperties;
+import com.springboottest.user_management_api.dto.request.CreateUserRequest;
+import com.springboottest.user_management_api.dto.request.UpdateUserRequest;
+import com.springboottest.user_management_api.dto.response.BulkUserResultResponse;
+import com.springboottest.user_management_api.dto.response.UserBatchResponse;
+import com.springboottest.user_management_api.dto.response.UserListResponse;
+import com.springboottest.user_management_api.dto.response.UserResponse;
+import com.springboottest.user_management_api.exception.InvalidRequestException;
+import com.springboottest.user_management_api.service.interfaces.UserCountService;
+import com.springboottest.user_management_api.service.interfaces.UserService;
+import com.springboottest.user_management_api.util.ResponseUtil;
+import com.springboottest.user_management_api.util.SsnUtil;
+import com.springboottest.user_management_api.util.enums.UserField;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/*
+ * Routes single user operations to the user's shard and fans multi user operations
+ * out per shard. Each shard call is its own transaction in UserServiceImpl.
+ * */
+@Slf4j
+@Primary
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardedUserServiceImpl implements UserService {
+
+    private final UserServiceImpl userService;
+    private final UserCountService userCountService;
+    private final ShardRouter shardRouter;
+    private final ShardingProperties shardingProperties;
+
+    @Override
+    public UserListResponse getAllUsers(int maxRecords, int offset, boolean includeTotal) {
+        // offset is a page number, each shard contributes at most everything up to the end of that page
+        int needed = offsetRows(maxRecords, offset);
+
+        List<List<UserResponse.UserData>> shardPages = shardRouter.scatter(shard ->
+                userService.getAllUsers(needed, 0, false).getUserData());
+
+        return UserListResponse.builder()
+                .userData(mergeById(shardPages, needed - maxRecords, maxRecords))
+                .maxRecords(maxRecords)
+                .offset(offset)
+                .total(includeTotal ? userCountService.getActiveUserCount() : null)
+                .build();
+    }
+
+    @Override
+    public UserListResponse getAllUsers(int maxRecords, int offset, boolean includeTotal, Set<UserField> fields) {
+        int needed = offsetRows(maxRecords, offset);
+
+        // id is part of every field set, the pages still merge by it
+        List<List<UserResponse.UserData>> shardPages = shardRouter.scatter(shard ->
+                userService.getAllUsers(needed, 0, false, fields).getUserData());
+
+        return UserListResponse.builder()
+                .userData(mergeById(shardPages, needed - maxRecords, maxRecords))
+                .maxRecords(maxRecords)
+                .offset(offset)
+                .total(includeTotal ? userCountService.getActiveUserCount() : null)
+                .build();
+    }
+
+    /*
+    * Each shard seeks to the cursor in its index, a page costs maxRecords rows per shard at any depth
+    * */
+    @Override
+    public UserListResponse getUsersAfter(long afterId, int maxRecords, boolean includeTotal) {
+        List<List<UserResponse.UserData>> shardPages = shardRouter.scatter(shard ->
+                userService.getUsersAfter(afterId, maxRecords, false).getUserData());
+
+        return ResponseUtil.afterPage(mergeById(shardPages, 0, maxRecords), afterId, maxRecords,
+                includeTotal ? userCountService.getActiveUserCount() : null);
+    }
+
+    @Override
+    public UserListResponse getUsersAfter(long afterId, int maxRecords, boolean includeTotal, Set<UserField> fields) {
+        List<List<UserResponse.UserData>> shardPages = shardRouter.scatter(shard ->
+                userService.getUsersAfter(afterId, maxRecords, false, fields).getUserData());
+
+        return ResponseUtil.afterPage(mergeById(shardPages, 0, maxRecords), afterId, maxRecords,
+                includeTotal ? userCountService.getActiveUserCount() : null);
+    }
+
+    @Override
+    public long getActiveUserCount() {
+        return userCountService.getActiveUserCount();
+    }
+
+    @Override
+    public UserResponse getUserById(Long id) {
+        return shardRouter.onShard(shardRouter.shardOfUser(id), () -> userService.getUserById(id));
+    }
+
+    @Override
+    public UserResponse getUserById(Long id, Set<UserField> fields) {
+        return shardRouter.onShard(shardRouter.shardOfUser(id), () -> userService.getUserById(id, fields));
+    }
+
+    @Override
+    public Map<String, String> getUserSettings(Long id) {
+        return shardRouter.onShard(shardRouter.shardOfUser(id), () -> userService.getUserSettings(id));
+    }
+
+    @Override
+    public UserBatchResponse getUsersByIds(List<Long> ids) {
+        Map<Long, UserResponse> found = new HashMap<>();
+        shardRouter.groupByShard(new LinkedHashSet<>(ids)).forEach((shard, shardIds) ->
+                shardRouter.onShard(shard, () -> userService.getUsersByIds(shardIds)).getUsers()
+                        .forEach(user -> found.put(user.getUserData().getId(), user)));
+
+        List<UserResponse> users = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : new LinkedHashSet<>(ids)) {
+            UserResponse user = found.get(id);
+            if (user != null) {
+                users.add(user);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        return UserBatchResponse.builder()
+                .users(users)
+                .missingIds(missingIds)
+                .build();
+    }
+
+    @Override
+    public UserResponse createUser(CreateUserRequest request) {
+        int shard = shardRouter.shardOfSsn(SsnUtil.padSSN(request.getSsn()));
+        return shardRouter.onShard(shard, () -> userService.createUser(request));
+    }
+
+    @Override
+    public UserResponse updateUser(Long id, UpdateUserRequest request) {
+        return shardRouter.onShard(shardRouter.shardOfUser(id), () -> userService.updateUser(id, request));
+    }
+
+    @Override
+    public void deleteUser(Long id) {
+        shardRouter.runOnShard(shardRouter.shardOfUser(id), () -> userService.deleteUser(id));
+    }
+
+    @Override
+    public UserResponse restoreUser(Long id) {
+        return shardRouter.onShard(shardRouter.shardOfUser(id), () -> userService.restoreUser(id));
+    }
+
+    @Override
+    public BulkUserResultResponse deleteUsers(List<Long> ids) {
+        return perShard(ids, userService::deleteUsers);
+    }
+
+    @Override
+    public BulkUserResultResponse restoreUsers(List<Long> ids) {
+        return perShard(ids, userService::restoreUsers);
+    }
+
+    @Override
+    public UserResponse updateUserSettings(Long id, List<Map<String, String>> settings) {
+        return shardRouter.onShard(shardRouter.shardOfUser(id), () -> userService.updateUserSettings(id, settings));
+    }
+
+    /*
+    * Rows every shard reads for an offset page, an offset past the configured depth is rejected
+    * instead of reading that many rows from each shard
+    * */
+    private int offsetRows(int maxRecords, int offset) {
+        long rows = ((long) offset + 1) * maxRecords;
+        if (rows > shardingProperties.getMaxOffsetRows()) {
+            throw new InvalidRequestException("Offset " + offset + " reaches past user "
+                    + shardingProperties.getMaxOffsetRows() + ", page further with after_id");
+        }
+        return (int) rows;
+    }
+
+    /*
+    * k-way merge of per shard pages that are each ordered by id
+    * */
+    private List<UserResponse.UserData> mergeById(List<List<UserResponse.UserData>> shardPages, int skip, int limit) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Comparator.comparing(
+                (int[] head) -> shardPages.get(head[0]).get(head[1]).getId()));
+        for (int shard = 0; shard < shardPages.size(); shard++) {
+            if (!shardPages.get(shard).isEmpty()) {
+                heads.add(new int[]{shard, 0});
+            }
+        }
+
+        List<UserResponse.UserData> page = new ArrayList<>(limit);
+        int position = 0;
+        while (!heads.isEmpty() && page.size() < limit) {
+            int[] head = heads.poll();
+            List<UserResponse.UserData> shardPage = shardPages.get(head[0]);
+            if (position++ >= skip) {
+                page.add(shardPage.get(head[1]));
+            }
+            if (head[1] + 1 < shardPage.size()) {
+                heads.add(new int[]{head[0], head[1] + 1});
+            }
+        }
+        return page;
+    }
+
+    /*
+    * Run a bulk operation once per shard and merge the results back into request order
+    * */
+    private BulkUserResultResponse perShard(List<Long> ids, Function<List<Long>, BulkUserResultResponse> operation) {
+        Map<Long, BulkUserResultResponse.UserResult> results = new HashMap<>();
+        int succeeded = 0;
+        int failed = 0;
+        for (Map.Entry<Integer, List<Long>> group : shardRouter.groupByShard(new LinkedHashSet<>(ids)).entrySet()) {
+            BulkUserResultResponse shardResult = shardRouter.onShard(group.getKey(),
+                    () -> operation.apply(group.getValue()));
+            shardResult.getResults().forEach(result -> results.put(result.getId(), result));
+            succeeded += shardResult.getSucceeded();
+            failed += shardResult.getFailed();
+        }
+
+        return BulkUserResultResponse.builder()
+                .succeeded(succeeded)
+                .failed(failed)
+                .results(new LinkedHashSet<>(ids).stream().map(results::get).toList())
+                .build();
+    }
+}
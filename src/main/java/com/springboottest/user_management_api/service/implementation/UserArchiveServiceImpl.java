@@ -0,0 +1,65 @@
+package com.springboottest.user_management_api.service.implementation;
+
+import com.springboottest.user_management_api.entity.User;
+import com.springboottest.user_management_api.repository.UserArchiveRepository;
+import com.springboottest.user_management_api.repository.UserRepository;
+import com.springboottest.user_management_api.service.interfaces.UserArchiveService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserArchiveServiceImpl implements UserArchiveService {
+
+    private final UserArchiveRepository userArchiveRepository;
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int archiveChunk(Instant cutoff, int chunkSize) {
+        List<Long> ids = userArchiveRepository.findArchivableUserIds(cutoff, chunkSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        // settings first, they reference users through the foreign key
+        int settings = userArchiveRepository.copySettingsToArchive(ids, cutoff);
+        userArchiveRepository.copyUsersToArchive(ids, cutoff, Instant.now());
+        userArchiveRepository.deleteSettings(ids, cutoff);
+        int archived = userArchiveRepository.deleteUsers(ids, cutoff);
+
+        log.info("Archived {} users with {} settings, id range {}-{}",
+                archived, settings, ids.get(0), ids.get(ids.size() - 1));
+        return archived;
+    }
+
+    @Override
+    @Transactional
+    public Optional<User> restoreFromArchive(Long id) {
+        if (!userArchiveRepository.existsById(id)) {
+            return Optional.empty();
+        }
+
+        log.info("Moving user with id {} back from archive", id);
+        userArchiveRepository.copyUserFromArchive(id);
+        userArchiveRepository.copySettingsFromArchive(id);
+        userArchiveRepository.deleteArchivedSettings(id);
+        userArchiveRepository.deleteArchivedUser(id);
+
+        return userRepository.findAllUserById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public boolean existsBySsn(String ssn) {
+        return userArchiveRepository.existsBySsn(ssn);
+    }
+}
@@ -0,0 +1,276 @@
+package com.springboottest.user_management_api.service.implementation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboottest.user_management_api.config.datasource.ShardRouter;
+import com.springboottest.user_management_api.config.properties.AuditProperties;
+import com.springboottest.user_management_api.dto.event.UserAuditRecord;
+import com.springboottest.user_management_api.service.interfaces.UserAuditService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/*
+ * Commits hand their audit records to a bounded queue and one writer thread inserts them in
+ * JDBC batches on the user's shard, so auditing adds no statement to the audited transaction.
+ * Records that find the queue full, or whose batch fails to insert, are appended to a spill
+ * file forced to disk and inserted by the replay job later. A replay interrupted by a crash
+ * runs again from the start, so a spilled record may be inserted twice but is never lost.
+ * */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "app.audit", name = "enabled", havingValue = "true")
+public class UserAuditServiceImpl implements UserAuditService {
+
+    private static final String INSERT_RECORD = "INSERT INTO user_audit_log (user_id, entity_type, entity_id, " +
+            "field_name, old_value, new_value, actor, changed_time) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final Duration FLUSH_TIMEOUT = Duration.ofSeconds(10);
+
+    private final DataSource dataSource;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+    private final AuditProperties auditProperties;
+
+    private final BlockingQueue<UserAuditRecord> queue;
+    private final Path spillPath;
+    private final Path replayPath;
+    private final Object spillLock = new Object();
+
+    // records taken by the queue, and records of those written or spilled
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong settled = new AtomicLong();
+
+    private final Counter written;
+    private final Counter spilled;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public UserAuditServiceImpl(DataSource dataSource, ShardRouter shardRouter, ObjectMapper objectMapper,
+                                AuditProperties auditProperties, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.shardRouter = shardRouter;
+        this.objectMapper = objectMapper;
+        this.auditProperties = auditProperties;
+        this.queue = new ArrayBlockingQueue<>(auditProperties.getQueueCapacity());
+        this.spillPath = Path.of(auditProperties.getSpillPath()).toAbsolutePath();
+        this.replayPath = spillPath.resolveSibling(spillPath.getFileName() + ".replay");
+        this.written = Counter.builder("audit.records.written").register(meterRegistry);
+        this.spilled = Counter.builder("audit.records.spilled").register(meterRegistry);
+        Gauge.builder("audit.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(auditProperties.getPollInterval().multipliedBy(2).toMillis() + FLUSH_TIMEOUT.toMillis());
+        flush();
+    }
+
+    @Override
+    public void record(List<UserAuditRecord> records) {
+        List<UserAuditRecord> overflow = null;
+        for (UserAuditRecord record : records) {
+            if (queue.offer(record)) {
+                accepted.incrementAndGet();
+            } else {
+                if (overflow == null) {
+                    overflow = new ArrayList<>();
+                }
+                overflow.add(record);
+            }
+        }
+
+        if (overflow != null) {
+            log.warn("Audit queue full, spilling {} records", overflow.size());
+            spill(overflow);
+        }
+    }
+
+    @Override
+    public void flush() {
+        long target = accepted.get();
+        List<UserAuditRecord> batch = new ArrayList<>(auditProperties.getBatchSize());
+        while (queue.drainTo(batch, auditProperties.getBatchSize()) > 0) {
+            writeOrSpill(batch);
+            batch.clear();
+        }
+
+        // a batch the writer took before the drain is still being written
+        long deadline = System.nanoTime() + FLUSH_TIMEOUT.toNanos();
+        while (settled.get() < target && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public synchronized int replaySpill() {
+        synchronized (spillLock) {
+            // a replay file left behind by a failed or interrupted replay goes first, new spills wait
+            if (!Files.exists(replayPath)) {
+                if (!Files.exists(spillPath)) {
+                    return 0;
+                }
+                try {
+                    Files.move(spillPath, replayPath, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        int replayed = 0;
+        List<UserAuditRecord> batch = new ArrayList<>(auditProperties.getBatchSize());
+        try (BufferedReader reader = Files.newBufferedReader(replayPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(objectMapper.readValue(line, UserAuditRecord.class));
+                } catch (JsonProcessingException e) {
+                    // only the last line can be torn, by a crash in the middle of a spill
+                    log.warn("Skipping unreadable spilled audit record: {}", line);
+                    continue;
+                }
+                if (batch.size() == auditProperties.getBatchSize()) {
+                    replayed += insert(batch);
+                    batch.clear();
+                }
+            }
+            replayed += insert(batch);
+            Files.delete(replayPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return replayed;
+    }
+
+    private void writeLoop() {
+        List<UserAuditRecord> batch = new ArrayList<>(auditProperties.getBatchSize());
+        while (running) {
+            try {
+                UserAuditRecord first = queue.poll(auditProperties.getPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, auditProperties.getBatchSize() - 1);
+                writeOrSpill(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Audit writer failed on a batch of {} records", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeOrSpill(List<UserAuditRecord> batch) {
+        try {
+            insert(batch);
+        } catch (DataAccessException e) {
+            log.warn("Audit batch of {} records failed to insert, spilling it", batch.size(), e);
+            spill(batch);
+        } finally {
+            settled.addAndGet(batch.size());
+        }
+    }
+
+    private int insert(List<UserAuditRecord> records) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Map<Integer, List<UserAuditRecord>> byShard = records.stream()
+                .collect(Collectors.groupingBy(record -> shardRouter.shardOfUser(record.getUserId())));
+        byShard.forEach((shard, shardRecords) -> shardRouter.runOnShard(shard, () ->
+                jdbcTemplate.batchUpdate(INSERT_RECORD, shardRecords, auditProperties.getBatchSize(), (statement, record) -> {
+                    statement.setLong(1, record.getUserId());
+                    statement.setString(2, record.getEntityType());
+                    statement.setLong(3, record.getEntityId());
+                    statement.setString(4, record.getFieldName());
+                    statement.setString(5, record.getOldValue());
+                    statement.setString(6, record.getNewValue());
+                    statement.setString(7, record.getActor());
+                    statement.setTimestamp(8, Timestamp.from(record.getChangedTime()));
+                })));
+        written.increment(records.size());
+        return records.size();
+    }
+
+    private void spill(List<UserAuditRecord> records) {
+        StringBuilder lines = new StringBuilder(records.size() * 192);
+        try {
+            for (UserAuditRecord record : records) {
+                lines.append(objectMapper.writeValueAsString(record)).append('\n');
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize audit record", e);
+        }
+
+        synchronized (spillLock) {
+            try {
+                Files.createDirectories(spillPath.getParent());
+                try (FileChannel channel = FileChannel.open(spillPath,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                log.error("Failed to spill {} audit records, they are lost", records.size(), e);
+                return;
+            }
+        }
+        spilled.increment(records.size());
+    }
+}
@@ -2,6 +2,8 @@ package com.springboottest.user_management_api.service.implementation;
 
 import com.springboottest.user_management_api.dto.request.CreateUserRequest;
 import com.springboottest.user_management_api.dto.request.UpdateUserRequest;
+import com.springboottest.user_management_api.dto.response.BulkUserResultResponse;
+import com.springboottest.user_management_api.dto.response.UserBatchResponse;
 import com.springboottest.user_management_api.dto.response.UserListResponse;
 import com.springboottest.user_management_api.dto.response.UserResponse;
 import com.springboottest.user_management_api.entity.User;
@@ -9,23 +11,46 @@ import com.springboottest.user_management_api.exception.DuplicateResourceExcepti
 import com.springboottest.user_management_api.exception.InvalidRequestException;
 import com.springboottest.user_management_api.exception.ResourceNotFoundException;
 import com.springboottest.user_management_api.repository.UserRepository;
+import com.springboottest.user_management_api.service.interfaces.ChangeFeedService;
+import com.springboottest.user_management_api.service.interfaces.UserArchiveService;
+import com.springboottest.user_management_api.service.interfaces.UserCountService;
 import com.springboottest.user_management_api.service.interfaces.UserService;
 import com.springboottest.user_management_api.service.interfaces.UserSettingService;
 import com.springboottest.user_management_api.util.ResponseUtil;
+import com.springboottest.user_management_api.util.SingleFlight;
 import com.springboottest.user_management_api.util.SsnUtil;
+import com.springboottest.user_management_api.util.UserAuditEventListener;
+import com.springboottest.user_management_api.util.UserResponseCache;
+import com.springboottest.user_management_api.util.enums.BulkUserStatus;
+import com.springboottest.user_management_api.util.enums.UserChangeType;
+import com.springboottest.user_management_api.util.enums.UserField;
+import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -33,19 +58,41 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private static final int BULK_CHUNK_SIZE = 100;
+
+    // user properties a bulk delete or restore changes, in audit order
+    private static final String[] DELETION_STATE = {"isActive", "deletedTime"};
+
     private final UserRepository userRepository;
     private final UserSettingService userSettingService;
+    private final UserArchiveService userArchiveService;
+    private final UserCountService userCountService;
+    private final ChangeFeedService changeFeedService;
     private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final SingleFlight<Long, Optional<UserResponse>> userLoads;
+    private final UserResponseCache userResponseCache;
+    private final ObjectProvider<UserAuditEventListener> userAuditEventListener;
+
+    @PostConstruct
+    void forgetLoadsOnWrite() {
+        // a read arriving after a commit must not join a load that started before it. Forgotten
+        // before the cache is invalidated, so a read stamped after the invalidation never joins an old load
+        changeFeedService.addCommitListener(userIds -> userIds.forEach(id -> {
+            userLoads.forget(id);
+            userResponseCache.invalidate(id);
+        }));
+    }
 
     @Override
     @Transactional(readOnly = true)
-    public UserListResponse getAllUsers(int maxRecords, int offset) {
+    public UserListResponse getAllUsers(int maxRecords, int offset, boolean includeTotal) {
         log.info("Fetching users with maxRecords: {}, offset: {}", maxRecords, offset);
 
         Pageable pageable = PageRequest.of(offset, maxRecords);
-        Page<User> userPage = userRepository.findAllActiveUsers(pageable);
+        List<User> users = userRepository.findActiveUsers(pageable);
 
-        List<UserResponse.UserData> userDataList = userPage.getContent().stream()
+        List<UserResponse.UserData> userDataList = users.stream()
                 .map(ResponseUtil::mapToUserData)
                 .collect(Collectors.toList());
 
@@ -53,17 +100,167 @@ public class UserServiceImpl implements UserService {
                 .userData(userDataList)
                 .maxRecords(maxRecords)
                 .offset(offset)
+                .total(includeTotal ? userCountService.getActiveUserCount() : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserListResponse getAllUsers(int maxRecords, int offset, boolean includeTotal, Set<UserField> fields) {
+        log.info("Fetching users with maxRecords: {}, offset: {}, fields: {}", maxRecords, offset, fields);
+
+        List<UserResponse.UserData> userDataList =
+                userRepository.findActiveUserData(fields, PageRequest.of(offset, maxRecords));
+
+        return UserListResponse.builder()
+                .userData(userDataList)
+                .maxRecords(maxRecords)
+                .offset(offset)
+                .total(includeTotal ? userCountService.getActiveUserCount() : null)
                 .build();
     }
 
     @Override
     @Transactional(readOnly = true)
+    public UserListResponse getUsersAfter(long afterId, int maxRecords, boolean includeTotal) {
+        log.info("Fetching users with maxRecords: {}, afterId: {}", maxRecords, afterId);
+
+        List<UserResponse.UserData> userDataList = userRepository
+                .findActiveUsersAfter(afterId, Limit.of(maxRecords)).stream()
+                .map(ResponseUtil::mapToUserData)
+                .collect(Collectors.toList());
+
+        return ResponseUtil.afterPage(userDataList, afterId, maxRecords,
+                includeTotal ? userCountService.getActiveUserCount() : null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UserListResponse getUsersAfter(long afterId, int maxRecords, boolean includeTotal, Set<UserField> fields) {
+        log.info("Fetching users with maxRecords: {}, afterId: {}, fields: {}", maxRecords, afterId, fields);
+
+        return ResponseUtil.afterPage(userRepository.findActiveUserDataAfter(fields, afterId, maxRecords),
+                afterId, maxRecords, includeTotal ? userCountService.getActiveUserCount() : null);
+    }
+
+    @Override
+    public long getActiveUserCount() {
+        return userCountService.getActiveUserCount();
+    }
+
+    /*
+    * Concurrent reads of the same user share one load outside any transaction, so callers
+    * waiting on it do not each hold a connection. Inside a caller's transaction the read must
+    * see that transaction's own writes and is never shared or cached
+    * */
+    @Override
     public UserResponse getUserById(Long id) {
         log.info("Fetching user by id: {}", id);
 
-        User user = userRepository.findActiveUserById(id)
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return findUser(id).orElseThrow(() -> new ResourceNotFoundException(id));
+        }
+
+        UserResponse cached = userResponseCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+        long stamp = userResponseCache.stamp(id);
+        Optional<UserResponse> user = userLoads.load(id, () -> inReadOnlyTransaction(() -> findUser(id)));
+        user.ifPresent(response -> userResponseCache.put(id, response, stamp));
+        return user.orElseThrow(() -> new ResourceNotFoundException(id));
+    }
+
+    /*
+    * A user already in the read cache is trimmed to the fields, otherwise only their columns are
+    * selected and settings are queried on their own when asked for. Narrow reads do not fill the
+    * cache, which holds whole users
+    * */
+    @Override
+    public UserResponse getUserById(Long id, Set<UserField> fields) {
+        log.info("Fetching user by id: {}, fields: {}", id, fields);
+
+        UserResponse cached = TransactionSynchronizationManager.isActualTransactionActive()
+                ? null
+                : userResponseCache.get(id);
+        if (cached != null) {
+            return ResponseUtil.trimUserResponse(cached, fields);
+        }
+
+        return inReadOnlyTransaction(() -> findUser(id, fields))
                 .orElseThrow(() -> new ResourceNotFoundException(id));
-        return ResponseUtil.mapToUserResponse(user);
+    }
+
+    /*
+    * A user already in the read cache is answered from it, otherwise only the key value pairs
+    * are queried. The narrow read does not fill the cache, which holds whole users
+    * */
+    @Override
+    public Map<String, String> getUserSettings(Long id) {
+        log.info("Fetching settings of user id: {}", id);
+
+        UserResponse cached = TransactionSynchronizationManager.isActualTransactionActive()
+                ? null
+                : userResponseCache.get(id);
+        if (cached == null) {
+            return userSettingService.getUserSettings(id);
+        }
+
+        Map<String, String> settings = new TreeMap<>();
+        cached.getUserSettings().forEach(settings::putAll);
+        return settings;
+    }
+
+    /*
+    * Outside a transaction users in the read cache are answered from it and only the rest are
+    * loaded, each filling the cache under the stamp taken before its load as in getUserById
+    * */
+    @Override
+    public UserBatchResponse getUsersByIds(List<Long> ids) {
+        Set<Long> requestedIds = new LinkedHashSet<>(ids);
+        log.info("Fetching {} users by id", requestedIds.size());
+
+        Map<Long, Optional<UserResponse>> usersById = TransactionSynchronizationManager.isActualTransactionActive()
+                ? findUsers(requestedIds)
+                : loadUsers(requestedIds);
+
+        List<UserResponse> users = new ArrayList<>(usersById.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requestedIds) {
+            Optional<UserResponse> user = usersById.get(id);
+            if (user != null && user.isPresent()) {
+                users.add(user.get());
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        return UserBatchResponse.builder()
+                .users(users)
+                .missingIds(missingIds)
+                .build();
+    }
+
+    private Map<Long, Optional<UserResponse>> loadUsers(Set<Long> ids) {
+        Map<Long, Optional<UserResponse>> usersById = new HashMap<>();
+        Map<Long, Long> stamps = new HashMap<>();
+        for (Long id : ids) {
+            UserResponse cached = userResponseCache.get(id);
+            if (cached != null) {
+                usersById.put(id, Optional.of(cached));
+            } else {
+                stamps.put(id, userResponseCache.stamp(id));
+            }
+        }
+        if (stamps.isEmpty()) {
+            return usersById;
+        }
+
+        Map<Long, Optional<UserResponse>> loaded =
+                userLoads.loadAll(stamps.keySet(), ledIds -> inReadOnlyTransaction(() -> findUsers(ledIds)));
+        loaded.forEach((id, user) -> user.ifPresent(response -> userResponseCache.put(id, response, stamps.get(id))));
+        usersById.putAll(loaded);
+        return usersById;
     }
 
     @Override
@@ -74,8 +271,8 @@ public class UserServiceImpl implements UserService {
         // pad ssn with leading zeros
         String paddedSsn = SsnUtil.padSSN(request.getSsn());
 
-        //check if ssn already exist
-        if (userRepository.existsBySsn(paddedSsn)) {
+        //check if ssn already exist, archived users keep their ssn reserved
+        if (userRepository.existsBySsn(paddedSsn) || userArchiveService.existsBySsn(paddedSsn)) {
             log.error("SSN already exists: {}", paddedSsn);
             throw new DuplicateResourceException(paddedSsn);
         }
@@ -99,6 +296,8 @@ public class UserServiceImpl implements UserService {
 
         //create default settings for user
         userSettingService.createDefaultSettings(savedUser);
+        userCountService.adjustAfterCommit(1);
+        changeFeedService.recordChange(savedUser.getId(), UserChangeType.CREATED);
 
         return ResponseUtil.mapToUserResponse(savedUser);
     }
@@ -123,6 +322,7 @@ public class UserServiceImpl implements UserService {
 
         //save updated user
         User updatedUser = userRepository.save(user);
+        changeFeedService.recordChange(id, UserChangeType.UPDATED);
         log.info("User updated successfully with id: {}", updatedUser.getId());
 
         //fetch user with settings
@@ -147,6 +347,8 @@ public class UserServiceImpl implements UserService {
         user.setDeletedTime(Instant.now());
 
         userRepository.save(user);
+        userCountService.adjustAfterCommit(-1);
+        changeFeedService.recordChange(id, UserChangeType.DELETED);
         log.info("User soft deleted successfully with id: {}", id);
     }
 
@@ -155,8 +357,9 @@ public class UserServiceImpl implements UserService {
     public UserResponse restoreUser(Long id) {
         log.info("Restoring user with id: {}", id);
 
-        // find user including deleted ones
+        // find user including deleted ones, falling back to the archive
         User user = userRepository.findAllUserById(id)
+                .or(() -> userArchiveService.restoreFromArchive(id))
                 .orElseThrow(() -> new ResourceNotFoundException(id));
 
         // check if user is actually deleted
@@ -170,16 +373,120 @@ public class UserServiceImpl implements UserService {
         user.setDeletedTime(null);
 
         User restoredUser = userRepository.save(user);
+        userCountService.adjustAfterCommit(1);
+        changeFeedService.recordChange(id, UserChangeType.RESTORED);
         log.info("User restored successfully with id: {}", id);
 
         return ResponseUtil.mapToUserResponse(restoredUser);
     }
 
+    @Override
+    @Transactional
+    public BulkUserResultResponse deleteUsers(List<Long> ids) {
+        Map<Long, BulkUserStatus> results = new LinkedHashMap<>();
+        Instant now = Instant.now();
+        int deleted = 0;
+
+        for (List<Long> chunk : chunk(ids)) {
+            // ids that are not active are reported as not found, like deleteUser
+            Set<Long> activeIds = new HashSet<>(userRepository.findActiveIds(chunk));
+            if (!activeIds.isEmpty()) {
+                deleted += userRepository.softDeleteByIds(activeIds, now);
+                Map<Long, Object[]> oldStates = new HashMap<>();
+                activeIds.forEach(id -> oldStates.put(id, new Object[]{true, null}));
+                auditDeletionState(oldStates, new Object[]{false, now});
+                changeFeedService.recordChanges(activeIds, UserChangeType.DELETED);
+            }
+            chunk.forEach(id -> results.put(id,
+                    activeIds.contains(id) ? BulkUserStatus.DELETED : BulkUserStatus.NOT_FOUND));
+        }
+
+        userCountService.adjustAfterCommit(-deleted);
+        log.info("Bulk soft deleted {} of {} users", deleted, results.size());
+        return toBulkResult(results);
+    }
+
+    @Override
+    @Transactional
+    public BulkUserResultResponse restoreUsers(List<Long> ids) {
+        Map<Long, BulkUserStatus> results = new LinkedHashMap<>();
+        Instant now = Instant.now();
+        int restored = 0;
+
+        for (List<Long> chunk : chunk(ids)) {
+            // archived users are moved back first so the bulk update picks them up
+            Set<Long> deletedIds = new HashSet<>(userRepository.findDeletedIds(chunk));
+            Set<Long> activeIds = new HashSet<>(userRepository.findActiveIds(chunk));
+            for (Long id : chunk) {
+                if (!deletedIds.contains(id) && !activeIds.contains(id)
+                        && userArchiveService.restoreFromArchive(id).isPresent()) {
+                    deletedIds.add(id);
+                }
+            }
+
+            if (!deletedIds.isEmpty()) {
+                Map<Long, Object[]> oldStates = userAuditEventListener.getIfAvailable() == null
+                        ? Map.of()
+                        : deletionStates(deletedIds);
+                restored += userRepository.restoreByIds(deletedIds, now);
+                auditDeletionState(oldStates, new Object[]{true, null});
+                changeFeedService.recordChanges(deletedIds, UserChangeType.RESTORED);
+            }
+            for (Long id : chunk) {
+                if (deletedIds.contains(id)) {
+                    results.put(id, BulkUserStatus.RESTORED);
+                } else if (activeIds.contains(id)) {
+                    results.put(id, BulkUserStatus.ALREADY_ACTIVE);
+                } else {
+                    results.put(id, BulkUserStatus.NOT_FOUND);
+                }
+            }
+        }
+
+        userCountService.adjustAfterCommit(restored);
+        log.info("Bulk restored {} of {} users", restored, results.size());
+        return toBulkResult(results);
+    }
+
     @Override
     @Transactional
     public UserResponse updateUserSettings(Long id, List<Map<String, String>> settings) {
         log.info("Updating settings for user with id: {}", id);
-        return userSettingService.updateUserSettings(id, settings);
+        UserResponse response = userSettingService.updateUserSettings(id, settings);
+        changeFeedService.recordChange(id, UserChangeType.SETTINGS_UPDATED);
+        return response;
+    }
+
+    /*
+    * split distinct ids into chunks bounding the IN list size
+    * */
+    private List<List<Long>> chunk(List<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < distinctIds.size(); i += BULK_CHUNK_SIZE) {
+            chunks.add(distinctIds.subList(i, Math.min(i + BULK_CHUNK_SIZE, distinctIds.size())));
+        }
+        return chunks;
+    }
+
+    /*
+    * map per id outcomes to bulk response
+    * */
+    private BulkUserResultResponse toBulkResult(Map<Long, BulkUserStatus> results) {
+        List<BulkUserResultResponse.UserResult> userResults = results.entrySet().stream()
+                .map(entry -> BulkUserResultResponse.UserResult.builder()
+                        .id(entry.getKey())
+                        .status(entry.getValue().name())
+                        .message(entry.getValue().formatMessage(entry.getKey()))
+                        .build())
+                .collect(Collectors.toList());
+
+        int succeeded = (int) results.values().stream().filter(BulkUserStatus::isSuccess).count();
+        return BulkUserResultResponse.builder()
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(userResults)
+                .build();
     }
 
     /*
@@ -235,4 +542,59 @@ public class UserServiceImpl implements UserService {
 //                .userSettings(settingList)
 //                .build();
 //    }
+
+    private Optional<UserResponse> findUser(Long id) {
+        return userRepository.findActiveUserById(id).map(ResponseUtil::mapToUserResponse);
+    }
+
+    private Optional<UserResponse> findUser(Long id, Set<UserField> fields) {
+        return userRepository.findActiveUserData(id, fields).map(userData -> UserResponse.builder()
+                .userData(userData)
+                .userSettings(fields.contains(UserField.USER_SETTINGS)
+                        ? toSettingList(userSettingService.getUserSettings(id))
+                        : null)
+                .build());
+    }
+
+    private static List<Map<String, String>> toSettingList(Map<String, String> settings) {
+        return settings.entrySet().stream()
+                .map(setting -> Map.of(setting.getKey(), setting.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    /*
+    * One IN query for users, settings are batch fetched on first access. Every id gets an entry
+    * */
+    private Map<Long, Optional<UserResponse>> findUsers(Set<Long> ids) {
+        Map<Long, Optional<UserResponse>> usersById = new HashMap<>();
+        for (User user : userRepository.findActiveUsersByIds(ids)) {
+            usersById.put(user.getId(), Optional.of(ResponseUtil.mapToUserResponse(user)));
+        }
+        ids.forEach(id -> usersById.putIfAbsent(id, Optional.empty()));
+        return usersById;
+    }
+
+    private Map<Long, Object[]> deletionStates(Set<Long> ids) {
+        Map<Long, Object[]> states = new HashMap<>();
+        for (UserRepository.DeletionState state : userRepository.findDeletionStates(ids)) {
+            states.put(state.getId(), new Object[]{state.getIsActive(), state.getDeletedTime()});
+        }
+        return states;
+    }
+
+    /*
+    * Bulk updates raise no entity events, the audit listener is handed their change here
+    * */
+    private void auditDeletionState(Map<Long, Object[]> oldStates, Object[] newState) {
+        UserAuditEventListener listener = userAuditEventListener.getIfAvailable();
+        if (listener != null && !oldStates.isEmpty()) {
+            listener.auditBulkUpdate(entityManager, DELETION_STATE, oldStates, newState);
+        }
+    }
+
+    private <T> T inReadOnlyTransaction(Supplier<T> work) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate.execute(status -> work.get());
+    }
 }
@@ -9,13 +9,14 @@ import com.springboottest.user_management_api.repository.UserRepository;
 import com.springboottest.user_management_api.repository.UserSettingRepository;
 import com.springboottest.user_management_api.service.interfaces.UserSettingService;
 import com.springboottest.user_management_api.util.ResponseUtil;
-import com.springboottest.user_management_api.util.enums.UserSettingKey;
+import com.springboottest.user_management_api.util.SettingsSchemaRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -27,14 +28,15 @@ public class UserSettingServiceImpl implements UserSettingService {
 
     private final UserSettingRepository userSettingRepository;
     private final UserRepository userRepository;
+    private final SettingsSchemaRegistry settingsSchemaRegistry;
 
     @Override
     @Transactional
     public void createDefaultSettings(User user) {
         log.info("Creating default settings for user id: {}", user.getId());
 
-        // get default settings from enum
-        Map<String, String> defaultSettings = UserSettingKey.getDefaultSettings();
+        // get default settings from the current schema
+        Map<String, String> defaultSettings = settingsSchemaRegistry.current().defaults();
 
         // create user settings entity
         defaultSettings.forEach((key, value) -> {
@@ -49,6 +51,23 @@ public class UserSettingServiceImpl implements UserSettingService {
         log.info("Created {} default settings for user id: {}", defaultSettings.size(), user.getId());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, String> getUserSettings(Long userId) {
+        log.info("Fetching settings for user id: {}", userId);
+
+        List<UserSettingRepository.SettingValue> values = userSettingRepository.findActiveUserSettingValues(userId);
+
+        // no rows is either a user without settings or no active user at all
+        if (values.isEmpty() && userRepository.findActiveIds(List.of(userId)).isEmpty()) {
+            throw new ResourceNotFoundException(userId);
+        }
+
+        Map<String, String> settings = new LinkedHashMap<>();
+        values.forEach(value -> settings.put(value.getKey(), value.getValue()));
+        return settings;
+    }
+
     @Override
     @Transactional
     public UserResponse updateUserSettings(Long userId, List<Map<String, String>> settings) {
@@ -67,7 +86,7 @@ public class UserSettingServiceImpl implements UserSettingService {
 
         log.info("about to validate all settings");
         // validate all settings first
-        List<String> validationErrors = UserSettingKey.validateSettings(settingsMap);
+        List<String> validationErrors = settingsSchemaRegistry.current().validate(settingsMap);
         if (!validationErrors.isEmpty()) {
             log.error("Invalid settings for user id {}: {}", userId, validationErrors);
             throw new InvalidRequestException(validationErrors);
@@ -89,12 +108,12 @@ public class UserSettingServiceImpl implements UserSettingService {
                 log.debug("Updated setting {} to {} for user id: {}", key, value, userId);
             } else {
                 log.info("not present");
-                // create new setting if it doesn't exist
+                // create new setting if it doesn't exist, e.g. one added to the schema after the user was created
                 UserSetting newSetting = UserSetting.builder()
                         .key(key)
                         .value(value)
-                        .user(user)
                         .build();
+                user.addUserSetting(newSetting);
                 userSettingRepository.save(newSetting);
                 log.debug("Created new setting {} with value {} for user id: {}", key, value, userId);
             }
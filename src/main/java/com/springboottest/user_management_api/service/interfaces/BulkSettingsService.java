@@ -0,0 +1,17 @@
+package com.springboottest.user_management_api.service.interfaces;
+
+import com.springboottest.user_management_api.dto.request.BulkUpdateSettingsRequest;
+import com.springboottest.user_management_api.dto.response.BulkOperationResponse;
+
+public interface BulkSettingsService {
+
+    /*
+    * Validate settings and start applying them to the requested cohort in the background
+    * */
+    BulkOperationResponse startBulkUpdate(BulkUpdateSettingsRequest request);
+
+    /*
+    * Get progress of a bulk settings job
+    * */
+    BulkOperationResponse getBulkUpdateStatus(String jobId);
+}
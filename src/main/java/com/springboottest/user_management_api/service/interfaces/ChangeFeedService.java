@@ -0,0 +1,41 @@
+package com.springboottest.user_management_api.service.interfaces;
+
+import com.springboottest.user_management_api.dto.response.UserChangesResponse;
+import com.springboottest.user_management_api.util.enums.UserChangeType;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface ChangeFeedService {
+
+    /*
+    * Record a change for a user, written and sequenced when the current transaction commits
+    * */
+    void recordChange(Long userId, UserChangeType type);
+
+    /*
+    * Record the same change for many users in the current transaction
+    * */
+    void recordChanges(Collection<Long> userIds, UserChangeType type);
+
+    /*
+    * Called after each commit that recorded changes, with the ids of the changed users
+    * */
+    void addCommitListener(Consumer<List<Long>> listener);
+
+    /*
+    * Get committed changes after the cursor in seq order, up to the latest seq below any change still committing
+    * */
+    UserChangesResponse getChanges(long cursor, int limit);
+
+    /*
+    * Highest seq that readers see, every change up to it has committed or rolled back
+    * */
+    long getLatestSeq();
+
+    /*
+    * Delete changes older than the retention window that every relay has already passed
+    * */
+    int prune();
+}
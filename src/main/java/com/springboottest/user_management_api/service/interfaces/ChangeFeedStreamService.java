@@ -0,0 +1,11 @@
+package com.springboottest.user_management_api.service.interfaces;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface ChangeFeedStreamService {
+
+    /*
+    * Open a server-sent event stream of changes after the cursor
+    * */
+    SseEmitter subscribe(long cursor);
+}
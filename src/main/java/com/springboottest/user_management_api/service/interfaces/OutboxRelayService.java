@@ -0,0 +1,14 @@
+package com.springboottest.user_management_api.service.interfaces;
+
+public interface OutboxRelayService {
+
+    /*
+    * Relay committed changes to the sink until caught up, pushed back or failing, returns events relayed
+    * */
+    int relay();
+
+    /*
+    * Seq of the last change accepted by the sink
+    * */
+    long getRelayedSeq();
+}
@@ -0,0 +1,25 @@
+package com.springboottest.user_management_api.service.interfaces;
+
+import com.springboottest.user_management_api.entity.User;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface UserArchiveService {
+
+    /*
+    * Move one chunk of users soft-deleted before the cutoff, with their settings, into the archive.
+    * Returns the number of users archived
+    * */
+    int archiveChunk(Instant cutoff, int chunkSize);
+
+    /*
+    * Move an archived user back into the live tables, empty if the id is not archived
+    * */
+    Optional<User> restoreFromArchive(Long id);
+
+    /*
+    * Check if SSN belongs to an archived user
+    * */
+    boolean existsBySsn(String ssn);
+}
@@ -0,0 +1,23 @@
+package com.springboottest.user_management_api.service.interfaces;
+
+import com.springboottest.user_management_api.dto.event.UserAuditRecord;
+
+import java.util.List;
+
+public interface UserAuditService {
+
+    /*
+    * Hand over records of a committed transaction, never waits on the database
+    * */
+    void record(List<UserAuditRecord> records);
+
+    /*
+    * Write everything recorded so far before returning
+    * */
+    void flush();
+
+    /*
+    * Insert records spilled to the file, returns the number inserted
+    * */
+    int replaySpill();
+}
@@ -0,0 +1,19 @@
+package com.springboottest.user_management_api.service.interfaces;
+
+public interface UserCountService {
+
+    /*
+    * Get number of active users from the in-memory counter
+    * */
+    long getActiveUserCount();
+
+    /*
+    * Adjust the counter by delta once the current transaction commits
+    * */
+    void adjustAfterCommit(long delta);
+
+    /*
+    * Re-read the active user count from the database and correct the counter
+    * */
+    void reconcile();
+}
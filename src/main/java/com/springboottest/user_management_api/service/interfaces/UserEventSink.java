@@ -0,0 +1,14 @@
+package com.springboottest.user_management_api.service.interfaces;
+
+import com.springboottest.user_management_api.dto.event.UserLifecycleEvent;
+
+import java.util.List;
+
+public interface UserEventSink {
+
+    /*
+    * Deliver events in order and return how many from the start of the list were accepted.
+    * Accepting fewer than offered is backpressure, throwing is a failure the relay retries
+    * */
+    int publish(List<UserLifecycleEvent> events);
+}
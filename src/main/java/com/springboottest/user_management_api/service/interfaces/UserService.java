@@ -2,24 +2,63 @@ package com.springboottest.user_management_api.service.interfaces;
 
 import com.springboottest.user_management_api.dto.request.CreateUserRequest;
 import com.springboottest.user_management_api.dto.request.UpdateUserRequest;
+import com.springboottest.user_management_api.dto.response.BulkUserResultResponse;
+import com.springboottest.user_management_api.dto.response.UserBatchResponse;
 import com.springboottest.user_management_api.dto.response.UserListResponse;
 import com.springboottest.user_management_api.dto.response.UserResponse;
+import com.springboottest.user_management_api.util.enums.UserField;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public interface UserService {
 
     /*
-    * Get paginated list of active users
+    * Get paginated list of active users, optionally with the total active user count
     * */
-    UserListResponse getAllUsers(int maxRecords, int offset);
+    UserListResponse getAllUsers(int maxRecords, int offset, boolean includeTotal);
+
+    /*
+    * Get paginated list of active users with only the requested fields set
+    * */
+    UserListResponse getAllUsers(int maxRecords, int offset, boolean includeTotal, Set<UserField> fields);
+
+    /*
+    * Get the active users with ids after the cursor in id order, optionally with the total active user count
+    * */
+    UserListResponse getUsersAfter(long afterId, int maxRecords, boolean includeTotal);
+
+    /*
+    * Get the active users with ids after the cursor in id order with only the requested fields set
+    * */
+    UserListResponse getUsersAfter(long afterId, int maxRecords, boolean includeTotal, Set<UserField> fields);
+
+    /*
+    * Get number of active users
+    * */
+    long getActiveUserCount();
 
     /*
     * Get active user by id with settings
     * */
     UserResponse getUserById(Long id);
 
+    /*
+    * Get active user by id with only the requested fields set, settings only when requested
+    * */
+    UserResponse getUserById(Long id, Set<UserField> fields);
+
+    /*
+    * Get settings of an active user as key value pairs ordered by key
+    * */
+    Map<String, String> getUserSettings(Long id);
+
+    /*
+    * Get active users by ids with settings, reporting ids that were not found
+    * */
+    UserBatchResponse getUsersByIds(List<Long> ids);
+
     /*
     * Create new user with default settings
     * */
@@ -40,6 +79,16 @@ public interface UserService {
     * */
     UserResponse restoreUser(Long id);
 
+    /*
+    * Soft delete many users, reporting the outcome per id
+    * */
+    BulkUserResultResponse deleteUsers(List<Long> ids);
+
+    /*
+    * Restore many soft deleted users, reporting the outcome per id
+    * */
+    BulkUserResultResponse restoreUsers(List<Long> ids);
+
     /**
      * Update user settings
      */
@@ -13,6 +13,11 @@ public interface UserSettingService {
     * */
     void createDefaultSettings(User user);
 
+    /*
+    * Get settings of an active user as key value pairs ordered by key
+    * */
+    Map<String, String> getUserSettings(Long userId);
+
     /*
     * update user settings
     * */
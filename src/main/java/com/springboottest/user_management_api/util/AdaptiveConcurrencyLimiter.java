@@ -0,0 +1,103 @@
+package com.springboottest.user_management_api.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows latency, in the style of the gradient limiters: a slow
+ * moving average of latency is the baseline and a fast one is the current latency.
+ * While the current latency stays within tolerance of the baseline the limit grows by
+ * about sqrt(limit) per sample. Past that point it shrinks in proportion to the ratio.
+ * Acquiring is a CAS on the in-flight count. Samples update the limit under the object
+ * monitor, which is uncontended compared to the request work being measured.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_WEIGHT = 0.1;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double longWeight;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double tolerance, double smoothing, int baselineWindow) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.longWeight = 1.0 / baselineWindow;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Take a slot, false when the limit is reached and the caller should shed the request
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Return a slot taken by tryAcquire, with the time the request held it
+     */
+    public void release(long rttNanos) {
+        int inFlightAtRelease = inFlight.getAndDecrement();
+        onSample(rttNanos, inFlightAtRelease);
+    }
+
+    /*
+    * Return a slot without a sample, for requests that failed before measuring anything useful
+    * */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void onSample(long rttNanos, int inFlightAtRelease) {
+        if (longRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) * SHORT_WEIGHT;
+        longRtt += (rttNanos - longRtt) * longWeight;
+
+        // after a slow period the baseline would otherwise stay inflated and hold the limit down
+        if (longRtt > shortRtt * 2) {
+            longRtt *= 0.95;
+        }
+
+        // an idle limiter learns nothing about how much concurrency the backend can take
+        double current = limit;
+        if (inFlightAtRelease < current / 2) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
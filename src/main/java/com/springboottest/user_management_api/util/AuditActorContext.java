@@ -0,0 +1,52 @@
+package com.springboottest.user_management_api.util;
+
+/**
+ * Per thread actor of the request being served, recorded as created_by and updated_by and as
+ * the actor of audit records. Work outside a request, scheduled jobs included, acts as SYSTEM.
+ */
+public final class AuditActorContext {
+
+    public static final String SYSTEM = "SYSTEM";
+
+    // the narrowest actor column is the off-heap record's
+    public static final int MAX_LENGTH = OffHeapUserStore.AUDITOR_BYTES;
+
+    private static final ThreadLocal<String> ACTOR = new ThreadLocal<>();
+
+    private AuditActorContext() {
+    }
+
+    /*
+    * Act as the given actor, kept to printable ASCII and cut to MAX_LENGTH so it fits every actor column
+    * */
+    public static void set(String actor) {
+        String cleaned = actor.replaceAll("[^\\x21-\\x7E]", "");
+        ACTOR.set(cleaned.length() > MAX_LENGTH ? cleaned.substring(0, MAX_LENGTH) : cleaned);
+    }
+
+    public static String current() {
+        String actor = ACTOR.get();
+        return actor == null || actor.isEmpty() ? SYSTEM : actor;
+    }
+
+    public static void clear() {
+        ACTOR.remove();
+    }
+
+    /*
+    * Carry the caller's actor to a task that runs on another thread
+    * */
+    public static Runnable propagate(Runnable task) {
+        String actor = ACTOR.get();
+        return () -> {
+            if (actor != null) {
+                ACTOR.set(actor);
+            }
+            try {
+                task.run();
+            } finally {
+                clear();
+            }
+        };
+    }
+}
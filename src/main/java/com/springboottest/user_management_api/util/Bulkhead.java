@@ -0,0 +1,119 @@
+package com.springboottest.user_management_api.util;
+
+import com.springboottest.user_management_api.exception.DeadlineExceededException;
+import com.springboottest.user_management_api.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool with its own queue for one class of work. A full queue fails the call at
+ * once with ServiceOverloadedException, and a call still unanswered at its deadline fails
+ * with DeadlineExceededException. If the deadline passes while the call is still queued,
+ * its work is taken off the queue and never runs. Work that is already running is left to
+ * finish, since interrupting a JDBC call can poison the connection. A bulkhead created with
+ * deadlineWhileQueuedOnly answers running work with its outcome however long it takes, so a
+ * write that commits is never reported to the caller as failed.
+ */
+public class Bulkhead implements AutoCloseable {
+
+    private final String name;
+    private final Duration deadline;
+    private final boolean deadlineWhileQueuedOnly;
+    private final TaskDecorator taskDecorator;
+    private final ThreadPoolTaskExecutor executor;
+    private final ScheduledThreadPoolExecutor deadlines;
+
+    private final Counter rejected;
+    private final Counter deadlineExceeded;
+
+    public Bulkhead(String name, int threads, int queueCapacity, Duration deadline,
+                    TaskDecorator taskDecorator, MeterRegistry meterRegistry) {
+        this(name, threads, queueCapacity, deadline, false, taskDecorator, meterRegistry);
+    }
+
+    public Bulkhead(String name, int threads, int queueCapacity, Duration deadline, boolean deadlineWhileQueuedOnly,
+                    TaskDecorator taskDecorator, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.deadline = deadline;
+        this.deadlineWhileQueuedOnly = deadlineWhileQueuedOnly;
+        this.taskDecorator = taskDecorator;
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(name + "-bulkhead-");
+        executor.initialize();
+
+        this.deadlines = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, name + "-bulkhead-deadlines");
+            thread.setDaemon(true);
+            return thread;
+        });
+        deadlines.setRemoveOnCancelPolicy(true);
+
+        Gauge.builder("bulkhead.queue.depth", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .tag("bulkhead", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("bulkhead.rejected").tag("bulkhead", name).register(meterRegistry);
+        this.deadlineExceeded = Counter.builder("bulkhead.deadline.exceeded").tag("bulkhead", name).register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        // claimed by whichever comes first, the thread starting the work or the deadline while it is queued
+        AtomicBoolean started = new AtomicBoolean();
+        // decorated here rather than by the executor, so the queued task is the one the deadline removes
+        Runnable task = taskDecorator.decorate(() -> {
+            if (!started.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                future.complete(work.get());
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+            }
+        });
+        try {
+            executor.execute(task);
+        } catch (TaskRejectedException e) {
+            rejected.increment();
+            future.completeExceptionally(new ServiceOverloadedException(name));
+            return future;
+        }
+
+        ScheduledFuture<?> timeout = deadlines.schedule(() -> {
+            boolean queued = started.compareAndSet(false, true);
+            if (queued) {
+                executor.getThreadPoolExecutor().remove(task);
+            }
+            if ((queued || !deadlineWhileQueuedOnly)
+                    && future.completeExceptionally(new DeadlineExceededException(deadline.toMillis()))) {
+                deadlineExceeded.increment();
+            }
+        }, deadline.toNanos(), TimeUnit.NANOSECONDS);
+        future.whenComplete((value, e) -> timeout.cancel(false));
+        return future;
+    }
+
+    @Override
+    public void close() {
+        deadlines.shutdownNow();
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,93 @@
+package com.springboottest.user_management_api.util;
+
+import com.springboottest.user_management_api.entity.UserChange;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed size buffer of the most recently committed changes, in sequence order.
+ * One writer at a time (the change feed sequence lock), any number of lock-free readers.
+ */
+public class ChangeRingBuffer {
+
+    private final AtomicReferenceArray<UserChange> slots;
+    private final int capacity;
+    private final int mask;
+
+    // number of changes ever published, slot of the next change is written & mask
+    private final AtomicLong written = new AtomicLong();
+
+    // raised before a slot is overwritten, written only after, readers check this one
+    private final AtomicLong claimed = new AtomicLong();
+
+    // every change with seq above this is still in the buffer
+    private volatile long floorSeq;
+
+    public ChangeRingBuffer(int capacity, long floorSeq) {
+        this.capacity = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+        this.floorSeq = floorSeq;
+    }
+
+    /**
+     * Append a change, callers must publish in increasing seq order from a single thread at a time
+     */
+    public void publish(UserChange change) {
+        long index = written.get();
+        int slot = (int) (index & mask);
+        UserChange evicted = slots.get(slot);
+        if (evicted != null) {
+            floorSeq = evicted.getSeq();
+        }
+        claimed.set(index + 1);
+        slots.set(slot, change);
+        written.set(index + 1);
+    }
+
+    /**
+     * Read up to limit changes with seq above the cursor, empty when the cursor
+     * is older than the buffer and the caller has to go to the database
+     */
+    public Optional<List<UserChange>> readAfter(long cursor, int limit) {
+        long end = written.get();
+        if (cursor < floorSeq) {
+            return Optional.empty();
+        }
+
+        long start = Math.max(0, end - capacity);
+        long first = firstIndexAfter(cursor, start, end);
+
+        List<UserChange> changes = new ArrayList<>(Math.min(limit, (int) (end - first)));
+        for (long index = first; index < end && changes.size() < limit; index++) {
+            changes.add(slots.get((int) (index & mask)));
+        }
+
+        // a writer lapped us while reading, the oldest slots we used may hold newer changes.
+        // Index i is overwritten by the publish that claims i + capacity + 1
+        if (claimed.get() > first + capacity) {
+            return Optional.empty();
+        }
+        return Optional.of(changes);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private long firstIndexAfter(long cursor, long low, long high) {
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (slots.get((int) (mid & mask)).getSeq() <= cursor) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
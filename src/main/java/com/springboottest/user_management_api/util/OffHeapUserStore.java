@@ -0,0 +1,645 @@
+package com.springboottest.user_management_api.util;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+import java.util.zip.CRC32C;
+
+/**
+ * Users as fixed width records in native memory segments, outside the java heap and invisible to the GC.
+ * A record lives in a slot, slot n is at (n % pageRecords) * RECORD_SIZE of page n / pageRecords.
+ * Offsets are longs, so a page is not bound to 2 GB the way an int indexed ByteBuffer is.
+ * Primitive indexes map id and ssn to the slot, slots of purged users go on a free list and are
+ * reused before a new page is allocated. Ids are handed out in increasing order, so an append only
+ * id array gives id ordered listing without sorting.
+ * One read write lock guards everything, each method is atomic.
+ * With an event log attached every mutation is appended to it as the full record image, or the id for
+ * a purge, before it is applied, and the call returns once the entry is durable. Recovery loads the
+ * latest snapshot and replays the log after it. Snapshots are fuzzy, taken page by page while writes
+ * go on, replaying the log from the seq the snapshot started at makes them exact because record
+ * images are idempotent.
+ */
+public class OffHeapUserStore {
+
+    public static final int NAME_BYTES = 100;
+    public static final int AUDITOR_BYTES = 31;
+    public static final int WIDGET_ORDER_BYTES = 5;
+
+    // record layout, numbers are byte offsets inside a record
+    private static final int ID = 0;
+    private static final int FLAGS = 8;
+    private static final int SETTING_FLAGS = 9;
+    private static final int WIDGET_ORDER = 10;
+    private static final int SSN = 16;
+    private static final int BIRTH_DATE = 24;
+    private static final int CREATED_TIME = 32;
+    private static final int UPDATED_TIME = 40;
+    private static final int DELETED_TIME = 48;
+    private static final int FIRST_NAME = 56;
+    private static final int MIDDLE_NAME = FIRST_NAME + 1 + NAME_BYTES;
+    private static final int FAMILY_NAME = MIDDLE_NAME + 1 + NAME_BYTES;
+    private static final int CREATED_BY = FAMILY_NAME + 1 + NAME_BYTES;
+    private static final int UPDATED_BY = CREATED_BY + 1 + AUDITOR_BYTES;
+    public static final int RECORD_SIZE = (UPDATED_BY + 1 + AUDITOR_BYTES + 7) & ~7;
+
+    public static final byte PUT = 1;
+    public static final byte PURGE = 2;
+
+    private static final int SNAPSHOT_MAGIC = 0x55534E50;
+    private static final int SNAPSHOT_HEADER_BYTES = 40;
+
+    private static final byte IN_USE = 1;
+    private static final byte ACTIVE = 2;
+    private static final int NULL_STRING = 0xFF;
+    private static final long NULL_TIME = Long.MIN_VALUE;
+
+    // records are little endian whatever the platform, snapshots and log entries move between machines
+    private static final ValueLayout.OfByte BYTE = ValueLayout.JAVA_BYTE;
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    // file reads and crc updates go through ByteBuffer views, which must stay under 2 GB
+    private static final long IO_CHUNK_BYTES = (Integer.MAX_VALUE / RECORD_SIZE) * (long) RECORD_SIZE;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // pages are freed by the GC once the store is unreachable, like direct buffers
+    private final Arena arena = Arena.ofAuto();
+    private final List<MemorySegment> pages = new ArrayList<>();
+    private final int pageRecords;
+    private final long pageBytes;
+    private final int pageShift;
+
+    private final LongIndex slotsById;
+    private final LongIndex slotsBySsn;
+
+    private int[] freeSlots = new int[64];
+    private int freeCount;
+    private int nextSlot;
+
+    private long[] orderedIds;
+    private int idCount;
+
+    private long nextId = 1;
+    private long activeCount;
+
+    // record image of the mutation in progress, only touched under the write lock
+    private final MemorySegment scratch = MemorySegment.ofArray(new byte[RECORD_SIZE]);
+    private final ByteBuffer purgeEntry = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private UserEventLog eventLog;
+
+    public OffHeapUserStore(int pageRecords, int expectedUsers) {
+        this.pageRecords = pageRecords <= 1 ? 1 : Integer.highestOneBit(pageRecords - 1) << 1;
+        this.pageShift = Integer.numberOfTrailingZeros(this.pageRecords);
+        this.pageBytes = (long) this.pageRecords * RECORD_SIZE;
+        this.slotsById = new LongIndex(expectedUsers);
+        this.slotsBySsn = new LongIndex(expectedUsers);
+        this.orderedIds = new long[Math.max(expectedUsers, 16)];
+    }
+
+    /**
+     * One user, id is assigned by the store on insert and ignored in the input.
+     * Setting flags hold one bit per boolean setting, widget order one byte per position
+     */
+    public record UserRecord(long id, long ssn, String firstName, String middleName, String familyName,
+                             LocalDate birthDate, boolean active, Instant createdTime, Instant updatedTime,
+                             Instant deletedTime, String createdBy, String updatedBy,
+                             int settingFlags, byte[] widgetOrder) {
+
+        public UserRecord withId(long newId) {
+            return new UserRecord(newId, ssn, firstName, middleName, familyName, birthDate, active,
+                    createdTime, updatedTime, deletedTime, createdBy, updatedBy, settingFlags, widgetOrder);
+        }
+    }
+
+    /**
+     * Store a new user under the next id, empty when the ssn is taken by any user, deleted or not
+     */
+    public Optional<UserRecord> insert(UserRecord user) {
+        UserRecord stored;
+        long seq;
+        lock.writeLock().lock();
+        try {
+            if (slotsBySsn.containsKey(user.ssn())) {
+                return Optional.empty();
+            }
+
+            stored = user.withId(nextId);
+            seq = journal(stored);
+            nextId++;
+            int slot = allocateSlot();
+            place(slot);
+            slotsById.put(stored.id(), slot);
+            slotsBySsn.put(stored.ssn(), slot);
+            appendId(stored.id());
+            if (stored.active()) {
+                activeCount++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(seq);
+        return Optional.of(stored);
+    }
+
+    /**
+     * Replace a user with the result of the change, which may throw to leave the user untouched.
+     * Id and ssn are kept as stored. Empty when there is no such user
+     */
+    public Optional<UserRecord> update(long id, UnaryOperator<UserRecord> change) {
+        UserRecord stored;
+        long seq;
+        lock.writeLock().lock();
+        try {
+            long slot = slotsById.get(id);
+            if (slot == LongIndex.MISSING) {
+                return Optional.empty();
+            }
+
+            UserRecord current = read((int) slot);
+            UserRecord changed = change.apply(current);
+            if (changed == current) {
+                return Optional.of(current);
+            }
+
+            stored = new UserRecord(current.id(), current.ssn(), changed.firstName(),
+                    changed.middleName(), changed.familyName(), changed.birthDate(), changed.active(),
+                    changed.createdTime(), changed.updatedTime(), changed.deletedTime(), changed.createdBy(),
+                    changed.updatedBy(), changed.settingFlags(), changed.widgetOrder());
+            seq = journal(stored);
+            place((int) slot);
+            activeCount += (stored.active() ? 1 : 0) - (current.active() ? 1 : 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(seq);
+        return Optional.of(stored);
+    }
+
+    /**
+     * User by id, deleted or not
+     */
+    public Optional<UserRecord> find(long id) {
+        lock.readLock().lock();
+        try {
+            long slot = slotsById.get(id);
+            return slot == LongIndex.MISSING ? Optional.empty() : Optional.of(read((int) slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean existsBySsn(long ssn) {
+        lock.readLock().lock();
+        try {
+            return slotsBySsn.containsKey(ssn);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Active users in id order, skipping the first skip of them like an OFFSET
+     */
+    public List<UserRecord> findActive(long skip, int limit) {
+        lock.readLock().lock();
+        try {
+            List<UserRecord> users = new ArrayList<>(Math.min(limit, 1024));
+            long skipped = 0;
+            for (int i = 0; i < idCount && users.size() < limit; i++) {
+                int slot = (int) slotsById.get(orderedIds[i]);
+                // only the flags byte is read for the rows skipped over
+                if ((page(slot).get(BYTE, offset(slot) + FLAGS) & ACTIVE) == 0) {
+                    continue;
+                }
+                if (skipped < skip) {
+                    skipped++;
+                } else {
+                    users.add(read(slot));
+                }
+            }
+            return users;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Active users with ids after the cursor in id order, found by a binary search instead of a scan
+     */
+    public List<UserRecord> findActiveAfter(long afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            List<UserRecord> users = new ArrayList<>(Math.min(limit, 1024));
+            int from = Arrays.binarySearch(orderedIds, 0, idCount, afterId);
+            for (int i = from >= 0 ? from + 1 : -from - 1; i < idCount && users.size() < limit; i++) {
+                int slot = (int) slotsById.get(orderedIds[i]);
+                if ((page(slot).get(BYTE, offset(slot) + FLAGS) & ACTIVE) != 0) {
+                    users.add(read(slot));
+                }
+            }
+            return users;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long activeCount() {
+        lock.readLock().lock();
+        try {
+            return activeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drop up to limit users soft deleted before the cutoff, their slots go on the free list
+     * and their id and ssn are forgotten. Returns the number of users dropped
+     */
+    public int purgeDeletedBefore(Instant cutoff, int limit) {
+        int purged = 0;
+        long seq = 0;
+        lock.writeLock().lock();
+        try {
+            long cutoffNanos = toNanos(cutoff);
+            for (int i = 0; i < idCount && purged < limit; i++) {
+                int slot = (int) slotsById.get(orderedIds[i]);
+                MemorySegment page = page(slot);
+                long base = offset(slot);
+                long deletedTime = page.get(LONG, base + DELETED_TIME);
+                if ((page.get(BYTE, base + FLAGS) & ACTIVE) != 0 || deletedTime == NULL_TIME || deletedTime >= cutoffNanos) {
+                    continue;
+                }
+
+                if (eventLog != null) {
+                    seq = eventLog.append(PURGE, purgeEntry.clear().putLong(0, orderedIds[i]));
+                }
+                removeSlot(slot);
+                purged++;
+            }
+            if (purged > 0) {
+                compactIds();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(seq);
+        return purged;
+    }
+
+    /**
+     * Rebuild the store from the latest snapshot and the log after it, then journal every
+     * mutation to the log. The store must be empty
+     */
+    public void recover(UserEventLog log) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (slotsById.size() > 0 || eventLog != null) {
+                throw new IllegalStateException("Recovery needs an empty store");
+            }
+
+            Optional<Path> snapshot = log.latestSnapshot();
+            long snapshotSeq = snapshot.isPresent() ? loadSnapshot(snapshot.get()) : 0;
+            log.replay(snapshotSeq, (seq, type, payload) -> {
+                MemorySegment entry = MemorySegment.ofBuffer(payload);
+                if (type == PUT) {
+                    applyImage(entry);
+                } else if (type == PURGE) {
+                    long slot = slotsById.get(entry.get(LONG, 0));
+                    if (slot != LongIndex.MISSING) {
+                        removeSlot((int) slot);
+                    }
+                }
+            });
+
+            // images arrive in slot and log order, listing needs id order
+            compactIds();
+            Arrays.sort(orderedIds, 0, idCount);
+            eventLog = log;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Write every user to a new snapshot file and let the log drop what it covers.
+     * Returns the seq of the last log entry the snapshot covers
+     */
+    public long writeSnapshot() throws IOException {
+        long seq;
+        long snapshotNextId;
+        lock.readLock().lock();
+        try {
+            if (eventLog == null) {
+                throw new IllegalStateException("Snapshots need an event log");
+            }
+            seq = eventLog.lastSeq();
+            snapshotNextId = nextId;
+        } finally {
+            lock.readLock().unlock();
+        }
+        // the snapshot must never be ahead of what the log holds durably
+        eventLog.awaitDurable(seq);
+
+        Path target = eventLog.snapshotPath(seq);
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        CRC32C crc = new CRC32C();
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Arena copyArena = Arena.ofConfined()) {
+            channel.position(SNAPSHOT_HEADER_BYTES);
+            MemorySegment copy = copyArena.allocate(pageBytes, Long.BYTES);
+            for (int pageIndex = 0; ; pageIndex++) {
+                // one page at a time under the read lock, writers only wait for a page copy
+                long copied = 0;
+                lock.readLock().lock();
+                try {
+                    if (pageIndex >= pages.size()) {
+                        break;
+                    }
+                    MemorySegment page = pages.get(pageIndex);
+                    for (long base = 0; base < pageBytes; base += RECORD_SIZE) {
+                        if ((page.get(BYTE, base + FLAGS) & IN_USE) != 0) {
+                            MemorySegment.copy(page, base, copy, copied, RECORD_SIZE);
+                            copied += RECORD_SIZE;
+                        }
+                    }
+                } finally {
+                    lock.readLock().unlock();
+                }
+
+                count += copied / RECORD_SIZE;
+                for (long from = 0; from < copied; from += IO_CHUNK_BYTES) {
+                    ByteBuffer chunk = copy.asSlice(from, Math.min(IO_CHUNK_BYTES, copied - from)).asByteBuffer();
+                    crc.update(chunk.duplicate());
+                    while (chunk.hasRemaining()) {
+                        channel.write(chunk);
+                    }
+                }
+            }
+
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(SNAPSHOT_MAGIC)
+                    .putInt(RECORD_SIZE)
+                    .putLong(seq)
+                    .putLong(snapshotNextId)
+                    .putLong(count)
+                    .putLong(crc.getValue())
+                    .flip();
+            channel.write(header, 0);
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        eventLog.compact(seq);
+        return seq;
+    }
+
+    /**
+     * Users held, deleted ones included
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Native memory taken by record pages
+     */
+    public long allocatedBytes() {
+        lock.readLock().lock();
+        try {
+            return pages.size() * pageBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (nextSlot == pages.size() * pageRecords) {
+            pages.add(arena.allocate(pageBytes, Long.BYTES));
+        }
+        return nextSlot++;
+    }
+
+    private void releaseSlot(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount << 1);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void appendId(long id) {
+        if (idCount == orderedIds.length) {
+            orderedIds = Arrays.copyOf(orderedIds, idCount << 1);
+        }
+        orderedIds[idCount++] = id;
+    }
+
+    private void compactIds() {
+        int kept = 0;
+        for (int i = 0; i < idCount; i++) {
+            if (slotsById.containsKey(orderedIds[i])) {
+                orderedIds[kept++] = orderedIds[i];
+            }
+        }
+        idCount = kept;
+    }
+
+    private MemorySegment page(int slot) {
+        return pages.get(slot >>> pageShift);
+    }
+
+    private long offset(int slot) {
+        return (long) (slot & (pageRecords - 1)) * RECORD_SIZE;
+    }
+
+    /*
+    * encode the record into the scratch image and log it, nothing is changed when the append fails
+    * */
+    private long journal(UserRecord user) {
+        scratch.set(LONG, ID, user.id());
+        scratch.set(BYTE, FLAGS, (byte) (IN_USE | (user.active() ? ACTIVE : 0)));
+        scratch.set(BYTE, SETTING_FLAGS, (byte) user.settingFlags());
+        MemorySegment.copy(user.widgetOrder(), 0, scratch, BYTE, WIDGET_ORDER, WIDGET_ORDER_BYTES);
+        scratch.set(LONG, SSN, user.ssn());
+        scratch.set(INT, BIRTH_DATE, (int) user.birthDate().toEpochDay());
+        scratch.set(LONG, CREATED_TIME, toNanos(user.createdTime()));
+        scratch.set(LONG, UPDATED_TIME, toNanos(user.updatedTime()));
+        scratch.set(LONG, DELETED_TIME, toNanos(user.deletedTime()));
+        putString(scratch, FIRST_NAME, NAME_BYTES, user.firstName());
+        putString(scratch, MIDDLE_NAME, NAME_BYTES, user.middleName());
+        putString(scratch, FAMILY_NAME, NAME_BYTES, user.familyName());
+        putString(scratch, CREATED_BY, AUDITOR_BYTES, user.createdBy());
+        putString(scratch, UPDATED_BY, AUDITOR_BYTES, user.updatedBy());
+        return eventLog == null ? 0 : eventLog.append(PUT, scratch.asByteBuffer());
+    }
+
+    private void place(int slot) {
+        MemorySegment.copy(scratch, 0, page(slot), offset(slot), RECORD_SIZE);
+    }
+
+    private void awaitDurable(long seq) {
+        if (seq > 0) {
+            eventLog.awaitDurable(seq);
+        }
+    }
+
+    private void removeSlot(int slot) {
+        MemorySegment page = page(slot);
+        long base = offset(slot);
+        slotsById.remove(page.get(LONG, base + ID));
+        // a fuzzy snapshot can already hold the user that took this ssn over in another slot
+        long ssn = page.get(LONG, base + SSN);
+        if (slotsBySsn.get(ssn) == slot) {
+            slotsBySsn.remove(ssn);
+        }
+        if ((page.get(BYTE, base + FLAGS) & ACTIVE) != 0) {
+            activeCount--;
+        }
+        page.set(BYTE, base + FLAGS, (byte) 0);
+        releaseSlot(slot);
+    }
+
+    /*
+    * put a record image from a snapshot or the log where its id lives, or in a new slot. The ssn
+    * is mapped again either way, replaying the purge of its earlier holder may have dropped it
+    * */
+    private void applyImage(MemorySegment image) {
+        long id = image.get(LONG, ID);
+        long slot = slotsById.get(id);
+        if (slot == LongIndex.MISSING) {
+            slot = allocateSlot();
+            slotsById.put(id, slot);
+            appendId(id);
+        } else if ((page((int) slot).get(BYTE, offset((int) slot) + FLAGS) & ACTIVE) != 0) {
+            activeCount--;
+        }
+
+        MemorySegment.copy(image, 0, page((int) slot), offset((int) slot), RECORD_SIZE);
+        slotsBySsn.put(image.get(LONG, SSN), slot);
+        if ((image.get(BYTE, FLAGS) & ACTIVE) != 0) {
+            activeCount++;
+        }
+        nextId = Math.max(nextId, id + 1);
+    }
+
+    /*
+    * map the snapshot as one segment and apply every image, returns its seq. The mapping is
+    * released as soon as the snapshot is loaded instead of whenever the GC gets to it
+    * */
+    private long loadSnapshot(Path snapshot) throws IOException {
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ);
+             Arena mapArena = Arena.ofConfined()) {
+            ByteBuffer header = ByteBuffer.allocate(SNAPSHOT_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < SNAPSHOT_HEADER_BYTES || header.getInt() != SNAPSHOT_MAGIC
+                    || header.getInt() != RECORD_SIZE) {
+                throw new IOException("Not a snapshot of this record layout: " + snapshot);
+            }
+            long seq = header.getLong();
+            long snapshotNextId = header.getLong();
+            long count = header.getLong();
+            long expectedCrc = header.getLong();
+            if (channel.size() != SNAPSHOT_HEADER_BYTES + count * RECORD_SIZE) {
+                throw new IOException("Snapshot is truncated: " + snapshot);
+            }
+
+            CRC32C crc = new CRC32C();
+            MemorySegment records = channel.map(FileChannel.MapMode.READ_ONLY, SNAPSHOT_HEADER_BYTES,
+                    count * RECORD_SIZE, mapArena);
+            for (long from = 0; from < records.byteSize(); from += IO_CHUNK_BYTES) {
+                crc.update(records.asSlice(from, Math.min(IO_CHUNK_BYTES, records.byteSize() - from)).asByteBuffer());
+            }
+            for (long base = 0; base < records.byteSize(); base += RECORD_SIZE) {
+                applyImage(records.asSlice(base, RECORD_SIZE));
+            }
+            if (crc.getValue() != expectedCrc) {
+                throw new IOException("Snapshot checksum mismatch: " + snapshot);
+            }
+
+            nextId = Math.max(nextId, snapshotNextId);
+            return seq;
+        }
+    }
+
+    private UserRecord read(int slot) {
+        MemorySegment page = page(slot);
+        long base = offset(slot);
+        byte[] widgetOrder = new byte[WIDGET_ORDER_BYTES];
+        MemorySegment.copy(page, BYTE, base + WIDGET_ORDER, widgetOrder, 0, WIDGET_ORDER_BYTES);
+        return new UserRecord(
+                page.get(LONG, base + ID),
+                page.get(LONG, base + SSN),
+                getString(page, base + FIRST_NAME),
+                getString(page, base + MIDDLE_NAME),
+                getString(page, base + FAMILY_NAME),
+                LocalDate.ofEpochDay(page.get(INT, base + BIRTH_DATE)),
+                (page.get(BYTE, base + FLAGS) & ACTIVE) != 0,
+                toInstant(page.get(LONG, base + CREATED_TIME)),
+                toInstant(page.get(LONG, base + UPDATED_TIME)),
+                toInstant(page.get(LONG, base + DELETED_TIME)),
+                getString(page, base + CREATED_BY),
+                getString(page, base + UPDATED_BY),
+                page.get(BYTE, base + SETTING_FLAGS) & 0xFF,
+                widgetOrder);
+    }
+
+    private static void putString(MemorySegment record, long at, int width, String value) {
+        if (value == null) {
+            record.set(BYTE, at, (byte) NULL_STRING);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > width) {
+            throw new IllegalArgumentException("Value longer than " + width + " bytes: " + value);
+        }
+        record.set(BYTE, at, (byte) bytes.length);
+        MemorySegment.copy(bytes, 0, record, BYTE, at + 1, bytes.length);
+    }
+
+    private static String getString(MemorySegment page, long at) {
+        int length = page.get(BYTE, at) & 0xFF;
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(page, BYTE, at + 1, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long toNanos(Instant time) {
+        return time == null ? NULL_TIME : time.getEpochSecond() * 1_000_000_000L + time.getNano();
+    }
+
+    private static Instant toInstant(long nanos) {
+        return nanos == NULL_TIME ? null : Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                Math.floorMod(nanos, 1_000_000_000L));
+    }
+}
@@ -1,11 +1,19 @@
 package com.springboottest.user_management_api.util;
 
+import com.springboottest.user_management_api.dto.response.UserListResponse;
 import com.springboottest.user_management_api.dto.response.UserResponse;
 import com.springboottest.user_management_api.entity.User;
+import com.springboottest.user_management_api.util.enums.UserField;
 import lombok.extern.slf4j.Slf4j;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -49,4 +57,88 @@ public class ResponseUtil {
                 .userSettings(settingList)
                 .build();
     }
+
+    /*
+     * Copy of the user data with only the given fields set
+     * */
+    public static UserResponse.UserData trimUserData(UserResponse.UserData userData, Set<UserField> fields) {
+        UserResponse.UserData.UserDataBuilder trimmed = UserResponse.UserData.builder();
+        for (UserField field : fields) {
+            if (field.isColumn()) {
+                field.getSetter().accept(trimmed, field.getGetter().apply(userData));
+            }
+        }
+        return trimmed.build();
+    }
+
+    /*
+     * Copy of the user with only the given fields set, settings only when they are one of them
+     * */
+    public static UserResponse trimUserResponse(UserResponse user, Set<UserField> fields) {
+        return UserResponse.builder()
+                .userData(trimUserData(user.getUserData(), fields))
+                .userSettings(fields.contains(UserField.USER_SETTINGS) ? user.getUserSettings() : null)
+                .build();
+    }
+
+    /*
+     * Page of users read after the cursor, a full page carries the cursor of the next one
+     * */
+    public static UserListResponse afterPage(List<UserResponse.UserData> userData, long afterId, int maxRecords,
+                                             Long total) {
+        return UserListResponse.builder()
+                .userData(userData)
+                .maxRecords(maxRecords)
+                .afterId(afterId)
+                .nextAfterId(!userData.isEmpty() && userData.size() >= maxRecords
+                        ? userData.getLast().getId() : null)
+                .total(total)
+                .build();
+    }
+
+    /*
+     * Strong ETag of a settings representation, a truncated SHA-256 of the format and the pairs
+     * in the given order. Callers pass the pairs ordered by key
+     * */
+    public static String settingsETag(Map<String, String> settings, String format) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        // separators that cannot appear in a key or value keep distinct pairs from hashing alike
+        digest.update(format.getBytes(StandardCharsets.UTF_8));
+        settings.forEach((key, value) -> {
+            digest.update((byte) 0);
+            digest.update(key.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 1);
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        });
+        byte[] hash = Arrays.copyOf(digest.digest(), 12);
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+    }
+
+    /*
+     * Whether an If-None-Match header names the ETag, weak comparison as RFC 9110 asks for
+     * */
+    public static boolean matchesETag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
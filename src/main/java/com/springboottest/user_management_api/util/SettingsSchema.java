@@ -0,0 +1,158 @@
+package com.springboottest.user_management_api.util;
+
+import com.springboottest.user_management_api.util.enums.UserSettingKey;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable set of setting definitions with their validators compiled, shared by every
+ * reader without locking. A change builds a new schema and swaps it in whole.
+ * Validator specs:
+ * boolean, true or false
+ * enum:a|b|c, one of the listed values
+ * int:min..max, a whole number in the inclusive range
+ * regex:pattern, the whole value matches the pattern
+ */
+public final class SettingsSchema {
+
+    /*
+     * Definition as written in the schema file
+     * */
+    public record Spec(String key, String defaultValue, String validator) {
+    }
+
+    public record Definition(String key, String defaultValue, String validator, String expected,
+                             Predicate<String> matcher) {
+
+        public boolean isValidValue(String value) {
+            return value != null && !value.isBlank() && matcher.test(value);
+        }
+    }
+
+    private final Map<String, Definition> definitions;
+    private final Map<String, String> defaults;
+
+    private SettingsSchema(Map<String, Definition> definitions, Map<String, String> defaults) {
+        this.definitions = definitions;
+        this.defaults = defaults;
+    }
+
+    /**
+     * Compile specs into a schema, IllegalArgumentException naming the first bad spec
+     */
+    public static SettingsSchema compile(List<Spec> specs) {
+        Map<String, Definition> definitions = new HashMap<>();
+        Map<String, String> defaults = new LinkedHashMap<>();
+        for (Spec spec : specs) {
+            if (spec.key() == null || spec.key().isBlank() || spec.validator() == null) {
+                throw new IllegalArgumentException("Setting definition needs a key and a validator: " + spec);
+            }
+            Definition definition = compile(spec);
+            if (!definition.isValidValue(spec.defaultValue())) {
+                throw new IllegalArgumentException(String.format("Default %s of setting %s fails its validator %s",
+                        spec.defaultValue(), spec.key(), spec.validator()));
+            }
+            if (definitions.putIfAbsent(spec.key(), definition) != null) {
+                throw new IllegalArgumentException("Setting " + spec.key() + " is defined twice");
+            }
+            defaults.put(spec.key(), spec.defaultValue());
+        }
+        return new SettingsSchema(Map.copyOf(definitions), Collections.unmodifiableMap(defaults));
+    }
+
+    /**
+     * The settings of the UserSettingKey enum, used until a schema file is configured
+     */
+    public static SettingsSchema builtIn() {
+        return compile(Arrays.stream(UserSettingKey.values())
+                .map(key -> new Spec(key.getKey(), key.getDefaultValue(), "regex:" + key.getValidationPattern()))
+                .toList());
+    }
+
+    public Optional<Definition> find(String key) {
+        return Optional.ofNullable(definitions.get(key));
+    }
+
+    /**
+     * Key to default value of every defined setting, in definition order
+     */
+    public Map<String, String> defaults() {
+        return defaults;
+    }
+
+    /**
+     * Errors for unknown keys and invalid values, empty when all settings are valid
+     */
+    public List<String> validate(Map<String, String> settings) {
+        List<String> errors = new ArrayList<>();
+
+        if (settings == null || settings.isEmpty()) {
+            errors.add("Settings cannot be empty");
+            return errors;
+        }
+
+        settings.forEach((key, value) -> {
+            Definition definition = definitions.get(key);
+            if (definition == null) {
+                errors.add(String.format("Invalid setting key: %s", key));
+            } else if (!definition.isValidValue(value)) {
+                errors.add(String.format("Invalid value for setting %s: %s (expected pattern: %s)",
+                        key, value, definition.expected()));
+            }
+        });
+
+        return errors;
+    }
+
+    private static Definition compile(Spec spec) {
+        String validator = spec.validator().trim();
+        int colon = validator.indexOf(':');
+        String kind = colon < 0 ? validator : validator.substring(0, colon);
+        String argument = colon < 0 ? "" : validator.substring(colon + 1);
+
+        return switch (kind) {
+            case "boolean" -> definition(spec, "true|false", value -> value.equals("true") || value.equals("false"));
+            case "enum" -> {
+                Set<String> allowed = Set.copyOf(Arrays.asList(argument.split("\\|")));
+                yield definition(spec, argument, allowed::contains);
+            }
+            case "int" -> {
+                String[] bounds = argument.split("\\.\\.");
+                if (bounds.length != 2) {
+                    throw new IllegalArgumentException("Setting " + spec.key() + " needs int:min..max, got " + validator);
+                }
+                long min = Long.parseLong(bounds[0].trim());
+                long max = Long.parseLong(bounds[1].trim());
+                yield definition(spec, argument, value -> inRange(value, min, max));
+            }
+            case "regex" -> {
+                Pattern pattern = Pattern.compile(argument);
+                yield definition(spec, argument, value -> pattern.matcher(value).matches());
+            }
+            default -> throw new IllegalArgumentException("Setting " + spec.key() + " has unknown validator " + validator);
+        };
+    }
+
+    private static Definition definition(Spec spec, String expected, Predicate<String> matcher) {
+        return new Definition(spec.key(), spec.defaultValue(), spec.validator(), expected, matcher);
+    }
+
+    private static boolean inRange(String value, long min, long max) {
+        try {
+            long parsed = Long.parseLong(value);
+            return parsed >= min && parsed <= max;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.springboottest.user_management_api.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+/**
+ * Holds the current settings schema. Readers take the reference once per operation and keep
+ * using that schema, a reload only swaps the reference, so no reader ever locks or sees a
+ * half loaded schema. Backed by a JSON array of {key, default_value, validator} objects, or by
+ * the built-in schema when there is no file.
+ */
+public class SettingsSchemaRegistry {
+
+    private final Path path;
+    private final ObjectMapper objectMapper;
+
+    private volatile SettingsSchema current;
+    private FileTime loadedModifiedTime;
+
+    private SettingsSchemaRegistry(Path path, ObjectMapper objectMapper, SettingsSchema initial) {
+        this.path = path;
+        this.objectMapper = objectMapper;
+        this.current = initial;
+    }
+
+    public static SettingsSchemaRegistry builtIn() {
+        return new SettingsSchemaRegistry(null, null, SettingsSchema.builtIn());
+    }
+
+    /**
+     * Load the schema file, failing when it is missing or invalid
+     */
+    public static SettingsSchemaRegistry fromFile(Path path, ObjectMapper objectMapper) throws IOException {
+        SettingsSchemaRegistry registry = new SettingsSchemaRegistry(path, objectMapper, null);
+        registry.reload();
+        return registry;
+    }
+
+    public SettingsSchema current() {
+        return current;
+    }
+
+    /**
+     * Reload when the file changed since the last load. An invalid file leaves the current
+     * schema in place and is tried again once it changes
+     */
+    public synchronized boolean reloadIfChanged() throws IOException {
+        if (path == null || Files.getLastModifiedTime(path).equals(loadedModifiedTime)) {
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    private synchronized void reload() throws IOException {
+        FileTime modifiedTime = Files.getLastModifiedTime(path);
+        loadedModifiedTime = modifiedTime;
+        List<SettingsSchema.Spec> specs = objectMapper.readValue(path.toFile(), new TypeReference<>() {
+        });
+        current = SettingsSchema.compile(specs);
+    }
+}
@@ -0,0 +1,148 @@
+package com.springboottest.user_management_api.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Shares one in-flight load per key between concurrent callers. The first caller for a key
+ * runs the load and every caller arriving while it runs gets the same result or exception.
+ * Nothing is kept once the load completes, so this never serves data older than the
+ * slowest concurrent load. Followers wait at most the follower timeout and then load on
+ * their own, so one stuck load cannot hold up more than one request indefinitely.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long followerTimeoutNanos;
+
+    private final Counter coalesced;
+    private final Counter timeouts;
+
+    public SingleFlight(String name, Duration followerTimeout, MeterRegistry meterRegistry) {
+        this.followerTimeoutNanos = followerTimeout.toNanos();
+        this.coalesced = Counter.builder("single.flight.coalesced").tag("name", name).register(meterRegistry);
+        this.timeouts = Counter.builder("single.flight.timeouts").tag("name", name).register(meterRegistry);
+    }
+
+    /**
+     * Load a key, joining a load of the same key that is already running
+     */
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing == null) {
+            try {
+                V value = loader.get();
+                mine.complete(value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key, mine);
+            }
+        }
+
+        coalesced.increment();
+        try {
+            return await(existing, System.nanoTime() + followerTimeoutNanos);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            return loader.get();
+        }
+    }
+
+    /**
+     * Load many keys. Keys already being loaded are joined, the rest are handed to the loader
+     * in one call, which must return a value for each of them
+     */
+    public Map<K, V> loadAll(Collection<K> keys, Function<Set<K>, Map<K, V>> loader) {
+        Map<K, CompletableFuture<V>> led = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> followed = new LinkedHashMap<>();
+        for (K key : new LinkedHashSet<>(keys)) {
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+            if (existing == null) {
+                led.put(key, mine);
+            } else {
+                followed.put(key, existing);
+            }
+        }
+
+        // own loads run before waiting on anyone, two callers following each other cannot deadlock
+        Map<K, V> result = new LinkedHashMap<>();
+        if (!led.isEmpty()) {
+            try {
+                Map<K, V> loaded = loader.apply(led.keySet());
+                led.forEach((key, future) -> {
+                    V value = loaded.get(key);
+                    future.complete(value);
+                    result.put(key, value);
+                });
+            } catch (RuntimeException | Error e) {
+                led.values().forEach(future -> future.completeExceptionally(e));
+                throw e;
+            } finally {
+                led.forEach(inFlight::remove);
+            }
+        }
+        if (followed.isEmpty()) {
+            return result;
+        }
+
+        coalesced.increment(followed.size());
+        long deadline = System.nanoTime() + followerTimeoutNanos;
+        Set<K> timedOut = new LinkedHashSet<>();
+        for (Map.Entry<K, CompletableFuture<V>> entry : followed.entrySet()) {
+            try {
+                result.put(entry.getKey(), await(entry.getValue(), deadline));
+            } catch (TimeoutException e) {
+                timedOut.add(entry.getKey());
+            }
+        }
+        if (!timedOut.isEmpty()) {
+            timeouts.increment(timedOut.size());
+            result.putAll(loader.apply(timedOut));
+        }
+        return result;
+    }
+
+    /**
+     * Stop sharing the running load of a key, callers arriving later start a fresh one.
+     * Used after a write so nobody joins a load that may have read the old state
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    private V await(CompletableFuture<V> future, long deadline) throws TimeoutException {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared load", e);
+        }
+    }
+}
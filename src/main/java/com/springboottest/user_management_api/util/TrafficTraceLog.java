@@ -0,0 +1,112 @@
+package com.springboottest.user_management_api.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboottest.user_management_api.dto.event.TrafficTrace;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Appends traces as JSON lines from a single background thread. Request threads only offer
+ * to a bounded queue, when the disk falls behind traces are dropped and counted, never waited for.
+ * Writes are not forced to disk, a trace lost in a crash costs nothing.
+ * */
+@Slf4j
+public class TrafficTraceLog implements AutoCloseable {
+
+    private static final int MAX_BATCH = 512;
+
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+    private final BlockingQueue<TrafficTrace> queue;
+    private final Counter dropped;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    public TrafficTraceLog(Path path, int queueCapacity, ObjectMapper objectMapper, MeterRegistry meterRegistry)
+            throws IOException {
+        this.objectMapper = objectMapper;
+        Path file = path.toAbsolutePath();
+        Files.createDirectories(file.getParent());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.dropped = Counter.builder("traffic.capture.dropped").register(meterRegistry);
+        Gauge.builder("traffic.capture.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+
+        this.writer = Thread.ofPlatform().name("traffic-capture").daemon().start(this::drain);
+        log.info("Capturing user API traffic to {}", file);
+    }
+
+    public void append(TrafficTrace trace) {
+        if (closed || !queue.offer(trace)) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        List<TrafficTrace> batch = new ArrayList<>(MAX_BATCH);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                TrafficTrace first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                dropped.increment(batch.size());
+                log.warn("Failed to write {} traffic traces", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<TrafficTrace> batch) {
+        StringBuilder lines = new StringBuilder(batch.size() * 160);
+        try {
+            for (TrafficTrace trace : batch) {
+                lines.append(objectMapper.writeValueAsString(trace)).append('\n');
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize traffic trace", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /*
+    * Write what is queued, then close the file
+    * */
+    @Override
+    public void close() throws IOException, InterruptedException {
+        closed = true;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        channel.close();
+    }
+}
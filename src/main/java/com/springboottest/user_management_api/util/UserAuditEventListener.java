@@ -0,0 +1,204 @@
+package com.springboottest.user_management_api.util;
+
+import com.springboottest.user_management_api.dto.event.UserAuditRecord;
+import com.springboottest.user_management_api.entity.User;
+import com.springboottest.user_management_api.entity.UserSetting;
+import com.springboottest.user_management_api.service.interfaces.UserAuditService;
+import com.springboottest.user_management_api.util.enums.AuditEntityType;
+import jakarta.persistence.EntityManager;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Turns flushed inserts, updates and deletes of users and settings into field level audit
+ * records. The records are handed to the audit service only once the transaction commits,
+ * rolled back changes leave no history. Nothing here touches the database.
+ * Bookkeeping columns and the settings collection are not audited, a setting is audited
+ * under its key with its value. Bulk JPQL updates and the native statements of the bulk
+ * settings job raise no entity events, their callers hand the change over through
+ * auditBulkUpdate and auditBulkSettingUpdate.
+ */
+public class UserAuditEventListener implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+
+    private static final Set<String> UNAUDITED_USER_FIELDS =
+            Set.of("createdTime", "updatedTime", "createdBy", "updatedBy", "activeId", "userSettings");
+    private static final String SETTING_VALUE = "value";
+    private static final int MAX_VALUE_LENGTH = 255;
+
+    private final UserAuditService userAuditService;
+    private final Supplier<String> actor;
+
+    /**
+     * One setting row changed by a bulk statement, a null old value for a row it created
+     */
+    public record SettingChange(long userId, long settingId, String key, String oldValue, String newValue) {
+    }
+
+    public UserAuditEventListener(UserAuditService userAuditService, Supplier<String> actor) {
+        this.userAuditService = userAuditService;
+        this.actor = actor;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        audit(event.getSession(), event.getEntity(), event.getPersister(), null, event.getState(), null);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        audit(event.getSession(), event.getEntity(), event.getPersister(), event.getOldState(), event.getState(),
+                event.getDirtyProperties());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        audit(event.getSession(), event.getEntity(), event.getPersister(), event.getDeletedState(), null, null);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * Audit users changed by a bulk update. Old states are per user id, the new state is the
+     * same for all of them, both in the order of the properties
+     */
+    public void auditBulkUpdate(EntityManager entityManager, String[] properties, Map<Long, Object[]> oldStates,
+                                Object[] newState) {
+        String changedBy = actor.get();
+        Instant now = Instant.now();
+        List<UserAuditRecord> records = new ArrayList<>();
+        oldStates.forEach((userId, oldState) -> {
+            for (int i = 0; i < properties.length; i++) {
+                String oldValue = format(oldState[i]);
+                String newValue = format(newState[i]);
+                if (!Objects.equals(oldValue, newValue)) {
+                    records.add(record(userId, AuditEntityType.USER, userId, properties[i], oldValue, newValue,
+                            changedBy, now));
+                }
+            }
+        });
+        recordAfterCommit(entityManager.unwrap(EventSource.class), records);
+    }
+
+    /**
+     * Audit settings changed by bulk statements, recorded once the transaction commits
+     */
+    public void auditBulkSettingUpdate(EntityManager entityManager, List<SettingChange> changes) {
+        String changedBy = actor.get();
+        Instant now = Instant.now();
+        List<UserAuditRecord> records = new ArrayList<>(changes.size());
+        for (SettingChange change : changes) {
+            String oldValue = format(change.oldValue());
+            String newValue = format(change.newValue());
+            if (!Objects.equals(oldValue, newValue)) {
+                records.add(record(change.userId(), AuditEntityType.USER_SETTING, change.settingId(), change.key(),
+                        oldValue, newValue, changedBy, now));
+            }
+        }
+        recordAfterCommit(entityManager.unwrap(EventSource.class), records);
+    }
+
+    private void audit(EventSource session, Object entity, EntityPersister persister, Object[] oldState,
+                       Object[] newState, int[] dirtyProperties) {
+        List<UserAuditRecord> records = switch (entity) {
+            case User user -> userRecords(user, persister.getPropertyNames(), oldState, newState, dirtyProperties);
+            case UserSetting setting -> settingRecords(setting, persister.getPropertyNames(), oldState, newState);
+            default -> List.of();
+        };
+        recordAfterCommit(session, records);
+    }
+
+    private void recordAfterCommit(EventSource session, List<UserAuditRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        session.getActionQueue().registerProcess((success, completedSession) -> {
+            if (success) {
+                userAuditService.record(records);
+            }
+        });
+    }
+
+    private List<UserAuditRecord> userRecords(User user, String[] properties, Object[] oldState, Object[] newState,
+                                              int[] dirtyProperties) {
+        String changedBy = actor.get();
+        Instant now = Instant.now();
+        List<UserAuditRecord> records = new ArrayList<>();
+        for (int i = 0; i < properties.length; i++) {
+            if (UNAUDITED_USER_FIELDS.contains(properties[i]) || !isDirty(i, dirtyProperties)) {
+                continue;
+            }
+            String oldValue = oldState == null ? null : format(oldState[i]);
+            String newValue = newState == null ? null : format(newState[i]);
+            if (!Objects.equals(oldValue, newValue)) {
+                records.add(record(user.getId(), AuditEntityType.USER, user.getId(), properties[i], oldValue, newValue,
+                        changedBy, now));
+            }
+        }
+        return records;
+    }
+
+    private List<UserAuditRecord> settingRecords(UserSetting setting, String[] properties, Object[] oldState,
+                                                 Object[] newState) {
+        int value = List.of(properties).indexOf(SETTING_VALUE);
+        String oldValue = oldState == null ? null : format(oldState[value]);
+        String newValue = newState == null ? null : format(newState[value]);
+        if (Objects.equals(oldValue, newValue)) {
+            return List.of();
+        }
+        return List.of(record(setting.getUser().getId(), AuditEntityType.USER_SETTING, setting.getId(),
+                setting.getKey(), oldValue, newValue, actor.get(), Instant.now()));
+    }
+
+    private static boolean isDirty(int property, int[] dirtyProperties) {
+        if (dirtyProperties == null) {
+            return true;
+        }
+        for (int dirty : dirtyProperties) {
+            if (dirty == property) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String format(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String formatted = value.toString();
+        return formatted.length() > MAX_VALUE_LENGTH ? formatted.substring(0, MAX_VALUE_LENGTH) : formatted;
+    }
+
+    private static UserAuditRecord record(Long userId, AuditEntityType entityType, Long entityId, String fieldName,
+                                          String oldValue, String newValue, String actor, Instant changedTime) {
+        return UserAuditRecord.builder()
+                .userId(userId)
+                .entityType(entityType.name())
+                .entityId(entityId)
+                .fieldName(fieldName)
+                .oldValue(oldValue)
+                .newValue(newValue)
+                .actor(actor)
+                .changedTime(changedTime)
+                .build();
+    }
+}
@@ -0,0 +1,224 @@
+package com.springboottest.user_management_api.util;
+
+import com.springboottest.user_management_api.dto.response.UserResponse;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary dump of the hottest cached users, read back memory-mapped on startup. Layout, big endian:
+ * a header of magic, format version, the change feed seq the entries are current up to, the
+ * export time and the entry count, then the entries and a trailing crc32c of everything before
+ * it. Strings are a short byte length, -1 for null, and UTF-8 bytes. Times are epoch nanos and
+ * dates epoch days, with the minimum value standing for null.
+ * A file of another format version is refused whole, its entries may not decode the same way.
+ */
+public final class UserCacheSnapshot {
+
+    public record Snapshot(long changeSeq, Instant exportedAt, List<UserResponseCache.Entry> entries) {
+    }
+
+    private static final int MAGIC = 0x55435348;
+    private static final short FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 2 + 8 + 8 + 4;
+    private static final int TRAILER_SIZE = 4;
+
+    private UserCacheSnapshot() {
+    }
+
+    /**
+     * Write to a temporary file next to the target and move it over the target, so readers
+     * see the previous snapshot or this one and never a partial file. Not forced to disk, a
+     * snapshot torn by a crash fails its checksum and the cache starts cold
+     */
+    public static void write(Path path, long changeSeq, Instant exportedAt, List<UserResponseCache.Entry> entries)
+            throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tmp = directory.resolve(path.getFileName() + ".tmp");
+
+        CRC32C crc = new CRC32C();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new CheckedOutputStream(Files.newOutputStream(tmp), crc), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            out.writeLong(changeSeq);
+            out.writeLong(exportedAt.toEpochMilli());
+            out.writeInt(entries.size());
+            for (UserResponseCache.Entry entry : entries) {
+                writeEntry(out, entry);
+            }
+            out.flush();
+            out.writeInt((int) crc.getValue());
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Empty when there is no snapshot, IOException when it is torn, corrupt or of another format
+     */
+    public static Optional<Snapshot> read(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + TRAILER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Cache snapshot " + path + " has an invalid size of " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            int bodyEnd = (int) size - TRAILER_SIZE;
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(0, bodyEnd));
+            if ((int) crc.getValue() != buffer.getInt(bodyEnd)) {
+                throw new IOException("Cache snapshot " + path + " fails its checksum");
+            }
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("File " + path + " is not a cache snapshot");
+            }
+            short formatVersion = buffer.getShort();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Cache snapshot " + path + " has format version " + formatVersion
+                        + ", expected " + FORMAT_VERSION);
+            }
+            long changeSeq = buffer.getLong();
+            Instant exportedAt = Instant.ofEpochMilli(buffer.getLong());
+            int count = buffer.getInt();
+
+            List<UserResponseCache.Entry> entries = new ArrayList<>(count);
+            buffer.limit(bodyEnd);
+            for (int i = 0; i < count; i++) {
+                entries.add(readEntry(buffer));
+            }
+            return Optional.of(new Snapshot(changeSeq, exportedAt, entries));
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Cache snapshot " + path + " ends in the middle of an entry", e);
+        }
+    }
+
+    private static void writeEntry(DataOutputStream out, UserResponseCache.Entry entry) throws IOException {
+        UserResponse.UserData user = entry.response().getUserData();
+        out.writeLong(entry.id());
+        writeString(out, user.getSsn());
+        writeString(out, user.getFirstName());
+        writeString(out, user.getMiddleName());
+        writeString(out, user.getFamilyName());
+        out.writeInt(user.getBirthDate() == null ? Integer.MIN_VALUE : (int) user.getBirthDate().toEpochDay());
+        writeInstant(out, user.getCreatedTime());
+        writeInstant(out, user.getUpdatedTime());
+        writeString(out, user.getCreatedBy());
+        writeString(out, user.getUpdatedBy());
+        out.writeByte(user.getIsActive() == null ? -1 : user.getIsActive() ? 1 : 0);
+        writeInstant(out, user.getDeletedTime());
+
+        List<Map<String, String>> settings = entry.response().getUserSettings();
+        out.writeShort(settings == null ? -1 : settings.size());
+        if (settings != null) {
+            for (Map<String, String> setting : settings) {
+                out.writeShort(setting.size());
+                for (Map.Entry<String, String> pair : setting.entrySet()) {
+                    writeString(out, pair.getKey());
+                    writeString(out, pair.getValue());
+                }
+            }
+        }
+    }
+
+    private static UserResponseCache.Entry readEntry(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        UserResponse.UserData user = UserResponse.UserData.builder()
+                .id(id)
+                .ssn(readString(buffer))
+                .firstName(readString(buffer))
+                .middleName(readString(buffer))
+                .familyName(readString(buffer))
+                .birthDate(readDate(buffer))
+                .createdTime(readInstant(buffer))
+                .updatedTime(readInstant(buffer))
+                .createdBy(readString(buffer))
+                .updatedBy(readString(buffer))
+                .isActive(readBoolean(buffer))
+                .deletedTime(readInstant(buffer))
+                .build();
+
+        List<Map<String, String>> settings = null;
+        short settingCount = buffer.getShort();
+        if (settingCount >= 0) {
+            settings = new ArrayList<>(settingCount);
+            for (int i = 0; i < settingCount; i++) {
+                short pairs = buffer.getShort();
+                Map<String, String> setting = new LinkedHashMap<>();
+                for (int j = 0; j < pairs; j++) {
+                    setting.put(readString(buffer), readString(buffer));
+                }
+                settings.add(setting);
+            }
+        }
+
+        return new UserResponseCache.Entry(id, UserResponse.builder()
+                .userData(user)
+                .userSettings(settings)
+                .build());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeInstant(DataOutputStream out, Instant value) throws IOException {
+        out.writeLong(value == null ? Long.MIN_VALUE : value.getEpochSecond() * 1_000_000_000L + value.getNano());
+    }
+
+    private static Instant readInstant(ByteBuffer buffer) {
+        long nanos = buffer.getLong();
+        return nanos == Long.MIN_VALUE ? null : Instant.ofEpochSecond(0, nanos);
+    }
+
+    private static LocalDate readDate(ByteBuffer buffer) {
+        int epochDay = buffer.getInt();
+        return epochDay == Integer.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static Boolean readBoolean(ByteBuffer buffer) {
+        byte value = buffer.get();
+        return value < 0 ? null : value == 1;
+    }
+}
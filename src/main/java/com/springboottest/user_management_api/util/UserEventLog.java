@@ -0,0 +1,467 @@
+package com.springboottest.user_management_api.util;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append only log of store mutations in memory mapped segment files of a fixed size, plus the
+ * snapshot files that let old segments go. Appends are memory copies into the mapped segment, one
+ * sync thread forces everything appended since its last pass in a single call (group commit) and
+ * wakes the writers waiting for it.
+ * An entry is [int payload length][int crc][long seq][byte type][payload], seqs have no gaps.
+ * Recovery stops at the first entry that is torn, has a bad crc or an unexpected seq, and appending
+ * resumes there.
+ * Once a force fails nothing appended after it can be made durable, so every later append is
+ * rejected before the caller changes any state of its own.
+ */
+@Slf4j
+public class UserEventLog implements Closeable {
+
+    public static final String SEGMENT_SUFFIX = ".log";
+    public static final String SNAPSHOT_PREFIX = "snapshot-";
+    public static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private static final int HEADER_BYTES = 17;
+
+    /**
+     * Receives each entry on replay, the payload is positioned at its start and limited to its end
+     */
+    @FunctionalInterface
+    public interface EntryHandler {
+        void apply(long seq, byte type, ByteBuffer payload);
+    }
+
+    /**
+     * Forces a range of a mapped segment to disk, throws UncheckedIOException when it fails
+     */
+    @FunctionalInterface
+    interface SegmentSync {
+        void force(MappedByteBuffer segment, int from, int length);
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final Duration commitDelay;
+    private final SegmentSync segmentSync;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final Condition synced = lock.newCondition();
+    private final CRC32C crc = new CRC32C();
+
+    private MappedByteBuffer segment;
+    private long segmentFirstSeq;
+    private int syncedPosition;
+    private long lastSeq;
+    private long durableSeq;
+    private IOException failure;
+    private boolean closed;
+    private Thread syncThread;
+
+    public UserEventLog(Path directory, int segmentBytes, Duration commitDelay) throws IOException {
+        this(directory, segmentBytes, commitDelay, MappedByteBuffer::force);
+    }
+
+    UserEventLog(Path directory, int segmentBytes, Duration commitDelay, SegmentSync segmentSync) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        this.commitDelay = commitDelay;
+        this.segmentSync = segmentSync;
+    }
+
+    /**
+     * Replay every entry after the seq, then open the log for appends after the last valid entry.
+     * Must be called once, before the first append. Returns the seq of the last entry replayed
+     */
+    public long replay(long afterSeq, EntryHandler handler) throws IOException {
+        lock.lock();
+        try {
+            List<Path> segments = segments();
+            lastSeq = afterSeq;
+
+            for (int i = 0; i < segments.size(); i++) {
+                boolean lastSegment = i == segments.size() - 1;
+                // segments wholly covered by the snapshot are skipped without reading
+                if (!lastSegment && firstSeqOf(segments.get(i + 1)) <= lastSeq + 1) {
+                    continue;
+                }
+
+                long firstSeq = firstSeqOf(segments.get(i));
+                MappedByteBuffer mapped = map(segments.get(i));
+                int position = 0;
+                long seq = firstSeq;
+                int entry;
+                while ((entry = readEntry(mapped, position, seq)) > 0) {
+                    if (seq > lastSeq) {
+                        handler.apply(seq, mapped.get(position + 16),
+                                mapped.slice(position + HEADER_BYTES, entry - HEADER_BYTES));
+                        lastSeq = seq;
+                    }
+                    position += entry;
+                    seq++;
+                }
+
+                if (lastSegment) {
+                    clearTail(mapped, position);
+                    segment = mapped.position(position);
+                    segmentFirstSeq = firstSeq;
+                    syncedPosition = position;
+                    if (seq - 1 != lastSeq) {
+                        // the snapshot is ahead of the log, continue in a segment starting after it
+                        rollSegment();
+                    }
+                }
+            }
+
+            if (segment == null) {
+                openSegment(lastSeq + 1);
+            }
+            durableSeq = lastSeq;
+            startSync();
+            return lastSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Append one entry and return its seq, it is durable once awaitDurable returns for it.
+     * Callers that need entries in a given order append under their own lock
+     */
+    public long append(byte type, ByteBuffer payload) {
+        int length = payload.remaining();
+        if (HEADER_BYTES + length > segmentBytes) {
+            throw new IllegalArgumentException("Entry of " + length + " bytes does not fit in a segment");
+        }
+
+        lock.lock();
+        try {
+            checkOpen();
+            if (segment.remaining() < HEADER_BYTES + length) {
+                rollSegment();
+            }
+
+            long seq = lastSeq + 1;
+            int position = segment.position();
+            segment.position(position + HEADER_BYTES);
+            segment.put(payload);
+            segment.putLong(position + 8, seq);
+            segment.put(position + 16, type);
+            crc.reset();
+            crc.update(segment.slice(position + 8, HEADER_BYTES - 8 + length));
+            segment.putInt(position + 4, (int) crc.getValue());
+            // the length goes last, a reader never sees an entry without its body
+            segment.putInt(position, length);
+
+            lastSeq = seq;
+            appended.signal();
+            return seq;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Block until every entry up to the seq is forced to disk
+     */
+    public void awaitDurable(long seq) {
+        lock.lock();
+        try {
+            while (durableSeq < seq) {
+                if (failure != null) {
+                    throw new UncheckedIOException("Event log sync failed", failure);
+                }
+                synced.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long lastSeq() {
+        lock.lock();
+        try {
+            return lastSeq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The snapshot with the highest seq, if any
+     */
+    public Optional<Path> latestSnapshot() throws IOException {
+        List<Path> snapshots = snapshots();
+        return snapshots.isEmpty() ? Optional.empty() : Optional.of(snapshots.get(snapshots.size() - 1));
+    }
+
+    /**
+     * Path for a snapshot covering every entry up to the seq
+     */
+    public Path snapshotPath(long seq) {
+        return directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, seq, SNAPSHOT_SUFFIX));
+    }
+
+    /**
+     * Delete older snapshots and every segment whose entries are all covered by the snapshot at seq
+     */
+    public void compact(long snapshotSeq) throws IOException {
+        for (Path snapshot : snapshots()) {
+            if (seqOf(snapshot, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX) < snapshotSeq) {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+
+        long activeFirstSeq;
+        lock.lock();
+        try {
+            activeFirstSeq = segmentFirstSeq;
+        } finally {
+            lock.unlock();
+        }
+        List<Path> segments = segments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            long nextFirstSeq = firstSeqOf(segments.get(i + 1));
+            if (nextFirstSeq <= snapshotSeq + 1 && firstSeqOf(segments.get(i)) < activeFirstSeq) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        Thread thread;
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            appended.signalAll();
+            synced.signalAll();
+            thread = syncThread;
+        } finally {
+            lock.unlock();
+        }
+
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (segment != null) {
+            segment.force();
+        }
+    }
+
+    private void startSync() {
+        syncThread = new Thread(this::syncLoop, "user-event-log-sync");
+        syncThread.setDaemon(true);
+        syncThread.start();
+    }
+
+    /*
+    * one force per pass covers every append since the previous pass
+    * */
+    private void syncLoop() {
+        while (true) {
+            MappedByteBuffer current;
+            int from;
+            int to;
+            long target;
+            lock.lock();
+            try {
+                while (lastSeq == durableSeq && !closed) {
+                    appended.awaitUninterruptibly();
+                }
+                if (closed && lastSeq == durableSeq) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            // let concurrent writers join this pass
+            if (!commitDelay.isZero()) {
+                try {
+                    Thread.sleep(commitDelay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            lock.lock();
+            try {
+                current = segment;
+                from = syncedPosition;
+                to = segment.position();
+                target = lastSeq;
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            try {
+                segmentSync.force(current, from, to - from);
+            } catch (UncheckedIOException e) {
+                error = e.getCause();
+            }
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    if (current == segment) {
+                        syncedPosition = Math.max(syncedPosition, to);
+                    }
+                    durableSeq = Math.max(durableSeq, target);
+                }
+                synced.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (error != null) {
+                log.error("Event log sync failed, writes are rejected from now on", error);
+                return;
+            }
+        }
+    }
+
+    /*
+    * force the full segment so everything in it is durable before the next one starts
+    * */
+    private void rollSegment() throws IOException {
+        try {
+            segmentSync.force(segment, 0, segment.position());
+        } catch (UncheckedIOException e) {
+            failure = e.getCause();
+            synced.signalAll();
+            throw e;
+        }
+        durableSeq = lastSeq;
+        synced.signalAll();
+        openSegment(lastSeq + 1);
+    }
+
+    private void openSegment(long firstSeq) throws IOException {
+        Path path = directory.resolve(String.format("%020d%s", firstSeq, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        }
+        segmentFirstSeq = firstSeq;
+        syncedPosition = 0;
+    }
+
+    /*
+    * size of the entry at the position, -1 when there is no valid entry with the expected seq
+    * */
+    private int readEntry(MappedByteBuffer mapped, int position, long expectedSeq) {
+        if (mapped.capacity() - position < HEADER_BYTES) {
+            return -1;
+        }
+        int length = mapped.getInt(position);
+        if (length <= 0 || length > mapped.capacity() - position - HEADER_BYTES
+                || mapped.getLong(position + 8) != expectedSeq) {
+            return -1;
+        }
+        crc.reset();
+        crc.update(mapped.slice(position + 8, HEADER_BYTES - 8 + length));
+        return (int) crc.getValue() == mapped.getInt(position + 4) ? HEADER_BYTES + length : -1;
+    }
+
+    /*
+    * a torn tail must not be mistaken for entries once appends reach it again, after a clean
+    * shutdown it is all zeros already and nothing is written
+    * */
+    private void clearTail(MappedByteBuffer mapped, int position) {
+        int end = mapped.capacity();
+        while (end > position && mapped.get(end - 1) == 0 && (end & 7) != 0) {
+            end--;
+        }
+        while (end - Long.BYTES >= position && mapped.getLong(end - Long.BYTES) == 0) {
+            end -= Long.BYTES;
+        }
+        if (end <= position) {
+            return;
+        }
+
+        byte[] zeros = new byte[64 * 1024];
+        for (int zero = position; zero < end; zero += zeros.length) {
+            mapped.put(zero, zeros, 0, Math.min(zeros.length, end - zero));
+        }
+        mapped.force(position, end - position);
+    }
+
+    private MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Event log is closed");
+        }
+        if (segment == null) {
+            throw new IllegalStateException("Event log is not replayed yet");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Event log sync failed, writes are rejected", failure);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        return list(SEGMENT_SUFFIX, "");
+    }
+
+    private List<Path> snapshots() throws IOException {
+        return list(SNAPSHOT_SUFFIX, SNAPSHOT_PREFIX);
+    }
+
+    /*
+    * names carry a zero padded seq, so name order is seq order
+    * */
+    private List<Path> list(String suffix, String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return new ArrayList<>(files
+                    .filter(path -> path.getFileName().toString().startsWith(prefix)
+                            && path.getFileName().toString().endsWith(suffix)
+                            && (!prefix.isEmpty() || Character.isDigit(path.getFileName().toString().charAt(0))))
+                    .sorted()
+                    .toList());
+        }
+    }
+
+    private static long firstSeqOf(Path segment) {
+        return seqOf(segment, "", SEGMENT_SUFFIX);
+    }
+
+    private static long seqOf(Path path, String prefix, String suffix) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+}
@@ -0,0 +1,203 @@
+package com.springboottest.user_management_api.util;
+
+import com.springboottest.user_management_api.dto.response.UserResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded read cache of active users. Every write invalidates its user through the change
+ * feed commit listener, and a load only fills the cache when no invalidation of its user
+ * happened since it started: callers take a stamp before loading and hand it back on put.
+ * Stamps are kept per stripe of ids rather than per id, so the bookkeeping stays bounded and
+ * an unrelated write in the same stripe at worst costs one extra miss.
+ * When full the coldest tenth is evicted by hit count, and every eviction halves the counts
+ * so users that stopped being read cool down. A cache with no entries allowed is disabled.
+ * The commit listener only sees writes made through this instance. Every entry also expires
+ * a fixed time after it was loaded, which bounds how long a write made through another
+ * instance can be served stale here. A zero time to live keeps entries until invalidated,
+ * which is only correct while a single instance writes.
+ */
+public class UserResponseCache {
+
+    public record Entry(long id, UserResponse response) {
+    }
+
+    private static final int STRIPES = 4096;
+
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public UserResponseCache(int maxEntries, Duration ttl, MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.hits = Counter.builder("user.cache.hits").register(meterRegistry);
+        this.misses = Counter.builder("user.cache.misses").register(meterRegistry);
+        this.evictions = Counter.builder("user.cache.evictions").register(meterRegistry);
+        Gauge.builder("user.cache.size", slots, Map::size).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    /**
+     * Cached user or null
+     */
+    public UserResponse get(long id) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        Slot slot = slots.get(id);
+        if (slot == null || slot.isExpired()) {
+            if (slot != null) {
+                slots.remove(id, slot);
+            }
+            misses.increment();
+            return null;
+        }
+        // racy increments lose a hit now and then, the counts only rank users against each other
+        slot.hits++;
+        hits.increment();
+        return slot.response;
+    }
+
+    /**
+     * Take before loading a user and hand to put, so a load that raced a write is not cached
+     */
+    public long stamp(long id) {
+        return stamps.get(stripeOf(id));
+    }
+
+    public void put(long id, UserResponse response, long stamp) {
+        put(id, response, stamp, 1);
+    }
+
+    /**
+     * Drop the user and refuse any load of it stamped before now
+     */
+    public void invalidate(long id) {
+        // bump before removing, a put that checked the old stamp then re-checks and backs out
+        stamps.incrementAndGet(stripeOf(id));
+        slots.remove(id);
+    }
+
+    /**
+     * Up to limit users, most read first
+     */
+    public List<Entry> hottest(int limit) {
+        // counts keep moving while reads go on, rank a copy of them
+        record Ranked(long id, int hits, UserResponse response) {
+        }
+        List<Ranked> ranked = new ArrayList<>(slots.size());
+        slots.forEach((id, slot) -> {
+            if (!slot.isExpired()) {
+                ranked.add(new Ranked(id, slot.hits, slot.response));
+            }
+        });
+        ranked.sort(Comparator.comparingInt(Ranked::hits).reversed());
+
+        return ranked.subList(0, Math.min(limit, ranked.size())).stream()
+                .map(entry -> new Entry(entry.id(), entry.response()))
+                .toList();
+    }
+
+    /**
+     * Fill the cache with users read before a restart, earlier entries rank hotter. Stamps are
+     * taken here, so users invalidated since the caller's own checks are still never cached
+     */
+    public int preload(List<Entry> entries) {
+        int loaded = 0;
+        for (int i = 0; i < entries.size() && loaded < maxEntries; i++) {
+            Entry entry = entries.get(i);
+            // keep the snapshot's ranking so the first eviction does not drop the hottest users
+            loaded += put(entry.id(), entry.response(), stamp(entry.id()), entries.size() - i) ? 1 : 0;
+        }
+        return loaded;
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    private boolean put(long id, UserResponse response, long stamp, int hits) {
+        if (!isEnabled()) {
+            return false;
+        }
+
+        int stripe = stripeOf(id);
+        if (stamps.get(stripe) != stamp) {
+            return false;
+        }
+        Slot slot = new Slot(response, hits, ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0);
+        slots.put(id, slot);
+        if (stamps.get(stripe) != stamp) {
+            slots.remove(id, slot);
+            return false;
+        }
+
+        if (slots.size() > maxEntries) {
+            evictColdest();
+        }
+        return true;
+    }
+
+    private synchronized void evictColdest() {
+        if (slots.size() <= maxEntries) {
+            return;
+        }
+
+        int[] counts = slots.values().stream().mapToInt(slot -> slot.hits).toArray();
+        Arrays.sort(counts);
+        int threshold = counts[counts.length / 10];
+        int target = maxEntries - maxEntries / 10;
+
+        for (var iterator = slots.values().iterator(); iterator.hasNext(); ) {
+            Slot slot = iterator.next();
+            if (slots.size() > target && slot.hits <= threshold) {
+                iterator.remove();
+                evictions.increment();
+            } else {
+                slot.hits >>= 1;
+            }
+        }
+    }
+
+    private static int stripeOf(long id) {
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (STRIPES - 1);
+    }
+
+    private static final class Slot {
+
+        private final UserResponse response;
+        // nanoTime after which the entry is not served any more, 0 when it never expires
+        private final long expiresAtNanos;
+        private volatile int hits;
+
+        private Slot(UserResponse response, int hits, long expiresAtNanos) {
+            this.response = response;
+            this.hits = hits;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired() {
+            return expiresAtNanos != 0 && System.nanoTime() - expiresAtNanos > 0;
+        }
+    }
+}
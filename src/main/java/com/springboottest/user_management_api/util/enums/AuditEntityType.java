@@ -0,0 +1,7 @@
+package com.springboottest.user_management_api.util.enums;
+
+public enum AuditEntityType {
+
+    USER,
+    USER_SETTING
+}
@@ -0,0 +1,21 @@
+package com.springboottest.user_management_api.util.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum BulkUserStatus {
+
+    DELETED(true, null),
+    RESTORED(true, null),
+    NOT_FOUND(false, "Cannot find resource with id %s"),
+    ALREADY_ACTIVE(false, "User is already active");
+
+    private final boolean success;
+    private final String messageTemplate;
+
+    public String formatMessage(Object... args) {
+        return messageTemplate != null ? String.format(messageTemplate, args) : null;
+    }
+}
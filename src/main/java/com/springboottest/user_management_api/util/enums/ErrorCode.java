@@ -10,7 +10,10 @@ public enum ErrorCode {
     RESOURCE_NOT_FOUND(30000, "Cannot find resource with id %s"),
     DUPLICATE_RESOURCE(30001, "Record with unique value %s already exists in the system"),
     INVALID_REQUEST(30002, "Invalid value for field %s, rejected value: %s"),
-    SYSTEM_ERROR(80000, "System error, we're unable to process your request at the moment");
+    TOO_MANY_REQUESTS(30003, "Too many %s requests, retry after %d seconds"),
+    SYSTEM_ERROR(80000, "System error, we're unable to process your request at the moment"),
+    SERVICE_OVERLOADED(80001, "Service is overloaded, too many concurrent %s requests, please retry later"),
+    DEADLINE_EXCEEDED(80002, "Request did not complete within %d ms, please retry later");
 
     private final int code;
     private final String messageTemplate;
@@ -0,0 +1,10 @@
+package com.springboottest.user_management_api.util.enums;
+
+public enum UserChangeType {
+
+    CREATED,
+    UPDATED,
+    SETTINGS_UPDATED,
+    DELETED,
+    RESTORED
+}
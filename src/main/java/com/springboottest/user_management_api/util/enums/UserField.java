@@ -0,0 +1,96 @@
+package com.springboottest.user_management_api.util.enums;
+
+import com.springboottest.user_management_api.dto.response.UserResponse;
+import com.springboottest.user_management_api.exception.InvalidRequestException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/*
+ * Fields a caller can ask for with fields=, by their JSON name. Every field but user_settings
+ * is one column of User, selected under its entity attribute
+ * */
+@Getter
+@RequiredArgsConstructor
+public enum UserField {
+
+    ID("id", "id", UserResponse.UserData::getId,
+            (data, value) -> data.id((Long) value)),
+    SSN("ssn", "ssn", UserResponse.UserData::getSsn,
+            (data, value) -> data.ssn((String) value)),
+    FIRST_NAME("first_name", "firstName", UserResponse.UserData::getFirstName,
+            (data, value) -> data.firstName((String) value)),
+    MIDDLE_NAME("middle_name", "middleName", UserResponse.UserData::getMiddleName,
+            (data, value) -> data.middleName((String) value)),
+    LAST_NAME("last_name", "familyName", UserResponse.UserData::getFamilyName,
+            (data, value) -> data.familyName((String) value)),
+    BIRTH_DATE("birth_date", "birthDate", UserResponse.UserData::getBirthDate,
+            (data, value) -> data.birthDate((LocalDate) value)),
+    CREATED_TIME("created_time", "createdTime", UserResponse.UserData::getCreatedTime,
+            (data, value) -> data.createdTime((Instant) value)),
+    UPDATED_TIME("updated_time", "updatedTime", UserResponse.UserData::getUpdatedTime,
+            (data, value) -> data.updatedTime((Instant) value)),
+    CREATED_BY("created_by", "createdBy", UserResponse.UserData::getCreatedBy,
+            (data, value) -> data.createdBy((String) value)),
+    UPDATED_BY("updated_by", "updatedBy", UserResponse.UserData::getUpdatedBy,
+            (data, value) -> data.updatedBy((String) value)),
+    IS_ACTIVE("is_active", "isActive", UserResponse.UserData::getIsActive,
+            (data, value) -> data.isActive((Boolean) value)),
+    DELETED_TIME("deleted_time", "deletedTime", UserResponse.UserData::getDeletedTime,
+            (data, value) -> data.deletedTime((Instant) value)),
+    USER_SETTINGS("user_settings", null, null, null);
+
+    private final String jsonName;
+    private final String attribute;
+    private final Function<UserResponse.UserData, Object> getter;
+    private final BiConsumer<UserResponse.UserData.UserDataBuilder, Object> setter;
+
+    public boolean isColumn() {
+        return attribute != null;
+    }
+
+    /**
+     * Parse a comma separated fields parameter. id is always part of the result, user_settings
+     * only where the response carries settings
+     */
+    public static Set<UserField> parse(String fields, boolean settingsAllowed) {
+        Set<UserField> parsed = EnumSet.of(ID);
+        List<String> errors = new ArrayList<>();
+
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            UserField field = fromJsonName(trimmed);
+            if (field == null || (field == USER_SETTINGS && !settingsAllowed)) {
+                errors.add(trimmed);
+            } else {
+                parsed.add(field);
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            throw new InvalidRequestException("Invalid fields: " + String.join(", ", errors));
+        }
+        return Collections.unmodifiableSet(parsed);
+    }
+
+    private static UserField fromJsonName(String jsonName) {
+        for (UserField field : values()) {
+            if (field.jsonName.equals(jsonName)) {
+                return field;
+            }
+        }
+        return null;
+    }
+}
@@ -1,8 +1,10 @@
 package com.springboottest.user_management_api.util.validator.annotation.user_settings;
 
+import com.springboottest.user_management_api.util.SettingsSchemaRegistry;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
-import com.springboottest.user_management_api.util.enums.UserSettingKey;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.HashMap;
 import java.util.List;
@@ -11,6 +13,23 @@ import java.util.Map;
 public class UserSettingKeyValidatorImpl implements ConstraintValidator<UserSettingKeyValidator,
         List<Map<String, String>>> {
 
+    private final SettingsSchemaRegistry settingsSchemaRegistry;
+
+    /*
+    * Outside Spring, validates against the built-in settings
+    * */
+    public UserSettingKeyValidatorImpl() {
+        this.settingsSchemaRegistry = SettingsSchemaRegistry.builtIn();
+    }
+
+    /*
+    * Shares the application's schema, web slices without one validate against the built-in settings
+    * */
+    @Autowired
+    public UserSettingKeyValidatorImpl(ObjectProvider<SettingsSchemaRegistry> settingsSchemaRegistry) {
+        this.settingsSchemaRegistry = settingsSchemaRegistry.getIfAvailable(SettingsSchemaRegistry::builtIn);
+    }
+
     @Override
     public boolean isValid(List<Map<String, String>> settings,
                            ConstraintValidatorContext context) {
@@ -33,7 +52,7 @@ public class UserSettingKeyValidatorImpl implements ConstraintValidator<UserSett
             settingsMap.putAll(setting);
         }
 
-        List<String> errors = UserSettingKey.validateSettings(settingsMap);
+        List<String> errors = settingsSchemaRegistry.current().validate(settingsMap);
 
         if (!errors.isEmpty()) {
             context.disableDefaultConstraintViolation();
@@ -0,0 +1,34 @@
+-- users: active_id is only populated while the user is active (is_active = TRUE and
+-- deleted_time IS NULL). H2 has no partial indexes, so the generated column plus its
+-- index gives the active user list an index that soft-deleted rows do not enter.
+CREATE TABLE users (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    ssn          VARCHAR(16)                 NOT NULL,
+    first_name   VARCHAR(100)                NOT NULL,
+    middle_name  VARCHAR(100),
+    family_name  VARCHAR(100)                NOT NULL,
+    birth_date   DATE                        NOT NULL,
+    is_active    BOOLEAN                     NOT NULL DEFAULT TRUE,
+    deleted_time TIMESTAMP(6) WITH TIME ZONE,
+    created_time TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_time TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    created_by   VARCHAR(100)                NOT NULL,
+    updated_by   VARCHAR(100)                NOT NULL,
+    active_id    BIGINT GENERATED ALWAYS AS (CASE WHEN is_active AND deleted_time IS NULL THEN id END),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_ssn UNIQUE (ssn)
+);
+
+CREATE INDEX idx_users_active_id ON users (active_id);
+
+-- user_settings: one row per (user, key); the unique index also serves the
+-- findByUserId / findByUserIdAndKey lookups
+CREATE TABLE user_settings (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id       BIGINT       NOT NULL,
+    setting_key   VARCHAR(100) NOT NULL,
+    setting_value VARCHAR(100) NOT NULL,
+    CONSTRAINT pk_user_settings PRIMARY KEY (id),
+    CONSTRAINT fk_user_settings_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT uk_user_settings_user_key UNIQUE (user_id, setting_key)
+);
@@ -0,0 +1,32 @@
+-- Soft-deleted users past the retention window are moved here by the archival job,
+-- keeping their original ids so restoreUser can move them back unchanged.
+CREATE TABLE users_archive (
+    id            BIGINT                      NOT NULL,
+    ssn           VARCHAR(16)                 NOT NULL,
+    first_name    VARCHAR(100)                NOT NULL,
+    middle_name   VARCHAR(100),
+    family_name   VARCHAR(100)                NOT NULL,
+    birth_date    DATE                        NOT NULL,
+    is_active     BOOLEAN                     NOT NULL,
+    deleted_time  TIMESTAMP(6) WITH TIME ZONE,
+    created_time  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_time  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    created_by    VARCHAR(100)                NOT NULL,
+    updated_by    VARCHAR(100)                NOT NULL,
+    archived_time TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_users_archive PRIMARY KEY (id),
+    CONSTRAINT uk_users_archive_ssn UNIQUE (ssn)
+);
+
+CREATE TABLE user_settings_archive (
+    id            BIGINT       NOT NULL,
+    user_id       BIGINT       NOT NULL,
+    setting_key   VARCHAR(100) NOT NULL,
+    setting_value VARCHAR(100) NOT NULL,
+    CONSTRAINT pk_user_settings_archive PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_user_settings_archive_user_id ON user_settings_archive (user_id);
+
+-- the archival job scans soft-deleted users by deletion time
+CREATE INDEX idx_users_deleted_time ON users (deleted_time);
@@ -0,0 +1,11 @@
+-- Change feed: seq is assigned by the application in commit order, so a consumer
+-- reading seq > cursor never misses a change that commits later with a lower seq.
+CREATE TABLE user_changes (
+    seq          BIGINT                      NOT NULL,
+    user_id      BIGINT                      NOT NULL,
+    change_type  VARCHAR(20)                 NOT NULL,
+    changed_time TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_user_changes PRIMARY KEY (seq)
+);
+
+CREATE INDEX idx_user_changes_changed_time ON user_changes (changed_time);
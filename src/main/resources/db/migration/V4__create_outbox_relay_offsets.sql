@@ -0,0 +1,7 @@
+-- Outbox relay progress: user_changes is the outbox, each relay remembers the last seq its sink accepted.
+CREATE TABLE outbox_relay_offsets (
+    relay_name   VARCHAR(50)                 NOT NULL,
+    last_seq     BIGINT                      NOT NULL,
+    updated_time TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_outbox_relay_offsets PRIMARY KEY (relay_name)
+);
@@ -0,0 +1,16 @@
+-- Field level history of users and their settings, written asynchronously after commit.
+-- No foreign key to users, the history outlives archival and purge of the user.
+CREATE TABLE user_audit_log (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id      BIGINT                      NOT NULL,
+    entity_type  VARCHAR(20)                 NOT NULL,
+    entity_id    BIGINT                      NOT NULL,
+    field_name   VARCHAR(100)                NOT NULL,
+    old_value    VARCHAR(255),
+    new_value    VARCHAR(255),
+    actor        VARCHAR(100)                NOT NULL,
+    changed_time TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    CONSTRAINT pk_user_audit_log PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_user_audit_log_user_time ON user_audit_log (user_id, changed_time);
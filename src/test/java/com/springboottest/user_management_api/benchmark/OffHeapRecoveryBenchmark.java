@@ -0,0 +1,128 @@
+package com.springboottest.user_management_api.benchmark;
+
+import com.springboottest.user_management_api.util.OffHeapUserStore;
+import com.springboottest.user_management_api.util.OffHeapUserStore.UserRecord;
+import com.springboottest.user_management_api.util.UserEventLog;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+/*
+ * Journaled write throughput of the off-heap store and its recovery time, from the log alone and
+ * from a snapshot plus a tail of updates. Run with ./gradlew benchmark -Dbenchmark.users=1000000
+ * */
+@Tag("benchmark")
+public class OffHeapRecoveryBenchmark {
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 1_000_000);
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+    private static final int SEGMENT_BYTES = 64 * 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoveryTimePerMillionUsers() throws Exception {
+        List<String> results = new ArrayList<>();
+
+        try (UserEventLog log = eventLog()) {
+            OffHeapUserStore store = new OffHeapUserStore(4096, USERS);
+            store.recover(log);
+            double seconds = timeSeconds(() -> inParallel(USERS, i -> store.insert(user(i))));
+            results.add(String.format("journaled inserts threads=%d users=%d time=%.2fs throughput=%.0f/s log=%dMB",
+                    THREADS, USERS, seconds, USERS / seconds, directorySize() >> 20));
+        }
+
+        results.add(recover("log only"));
+
+        try (UserEventLog log = eventLog()) {
+            OffHeapUserStore store = new OffHeapUserStore(4096, USERS);
+            store.recover(log);
+            double seconds = timeSeconds(store::writeSnapshot);
+            results.add(String.format("snapshot users=%d time=%.2fs", USERS, seconds));
+
+            // a tail of updates after the snapshot, a tenth of the users
+            inParallel(USERS / 10, i -> store.update(i + 1, user -> renamed(user, "Updated")));
+        }
+
+        results.add(recover("snapshot + 10% tail"));
+        results.forEach(System.out::println);
+    }
+
+    private String recover(String label) throws Exception {
+        System.gc();
+        try (UserEventLog log = eventLog()) {
+            OffHeapUserStore store = new OffHeapUserStore(4096, USERS);
+            double seconds = timeSeconds(() -> store.recover(log));
+            return String.format("recovery from %s users=%d time=%.2fs per million=%.2fs",
+                    label, store.size(), seconds, seconds * 1_000_000 / USERS);
+        }
+    }
+
+    private UserEventLog eventLog() throws IOException {
+        return new UserEventLog(directory, SEGMENT_BYTES, Duration.ofMillis(1));
+    }
+
+    private void inParallel(int count, LongConsumer work) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int first = thread;
+                futures.add(executor.submit(() -> {
+                    for (long i = first; i < count; i += THREADS) {
+                        work.accept(i);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private long directorySize() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+
+    private static double timeSeconds(Work work) throws Exception {
+        long start = System.nanoTime();
+        work.run();
+        return (System.nanoTime() - start) / 1e9;
+    }
+
+    private static UserRecord user(long i) {
+        Instant now = Instant.now();
+        return new UserRecord(0, 1_000_000 + i, "Bench", null, "User", LocalDate.of(1990, 1, 1), true,
+                now, now, null, "SYSTEM", "SYSTEM", 0, new byte[]{1, 2, 3, 4, 5});
+    }
+
+    private static UserRecord renamed(UserRecord user, String firstName) {
+        return new UserRecord(user.id(), user.ssn(), firstName, user.middleName(), user.familyName(),
+                user.birthDate(), user.active(), user.createdTime(), Instant.now(), user.deletedTime(),
+                user.createdBy(), user.updatedBy(), user.settingFlags(), user.widgetOrder());
+    }
+
+    @FunctionalInterface
+    private interface Work {
+        void run() throws Exception;
+    }
+}
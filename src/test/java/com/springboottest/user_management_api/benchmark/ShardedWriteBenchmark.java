@@ -0,0 +1,93 @@
+package com.springboottest.user_management_api.benchmark;
+
+import com.springboottest.user_management_api.UserManagementApiApplication;
+import com.springboottest.user_management_api.dto.request.CreateUserRequest;
+import com.springboottest.user_management_api.service.interfaces.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Write throughput of createUser against 1, 2 and 4 shards. Run with ./gradlew benchmark
+ * */
+@Tag("benchmark")
+public class ShardedWriteBenchmark {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 16);
+    private static final int WARMUP_USERS = Integer.getInteger("benchmark.warmup", 2_000);
+    private static final int USERS = Integer.getInteger("benchmark.users", 20_000);
+
+    private final AtomicLong ssn = new AtomicLong(1_000_000);
+
+    @Test
+    void createUserThroughputByShardCount() throws Exception {
+        List<String> results = new ArrayList<>();
+        for (int shards : new int[]{1, 2, 4}) {
+            try (ConfigurableApplicationContext context = start(shards)) {
+                UserService userService = context.getBean(UserService.class);
+                createUsers(userService, WARMUP_USERS);
+
+                long start = System.nanoTime();
+                createUsers(userService, USERS);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                results.add(String.format("shards=%d threads=%d users=%d time=%.2fs throughput=%.0f/s",
+                        shards, THREADS, USERS, seconds, USERS / seconds));
+            }
+        }
+        results.forEach(System.out::println);
+    }
+
+    private void createUsers(UserService userService, int count) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < count / THREADS; i++) {
+                        userService.createUser(CreateUserRequest.builder()
+                                .ssn(String.valueOf(ssn.incrementAndGet()))
+                                .firstName("Bench")
+                                .lastName("User")
+                                .birthDate(LocalDate.of(1990, 1, 1))
+                                .build());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private ConfigurableApplicationContext start(int shards) {
+        List<String> properties = new ArrayList<>(List.of(
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN",
+                "app.sharding.enabled=true",
+                "app.outbox.enabled=false",
+                "app.archival.enabled=false"));
+        for (int shard = 0; shard < shards; shard++) {
+            properties.add("app.sharding.shards[" + shard + "].url=jdbc:h2:mem:bench" + shards + "_" + shard);
+            properties.add("app.sharding.shards[" + shard + "].username=sa");
+            properties.add("app.sharding.shards[" + shard + "].maximum-pool-size=" + THREADS);
+        }
+
+        return new SpringApplicationBuilder(UserManagementApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties.toArray(String[]::new))
+                .run();
+    }
+}
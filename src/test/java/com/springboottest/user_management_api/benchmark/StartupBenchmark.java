@@ -0,0 +1,127 @@
+package com.springboottest.user_management_api.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/*
+ * Time from JVM launch to a healthy actuator (ready) and to the first answered
+ * GET /v1/users/{id}, for the plain jar and the fast-startup mode. Run with ./gradlew startupBenchmark
+ * */
+@Tag("benchmark")
+public class StartupBenchmark {
+
+    private static final int RUNS = Integer.getInteger("startup.benchmark.runs", 5);
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(120);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    @Test
+    void plainVersusFastStartup() throws Exception {
+        String java = System.getProperty("startup.benchmark.java");
+        String jar = System.getProperty("startup.benchmark.jar");
+        assumeTrue(jar != null, "needs the extracted jar and cache, run through the startupBenchmark task");
+        String cacheOption = System.getProperty("startup.benchmark.cache-option");
+        File logs = new File(System.getProperty("startup.benchmark.logs"));
+
+        List<String> plain = List.of(java, "-jar", jar);
+        List<String> fast = List.of(java, cacheOption, "-Dspring.aot.enabled=true", "-jar", jar,
+                "--spring.profiles.active=fast-startup");
+
+        List<Sample> plainSamples = new ArrayList<>();
+        List<Sample> fastSamples = new ArrayList<>();
+        for (int run = 0; run < RUNS; run++) {
+            // interleaved so drift in machine load hits both modes alike
+            plainSamples.add(measure(plain, new File(logs, "plain-" + run + ".log")));
+            fastSamples.add(measure(fast, new File(logs, "fast-" + run + ".log")));
+        }
+
+        System.out.println(report("plain", plainSamples));
+        System.out.println(report("fast-startup", fastSamples));
+    }
+
+    private Sample measure(List<String> command, File log) throws Exception {
+        int port = freePort();
+        List<String> fullCommand = new ArrayList<>(command);
+        fullCommand.add("--server.port=" + port);
+        fullCommand.add("--logging.level.root=WARN");
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(fullCommand)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+        try {
+            awaitStatus(process, "http://localhost:" + port + "/actuator/health", start);
+            long ready = System.nanoTime() - start;
+            awaitStatus(process, "http://localhost:" + port + "/v1/users/1", start);
+            long firstResponse = System.nanoTime() - start;
+            return new Sample(ready, firstResponse);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /*
+    * polls until the url answers with any status, the unknown user is a 404 and still a served response
+    * */
+    private void awaitStatus(Process process, String url, long start) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).build();
+        while (System.nanoTime() - start < TIMEOUT_NANOS) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue());
+            }
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 503) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("No response from " + url);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String report(String mode, List<Sample> samples) {
+        return String.format("%-12s runs=%d time-to-ready median=%dms min=%dms time-to-first-response median=%dms min=%dms",
+                mode, samples.size(),
+                median(samples.stream().mapToLong(Sample::readyNanos).sorted().toArray()),
+                samples.stream().mapToLong(Sample::readyNanos).min().orElse(0) / 1_000_000,
+                median(samples.stream().mapToLong(Sample::firstResponseNanos).sorted().toArray()),
+                samples.stream().mapToLong(Sample::firstResponseNanos).min().orElse(0) / 1_000_000);
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[sorted.length / 2] / 1_000_000;
+    }
+
+    private record Sample(long readyNanos, long firstResponseNanos) {
+    }
+}
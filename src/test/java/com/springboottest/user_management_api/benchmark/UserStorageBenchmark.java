@@ -0,0 +1,138 @@
+package com.springboottest.user_management_api.benchmark;
+
+import com.springboottest.user_management_api.UserManagementApiApplication;
+import com.springboottest.user_management_api.dto.request.CreateUserRequest;
+import com.springboottest.user_management_api.dto.response.UserResponse;
+import com.springboottest.user_management_api.service.interfaces.UserService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * JMH comparison of the JPA and the off-heap UserService on the same calls, each engine in its own
+ * application context on an in-memory database. Run with ./gradlew benchmark, users preloaded
+ * per engine with -Dbenchmark.users
+ * */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserStorageBenchmark {
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 10_000);
+    private static final int CREATE_BATCH = 1_000;
+
+    @Param({"jpa", "off-heap"})
+    public String engine;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private final AtomicLong ssn = new AtomicLong(1_000_000);
+    private long firstId;
+
+    @Test
+    void compareStorageEngines() throws Exception {
+        // the forked benchmark JVM does not see system properties of this one
+        new Runner(new OptionsBuilder()
+                .include(UserStorageBenchmark.class.getName() + "\\.")
+                .jvmArgsAppend("-Dbenchmark.users=" + USERS)
+                .build()).run();
+    }
+
+    @Setup(Level.Trial)
+    public void start() {
+        // arguments, not default properties, so they win over application.yaml
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(UserManagementApiApplication.class)
+                .web(WebApplicationType.NONE);
+        if (engine.equals("off-heap")) {
+            builder.profiles("off-heap");
+        }
+        context = builder.run("--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--app.outbox.enabled=false",
+                "--app.archival.enabled=false");
+        userService = context.getBean(UserService.class);
+
+        firstId = createUser().getUserData().getId();
+        for (int i = 1; i < USERS; i++) {
+            createUser();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object getUserById() {
+        return userService.getUserById(randomId());
+    }
+
+    @Benchmark
+    public Object getAllUsers() {
+        return userService.getAllUsers(20, ThreadLocalRandom.current().nextInt(USERS / 20), false);
+    }
+
+    /*
+    * single shots of a fixed batch, timed runs would fill native memory at off-heap speed
+    * */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    @OperationsPerInvocation(CREATE_BATCH)
+    public void createUser(Blackhole blackhole) {
+        for (int i = 0; i < CREATE_BATCH; i++) {
+            blackhole.consume(createUser());
+        }
+    }
+
+    private UserResponse createUser() {
+        return userService.createUser(CreateUserRequest.builder()
+                .ssn(String.valueOf(ssn.incrementAndGet()))
+                .firstName("Bench")
+                .lastName("User")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build());
+    }
+
+    @Benchmark
+    public Object updateUserSettings() {
+        return userService.updateUserSettings(randomId(),
+                List.of(Map.of("push_notification", String.valueOf(ThreadLocalRandom.current().nextBoolean()))));
+    }
+
+    private long randomId() {
+        return firstId + ThreadLocalRandom.current().nextInt(USERS);
+    }
+}
@@ -0,0 +1,127 @@
+package com.springboottest.user_management_api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboottest.user_management_api.config.datasource.ReadWriteRoutingDataSource;
+import com.springboottest.user_management_api.dto.request.CreateUserRequest;
+import com.springboottest.user_management_api.dto.response.UserResponse;
+import com.springboottest.user_management_api.exception.ResourceNotFoundException;
+import com.springboottest.user_management_api.service.interfaces.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/*
+ * Against a replica that really lags: its own database, which the primary is copied into
+ * the replica lag after each commit. Own databases too, the change feed sequence of the
+ * default test context lives in testdb
+ * */
+@SpringBootTest(properties = {
+        "app.datasource.primary.url=jdbc:h2:mem:routingdb",
+        "app.datasource.replica.url=jdbc:h2:mem:routingdb_replica",
+        "app.datasource.routing.replica-lag=PT3S",
+        "app.datasource.routing.read-your-writes-window=PT1M"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("replica")
+public class DataSourceRoutingConfigTest {
+
+    private static final Duration CATCH_UP_TIMEOUT = Duration.ofSeconds(15);
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void replicaProfile_shouldRouteThroughLazyProxy() {
+        assertThat(dataSource).isInstanceOf(LazyConnectionDataSourceProxy.class);
+        assertThat(((LazyConnectionDataSourceProxy) dataSource).getTargetDataSource())
+                .isInstanceOf(ReadWriteRoutingDataSource.class);
+    }
+
+    @Test
+    void readAfterWrite_shouldMissWrite_untilReplicaCaughtUp() throws Exception {
+        UserResponse created = userService.createUser(createRequest("880001"));
+        Long id = created.getUserData().getId();
+
+        assertThatThrownBy(() -> userService.getUserById(id)).isInstanceOf(ResourceNotFoundException.class);
+
+        UserResponse fetched = awaitReplica(id);
+        assertThat(fetched.getUserData().getSsn()).isEqualTo("0000000000880001");
+    }
+
+    @Test
+    void readAfterOwnWrite_shouldSeeWrite_whileReplicaLags() throws Exception {
+        MvcResult created = performAsync(post("/v1/users")
+                        .header("X-Client-Id", "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest("880002"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        long id = objectMapper.readTree(created.getResponse().getContentAsString()).at("/user_data/id").asLong();
+
+        // another client first, the writer's read fills the cache from the primary
+        performAsync(get("/v1/users/{id}", id).header("X-Client-Id", "reader"))
+                .andExpect(status().isNotFound());
+        performAsync(get("/v1/users/{id}", id).header("X-Client-Id", "writer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user_data.ssn").value("0000000000880002"));
+    }
+
+    private UserResponse awaitReplica(Long id) throws InterruptedException {
+        long deadline = System.nanoTime() + CATCH_UP_TIMEOUT.toNanos();
+        while (true) {
+            try {
+                return userService.getUserById(id);
+            } catch (ResourceNotFoundException e) {
+                if (System.nanoTime() - deadline > 0) {
+                    throw e;
+                }
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    private static CreateUserRequest createRequest(String ssn) {
+        return CreateUserRequest.builder()
+                .ssn(ssn)
+                .firstName("Routed")
+                .lastName("User")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+
+    /*
+    * the user endpoints complete on the bulkhead executor, dispatch the async result
+    * */
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -0,0 +1,84 @@
+package com.springboottest.user_management_api.config;
+
+import com.springboottest.user_management_api.config.datasource.DataSourceRoutingContext;
+import com.springboottest.user_management_api.config.datasource.ReadWriteRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadWriteRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("routing_primary");
+        DataSource replica = database("routing_replica");
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replica));
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DataSourceRoutingContext.clear();
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUseReplica() {
+        String node = readOnlyTransaction.execute(status -> node());
+
+        assertThat(node).isEqualTo("routing_replica");
+    }
+
+    @Test
+    void writeTransaction_shouldUsePrimary() {
+        String node = writeTransaction.execute(status -> node());
+
+        assertThat(node).isEqualTo("routing_primary");
+    }
+
+    @Test
+    void statementOutsideTransaction_shouldUsePrimary() {
+        assertThat(node()).isEqualTo("routing_primary");
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUsePrimary_whenPrimaryIsForced() {
+        DataSourceRoutingContext.forcePrimary();
+
+        String node = readOnlyTransaction.execute(status -> node());
+
+        assertThat(node).isEqualTo("routing_primary");
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private DataSource database(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(30))");
+        template.execute("DELETE FROM node");
+        template.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,86 @@
+package com.springboottest.user_management_api.config;
+
+import com.springboottest.user_management_api.config.datasource.ShardContext;
+import com.springboottest.user_management_api.config.datasource.ShardRouter;
+import com.springboottest.user_management_api.config.properties.ShardingProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ShardRouterTest {
+
+    @Test
+    void shardOfUser_shouldFollowIdStride() {
+        ShardRouter router = router(3);
+
+        assertThat(List.of(1L, 2L, 3L, 4L, 5L, 6L))
+                .extracting(router::shardOfUser)
+                .containsExactly(0, 1, 2, 0, 1, 2);
+    }
+
+    @Test
+    void shardOfSsn_shouldSpreadSequentialSsnsEvenly() {
+        ShardRouter router = router(4);
+        int[] counts = new int[4];
+        IntStream.range(0, 40_000).forEach(i -> counts[router.shardOfSsn(String.format("%016d", i))]++);
+
+        assertThat(IntStream.of(counts).boxed().toList()).allMatch(count -> count > 9_000 && count < 11_000);
+    }
+
+    @Test
+    void onShard_shouldSetAndRestoreContext() {
+        ShardRouter router = router(3);
+
+        int inside = router.onShard(2, ShardContext::current);
+
+        assertThat(inside).isEqualTo(2);
+        assertThat(ShardContext.current()).isZero();
+    }
+
+    @Test
+    void onShard_shouldRejectSwitchInsideTransaction() {
+        ShardRouter router = router(3);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThatThrownBy(() -> router.onShard(1, () -> null)).isInstanceOf(IllegalStateException.class);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    @Test
+    void scatter_shouldRunOnEveryShardInShardOrder() {
+        ShardRouter router = router(3);
+
+        assertThat(router.scatter(shard -> ShardContext.current())).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void groupByShard_shouldKeepRelativeOrder() {
+        Map<Integer, List<Long>> groups = router(2).groupByShard(List.of(4L, 1L, 3L, 2L));
+
+        assertThat(groups).containsEntry(0, List.of(1L, 3L)).containsEntry(1, List.of(4L, 2L));
+    }
+
+    @Test
+    void unsharded_shouldHaveSingleShard() {
+        ShardRouter router = new ShardRouter(new ShardingProperties());
+
+        assertThat(router.shardCount()).isEqualTo(1);
+        assertThat(router.shardOfUser(42L)).isZero();
+        assertThat(router.shardOfSsn("0000000000002945")).isZero();
+    }
+
+    private ShardRouter router(int shards) {
+        ShardingProperties properties = new ShardingProperties();
+        properties.setEnabled(true);
+        IntStream.range(0, shards).forEach(i -> properties.getShards().add(new ShardingProperties.Shard()));
+        return new ShardRouter(properties);
+    }
+}
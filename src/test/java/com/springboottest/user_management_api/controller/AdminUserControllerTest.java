@@ -0,0 +1,76 @@
+package com.springboottest.user_management_api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboottest.user_management_api.dto.request.BulkUpdateSettingsRequest;
+import com.springboottest.user_management_api.dto.response.BulkOperationResponse;
+import com.springboottest.user_management_api.exception.ResourceNotFoundException;
+import com.springboottest.user_management_api.service.interfaces.BulkSettingsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AdminUserController.class)
+public class AdminUserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private BulkSettingsService bulkSettingsService;
+
+    @Test
+    void bulkUpdateSettings_shouldReturn202() throws Exception {
+        BulkUpdateSettingsRequest request = BulkUpdateSettingsRequest.builder()
+                .settings(List.of(Map.of("show_onboarding", "false")))
+                .build();
+        when(bulkSettingsService.startBulkUpdate(any(BulkUpdateSettingsRequest.class)))
+                .thenReturn(BulkOperationResponse.builder().jobId("job-1").status("QUEUED").build());
+
+        mockMvc.perform(put("/v1/admin/users/settings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.job_id").value("job-1"));
+
+        verify(bulkSettingsService).startBulkUpdate(any(BulkUpdateSettingsRequest.class));
+    }
+
+    @Test
+    void bulkUpdateSettings_shouldReturn422_whenSettingIsInvalid() throws Exception {
+        BulkUpdateSettingsRequest request = BulkUpdateSettingsRequest.builder()
+                .settings(List.of(Map.of("show_onboarding", "maybe")))
+                .build();
+
+        mockMvc.perform(put("/v1/admin/users/settings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.code").value(30002));
+
+        verifyNoInteractions(bulkSettingsService);
+    }
+
+    @Test
+    void getBulkUpdateStatus_shouldReturn404_whenJobIsUnknown() throws Exception {
+        when(bulkSettingsService.getBulkUpdateStatus("missing"))
+                .thenThrow(new ResourceNotFoundException("Cannot find bulk job with id missing"));
+
+        mockMvc.perform(get("/v1/admin/users/settings/jobs/missing"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value(30000));
+    }
+}
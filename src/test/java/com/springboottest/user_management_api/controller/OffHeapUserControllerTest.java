@@ -0,0 +1,95 @@
+package com.springboottest.user_management_api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboottest.user_management_api.dto.request.CreateUserRequest;
+import com.springboottest.user_management_api.service.implementation.OffHeapUserServiceImpl;
+import com.springboottest.user_management_api.service.interfaces.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/*
+ * The off-heap profile end to end through the controller, UserControllerTest covers the
+ * controller itself against a mocked service
+ * */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("off-heap")
+public class OffHeapUserControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void offHeapProfile_shouldSelectOffHeapUserService() {
+        assertThat(userService).isInstanceOf(OffHeapUserServiceImpl.class);
+    }
+
+    @Test
+    void userLifecycle_shouldRoundTripThroughOffHeapStore() throws Exception {
+        CreateUserRequest createRequest = CreateUserRequest.builder()
+                .ssn("7654")
+                .firstName("John")
+                .lastName("Doe")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build();
+
+        MvcResult created = performAsync(post("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.user_data.ssn").value("0000000000007654"))
+                .andReturn();
+        long id = objectMapper.readTree(created.getResponse().getContentAsString()).at("/user_data/id").asLong();
+
+        performAsync(put("/v1/users/{id}/settings", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"settings\":[{\"widget_order\":\"2,1,3,4,5\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user_settings[?(@.widget_order)].widget_order").value("2,1,3,4,5"));
+
+        performAsync(post("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createRequest)))
+                .andExpect(status().isConflict());
+
+        performAsync(delete("/v1/users/{id}", id))
+                .andExpect(status().is2xxSuccessful());
+        performAsync(get("/v1/users/{id}", id))
+                .andExpect(status().isNotFound());
+
+        performAsync(put("/v1/users/{id}/refresh", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user_data.is_active").value(true))
+                .andExpect(jsonPath("$.user_settings[?(@.widget_order)].widget_order").value("2,1,3,4,5"));
+    }
+
+    /*
+    * the user endpoints complete on the bulkhead executor, dispatch the async result
+    * */
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -0,0 +1,105 @@
+package com.springboottest.user_management_api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboottest.user_management_api.dto.request.CreateUserRequest;
+import com.springboottest.user_management_api.job.SettingsSchemaReloadJob;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/*
+ * Settings defined by a schema file instead of the UserSettingKey enum, edited while running.
+ * Runs on a database of its own, the change feed of another cached context would otherwise
+ * reuse seqs this context has written
+ * */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:settingsschemadb")
+@AutoConfigureMockMvc
+public class SettingsSchemaControllerTest {
+
+    private static final Path SCHEMA;
+
+    static {
+        try {
+            SCHEMA = Files.createTempFile("settings-schema", ".json");
+            writeSchema("[{\"key\": \"dark_mode\", \"default_value\": \"false\", \"validator\": \"boolean\"}]", 1);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void schemaPath(DynamicPropertyRegistry registry) {
+        registry.add("app.settings-schema.path", SCHEMA::toString);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SettingsSchemaReloadJob settingsSchemaReloadJob;
+
+    @Test
+    void settings_shouldFollowTheSchemaFile_andPickUpEdits() throws Exception {
+        MvcResult created = performAsync(post("/v1/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(CreateUserRequest.builder()
+                                .ssn("8642")
+                                .firstName("John")
+                                .lastName("Doe")
+                                .birthDate(LocalDate.of(1990, 1, 1))
+                                .build())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.user_settings.length()").value(1))
+                .andExpect(jsonPath("$.user_settings[0].dark_mode").value("false"))
+                .andReturn();
+        long id = objectMapper.readTree(created.getResponse().getContentAsString()).at("/user_data/id").asLong();
+
+        mockMvc.perform(put("/v1/users/{id}/settings", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"settings\":[{\"theme\":\"dark\"}]}"))
+                .andExpect(status().isUnprocessableEntity());
+
+        writeSchema("[{\"key\": \"dark_mode\", \"default_value\": \"false\", \"validator\": \"boolean\"}," +
+                "{\"key\": \"theme\", \"default_value\": \"light\", \"validator\": \"enum:light|dark\"}]", 2);
+        settingsSchemaReloadJob.run();
+
+        performAsync(put("/v1/users/{id}/settings", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"settings\":[{\"theme\":\"dark\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user_settings[?(@.theme)].theme").value("dark"));
+    }
+
+    private static void writeSchema(String content, int version) throws IOException {
+        Files.writeString(SCHEMA, content);
+        Files.setLastModifiedTime(SCHEMA, FileTime.from(Instant.parse("2026-01-01T00:00:00Z").plusSeconds(version)));
+    }
+
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+}
@@ -0,0 +1,74 @@
+package com.springboottest.user_management_api.controller;
+
+import com.springboottest.user_management_api.dto.response.UserChangesResponse;
+import com.springboottest.user_management_api.service.interfaces.ChangeFeedService;
+import com.springboottest.user_management_api.service.interfaces.ChangeFeedStreamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(UserChangeController.class)
+public class UserChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ChangeFeedService changeFeedService;
+
+    @MockitoBean
+    private ChangeFeedStreamService changeFeedStreamService;
+
+    @Test
+    void getChanges_shouldReturnChangesAndNextCursor() throws Exception {
+        UserChangesResponse response = UserChangesResponse.builder()
+                .changes(List.of(UserChangesResponse.Change.builder()
+                        .seq(42L)
+                        .userId(1L)
+                        .type("UPDATED")
+                        .changedTime(Instant.now())
+                        .build()))
+                .nextCursor(42L)
+                .build();
+        when(changeFeedService.getChanges(41L, 100)).thenReturn(response);
+
+        mockMvc.perform(get("/v1/users/changes").param("cursor", "41"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].seq").value(42))
+                .andExpect(jsonPath("$.changes[0].user_id").value(1))
+                .andExpect(jsonPath("$.changes[0].type").value("UPDATED"))
+                .andExpect(jsonPath("$.next_cursor").value(42));
+    }
+
+    @Test
+    void getChanges_shouldReturn422_whenLimitIsTooLarge() throws Exception {
+        mockMvc.perform(get("/v1/users/changes").param("limit", "501"))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(changeFeedService, never()).getChanges(anyLong(), anyInt());
+    }
+
+    @Test
+    void streamChanges_shouldResumeFromLastEventId() throws Exception {
+        when(changeFeedStreamService.subscribe(anyLong())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/v1/users/changes/stream")
+                        .param("cursor", "5")
+                        .header("Last-Event-ID", "17"))
+                .andExpect(request().asyncStarted());
+
+        verify(changeFeedStreamService).subscribe(17L);
+    }
+}
@@ -4,21 +4,36 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.springboottest.user_management_api.dto.request.CreateUserRequest;
 import com.springboottest.user_management_api.dto.request.UpdateUserRequest;
 import com.springboottest.user_management_api.dto.request.UpdateUserSettingsRequest;
+import com.springboottest.user_management_api.dto.request.UserIdsRequest;
+import com.springboottest.user_management_api.dto.response.BulkUserResultResponse;
+import com.springboottest.user_management_api.dto.response.UserBatchResponse;
 import com.springboottest.user_management_api.dto.response.UserListResponse;
 import com.springboottest.user_management_api.dto.response.UserResponse;
 import com.springboottest.user_management_api.exception.DuplicateResourceException;
 import com.springboottest.user_management_api.exception.ResourceNotFoundException;
+import com.springboottest.user_management_api.exception.ServiceOverloadedException;
 import com.springboottest.user_management_api.service.interfaces.UserService;
+import com.springboottest.user_management_api.util.Bulkhead;
+import com.springboottest.user_management_api.util.enums.UserField;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -89,23 +104,113 @@ public class UserControllerTest {
                 .maxRecords(10)
                 .offset(0)
                 .build();
-        when(userService.getAllUsers(10, 0)).thenReturn(listResponse);
+        when(userService.getAllUsers(10, 0, false)).thenReturn(listResponse);
 
-        mockMvc.perform(get("/v1/users")
+        performAsync(get("/v1/users")
                         .param("max_records", "10")
                         .param("offset", "0"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.user_data").isArray())
-                .andExpect(jsonPath("$.max_records").value(10));
+                .andExpect(jsonPath("$.max_records").value(10))
+                .andExpect(jsonPath("$.total").doesNotExist());
+
+        verify(userService).getAllUsers(10, 0, false);
+    }
+
+    @Test
+    void getAllUsers_shouldReturnTotal_whenIncludeTotalIsSet() throws Exception {
+        UserListResponse listResponse = UserListResponse.builder()
+                .userData(List.of(userResponse.getUserData()))
+                .maxRecords(5)
+                .offset(0)
+                .total(42L)
+                .build();
+        when(userService.getAllUsers(5, 0, true)).thenReturn(listResponse);
+
+        performAsync(get("/v1/users")
+                        .param("include_total", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(42));
+    }
+
+    @Test
+    void getAllUsers_shouldPassFieldSet_whenFieldsAreGiven() throws Exception {
+        UserListResponse listResponse = UserListResponse.builder()
+                .userData(List.of(UserResponse.UserData.builder().id(1L).firstName("John").build()))
+                .maxRecords(5)
+                .offset(0)
+                .build();
+        when(userService.getAllUsers(5, 0, false, EnumSet.of(UserField.ID, UserField.FIRST_NAME)))
+                .thenReturn(listResponse);
+
+        performAsync(get("/v1/users").param("fields", "first_name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user_data[0].id").value(1))
+                .andExpect(jsonPath("$.user_data[0].first_name").value("John"))
+                .andExpect(jsonPath("$.user_data[0].ssn").doesNotExist());
+
+        verify(userService, never()).getAllUsers(anyInt(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    void getAllUsers_shouldPageByCursor_whenAfterIdIsGiven() throws Exception {
+        UserListResponse listResponse = UserListResponse.builder()
+                .userData(List.of(userResponse.getUserData()))
+                .maxRecords(1)
+                .afterId(7L)
+                .nextAfterId(userResponse.getUserData().getId())
+                .build();
+        when(userService.getUsersAfter(7L, 1, false)).thenReturn(listResponse);
+
+        performAsync(get("/v1/users")
+                        .param("max_records", "1")
+                        .param("after_id", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.after_id").value(7))
+                .andExpect(jsonPath("$.next_after_id").value(userResponse.getUserData().getId()));
+
+        verify(userService, never()).getAllUsers(anyInt(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    void getAllUsers_shouldReturn422_whenOffsetIsOutOfRangeOrCombinedWithAfterId() throws Exception {
+        mockMvc.perform(get("/v1/users")
+                        .param("max_records", "1000")
+                        .param("offset", String.valueOf(Integer.MAX_VALUE)))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(get("/v1/users")
+                        .param("offset", "1")
+                        .param("after_id", "7"))
+                .andExpect(status().isUnprocessableEntity());
 
-        verify(userService).getAllUsers(10, 0);
+        verify(userService, never()).getAllUsers(anyInt(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    void getAllUsers_shouldReturn422_whenFieldIsUnknownOrSettings() throws Exception {
+        mockMvc.perform(get("/v1/users").param("fields", "first_name,password,user_settings"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message[0]").value("Invalid fields: password, user_settings"));
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void getActiveUserCount_shouldReturn200() throws Exception {
+        when(userService.getActiveUserCount()).thenReturn(42L);
+
+        performAsync(get("/v1/users/count"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(42));
+
+        verify(userService).getActiveUserCount();
     }
 
     @Test
     void getUserById_shouldReturn200_whenUserExists() throws Exception {
         when(userService.getUserById(1L)).thenReturn(userResponse);
 
-        mockMvc.perform(get("/v1/users/1"))
+        performAsync(get("/v1/users/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.user_data.id").value(1))
                 .andExpect(jsonPath("$.user_settings").isArray());
@@ -113,21 +218,127 @@ public class UserControllerTest {
         verify(userService).getUserById(1L);
     }
 
+    @Test
+    void getUserById_shouldPassFieldSet_whenFieldsAreGiven() throws Exception {
+        when(userService.getUserById(1L, EnumSet.of(UserField.ID, UserField.LAST_NAME, UserField.USER_SETTINGS)))
+                .thenReturn(UserResponse.builder()
+                        .userData(UserResponse.UserData.builder().id(1L).familyName("Doe").build())
+                        .userSettings(userResponse.getUserSettings())
+                        .build());
+
+        performAsync(get("/v1/users/1").param("fields", " last_name, user_settings,"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user_data.last_name").value("Doe"))
+                .andExpect(jsonPath("$.user_data.first_name").doesNotExist())
+                .andExpect(jsonPath("$.user_settings").isArray());
+
+        verify(userService, never()).getUserById(1L);
+    }
+
     @Test
     void getUserById_shouldReturn404_whenUserNotFound() throws Exception {
         when(userService.getUserById(999L))
                 .thenThrow(new ResourceNotFoundException(999L));
 
-        mockMvc.perform(get("/v1/users/999"))
+        performAsync(get("/v1/users/999"))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.code").value(30000));
     }
 
+    @Test
+    void getUserSettings_shouldReturnObjectWithETag() throws Exception {
+        when(userService.getUserSettings(1L)).thenReturn(settingsMap());
+
+        performAsync(get("/v1/users/1/settings"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.user_id").value(1))
+                .andExpect(jsonPath("$.settings.biometric_login").value("false"))
+                .andExpect(jsonPath("$.settings.push_notification").value("true"))
+                .andExpect(jsonPath("$.user_settings").doesNotExist());
+    }
+
+    @Test
+    void getUserSettings_shouldReturnListShape_whenFormatIsList() throws Exception {
+        when(userService.getUserSettings(1L)).thenReturn(settingsMap());
+
+        performAsync(get("/v1/users/1/settings").param("format", "list"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.user_settings[0].biometric_login").value("false"))
+                .andExpect(jsonPath("$.user_settings[1].push_notification").value("true"))
+                .andExpect(jsonPath("$.settings").doesNotExist());
+    }
+
+    @Test
+    void getUserSettings_shouldReturn304_whenETagMatches() throws Exception {
+        when(userService.getUserSettings(1L)).thenReturn(settingsMap());
+        String eTag = performAsync(get("/v1/users/1/settings"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        performAsync(get("/v1/users/1/settings").header("If-None-Match", "\"other\", " + eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+
+        // the list shape is another representation with its own ETag
+        performAsync(get("/v1/users/1/settings").param("format", "list").header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void getUserSettings_shouldReturn404_whenUserNotFound() throws Exception {
+        when(userService.getUserSettings(999L)).thenThrow(new ResourceNotFoundException(999L));
+
+        performAsync(get("/v1/users/999/settings"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getUsersByIds_shouldReturn200_withMissingIds() throws Exception {
+        UserBatchResponse batchResponse = UserBatchResponse.builder()
+                .users(List.of(userResponse))
+                .missingIds(List.of(999L))
+                .build();
+        when(userService.getUsersByIds(List.of(1L, 999L))).thenReturn(batchResponse);
+
+        performAsync(get("/v1/users").param("ids", "1,999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].user_data.id").value(1))
+                .andExpect(jsonPath("$.missing_ids[0]").value(999));
+
+        verify(userService).getUsersByIds(List.of(1L, 999L));
+        verify(userService, never()).getAllUsers(anyInt(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    void lookupUsers_shouldReturn200() throws Exception {
+        UserBatchResponse batchResponse = UserBatchResponse.builder()
+                .users(List.of(userResponse))
+                .missingIds(List.of())
+                .build();
+        when(userService.getUsersByIds(List.of(1L))).thenReturn(batchResponse);
+
+        performAsync(post("/v1/users/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserIdsRequest(List.of(1L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].user_data.id").value(1));
+    }
+
+    @Test
+    void lookupUsers_shouldReturn422_whenIdsAreEmpty() throws Exception {
+        mockMvc.perform(post("/v1/users/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserIdsRequest(List.of()))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.code").value(30002));
+    }
+
     @Test
     void createUser_shouldReturn201() throws Exception {
         when(userService.createUser(any(CreateUserRequest.class))).thenReturn(userResponse);
 
-        mockMvc.perform(post("/v1/users")
+        performAsync(post("/v1/users")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(createRequest)))
                 .andExpect(status().isCreated())
@@ -152,7 +363,7 @@ public class UserControllerTest {
         when(userService.createUser(any(CreateUserRequest.class)))
                 .thenThrow(new DuplicateResourceException("0000000000002945"));
 
-        mockMvc.perform(post("/v1/users")
+        performAsync(post("/v1/users")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(createRequest)))
                 .andExpect(status().isConflict())
@@ -164,7 +375,7 @@ public class UserControllerTest {
         when(userService.updateUser(eq(1L), any(UpdateUserRequest.class)))
                 .thenReturn(userResponse);
 
-        mockMvc.perform(put("/v1/users/1")
+        performAsync(put("/v1/users/1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(updateRequest)))
                 .andExpect(status().isOk())
@@ -178,7 +389,7 @@ public class UserControllerTest {
         when(userService.updateUser(eq(999L), any(UpdateUserRequest.class)))
                 .thenThrow(new ResourceNotFoundException(999L));
 
-        mockMvc.perform(put("/v1/users/999")
+        performAsync(put("/v1/users/999")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(updateRequest)))
                 .andExpect(status().isNotFound());
@@ -192,7 +403,7 @@ public class UserControllerTest {
         when(userService.updateUserSettings(eq(1L), anyList()))
                 .thenReturn(userResponse);
 
-        mockMvc.perform(put("/v1/users/1/settings")
+        performAsync(put("/v1/users/1/settings")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(settingsRequest)))
                 .andExpect(status().isOk())
@@ -205,7 +416,7 @@ public class UserControllerTest {
     void deleteUser_shouldReturn204() throws Exception {
         doNothing().when(userService).deleteUser(1L);
 
-        mockMvc.perform(delete("/v1/users/1"))
+        performAsync(delete("/v1/users/1"))
                 .andExpect(status().isNoContent());
 
         verify(userService).deleteUser(1L);
@@ -216,7 +427,7 @@ public class UserControllerTest {
         doThrow(new ResourceNotFoundException(999L))
                 .when(userService).deleteUser(999L);
 
-        mockMvc.perform(delete("/v1/users/999"))
+        performAsync(delete("/v1/users/999"))
                 .andExpect(status().isNotFound());
     }
 
@@ -224,11 +435,87 @@ public class UserControllerTest {
     void restoreUser_shouldReturn200() throws Exception {
         when(userService.restoreUser(1L)).thenReturn(userResponse);
 
-        mockMvc.perform(put("/v1/users/1/refresh"))
+        performAsync(put("/v1/users/1/refresh"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.user_data.id").value(1));
 
         verify(userService).restoreUser(1L);
     }
 
+    @Test
+    void deleteUsers_shouldReturn200_withPerIdResults() throws Exception {
+        BulkUserResultResponse bulkResponse = BulkUserResultResponse.builder()
+                .succeeded(1)
+                .failed(1)
+                .results(List.of(
+                        BulkUserResultResponse.UserResult.builder().id(1L).status("DELETED").build(),
+                        BulkUserResultResponse.UserResult.builder().id(999L).status("NOT_FOUND").build()))
+                .build();
+        when(userService.deleteUsers(List.of(1L, 999L))).thenReturn(bulkResponse);
+
+        performAsync(post("/v1/users/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserIdsRequest(List.of(1L, 999L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.results[1].status").value("NOT_FOUND"));
+    }
+
+    @Test
+    void restoreUsers_shouldReturn200() throws Exception {
+        BulkUserResultResponse bulkResponse = BulkUserResultResponse.builder()
+                .succeeded(0)
+                .failed(1)
+                .results(List.of(BulkUserResultResponse.UserResult.builder()
+                        .id(1L).status("ALREADY_ACTIVE").message("User is already active").build()))
+                .build();
+        when(userService.restoreUsers(List.of(1L))).thenReturn(bulkResponse);
+
+        performAsync(post("/v1/users/bulk-restore")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserIdsRequest(List.of(1L)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].message").value("User is already active"));
+    }
+
+    @Test
+    void getUserById_shouldReturn503_whenReadBulkheadIsFull() throws Exception {
+        when(userService.getUserById(1L)).thenThrow(new ServiceOverloadedException("read"));
+
+        performAsync(get("/v1/users/1"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.code").value(80001));
+    }
+
+    /*
+    * Handlers answer asynchronously, dispatch the completed result like the container would
+    * */
+    private static Map<String, String> settingsMap() {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("biometric_login", "false");
+        settings.put("push_notification", "true");
+        return settings;
+    }
+
+    private ResultActions performAsync(RequestBuilder requestBuilder) throws Exception {
+        MvcResult result = mockMvc.perform(requestBuilder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result));
+    }
+
+    @TestConfiguration
+    static class BulkheadTestConfig {
+
+        @Bean
+        Bulkhead readBulkhead() {
+            return new Bulkhead("read", 2, 10, Duration.ofSeconds(5), task -> task, new SimpleMeterRegistry());
+        }
+
+        @Bean
+        Bulkhead writeBulkhead() {
+            return new Bulkhead("write", 2, 10, Duration.ofSeconds(5), task -> task, new SimpleMeterRegistry());
+        }
+    }
 }
@@ -0,0 +1,58 @@
+package com.springboottest.user_management_api.filter;
+
+import com.springboottest.user_management_api.config.properties.AuditProperties;
+import com.springboottest.user_management_api.util.AuditActorContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AuditActorFilterTest {
+
+    private final AuditActorFilter filter = new AuditActorFilter(new AuditProperties());
+
+    @Test
+    void filter_shouldActAsTheClient_forTheDurationOfTheRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/v1/users/1");
+        request.addHeader("X-Client-Id", "client-1");
+
+        assertThat(actorDuring(request)).isEqualTo("client-1");
+        assertThat(AuditActorContext.current()).isEqualTo(AuditActorContext.SYSTEM);
+    }
+
+    @Test
+    void filter_shouldActAsAnonymous_withoutTheHeader_andCutLongClientIds() throws Exception {
+        MockHttpServletRequest longId = new MockHttpServletRequest("PUT", "/v1/users/1");
+        longId.addHeader("X-Client-Id", "client " + "x".repeat(100));
+
+        assertThat(actorDuring(new MockHttpServletRequest("PUT", "/v1/users/1"))).isEqualTo(AuditActorFilter.ANONYMOUS);
+        assertThat(actorDuring(longId)).hasSize(AuditActorContext.MAX_LENGTH).startsWith("clientxx");
+    }
+
+    @Test
+    void propagate_shouldCarryTheActorToAnotherThread() throws Exception {
+        AtomicReference<String> actor = new AtomicReference<>();
+        AuditActorContext.set("client-2");
+        Runnable task;
+        try {
+            task = AuditActorContext.propagate(() -> actor.set(AuditActorContext.current()));
+        } finally {
+            AuditActorContext.clear();
+        }
+
+        Thread thread = new Thread(task);
+        thread.start();
+        thread.join();
+
+        assertThat(actor.get()).isEqualTo("client-2");
+    }
+
+    private String actorDuring(MockHttpServletRequest request) throws Exception {
+        AtomicReference<String> actor = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> actor.set(AuditActorContext.current()));
+        return actor.get();
+    }
+}
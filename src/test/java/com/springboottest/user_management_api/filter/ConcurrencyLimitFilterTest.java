@@ -0,0 +1,94 @@
+package com.springboottest.user_management_api.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboottest.user_management_api.config.properties.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrencyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setRead(new ConcurrencyLimitProperties.Limit(1, 1, 1));
+        properties.setWrite(new ConcurrencyLimitProperties.Limit(1, 1, 1));
+        filter = new ConcurrencyLimitFilter(properties, new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void write_shouldBeShedWith503_whenWriteSlotsTaken() throws Exception {
+        List<MockHttpServletResponse> nested = new ArrayList<>();
+
+        perform("PUT", (req, res) -> {
+            nested.add(perform("PUT", (r, s) -> { }));
+            nested.add(perform("GET", (r, s) -> { }));
+        });
+
+        assertThat(nested.get(0).getStatus()).isEqualTo(503);
+        assertThat(nested.get(0).getHeader("Retry-After")).isEqualTo("1");
+        assertThat(nested.get(0).getContentAsString())
+                .contains("\"status\":\"SERVICE_UNAVAILABLE\"")
+                .contains("\"code\":80001");
+        assertThat(nested.get(1).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("concurrency.shed").tag("priority", "write").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void lookup_shouldTakeReadSlot() throws Exception {
+        List<MockHttpServletResponse> nested = new ArrayList<>();
+
+        perform("PUT", "/v1/users/1", (req, res) ->
+                nested.add(perform("POST", "/v1/users/lookup", (r, s) -> { })));
+
+        assertThat(nested.get(0).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("concurrency.shed").tag("priority", "write").counter().count()).isZero();
+    }
+
+    @Test
+    void slot_shouldBeReleased_whenChainThrows() throws Exception {
+        try {
+            perform("GET", (req, res) -> {
+                throw new IllegalStateException("boom");
+            });
+        } catch (IllegalStateException ignored) {
+            // the filter rethrows
+        }
+
+        assertThat(filter.getReadLimiter().getInFlight()).isZero();
+        assertThat(perform("GET", (req, res) -> { }).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void metrics_shouldExposeLimitPerPriority() {
+        assertThat(meterRegistry.get("concurrency.limit").tag("priority", "read").gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("concurrency.in.flight").tag("priority", "write").gauge().value()).isZero();
+    }
+
+    private MockHttpServletResponse perform(String method, FilterChain chain) throws IOException, ServletException {
+        return perform(method, "/v1/users/1", chain);
+    }
+
+    private MockHttpServletResponse perform(String method, String path, FilterChain chain)
+            throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,98 @@
+package com.springboottest.user_management_api.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboottest.user_management_api.config.properties.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitProperties properties;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new RateLimitProperties();
+        properties.setRead(new RateLimitProperties.Budget(2, 0.1));
+        properties.setWrite(new RateLimitProperties.Budget(1, 0.1));
+        filter = new RateLimitFilter(properties, new ObjectMapper(), meterRegistry);
+    }
+
+    @Test
+    void request_shouldBeRejectedWith429_whenBudgetUsed() throws Exception {
+        perform("GET", "client-a");
+        perform("GET", "client-a");
+
+        MockHttpServletResponse response = perform("GET", "client-a");
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("10");
+        assertThat(response.getContentAsString())
+                .contains("\"status\":\"TOO_MANY_REQUESTS\"")
+                .contains("\"code\":30003");
+        assertThat(meterRegistry.get("rate.limit.rejected").tag("budget", "read").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void writes_shouldNotConsumeReadBudget() throws Exception {
+        assertThat(perform("PUT", "client-a").getStatus()).isEqualTo(200);
+        assertThat(perform("PUT", "client-a").getStatus()).isEqualTo(429);
+
+        assertThat(perform("GET", "client-a").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void lookup_shouldUseReadBudget() throws Exception {
+        assertThat(perform("PUT", "client-a").getStatus()).isEqualTo(200);
+
+        assertThat(perform("POST", "/v1/users/lookup", "client-a").getStatus()).isEqualTo(200);
+        assertThat(perform("POST", "/v1/users", "client-a").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void clients_shouldHaveSeparateBudgets() throws Exception {
+        perform("PUT", "client-a");
+
+        assertThat(perform("PUT", "client-a").getStatus()).isEqualTo(429);
+        assertThat(perform("PUT", "client-b").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void apiKey_shouldTakePrecedenceOverClientId() throws Exception {
+        MockHttpServletRequest first = new MockHttpServletRequest("PUT", "/v1/users/1");
+        first.addHeader("X-API-Key", "key-1");
+        first.addHeader("X-Client-Id", "client-a");
+        filter.doFilter(first, new MockHttpServletResponse(), (req, res) -> { });
+
+        assertThat(perform("PUT", "client-a").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void clients_shouldStayBounded_whenOverMaxClients() throws Exception {
+        properties.setMaxClients(2);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(perform("PUT", "client-" + i).getStatus()).isEqualTo(200);
+        }
+    }
+
+    private MockHttpServletResponse perform(String method, String clientId) throws Exception {
+        return perform(method, "/v1/users/1", clientId);
+    }
+
+    private MockHttpServletResponse perform(String method, String path, String clientId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.addHeader("X-Client-Id", clientId);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> { });
+        return response;
+    }
+}
@@ -0,0 +1,73 @@
+package com.springboottest.user_management_api.filter;
+
+import com.springboottest.user_management_api.config.datasource.DataSourceRoutingContext;
+import com.springboottest.user_management_api.config.properties.DataSourceRoutingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadYourWritesFilterTest {
+
+    private DataSourceRoutingProperties properties;
+    private ReadYourWritesFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new DataSourceRoutingProperties();
+        properties.setReadYourWritesWindow(Duration.ofMinutes(1));
+        filter = new ReadYourWritesFilter(properties);
+    }
+
+    @Test
+    void read_shouldUsePrimary_afterSameClientWrote() throws Exception {
+        perform("PUT", "client-a");
+
+        assertThat(perform("GET", "client-a")).isTrue();
+        assertThat(DataSourceRoutingContext.isPrimaryForced()).isFalse();
+    }
+
+    @Test
+    void read_shouldUseReplica_forOtherClients() throws Exception {
+        perform("PUT", "client-a");
+
+        assertThat(perform("GET", "client-b")).isFalse();
+    }
+
+    @Test
+    void read_shouldUseReplica_afterWindowExpired() throws Exception {
+        properties.setReadYourWritesWindow(Duration.ZERO);
+        perform("POST", "client-a");
+
+        assertThat(perform("GET", "client-a")).isFalse();
+    }
+
+    @Test
+    void lookup_shouldNotPinClientToPrimary() throws Exception {
+        perform("POST", "/v1/users/lookup", "client-a");
+
+        assertThat(perform("GET", "client-a")).isFalse();
+    }
+
+    /*
+    * returns whether the request was pinned to the primary
+    * */
+    private boolean perform(String method, String clientId) throws Exception {
+        return perform(method, "/v1/users/1", clientId);
+    }
+
+    private boolean perform(String method, String path, String clientId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.addHeader("X-Client-Id", clientId);
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> pinned.set(DataSourceRoutingContext.isPrimaryForced()));
+        return pinned.get();
+    }
+}
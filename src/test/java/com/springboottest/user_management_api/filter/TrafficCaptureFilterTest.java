@@ -0,0 +1,189 @@
+package com.springboottest.user_management_api.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboottest.user_management_api.config.properties.TrafficCaptureProperties;
+import com.springboottest.user_management_api.util.TrafficTraceLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TrafficCaptureFilterTest {
+
+    private static final FilterChain READ_BODY = (req, res) -> {
+        req.getInputStream().readAllBytes();
+        ((MockHttpServletResponse) res).setStatus(201);
+    };
+
+    @TempDir
+    private Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private TrafficCaptureProperties properties;
+    private Path file;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TrafficCaptureProperties();
+        file = dir.resolve("capture.jsonl");
+    }
+
+    @Test
+    void capture_shouldMaskSsnAndKeepTheRestOfTheRequest() throws Exception {
+        List<JsonNode> traces = capture(request("POST", "/v1/users",
+                "{\"ssn\":\"1234567890\",\"first_name\":\"John\"}"), READ_BODY);
+
+        assertThat(traces).hasSize(1);
+        JsonNode trace = traces.get(0);
+        assertThat(trace.path("method").asText()).isEqualTo("POST");
+        assertThat(trace.path("path").asText()).isEqualTo("/v1/users");
+        assertThat(trace.path("status").asInt()).isEqualTo(201);
+        assertThat(trace.path("body").asText())
+                .isEqualTo("{\"ssn\":\"***\",\"first_name\":\"John\"}")
+                .doesNotContain("1234567890");
+        assertThat(trace.path("body_hash").asText()).hasSize(16);
+        assertThat(trace.path("client").asText()).hasSize(16).isNotEqualTo("client-1");
+        assertThat(trace.has("at")).isTrue();
+        assertThat(trace.has("micros")).isTrue();
+        assertThat(trace.toString()).doesNotContain("1234567890");
+    }
+
+    @Test
+    void capture_shouldMaskNestedFieldsAndDropBodiesThatAreNotJson() throws Exception {
+        List<JsonNode> traces = capture(request("PUT", "/v1/users/1",
+                "{\"users\":[{\"ssn\":\"42\"}]}"), READ_BODY);
+        traces.addAll(capture(request("PUT", "/v1/users/1", "ssn=42"), READ_BODY));
+
+        assertThat(traces.get(0).path("body").asText()).isEqualTo("{\"users\":[{\"ssn\":\"***\"}]}");
+        assertThat(traces.get(1).has("body")).isFalse();
+        assertThat(traces.get(1).path("body_hash").asText()).hasSize(16);
+    }
+
+    @Test
+    void capture_shouldRecordQueryAndSkipBody_forReads() throws Exception {
+        MockHttpServletRequest request = request("GET", "/v1/users", null);
+        request.setQueryString("max_records=10&offset=0");
+
+        List<JsonNode> traces = capture(request, (req, res) -> { });
+
+        assertThat(traces.get(0).path("query").asText()).isEqualTo("max_records=10&offset=0");
+        assertThat(traces.get(0).path("status").asInt()).isEqualTo(200);
+        assertThat(traces.get(0).has("body")).isFalse();
+        assertThat(traces.get(0).has("body_hash")).isFalse();
+    }
+
+    @Test
+    void capture_shouldRecordBody_whenRequestIsRejectedBeforeItIsRead() throws Exception {
+        List<JsonNode> traces = capture(request("POST", "/v1/users", "{\"ssn\":\"1234567890\"}"),
+                (req, res) -> ((MockHttpServletResponse) res).setStatus(503));
+
+        assertThat(traces.get(0).path("status").asInt()).isEqualTo(503);
+        assertThat(traces.get(0).path("body").asText()).isEqualTo("{\"ssn\":\"***\"}");
+    }
+
+    @Test
+    void capture_shouldHandOverTheBody_toANonBlockingReader() throws Exception {
+        String body = "{\"ssn\":\"1234567890\",\"first_name\":\"John\"}";
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+
+        List<JsonNode> traces = capture(request("POST", "/v1/users", body), (req, res) -> {
+            ServletInputStream in = req.getInputStream();
+            in.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    while (in.isReady() && !in.isFinished()) {
+                        int b = in.read();
+                        if (b >= 0) {
+                            read.write(b);
+                        }
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allDataRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+            ((MockHttpServletResponse) res).setStatus(201);
+        });
+
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo(body);
+        assertThat(allDataRead).isTrue();
+        assertThat(traces.get(0).path("body").asText()).isEqualTo("{\"ssn\":\"***\",\"first_name\":\"John\"}");
+    }
+
+    @Test
+    void capture_shouldKeyHashes_withTheConfiguredHashKey() throws Exception {
+        String body = "{\"ssn\":\"1234567890\"}";
+        properties.setHashKey("key-1");
+        JsonNode first = capture(request("POST", "/v1/users", body), READ_BODY).get(0);
+        JsonNode again = capture(request("POST", "/v1/users", body), READ_BODY).get(0);
+        properties.setHashKey("key-2");
+        JsonNode otherKey = capture(request("POST", "/v1/users", body), READ_BODY).get(0);
+
+        String unkeyed = HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8)), 0, 8);
+        assertThat(first.path("body_hash").asText()).isNotEqualTo(unkeyed)
+                .isEqualTo(again.path("body_hash").asText())
+                .isNotEqualTo(otherKey.path("body_hash").asText());
+        assertThat(first.path("client").asText()).isEqualTo(again.path("client").asText())
+                .isNotEqualTo(otherKey.path("client").asText());
+    }
+
+    @Test
+    void capture_shouldRecordNothing_whenSampleRateIsZero() throws Exception {
+        properties.setSampleRate(0);
+
+        assertThat(capture(request("GET", "/v1/users/1", null), (req, res) -> { })).isEmpty();
+    }
+
+    private List<JsonNode> capture(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        try (TrafficTraceLog traceLog = new TrafficTraceLog(file, 100, objectMapper, new SimpleMeterRegistry())) {
+            new TrafficCaptureFilter(properties, objectMapper, traceLog)
+                    .doFilter(request, new MockHttpServletResponse(), chain);
+        }
+        List<JsonNode> traces = new ArrayList<>();
+        if (Files.exists(file)) {
+            for (String line : Files.readAllLines(file)) {
+                traces.add(objectMapper.readTree(line));
+            }
+            Files.delete(file);
+        }
+        return traces;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.addHeader("X-Client-Id", "client-1");
+        if (body != null) {
+            request.setContent(body.getBytes(StandardCharsets.UTF_8));
+            request.setContentType("application/json");
+        }
+        return request;
+    }
+}
@@ -0,0 +1,112 @@
+package com.springboottest.user_management_api.job;
+
+import com.springboottest.user_management_api.config.datasource.ShardRouter;
+import com.springboottest.user_management_api.config.properties.SeedProperties;
+import com.springboottest.user_management_api.config.properties.ShardingProperties;
+import com.springboottest.user_management_api.service.interfaces.UserCountService;
+import com.springboottest.user_management_api.util.enums.UserSettingKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@JdbcTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DatasetSeederTest {
+
+    private static final String SNAPSHOT = "SELECT u.id, u.ssn, u.first_name, u.middle_name, u.family_name, " +
+            "u.birth_date, u.is_active, s.setting_key, s.setting_value " +
+            "FROM users u JOIN user_settings s ON s.user_id = u.id ORDER BY u.id, s.setting_key";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final UserCountService userCountService = mock(UserCountService.class);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("DELETE FROM user_settings");
+        jdbcTemplate.execute("DELETE FROM users");
+        jdbcTemplate.execute("ALTER TABLE users ALTER COLUMN id RESTART WITH 1");
+    }
+
+    @Test
+    void seed_shouldWriteUsersWithSettingsAndDeletedMix() throws Exception {
+        long written = seeder(2000, 2).seed();
+
+        assertThat(written).isEqualTo(2000);
+        assertThat(count("SELECT COUNT(*) FROM users")).isEqualTo(2000);
+        assertThat(count("SELECT COUNT(*) FROM users WHERE is_active = FALSE AND deleted_time IS NOT NULL"))
+                .isBetween(300L, 500L);
+        assertThat(count("SELECT COUNT(*) FROM user_settings"))
+                .isEqualTo(2000L * UserSettingKey.values().length);
+        assertThat(count("SELECT COUNT(*) FROM users WHERE LENGTH(ssn) <> 16")).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT ssn FROM users WHERE id = 1", String.class))
+                .isEqualTo("7000000000000000");
+        verify(userCountService).reconcile();
+    }
+
+    @Test
+    void seed_shouldContinueIdentityAfterSeededIds() throws Exception {
+        seeder(500, 1).seed();
+
+        jdbcTemplate.update("INSERT INTO users (ssn, first_name, family_name, birth_date, created_time, " +
+                "updated_time, created_by, updated_by) VALUES ('0000000000000001', 'A', 'B', DATE '1990-01-01', " +
+                "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, 'SYSTEM', 'SYSTEM')");
+
+        assertThat(jdbcTemplate.queryForObject("SELECT id FROM users WHERE ssn = '0000000000000001'", Long.class))
+                .isEqualTo(501L);
+    }
+
+    @Test
+    void seed_shouldContinueSsnsAfterAnEarlierRun() throws Exception {
+        seeder(500, 1).seed();
+
+        assertThat(seeder(500, 2).seed()).isEqualTo(500);
+
+        assertThat(count("SELECT COUNT(*) FROM users")).isEqualTo(1000);
+        assertThat(count("SELECT COUNT(DISTINCT ssn) FROM users")).isEqualTo(1000);
+        assertThat(jdbcTemplate.queryForObject("SELECT MAX(ssn) FROM users", String.class))
+                .isEqualTo("7000000000000999");
+    }
+
+    @Test
+    void seed_shouldBeReproducible_whateverTheWriterCount() throws Exception {
+        seeder(1000, 1).seed();
+        List<Map<String, Object>> first = jdbcTemplate.queryForList(SNAPSHOT);
+
+        setUp();
+        seeder(1000, 3).seed();
+        List<Map<String, Object>> second = jdbcTemplate.queryForList(SNAPSHOT);
+
+        assertThat(second).isEqualTo(first);
+    }
+
+    private DatasetSeeder seeder(long users, int writers) {
+        SeedProperties properties = new SeedProperties();
+        properties.setUsers(users);
+        properties.setWriters(writers);
+        properties.setBatchSize(300);
+        properties.setDeletedRatio(0.2);
+        return new DatasetSeeder(properties, dataSource, new ShardRouter(new ShardingProperties()),
+                userCountService, null);
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,105 @@
+package com.springboottest.user_management_api.job;
+
+import com.springboottest.user_management_api.config.properties.ChangeFeedProperties;
+import com.springboottest.user_management_api.config.properties.UserCacheProperties;
+import com.springboottest.user_management_api.dto.response.UserChangesResponse;
+import com.springboottest.user_management_api.dto.response.UserResponse;
+import com.springboottest.user_management_api.service.interfaces.ChangeFeedService;
+import com.springboottest.user_management_api.util.UserCacheSnapshot;
+import com.springboottest.user_management_api.util.UserResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class UserCacheSnapshotJobTest {
+
+    @TempDir
+    Path directory;
+
+    private ChangeFeedService changeFeedService;
+    private UserCacheProperties userCacheProperties;
+    private ChangeFeedProperties changeFeedProperties;
+    private UserResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        changeFeedService = mock(ChangeFeedService.class);
+        userCacheProperties = new UserCacheProperties();
+        userCacheProperties.setSnapshotPath(directory.resolve("cache.bin").toString());
+        changeFeedProperties = new ChangeFeedProperties();
+        cache = new UserResponseCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void export_thenWarm_shouldSkipUsersChangedSinceTheExport() throws IOException {
+        for (long id = 1; id <= 3; id++) {
+            cache.put(id, user(id), cache.stamp(id));
+        }
+        when(changeFeedService.getLatestSeq()).thenReturn(10L);
+        UserCacheSnapshotJob exporter = job(cache);
+        exporter.run(null);
+        exporter.export();
+
+        when(changeFeedService.getLatestSeq()).thenReturn(11L);
+        when(changeFeedService.getChanges(eq(10L), anyInt())).thenReturn(changes(11L, 2L));
+        when(changeFeedService.getChanges(eq(11L), anyInt())).thenReturn(changes(11L));
+        UserResponseCache restarted = new UserResponseCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+        assertThat(job(restarted).warm()).isEqualTo(2);
+        assertThat(restarted.get(1L)).isNotNull();
+        assertThat(restarted.get(2L)).isNull();
+        assertThat(restarted.get(3L)).isNotNull();
+    }
+
+    @Test
+    void warm_shouldDiscardSnapshot_whenAheadOfTheChangeFeed() throws IOException {
+        UserCacheSnapshot.write(Path.of(userCacheProperties.getSnapshotPath()), 50, Instant.now(),
+                List.of(new UserResponseCache.Entry(1L, user(1L))));
+        when(changeFeedService.getLatestSeq()).thenReturn(0L);
+
+        assertThat(job(cache).warm()).isZero();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void warm_shouldDiscardSnapshot_whenOlderThanTheChangeFeedRetention() throws IOException {
+        UserCacheSnapshot.write(Path.of(userCacheProperties.getSnapshotPath()), 0,
+                Instant.now().minus(changeFeedProperties.getRetention()).minus(Duration.ofHours(1)),
+                List.of(new UserResponseCache.Entry(1L, user(1L))));
+
+        assertThat(job(cache).warm()).isZero();
+    }
+
+    private UserCacheSnapshotJob job(UserResponseCache cache) {
+        return new UserCacheSnapshotJob(cache, changeFeedService, userCacheProperties, changeFeedProperties);
+    }
+
+    private static UserChangesResponse changes(long nextCursor, Long... userIds) {
+        return UserChangesResponse.builder()
+                .changes(Arrays.stream(userIds)
+                        .map(userId -> UserChangesResponse.Change.builder().seq(nextCursor).userId(userId).build())
+                        .toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static UserResponse user(long id) {
+        return UserResponse.builder()
+                .userData(UserResponse.UserData.builder().id(id).firstName("User" + id).build())
+                .build();
+    }
+}
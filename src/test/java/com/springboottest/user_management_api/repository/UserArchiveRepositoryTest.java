@@ -0,0 +1,121 @@
+package com.springboottest.user_management_api.repository;
+
+import com.springboottest.user_management_api.config.JpaConfig;
+import com.springboottest.user_management_api.entity.User;
+import com.springboottest.user_management_api.entity.UserSetting;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@Import(JpaConfig.class)
+public class UserArchiveRepositoryTest {
+
+    @Autowired
+    private UserArchiveRepository userArchiveRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserSettingRepository userSettingRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User oldDeletedUser;
+    private User recentDeletedUser;
+
+    @BeforeEach
+    void setUp() {
+        oldDeletedUser = userRepository.save(User.builder()
+                .ssn("0000000000001111")
+                .firstName("John")
+                .familyName("Doe")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .isActive(false)
+                .deletedTime(Instant.now().minus(60, ChronoUnit.DAYS))
+                .build());
+        UserSetting setting = UserSetting.builder()
+                .key("biometric_login")
+                .value("true")
+                .build();
+        oldDeletedUser.addUserSetting(setting);
+        userSettingRepository.save(setting);
+
+        recentDeletedUser = userRepository.save(User.builder()
+                .ssn("0000000000002222")
+                .firstName("Jane")
+                .familyName("Smith")
+                .birthDate(LocalDate.of(1995, 5, 5))
+                .isActive(false)
+                .deletedTime(Instant.now())
+                .build());
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findArchivableUserIds_shouldReturnOnlyUsersDeletedBeforeCutoff() {
+        List<Long> ids = userArchiveRepository.findArchivableUserIds(
+                Instant.now().minus(30, ChronoUnit.DAYS), 10);
+
+        assertThat(ids).containsExactly(oldDeletedUser.getId());
+    }
+
+    @Test
+    void archiveAndRestore_shouldMoveUserAndSettings() {
+        List<Long> ids = List.of(oldDeletedUser.getId());
+        Instant cutoff = Instant.now().minus(30, ChronoUnit.DAYS);
+
+        userArchiveRepository.copySettingsToArchive(ids, cutoff);
+        userArchiveRepository.copyUsersToArchive(ids, cutoff, Instant.now());
+        userArchiveRepository.deleteSettings(ids, cutoff);
+        userArchiveRepository.deleteUsers(ids, cutoff);
+
+        assertThat(userRepository.findAllUserById(oldDeletedUser.getId())).isEmpty();
+        assertThat(userArchiveRepository.existsById(oldDeletedUser.getId())).isTrue();
+        assertThat(userArchiveRepository.existsBySsn("0000000000001111")).isTrue();
+
+        userArchiveRepository.copyUserFromArchive(oldDeletedUser.getId());
+        userArchiveRepository.copySettingsFromArchive(oldDeletedUser.getId());
+        userArchiveRepository.deleteArchivedSettings(oldDeletedUser.getId());
+        userArchiveRepository.deleteArchivedUser(oldDeletedUser.getId());
+
+        assertThat(userArchiveRepository.existsById(oldDeletedUser.getId())).isFalse();
+        assertThat(userRepository.findAllUserById(oldDeletedUser.getId()))
+                .hasValueSatisfying(user -> assertThat(user.getUserSettings()).hasSize(1));
+    }
+
+    @Test
+    void archive_shouldLeaveUserInPlace_whenRestoredAfterItWasFound() {
+        Instant cutoff = Instant.now().minus(30, ChronoUnit.DAYS);
+        List<Long> ids = userArchiveRepository.findArchivableUserIds(cutoff, 10);
+        userRepository.findAllUserById(oldDeletedUser.getId()).ifPresent(user -> {
+            user.setIsActive(true);
+            user.setDeletedTime(null);
+        });
+        entityManager.flush();
+        entityManager.clear();
+
+        assertThat(userArchiveRepository.copySettingsToArchive(ids, cutoff)).isZero();
+        assertThat(userArchiveRepository.copyUsersToArchive(ids, cutoff, Instant.now())).isZero();
+        assertThat(userArchiveRepository.deleteSettings(ids, cutoff)).isZero();
+        assertThat(userArchiveRepository.deleteUsers(ids, cutoff)).isZero();
+
+        assertThat(userArchiveRepository.existsById(oldDeletedUser.getId())).isFalse();
+        assertThat(userRepository.findAllUserById(oldDeletedUser.getId()))
+                .hasValueSatisfying(user -> assertThat(user.getUserSettings()).hasSize(1));
+    }
+}
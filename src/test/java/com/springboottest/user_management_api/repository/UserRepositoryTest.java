@@ -1,12 +1,18 @@
 package com.springboottest.user_management_api.repository;
 
+import com.springboottest.user_management_api.config.JpaConfig;
+import com.springboottest.user_management_api.dto.response.UserResponse;
 import com.springboottest.user_management_api.entity.User;
 import com.springboottest.user_management_api.entity.UserSetting;
+import com.springboottest.user_management_api.util.enums.UserField;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
@@ -14,9 +20,12 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
 
 @DataJpaTest
+@Import(JpaConfig.class)
 public class UserRepositoryTest {
 
     @Autowired
@@ -90,6 +99,63 @@ public class UserRepositoryTest {
         assertThat(result.getTotalElements()).isEqualTo(6);
     }
 
+    @Test
+    void findAllActiveUsers_shouldExcludeUser_afterSoftDelete() {
+        activeUser.setIsActive(false);
+        activeUser.setDeletedTime(Instant.now());
+        userRepository.saveAndFlush(activeUser);
+
+        Page<User> result = userRepository.findAllActiveUsers(PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).isEmpty();
+        assertThat(result.getTotalElements()).isZero();
+    }
+
+    @Test
+    void findActiveUsers_shouldReturnOnlyActiveUsers() {
+        List<User> result = userRepository.findActiveUsers(PageRequest.of(0, 10));
+
+        assertThat(result).extracting(User::getId).containsExactly(activeUser.getId());
+    }
+
+    @Test
+    void countActiveUsers_shouldCountOnlyActiveUsers() {
+        assertThat(userRepository.countActiveUsers()).isEqualTo(1);
+    }
+
+    @Test
+    void findActiveUsersByIds_shouldSkipDeletedAndUnknownIds() {
+        List<User> result = userRepository.findActiveUsersByIds(
+                List.of(activeUser.getId(), deletedUser.getId(), 999L));
+
+        assertThat(result).extracting(User::getId).containsExactly(activeUser.getId());
+        assertThat(result.get(0).getUserSettings()).hasSize(1);
+    }
+
+    @Test
+    void findCohortIds_shouldRespectDeletedFlagAndLimit() {
+        Instant from = Instant.EPOCH;
+        Instant to = Instant.now().plusSeconds(60);
+
+        List<Long> activeOnly = userRepository.findCohortIds(0L, from, to, false, Limit.of(10));
+        List<Long> withDeleted = userRepository.findCohortIds(0L, from, to, true, Limit.of(1));
+
+        assertThat(activeOnly).containsExactly(activeUser.getId());
+        assertThat(withDeleted).hasSize(1);
+        assertThat(userRepository.countCohort(from, to, true)).isEqualTo(2);
+    }
+
+    @Test
+    void softDeleteAndRestoreByIds_shouldOnlyTouchMatchingUsers() {
+        List<Long> ids = List.of(activeUser.getId(), deletedUser.getId());
+
+        assertThat(userRepository.softDeleteByIds(ids, Instant.now())).isEqualTo(1);
+        assertThat(userRepository.findActiveIds(ids)).isEmpty();
+
+        assertThat(userRepository.restoreByIds(ids, Instant.now())).isEqualTo(2);
+        assertThat(userRepository.findDeletedIds(ids)).isEmpty();
+    }
+
     @Test
     void findActiveUserById_shouldReturnUser_whenUserIsActive() {
         Optional<User> result = userRepository.findActiveUserById(activeUser.getId());
@@ -113,6 +179,46 @@ public class UserRepositoryTest {
         assertThat(result).isEmpty();
     }
 
+    @Test
+    void findActiveUserData_shouldSetOnlyRequestedFields() {
+        Optional<UserResponse.UserData> result = userRepository.findActiveUserData(activeUser.getId(),
+                EnumSet.of(UserField.FIRST_NAME, UserField.LAST_NAME));
+
+        assertThat(result).isPresent();
+        assertThat(result.get().getId()).isEqualTo(activeUser.getId());
+        assertThat(result.get().getFirstName()).isEqualTo("John");
+        assertThat(result.get().getFamilyName()).isEqualTo("Doe");
+        assertThat(result.get().getSsn()).isNull();
+        assertThat(result.get().getBirthDate()).isNull();
+    }
+
+    @Test
+    void findActiveUserData_shouldSelectIdAlone() {
+        assertThat(userRepository.findActiveUserData(activeUser.getId(), EnumSet.of(UserField.ID)))
+                .map(UserResponse.UserData::getId)
+                .contains(activeUser.getId());
+        assertThat(userRepository.findActiveUserData(deletedUser.getId(), EnumSet.of(UserField.ID))).isEmpty();
+    }
+
+    @Test
+    void findActiveUserData_shouldPageActiveUsersOnly() {
+        List<UserResponse.UserData> result = userRepository.findActiveUserData(
+                EnumSet.of(UserField.ID, UserField.BIRTH_DATE, UserField.USER_SETTINGS), PageRequest.of(0, 10));
+
+        assertThat(result).extracting(UserResponse.UserData::getId).containsExactly(activeUser.getId());
+        assertThat(result.get(0).getBirthDate()).isEqualTo(LocalDate.of(1990, 1, 1));
+        assertThat(result.get(0).getFirstName()).isNull();
+    }
+
+    @Test
+    void findActiveUsersAfter_shouldSkipUsersUpToTheCursor() {
+        assertThat(userRepository.findActiveUsersAfter(activeUser.getId() - 1, Limit.of(10)))
+                .extracting(User::getId).containsExactly(activeUser.getId());
+        assertThat(userRepository.findActiveUsersAfter(activeUser.getId(), Limit.of(10))).isEmpty();
+        assertThat(userRepository.findActiveUserDataAfter(EnumSet.of(UserField.FIRST_NAME),
+                activeUser.getId() - 1, 10)).extracting(UserResponse.UserData::getFirstName).containsExactly("John");
+    }
+
     @Test
     void findAllUserById_shouldReturnDeletedUser() {
         Optional<User> result = userRepository.findAllUserById(deletedUser.getId());
@@ -1,12 +1,15 @@
 package com.springboottest.user_management_api.repository;
 
+import com.springboottest.user_management_api.config.JpaConfig;
 import com.springboottest.user_management_api.entity.User;
 import com.springboottest.user_management_api.entity.UserSetting;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +17,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
+@Import(JpaConfig.class)
 public class UserSettingRepositoryTest {
 
     @Autowired
@@ -81,6 +85,45 @@ public class UserSettingRepositoryTest {
         assertThat(result).isEmpty();
     }
 
+    @Test
+    void findActiveUserSettingValues_shouldReturnPairsOrderedByKey() {
+        List<UserSettingRepository.SettingValue> result =
+                userSettingRepository.findActiveUserSettingValues(user.getId());
+
+        assertThat(result).extracting(UserSettingRepository.SettingValue::getKey)
+                .containsExactly("biometric_login", "push_notification");
+        assertThat(result).extracting(UserSettingRepository.SettingValue::getValue)
+                .containsExactly("false", "true");
+    }
+
+    @Test
+    void findActiveUserSettingValues_shouldReturnEmpty_whenUserIsDeleted() {
+        user.setIsActive(false);
+        user.setDeletedTime(Instant.now());
+        userRepository.save(user);
+
+        assertThat(userSettingRepository.findActiveUserSettingValues(user.getId())).isEmpty();
+    }
+
+    @Test
+    void updateSettingForUsers_shouldOnlyTouchChangedRows() {
+        int updated = userSettingRepository.updateSettingForUsers(List.of(user.getId()), "push_notification", "false");
+        int unchanged = userSettingRepository.updateSettingForUsers(List.of(user.getId()), "biometric_login", "false");
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(unchanged).isZero();
+    }
+
+    @Test
+    void insertMissingSettingForUsers_shouldSkipUsersWithSetting() {
+        int created = userSettingRepository.insertMissingSettingForUsers(List.of(user.getId()), "widget_order", "5,4,3,2,1");
+        int skipped = userSettingRepository.insertMissingSettingForUsers(List.of(user.getId()), "biometric_login", "true");
+
+        assertThat(created).isEqualTo(1);
+        assertThat(skipped).isZero();
+        assertThat(userSettingRepository.findByUserId(user.getId())).hasSize(3);
+    }
+
     @Test
     void findByUserIdAndKey_shouldReturnSetting_whenExists() {
         Optional<UserSetting> result = userSettingRepository.findByUserIdAndKey(
@@ -0,0 +1,127 @@
+package com.springboottest.user_management_api.service;
+
+import com.springboottest.user_management_api.config.datasource.ShardRouter;
+import com.springboottest.user_management_api.config.properties.BulkOperationProperties;
+import com.springboottest.user_management_api.config.properties.ShardingProperties;
+import com.springboottest.user_management_api.dto.request.BulkUpdateSettingsRequest;
+import com.springboottest.user_management_api.dto.response.BulkOperationResponse;
+import com.springboottest.user_management_api.exception.InvalidRequestException;
+import com.springboottest.user_management_api.exception.ServiceOverloadedException;
+import com.springboottest.user_management_api.repository.UserRepository;
+import com.springboottest.user_management_api.repository.UserSettingRepository;
+import com.springboottest.user_management_api.service.implementation.BulkSettingsServiceImpl;
+import com.springboottest.user_management_api.service.interfaces.ChangeFeedService;
+import com.springboottest.user_management_api.util.SettingsSchemaRegistry;
+import com.springboottest.user_management_api.util.UserAuditEventListener;
+import com.springboottest.user_management_api.util.enums.UserChangeType;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BulkSettingsServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserSettingRepository userSettingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ObjectProvider<UserAuditEventListener> userAuditEventListener;
+
+    private BulkSettingsServiceImpl bulkSettingsService;
+
+    @BeforeEach
+    void setUp() {
+        BulkOperationProperties properties = new BulkOperationProperties();
+        properties.setChunkSize(2);
+        properties.setPauseMillis(0);
+
+        // run jobs on the calling thread
+        bulkSettingsService = new BulkSettingsServiceImpl(userRepository, userSettingRepository,
+                new TransactionTemplate(transactionManager), Runnable::run, properties, changeFeedService,
+                new ShardRouter(new ShardingProperties()), SettingsSchemaRegistry.builtIn(), entityManager,
+                userAuditEventListener);
+    }
+
+    @Test
+    void startBulkUpdate_shouldApplySettingsInChunks() {
+        when(userRepository.countCohort(any(), any(), anyBoolean())).thenReturn(3L);
+        when(userRepository.findCohortIds(eq(0L), any(), any(), anyBoolean(), any(Limit.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(userRepository.findCohortIds(eq(2L), any(), any(), anyBoolean(), any(Limit.class)))
+                .thenReturn(List.of(3L));
+        when(userSettingRepository.updateSettingForUsers(any(), eq("show_onboarding"), eq("false")))
+                .thenReturn(2, 1);
+        when(userSettingRepository.insertMissingSettingForUsers(any(), eq("show_onboarding"), eq("false")))
+                .thenReturn(0, 0);
+
+        BulkOperationResponse started = bulkSettingsService.startBulkUpdate(BulkUpdateSettingsRequest.builder()
+                .settings(List.of(Map.of("show_onboarding", "false")))
+                .build());
+        BulkOperationResponse response = bulkSettingsService.getBulkUpdateStatus(started.getJobId());
+
+        assertThat(response.getStatus()).isEqualTo("COMPLETED");
+        assertThat(response.getTotalUsers()).isEqualTo(3L);
+        assertThat(response.getProcessedUsers()).isEqualTo(3L);
+        assertThat(response.getUpdatedSettings()).isEqualTo(3L);
+        verify(userRepository, times(2)).findCohortIds(anyLong(), any(), any(), anyBoolean(), any(Limit.class));
+        verify(transactionManager, times(2)).commit(any());
+        verify(changeFeedService).recordChanges(List.of(1L, 2L), UserChangeType.SETTINGS_UPDATED);
+        verify(changeFeedService).recordChanges(List.of(3L), UserChangeType.SETTINGS_UPDATED);
+    }
+
+    @Test
+    void startBulkUpdate_shouldThrowException_whenSettingValueIsInvalid() {
+        assertThatThrownBy(() -> bulkSettingsService.startBulkUpdate(BulkUpdateSettingsRequest.builder()
+                .settings(List.of(Map.of("show_onboarding", "maybe")))
+                .build()))
+                .isInstanceOf(InvalidRequestException.class);
+
+        verifyNoInteractions(userRepository, userSettingRepository);
+    }
+
+    @Test
+    void startBulkUpdate_shouldReportOverload_whenJobQueueIsFull() {
+        BulkSettingsServiceImpl full = new BulkSettingsServiceImpl(userRepository, userSettingRepository,
+                new TransactionTemplate(transactionManager), task -> {
+                    throw new TaskRejectedException("queue full");
+                }, new BulkOperationProperties(), changeFeedService,
+                new ShardRouter(new ShardingProperties()), SettingsSchemaRegistry.builtIn(), entityManager,
+                userAuditEventListener);
+
+        assertThatThrownBy(() -> full.startBulkUpdate(BulkUpdateSettingsRequest.builder()
+                .settings(List.of(Map.of("show_onboarding", "true")))
+                .build()))
+                .isInstanceOf(ServiceOverloadedException.class);
+    }
+}
@@ -0,0 +1,186 @@
+package com.springboottest.user_management_api.service;
+
+import com.springboottest.user_management_api.config.datasource.ShardRouter;
+import com.springboottest.user_management_api.config.properties.ChangeFeedProperties;
+import com.springboottest.user_management_api.config.properties.OutboxProperties;
+import com.springboottest.user_management_api.dto.request.CreateUserRequest;
+import com.springboottest.user_management_api.dto.response.UserChangesResponse;
+import com.springboottest.user_management_api.dto.response.UserResponse;
+import com.springboottest.user_management_api.entity.UserChange;
+import com.springboottest.user_management_api.repository.OutboxRelayOffsetRepository;
+import com.springboottest.user_management_api.repository.UserChangeRepository;
+import com.springboottest.user_management_api.service.implementation.ChangeFeedServiceImpl;
+import com.springboottest.user_management_api.service.interfaces.ChangeFeedService;
+import com.springboottest.user_management_api.service.interfaces.UserService;
+import com.springboottest.user_management_api.util.enums.UserChangeType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+public class ChangeFeedServiceImplTest {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserChangeRepository userChangeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Test
+    void mutations_shouldAppearInCommitOrder_fromMemoryAndDatabase() {
+        long cursor = latestSeq();
+
+        UserResponse created = userService.createUser(CreateUserRequest.builder()
+                .ssn("770001")
+                .firstName("Feed")
+                .lastName("Test")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build());
+        Long id = created.getUserData().getId();
+        userService.deleteUser(id);
+        userService.restoreUser(id);
+
+        UserChangesResponse response = changeFeedService.getChanges(cursor, 10);
+
+        assertThat(response.getChanges()).extracting(UserChangesResponse.Change::getType)
+                .containsExactly("CREATED", "DELETED", "RESTORED");
+        assertThat(response.getChanges()).extracting(UserChangesResponse.Change::getUserId)
+                .containsOnly(id);
+        assertThat(response.getNextCursor()).isEqualTo(response.getChanges().get(2).getSeq());
+        assertThat(userChangeRepository.findBySeqGreaterThanOrderBySeq(cursor, Limit.of(10)))
+                .extracting(change -> change.getChangeType().name())
+                .containsExactly("CREATED", "DELETED", "RESTORED");
+    }
+
+    @Test
+    void rolledBackTransaction_shouldNotPublishChanges() {
+        long cursor = latestSeq();
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            changeFeedService.recordChange(1L, UserChangeType.UPDATED);
+            throw new IllegalStateException("rollback");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(changeFeedService.getChanges(cursor, 10).getChanges()).isEmpty();
+        assertThat(userChangeRepository.findBySeqGreaterThanOrderBySeq(cursor, Limit.of(10))).isEmpty();
+    }
+
+    @Test
+    void laterTransaction_shouldCommitWhileEarlierOneIsCommitting_butStayInvisibleUntilItCompletes() throws Exception {
+        long cursor = latestSeq();
+        CountDownLatch sequenced = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> slow = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                changeFeedService.recordChange(1L, UserChangeType.UPDATED);
+                // registered after the change feed, so it runs once the seq is taken and before the commit
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        sequenced.countDown();
+                        awaitQuietly(release);
+                    }
+                });
+            }));
+            assertThat(sequenced.await(10, TimeUnit.SECONDS)).isTrue();
+
+            transactionTemplate.executeWithoutResult(status ->
+                    changeFeedService.recordChange(2L, UserChangeType.UPDATED));
+
+            assertThat(userChangeRepository.findBySeqGreaterThanOrderBySeq(cursor, Limit.of(10)))
+                    .extracting(UserChange::getUserId)
+                    .containsExactly(2L);
+            assertThat(changeFeedService.getChanges(cursor, 10).getChanges()).isEmpty();
+            assertThat(changeFeedService.getLatestSeq()).isEqualTo(cursor);
+
+            release.countDown();
+            slow.get(10, TimeUnit.SECONDS);
+
+            assertThat(changeFeedService.getChanges(cursor, 10).getChanges())
+                    .extracting(UserChangesResponse.Change::getUserId)
+                    .containsExactly(1L, 2L);
+            assertThat(changeFeedService.getLatestSeq()).isEqualTo(cursor + 2);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void recordChange_shouldRequireTransaction() {
+        assertThatThrownBy(() -> changeFeedService.recordChanges(List.of(1L), UserChangeType.UPDATED))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void initialize_shouldContinueAfterRelayOffset_whenTableWasPrunedEmpty() {
+        UserChangeRepository changes = mock(UserChangeRepository.class);
+        OutboxRelayOffsetRepository offsets = mock(OutboxRelayOffsetRepository.class);
+        when(changes.findMaxSeq()).thenReturn(0L);
+        when(offsets.findMaxLastSeq()).thenReturn(42L);
+
+        ChangeFeedServiceImpl restarted = new ChangeFeedServiceImpl(changes, null, offsets,
+                new ChangeFeedProperties(), new OutboxProperties(), shardRouter);
+        ReflectionTestUtils.invokeMethod(restarted, "initialize");
+
+        assertThat(restarted.getLatestSeq()).isEqualTo(42L);
+    }
+
+    @Test
+    void prune_shouldKeepNewestChange() {
+        UserChangeRepository changes = mock(UserChangeRepository.class);
+        when(changes.findMaxSeq()).thenReturn(10L);
+        OutboxProperties outbox = new OutboxProperties();
+        outbox.setEnabled(false);
+
+        ChangeFeedServiceImpl service = new ChangeFeedServiceImpl(changes, null,
+                mock(OutboxRelayOffsetRepository.class), new ChangeFeedProperties(), outbox, shardRouter);
+        service.prune();
+
+        verify(changes).deleteOlderThan(any(Instant.class), eq(9L));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private long latestSeq() {
+        return userChangeRepository.findMaxSeq();
+    }
+}
@@ -0,0 +1,49 @@
+package com.springboottest.user_management_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.springboottest.user_management_api.config.properties.OutboxProperties;
+import com.springboottest.user_management_api.dto.event.UserLifecycleEvent;
+import com.springboottest.user_management_api.service.implementation.FileUserEventSink;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FileUserEventSinkTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void publish_shouldAppendOneJsonLinePerEvent() throws Exception {
+        OutboxProperties properties = new OutboxProperties();
+        Path file = tempDir.resolve("outbox/events.jsonl");
+        properties.setFilePath(file.toString());
+        FileUserEventSink sink = new FileUserEventSink(new ObjectMapper().registerModule(new JavaTimeModule()),
+                properties);
+
+        int first = sink.publish(List.of(event(1L)));
+        int second = sink.publish(List.of(event(2L), event(3L)));
+
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isEqualTo(2);
+        assertThat(Files.readAllLines(file)).hasSize(3)
+                .allMatch(line -> line.contains("\"event_id\""))
+                .last().asString().contains("\"event_id\":3");
+    }
+
+    private UserLifecycleEvent event(long seq) {
+        return UserLifecycleEvent.builder()
+                .eventId(seq)
+                .userId(seq)
+                .type("UPDATED")
+                .occurredTime(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,320 @@
+package com.springboottest.user_management_api.service;
+
+import com.springboottest.user_management_api.dto.request.CreateUserRequest;
+import com.springboottest.user_management_api.dto.request.UpdateUserRequest;
+import com.springboottest.user_management_api.dto.response.BulkUserResultResponse;
+import com.springboottest.user_management_api.dto.response.UserBatchResponse;
+import com.springboottest.user_management_api.dto.response.UserListResponse;
+import com.springboottest.user_management_api.dto.response.UserResponse;
+import com.springboottest.user_management_api.exception.DuplicateResourceException;
+import com.springboottest.user_management_api.exception.InvalidRequestException;
+import com.springboottest.user_management_api.exception.ResourceNotFoundException;
+import com.springboottest.user_management_api.service.implementation.OffHeapUserServiceImpl;
+import com.springboottest.user_management_api.util.OffHeapUserStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/*
+ * The scenarios of UserServiceImplTest against the off-heap store. There is nothing to mock,
+ * each test runs on a fresh store
+ * */
+public class OffHeapUserServiceImplTest {
+
+    private OffHeapUserStore store;
+    private OffHeapUserServiceImpl userService;
+
+    private CreateUserRequest createRequest;
+    private UpdateUserRequest updateRequest;
+
+    @BeforeEach
+    void setUp() {
+        // two records per page so the tests cross page boundaries
+        store = new OffHeapUserStore(2, 4);
+        userService = new OffHeapUserServiceImpl(store, () -> Optional.of("SYSTEM"));
+
+        createRequest = CreateUserRequest.builder()
+                .ssn("2945")
+                .firstName("John")
+                .lastName("Doe")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build();
+
+        updateRequest = UpdateUserRequest.builder()
+                .firstName("Jane")
+                .lastName("Smith")
+                .birthDate(LocalDate.of(1995, 5, 5))
+                .build();
+    }
+
+    @Test
+    void getAllUsers_shouldReturnPaginatedList() {
+        for (int i = 0; i < 5; i++) {
+            createUser(String.valueOf(3000 + i));
+        }
+        userService.deleteUser(2L);
+
+        UserListResponse result = userService.getAllUsers(2, 1, false);
+
+        assertThat(result.getUserData()).extracting(UserResponse.UserData::getId).containsExactly(4L, 5L);
+        assertThat(result.getMaxRecords()).isEqualTo(2);
+        assertThat(result.getOffset()).isEqualTo(1);
+        assertThat(result.getTotal()).isNull();
+    }
+
+    @Test
+    void getAllUsers_shouldIncludeTotal_whenRequested() {
+        createUser("3000");
+        createUser("3001");
+        userService.deleteUser(1L);
+
+        UserListResponse result = userService.getAllUsers(10, 0, true);
+
+        assertThat(result.getTotal()).isEqualTo(1L);
+        assertThat(userService.getActiveUserCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void getUserById_shouldReturnUser_whenUserExists() {
+        UserResponse created = userService.createUser(createRequest);
+
+        UserResponse result = userService.getUserById(created.getUserData().getId());
+
+        assertThat(result.getUserData().getFirstName()).isEqualTo("John");
+        assertThat(result.getUserData().getSsn()).isEqualTo("0000000000002945");
+        assertThat(result.getUserData().getCreatedTime()).isEqualTo(created.getUserData().getCreatedTime());
+    }
+
+    @Test
+    void getUserById_shouldThrowException_whenUserNotFound() {
+        assertThatThrownBy(() -> userService.getUserById(999L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void getUsersByIds_shouldReturnFoundUsersAndMissingIds() {
+        createUser("3000");
+        createUser("3001");
+        userService.deleteUser(2L);
+
+        UserBatchResponse result = userService.getUsersByIds(List.of(1L, 2L, 999L, 1L));
+
+        assertThat(result.getUsers()).extracting(user -> user.getUserData().getId()).containsExactly(1L);
+        assertThat(result.getMissingIds()).containsExactly(2L, 999L);
+    }
+
+    @Test
+    void createUser_shouldCreateUserWithPaddedSsnAndDefaultSettings() {
+        UserResponse result = userService.createUser(createRequest);
+
+        assertThat(result.getUserData().getId()).isEqualTo(1L);
+        assertThat(result.getUserData().getSsn()).isEqualTo("0000000000002945");
+        assertThat(result.getUserData().getMiddleName()).isNull();
+        assertThat(result.getUserData().getIsActive()).isTrue();
+        assertThat(result.getUserData().getCreatedBy()).isEqualTo("SYSTEM");
+        assertThat(result.getUserSettings()).containsExactlyInAnyOrder(
+                Map.of("biometric_login", "false"),
+                Map.of("push_notification", "false"),
+                Map.of("sms_notification", "false"),
+                Map.of("show_onboarding", "false"),
+                Map.of("widget_order", "1,2,3,4,5"));
+        assertThat(userService.getActiveUserCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void createUser_shouldThrowException_whenSsnAlreadyExists() {
+        userService.createUser(createRequest);
+
+        assertThatThrownBy(() -> userService.createUser(createRequest))
+                .isInstanceOf(DuplicateResourceException.class);
+        assertThat(userService.getActiveUserCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void createUser_shouldThrowException_whenSsnBelongsToDeletedUser() {
+        userService.createUser(createRequest);
+        userService.deleteUser(1L);
+
+        assertThatThrownBy(() -> userService.createUser(createRequest))
+                .isInstanceOf(DuplicateResourceException.class);
+    }
+
+    @Test
+    void createUser_shouldThrowException_whenAgeIsOlderThan100Years() {
+        createRequest.setBirthDate(LocalDate.now().minusYears(101));
+
+        assertThatThrownBy(() -> userService.createUser(createRequest))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("100 years");
+        assertThat(store.size()).isZero();
+    }
+
+    @Test
+    void updateUser_shouldUpdateUser_whenUserExists() {
+        userService.createUser(createRequest);
+        updateRequest.setMiddleName("Marie");
+
+        UserResponse result = userService.updateUser(1L, updateRequest);
+
+        assertThat(result.getUserData().getFirstName()).isEqualTo("Jane");
+        assertThat(result.getUserData().getMiddleName()).isEqualTo("Marie");
+        assertThat(result.getUserData().getFamilyName()).isEqualTo("Smith");
+        assertThat(result.getUserData().getBirthDate()).isEqualTo(LocalDate.of(1995, 5, 5));
+        assertThat(userService.getUserById(1L).getUserData().getFirstName()).isEqualTo("Jane");
+    }
+
+    @Test
+    void updateUser_shouldThrowException_whenUserNotFound() {
+        assertThatThrownBy(() -> userService.updateUser(999L, updateRequest))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void updateUser_shouldThrowException_whenAgeIsOlderThan100Years() {
+        userService.createUser(createRequest);
+        updateRequest.setBirthDate(LocalDate.now().minusYears(101));
+
+        assertThatThrownBy(() -> userService.updateUser(1L, updateRequest))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThat(userService.getUserById(1L).getUserData().getFirstName()).isEqualTo("John");
+    }
+
+    @Test
+    void deleteUser_shouldSoftDeleteUser() {
+        userService.createUser(createRequest);
+
+        userService.deleteUser(1L);
+
+        assertThatThrownBy(() -> userService.getUserById(1L))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(store.find(1L)).hasValueSatisfying(user -> {
+            assertThat(user.active()).isFalse();
+            assertThat(user.deletedTime()).isNotNull();
+        });
+        assertThat(userService.getActiveUserCount()).isZero();
+    }
+
+    @Test
+    void deleteUser_shouldThrowException_whenUserNotFound() {
+        assertThatThrownBy(() -> userService.deleteUser(999L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void restoreUser_shouldRestoreDeletedUser() {
+        userService.createUser(createRequest);
+        userService.deleteUser(1L);
+
+        UserResponse result = userService.restoreUser(1L);
+
+        assertThat(result.getUserData().getIsActive()).isTrue();
+        assertThat(result.getUserData().getDeletedTime()).isNull();
+        assertThat(userService.getActiveUserCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void restoreUser_shouldThrowException_whenUserNotFound() {
+        assertThatThrownBy(() -> userService.restoreUser(999L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void restoreUser_shouldThrowException_whenUserIsPurged() {
+        userService.createUser(createRequest);
+        userService.deleteUser(1L);
+        store.purgeDeletedBefore(Instant.now().plusSeconds(1), 10);
+
+        assertThatThrownBy(() -> userService.restoreUser(1L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void restoreUser_shouldThrowException_whenUserIsAlreadyActive() {
+        userService.createUser(createRequest);
+
+        assertThatThrownBy(() -> userService.restoreUser(1L))
+                .isInstanceOf(InvalidRequestException.class)
+                .hasMessageContaining("already active");
+    }
+
+    @Test
+    void deleteUsers_shouldReportPerIdResults() {
+        createUser("3000");
+        createUser("3001");
+        userService.deleteUser(2L);
+
+        BulkUserResultResponse result = userService.deleteUsers(List.of(1L, 2L, 999L, 1L));
+
+        assertThat(result.getSucceeded()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getResults()).extracting(BulkUserResultResponse.UserResult::getStatus)
+                .containsExactly("DELETED", "NOT_FOUND", "NOT_FOUND");
+        assertThat(userService.getActiveUserCount()).isZero();
+    }
+
+    @Test
+    void restoreUsers_shouldReportAlreadyActiveAndDeletedUsers() {
+        createUser("3000");
+        createUser("3001");
+        userService.deleteUser(2L);
+
+        BulkUserResultResponse result = userService.restoreUsers(List.of(1L, 2L, 999L));
+
+        assertThat(result.getSucceeded()).isEqualTo(1);
+        assertThat(result.getResults()).extracting(BulkUserResultResponse.UserResult::getStatus)
+                .containsExactly("ALREADY_ACTIVE", "RESTORED", "NOT_FOUND");
+        assertThat(userService.getActiveUserCount()).isEqualTo(2L);
+    }
+
+    @Test
+    void updateUserSettings_shouldPackBooleansAndWidgetOrder() {
+        userService.createUser(createRequest);
+
+        UserResponse result = userService.updateUserSettings(1L, List.of(
+                Map.of("push_notification", "true"),
+                Map.of("widget_order", "5,4,3,2,1")));
+
+        assertThat(result.getUserSettings()).contains(
+                Map.of("push_notification", "true"),
+                Map.of("biometric_login", "false"),
+                Map.of("widget_order", "5,4,3,2,1"));
+        assertThat(userService.getUserById(1L).getUserSettings()).contains(Map.of("push_notification", "true"));
+    }
+
+    @Test
+    void updateUserSettings_shouldRejectInvalidSettings_withoutChangingAny() {
+        userService.createUser(createRequest);
+
+        assertThatThrownBy(() -> userService.updateUserSettings(1L, List.of(
+                Map.of("push_notification", "true"),
+                Map.of("widget_order", "1,1,1"))))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThat(userService.getUserById(1L).getUserSettings()).contains(Map.of("push_notification", "false"));
+    }
+
+    @Test
+    void updateUserSettings_shouldThrowException_whenUserIsDeleted() {
+        userService.createUser(createRequest);
+        userService.deleteUser(1L);
+
+        assertThatThrownBy(() -> userService.updateUserSettings(1L, List.of(Map.of("push_notification", "true"))))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private void createUser(String ssn) {
+        userService.createUser(CreateUserRequest.builder()
+                .ssn(ssn)
+                .firstName("User")
+                .lastName("Test")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build());
+    }
+}
@@ -0,0 +1,143 @@
+package com.springboottest.user_management_api.service;
+
+import com.springboottest.user_management_api.config.properties.OutboxProperties;
+import com.springboottest.user_management_api.dto.event.UserLifecycleEvent;
+import com.springboottest.user_management_api.dto.response.UserChangesResponse;
+import com.springboottest.user_management_api.entity.OutboxRelayOffset;
+import com.springboottest.user_management_api.repository.OutboxRelayOffsetRepository;
+import com.springboottest.user_management_api.service.implementation.InMemoryUserEventSink;
+import com.springboottest.user_management_api.service.implementation.OutboxRelayServiceImpl;
+import com.springboottest.user_management_api.service.interfaces.ChangeFeedService;
+import com.springboottest.user_management_api.service.interfaces.UserEventSink;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayServiceImplTest {
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    @Mock
+    private OutboxRelayOffsetRepository outboxRelayOffsetRepository;
+
+    private OutboxProperties properties;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OutboxProperties();
+        properties.setBatchSize(2);
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoff(Duration.ZERO);
+        properties.setMemoryCapacity(3);
+        meterRegistry = new SimpleMeterRegistry();
+
+        when(outboxRelayOffsetRepository.findById("user-events")).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void relay_shouldPublishBatchesAndAdvanceOffset() {
+        when(changeFeedService.getChanges(0L, 2)).thenReturn(page(1, 2));
+        when(changeFeedService.getChanges(2L, 2)).thenReturn(page(3));
+        InMemoryUserEventSink sink = new InMemoryUserEventSink(properties);
+
+        int relayed = relayService(sink).relay();
+
+        assertThat(relayed).isEqualTo(3);
+        assertThat(sink.drain(10)).extracting(UserLifecycleEvent::getEventId).containsExactly(1L, 2L, 3L);
+        assertThat(savedOffsets()).containsExactly(2L, 3L);
+        assertThat(meterRegistry.counter("outbox.relay.events").count()).isEqualTo(3);
+    }
+
+    @Test
+    void relay_shouldStopAtAcceptedEvents_whenSinkIsFull() {
+        properties.setMemoryCapacity(1);
+        when(changeFeedService.getChanges(0L, 2)).thenReturn(page(1, 2));
+        InMemoryUserEventSink sink = new InMemoryUserEventSink(properties);
+
+        OutboxRelayServiceImpl relayService = relayService(sink);
+        int relayed = relayService.relay();
+
+        assertThat(relayed).isEqualTo(1);
+        assertThat(relayService.getRelayedSeq()).isEqualTo(1L);
+        assertThat(meterRegistry.counter("outbox.relay.backpressure").count()).isEqualTo(1);
+        verify(changeFeedService, times(1)).getChanges(anyLong(), anyInt());
+    }
+
+    @Test
+    void relay_shouldRetryFailedPublish() {
+        when(changeFeedService.getChanges(0L, 2)).thenReturn(page(1));
+        UserEventSink sink = mock(UserEventSink.class);
+        when(sink.publish(anyList()))
+                .thenThrow(new IllegalStateException("unavailable"))
+                .thenReturn(1);
+
+        int relayed = relayService(sink).relay();
+
+        assertThat(relayed).isEqualTo(1);
+        assertThat(meterRegistry.counter("outbox.relay.failures").count()).isEqualTo(1);
+        assertThat(savedOffsets()).containsExactly(1L);
+    }
+
+    @Test
+    void relay_shouldKeepOffset_whenEveryAttemptFails() {
+        when(changeFeedService.getChanges(0L, 2)).thenReturn(page(1, 2));
+        UserEventSink sink = mock(UserEventSink.class);
+        when(sink.publish(anyList())).thenThrow(new IllegalStateException("unavailable"));
+
+        OutboxRelayServiceImpl relayService = relayService(sink);
+        int relayed = relayService.relay();
+
+        assertThat(relayed).isZero();
+        assertThat(relayService.getRelayedSeq()).isZero();
+        verify(sink, times(3)).publish(anyList());
+        verify(outboxRelayOffsetRepository, never()).save(any());
+    }
+
+    private OutboxRelayServiceImpl relayService(UserEventSink sink) {
+        return new OutboxRelayServiceImpl(changeFeedService, outboxRelayOffsetRepository, sink,
+                properties, meterRegistry);
+    }
+
+    private List<Long> savedOffsets() {
+        ArgumentCaptor<OutboxRelayOffset> captor = ArgumentCaptor.forClass(OutboxRelayOffset.class);
+        verify(outboxRelayOffsetRepository, atLeastOnce()).save(captor.capture());
+        return captor.getAllValues().stream().map(OutboxRelayOffset::getLastSeq).toList();
+    }
+
+    private UserChangesResponse page(long... seqs) {
+        List<UserChangesResponse.Change> changes = new ArrayList<>();
+        for (long seq : seqs) {
+            changes.add(UserChangesResponse.Change.builder()
+                    .seq(seq)
+                    .userId(seq)
+                    .type("CREATED")
+                    .changedTime(Instant.now())
+                    .build());
+        }
+        return UserChangesResponse.builder()
+                .changes(changes)
+                .nextCursor(seqs[seqs.length - 1])
+                .build();
+    }
+}
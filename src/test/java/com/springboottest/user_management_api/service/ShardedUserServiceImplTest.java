@@ -0,0 +1,142 @@
+package com.springboottest.user_management_api.service;
+
+import com.springboottest.user_management_api.config.datasource.ShardRouter;
+import com.springboottest.user_management_api.dto.request.CreateUserRequest;
+import com.springboottest.user_management_api.dto.response.BulkUserResultResponse;
+import com.springboottest.user_management_api.dto.response.UserBatchResponse;
+import com.springboottest.user_management_api.dto.response.UserListResponse;
+import com.springboottest.user_management_api.dto.response.UserResponse;
+import com.springboottest.user_management_api.exception.DuplicateResourceException;
+import com.springboottest.user_management_api.exception.InvalidRequestException;
+import com.springboottest.user_management_api.exception.ResourceNotFoundException;
+import com.springboottest.user_management_api.service.implementation.ShardedUserServiceImpl;
+import com.springboottest.user_management_api.service.interfaces.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "app.sharding.enabled=true",
+        "app.sharding.shards[0].url=jdbc:h2:mem:shardtest0",
+        "app.sharding.shards[0].username=sa",
+        "app.sharding.shards[1].url=jdbc:h2:mem:shardtest1",
+        "app.sharding.shards[1].username=sa",
+        "app.sharding.shards[2].url=jdbc:h2:mem:shardtest2",
+        "app.sharding.shards[2].username=sa",
+        "app.outbox.enabled=false"
+})
+public class ShardedUserServiceImplTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    private final List<Long> ids = new ArrayList<>();
+    private static int ssnBase = 990_000;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 12; i++) {
+            ids.add(userService.createUser(request(String.valueOf(ssnBase++))).getUserData().getId());
+        }
+    }
+
+    @Test
+    void createUser_shouldSpreadUsersAndKeepIdsOnTheirShard() {
+        assertThat(userService).isInstanceOf(ShardedUserServiceImpl.class);
+        assertThat(ids).doesNotHaveDuplicates();
+        assertThat(ids.stream().map(shardRouter::shardOfUser).distinct()).hasSize(3);
+
+        for (Long id : ids) {
+            assertThat(userService.getUserById(id).getUserData().getId()).isEqualTo(id);
+        }
+    }
+
+    @Test
+    void createUser_shouldRejectDuplicateSsnAcrossShards() {
+        String ssn = String.valueOf(ssnBase - 1);
+
+        assertThatThrownBy(() -> userService.createUser(request(ssn)))
+                .isInstanceOf(DuplicateResourceException.class);
+    }
+
+    @Test
+    void getAllUsers_shouldMergeShardsInIdOrder() {
+        List<Long> firstPage = ids(userService.getAllUsers(5, 0, false).getUserData());
+        List<Long> secondPage = ids(userService.getAllUsers(5, 1, false).getUserData());
+
+        List<Long> merged = new ArrayList<>(firstPage);
+        merged.addAll(secondPage);
+        assertThat(merged).hasSize(10).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void getUsersAfter_shouldWalkEveryShardInIdOrder() {
+        List<Long> walked = new ArrayList<>();
+        Long cursor = 0L;
+        while (cursor != null) {
+            UserListResponse page = userService.getUsersAfter(cursor, 5, false);
+            walked.addAll(ids(page.getUserData()));
+            cursor = page.getNextAfterId();
+        }
+
+        assertThat(walked).isSorted().doesNotHaveDuplicates().containsAll(ids);
+    }
+
+    @Test
+    void getAllUsers_shouldRejectOffsetPastTheConfiguredDepth() {
+        assertThatThrownBy(() -> userService.getAllUsers(1_000, Integer.MAX_VALUE / 1_000, false))
+                .isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    void getUsersByIds_shouldKeepRequestOrderAcrossShards() {
+        List<Long> requested = List.of(ids.get(5), ids.get(0), 999_999L, ids.get(3));
+
+        UserBatchResponse response = userService.getUsersByIds(requested);
+
+        assertThat(response.getUsers()).extracting(user -> user.getUserData().getId())
+                .containsExactly(ids.get(5), ids.get(0), ids.get(3));
+        assertThat(response.getMissingIds()).containsExactly(999_999L);
+    }
+
+    @Test
+    void deleteUsers_shouldDeleteOnEveryShard() {
+        List<Long> requested = List.of(ids.get(0), ids.get(1), ids.get(2), 999_999L);
+
+        BulkUserResultResponse response = userService.deleteUsers(requested);
+
+        assertThat(response.getSucceeded()).isEqualTo(3);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(BulkUserResultResponse.UserResult::getId)
+                .containsExactlyElementsOf(requested);
+        assertThatThrownBy(() -> userService.getUserById(ids.get(1)))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        UserResponse restored = userService.restoreUser(ids.get(1));
+        assertThat(restored.getUserData().getIsActive()).isTrue();
+    }
+
+    private List<Long> ids(List<UserResponse.UserData> users) {
+        return users.stream().map(UserResponse.UserData::getId).toList();
+    }
+
+    private CreateUserRequest request(String ssn) {
+        return CreateUserRequest.builder()
+                .ssn(ssn)
+                .firstName("Shard")
+                .lastName("User")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build();
+    }
+}
@@ -0,0 +1,183 @@
+package com.springboottest.user_management_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboottest.user_management_api.config.datasource.ShardRouter;
+import com.springboottest.user_management_api.config.properties.AuditProperties;
+import com.springboottest.user_management_api.dto.event.UserAuditRecord;
+import com.springboottest.user_management_api.dto.request.BulkUpdateSettingsRequest;
+import com.springboottest.user_management_api.dto.request.CreateUserRequest;
+import com.springboottest.user_management_api.dto.request.UpdateUserRequest;
+import com.springboottest.user_management_api.dto.response.BulkOperationResponse;
+import com.springboottest.user_management_api.service.implementation.UserAuditServiceImpl;
+import com.springboottest.user_management_api.service.interfaces.BulkSettingsService;
+import com.springboottest.user_management_api.service.interfaces.UserAuditService;
+import com.springboottest.user_management_api.service.interfaces.UserService;
+import com.springboottest.user_management_api.util.AuditActorContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+public class UserAuditServiceImplTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserAuditService userAuditService;
+
+    @Autowired
+    private BulkSettingsService bulkSettingsService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @TempDir
+    Path directory;
+
+    private static int ssnBase = 870_000;
+
+    @Test
+    void updates_shouldBeAuditedFieldByField_afterCommit() {
+        Long id = createUser();
+
+        userService.updateUser(id, UpdateUserRequest.builder()
+                .firstName("Jane")
+                .lastName("Doe")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build());
+        userService.updateUserSettings(id, List.of(Map.of("push_notification", "true")));
+        userAuditService.flush();
+
+        List<Map<String, Object>> rows = new JdbcTemplate(dataSource).queryForList(
+                "SELECT entity_type, field_name, old_value, new_value, actor FROM user_audit_log " +
+                        "WHERE user_id = ? AND old_value IS NOT NULL ORDER BY id", id);
+        assertThat(rows).containsExactly(
+                Map.of("ENTITY_TYPE", "USER", "FIELD_NAME", "firstName", "OLD_VALUE", "John",
+                        "NEW_VALUE", "Jane", "ACTOR", "SYSTEM"),
+                Map.of("ENTITY_TYPE", "USER_SETTING", "FIELD_NAME", "push_notification", "OLD_VALUE", "false",
+                        "NEW_VALUE", "true", "ACTOR", "SYSTEM"));
+    }
+
+    @Test
+    void createUser_shouldAuditInitialValues() {
+        Long id = createUser();
+        userAuditService.flush();
+
+        List<String> fields = new JdbcTemplate(dataSource).queryForList(
+                "SELECT field_name FROM user_audit_log WHERE user_id = ? AND old_value IS NULL", String.class, id);
+        assertThat(fields).contains("ssn", "firstName", "familyName", "birthDate", "widget_order");
+    }
+
+    @Test
+    void bulkDeleteAndRestore_shouldBeAudited() {
+        Long id = createUser();
+
+        userService.deleteUsers(List.of(id));
+        userService.restoreUsers(List.of(id));
+        userAuditService.flush();
+
+        List<Map<String, Object>> rows = new JdbcTemplate(dataSource).queryForList(
+                "SELECT field_name, old_value, new_value FROM user_audit_log " +
+                        "WHERE user_id = ? AND field_name = 'isActive' AND old_value IS NOT NULL ORDER BY id", id);
+        assertThat(rows).containsExactly(
+                Map.of("FIELD_NAME", "isActive", "OLD_VALUE", "true", "NEW_VALUE", "false"),
+                Map.of("FIELD_NAME", "isActive", "OLD_VALUE", "false", "NEW_VALUE", "true"));
+        assertThat(new JdbcTemplate(dataSource).queryForList(
+                "SELECT old_value FROM user_audit_log WHERE user_id = ? AND field_name = 'deletedTime' " +
+                        "AND new_value IS NULL", String.class, id)).hasSize(1).doesNotContainNull();
+    }
+
+    @Test
+    void bulkSettingsJob_shouldBeAuditedUnderTheActorThatStartedIt() throws InterruptedException {
+        Instant before = Instant.now().minusMillis(1);
+        Long id = createUser();
+
+        AuditActorContext.set("client-7");
+        BulkOperationResponse job;
+        try {
+            job = bulkSettingsService.startBulkUpdate(BulkUpdateSettingsRequest.builder()
+                    .settings(List.of(Map.of("sms_notification", "true")))
+                    .createdAfter(before)
+                    .build());
+        } finally {
+            AuditActorContext.clear();
+        }
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (bulkSettingsService.getBulkUpdateStatus(job.getJobId()).getFinishedTime() == null
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        userAuditService.flush();
+
+        assertThat(bulkSettingsService.getBulkUpdateStatus(job.getJobId()).getStatus()).isEqualTo("COMPLETED");
+        List<Map<String, Object>> rows = new JdbcTemplate(dataSource).queryForList(
+                "SELECT entity_type, field_name, old_value, new_value, actor FROM user_audit_log " +
+                        "WHERE user_id = ? AND actor = 'client-7'", id);
+        assertThat(rows).containsExactly(
+                Map.of("ENTITY_TYPE", "USER_SETTING", "FIELD_NAME", "sms_notification", "OLD_VALUE", "false",
+                        "NEW_VALUE", "true", "ACTOR", "client-7"));
+    }
+
+    @Test
+    void failedBatch_shouldSpillAndBeReplayed() throws SQLException {
+        AuditProperties properties = new AuditProperties();
+        properties.setSpillPath(directory.resolve("spill.jsonl").toString());
+        DataSource failing = mock(DataSource.class);
+        when(failing.getConnection()).thenThrow(new SQLException("database down"));
+
+        UserAuditRecord record = UserAuditRecord.builder()
+                .userId(424242L)
+                .entityType("USER")
+                .entityId(424242L)
+                .fieldName("firstName")
+                .oldValue("John")
+                .newValue("Jane")
+                .actor("SYSTEM")
+                .changedTime(Instant.now())
+                .build();
+        UserAuditServiceImpl down = new UserAuditServiceImpl(failing, shardRouter, objectMapper, properties,
+                new SimpleMeterRegistry());
+        down.record(List.of(record));
+        down.flush();
+        assertThat(directory.resolve("spill.jsonl")).exists();
+
+        UserAuditServiceImpl up = new UserAuditServiceImpl(dataSource, shardRouter, objectMapper, properties,
+                new SimpleMeterRegistry());
+        assertThat(up.replaySpill()).isEqualTo(1);
+        assertThat(Files.exists(directory.resolve("spill.jsonl"))).isFalse();
+        assertThat(new JdbcTemplate(dataSource).queryForObject(
+                "SELECT new_value FROM user_audit_log WHERE user_id = 424242", String.class)).isEqualTo("Jane");
+    }
+
+    private Long createUser() {
+        return userService.createUser(CreateUserRequest.builder()
+                .ssn(String.valueOf(ssnBase++))
+                .firstName("John")
+                .lastName("Doe")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .build()).getUserData().getId();
+    }
+}
@@ -0,0 +1,73 @@
+package com.springboottest.user_management_api.service;
+
+import com.springboottest.user_management_api.config.datasource.ShardRouter;
+import com.springboottest.user_management_api.config.properties.ShardingProperties;
+import com.springboottest.user_management_api.repository.UserRepository;
+import com.springboottest.user_management_api.service.implementation.UserCountServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserCountServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingProperties());
+
+    @InjectMocks
+    private UserCountServiceImpl userCountService;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getActiveUserCount_shouldInitializeFromDatabaseOnce() {
+        when(userRepository.countActiveUsers()).thenReturn(10L);
+
+        assertThat(userCountService.getActiveUserCount()).isEqualTo(10L);
+        assertThat(userCountService.getActiveUserCount()).isEqualTo(10L);
+
+        verify(userRepository, times(1)).countActiveUsers();
+    }
+
+    @Test
+    void adjustAfterCommit_shouldApplyOnlyAfterCommit() {
+        when(userRepository.countActiveUsers()).thenReturn(10L);
+        userCountService.reconcile();
+
+        TransactionSynchronizationManager.initSynchronization();
+        userCountService.adjustAfterCommit(1);
+        assertThat(userCountService.getActiveUserCount()).isEqualTo(10L);
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        assertThat(userCountService.getActiveUserCount()).isEqualTo(11L);
+    }
+
+    @Test
+    void reconcile_shouldCorrectDrift() {
+        when(userRepository.countActiveUsers()).thenReturn(10L, 7L);
+        userCountService.reconcile();
+        userCountService.adjustAfterCommit(1);
+
+        userCountService.reconcile();
+
+        assertThat(userCountService.getActiveUserCount()).isEqualTo(7L);
+    }
+}
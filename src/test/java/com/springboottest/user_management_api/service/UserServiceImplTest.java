@@ -2,6 +2,8 @@ package com.springboottest.user_management_api.service;
 
 import com.springboottest.user_management_api.dto.request.CreateUserRequest;
 import com.springboottest.user_management_api.dto.request.UpdateUserRequest;
+import com.springboottest.user_management_api.dto.response.BulkUserResultResponse;
+import com.springboottest.user_management_api.dto.response.UserBatchResponse;
 import com.springboottest.user_management_api.dto.response.UserListResponse;
 import com.springboottest.user_management_api.dto.response.UserResponse;
 import com.springboottest.user_management_api.entity.User;
@@ -11,27 +13,44 @@ import com.springboottest.user_management_api.exception.InvalidRequestException;
 import com.springboottest.user_management_api.exception.ResourceNotFoundException;
 import com.springboottest.user_management_api.repository.UserRepository;
 import com.springboottest.user_management_api.service.implementation.UserServiceImpl;
+import com.springboottest.user_management_api.service.interfaces.ChangeFeedService;
+import com.springboottest.user_management_api.service.interfaces.UserArchiveService;
+import com.springboottest.user_management_api.service.interfaces.UserCountService;
 import com.springboottest.user_management_api.service.interfaces.UserSettingService;
+import com.springboottest.user_management_api.util.SingleFlight;
+import com.springboottest.user_management_api.util.UserAuditEventListener;
+import com.springboottest.user_management_api.util.UserResponseCache;
+import com.springboottest.user_management_api.util.enums.UserChangeType;
+import com.springboottest.user_management_api.util.enums.UserField;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -44,9 +63,31 @@ public class UserServiceImplTest {
     @Mock
     private UserSettingService userSettingService;
 
+    @Mock
+    private UserArchiveService userArchiveService;
+
+    @Mock
+    private UserCountService userCountService;
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
 //    @Mock
 //    private EntityManager entityManager;
 
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private SingleFlight<Long, Optional<UserResponse>> userLoads =
+            new SingleFlight<>("user", Duration.ofSeconds(1), new SimpleMeterRegistry());
+
+    @Spy
+    private UserResponseCache userResponseCache = new UserResponseCache(10, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Mock
+    private ObjectProvider<UserAuditEventListener> userAuditEventListener;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -97,15 +138,27 @@ public class UserServiceImplTest {
 
     @Test
     void getAllUsers_shouldReturnPaginatedList() {
-        Page<User> userPage = new PageImpl<>(List.of(user));
-        when(userRepository.findAllActiveUsers(any(Pageable.class))).thenReturn(userPage);
+        when(userRepository.findActiveUsers(any(Pageable.class))).thenReturn(List.of(user));
 
-        UserListResponse response = userService.getAllUsers(10, 0);
+        UserListResponse response = userService.getAllUsers(10, 0, false);
 
         assertThat(response.getUserData()).hasSize(1);
         assertThat(response.getMaxRecords()).isEqualTo(10);
         assertThat(response.getOffset()).isEqualTo(0);
-        verify(userRepository).findAllActiveUsers(any(Pageable.class));
+        assertThat(response.getTotal()).isNull();
+        verify(userRepository).findActiveUsers(any(Pageable.class));
+        verifyNoInteractions(userCountService);
+    }
+
+    @Test
+    void getAllUsers_shouldIncludeTotalFromCounter_whenRequested() {
+        when(userRepository.findActiveUsers(any(Pageable.class))).thenReturn(List.of(user));
+        when(userCountService.getActiveUserCount()).thenReturn(42L);
+
+        UserListResponse response = userService.getAllUsers(10, 0, true);
+
+        assertThat(response.getTotal()).isEqualTo(42L);
+        verify(userRepository, never()).findAllActiveUsers(any(Pageable.class));
     }
 
     @Test
@@ -127,6 +180,124 @@ public class UserServiceImplTest {
         verify(userRepository).findActiveUserById(999L);
     }
 
+    @Test
+    void getUserById_shouldServeRepeatedReadsFromCache() {
+        when(userRepository.findActiveUserById(1L)).thenReturn(Optional.of(user));
+
+        UserResponse first = userService.getUserById(1L);
+        UserResponse second = userService.getUserById(1L);
+
+        assertThat(second).isSameAs(first);
+        verify(userRepository, times(1)).findActiveUserById(1L);
+    }
+
+    @Test
+    void getUserById_shouldReload_whenCachedUserIsInvalidated() {
+        when(userRepository.findActiveUserById(1L)).thenReturn(Optional.of(user));
+        userService.getUserById(1L);
+
+        userResponseCache.invalidate(1L);
+        userService.getUserById(1L);
+
+        verify(userRepository, times(2)).findActiveUserById(1L);
+    }
+
+    @Test
+    void getUserById_shouldSelectOnlyFields_andSkipSettings_whenNotRequested() {
+        Set<UserField> fields = EnumSet.of(UserField.ID, UserField.FIRST_NAME);
+        when(userRepository.findActiveUserData(1L, fields))
+                .thenReturn(Optional.of(UserResponse.UserData.builder().id(1L).firstName("John").build()));
+
+        UserResponse response = userService.getUserById(1L, fields);
+
+        assertThat(response.getUserData().getFirstName()).isEqualTo("John");
+        assertThat(response.getUserSettings()).isNull();
+        verify(userRepository, never()).findActiveUserById(any());
+        verifyNoInteractions(userSettingService);
+    }
+
+    @Test
+    void getUserById_shouldQuerySettings_whenRequested() {
+        Set<UserField> fields = EnumSet.of(UserField.ID, UserField.USER_SETTINGS);
+        when(userRepository.findActiveUserData(1L, fields))
+                .thenReturn(Optional.of(UserResponse.UserData.builder().id(1L).build()));
+        when(userSettingService.getUserSettings(1L)).thenReturn(Map.of("biometric_login", "false"));
+
+        UserResponse response = userService.getUserById(1L, fields);
+
+        assertThat(response.getUserSettings()).containsExactly(Map.of("biometric_login", "false"));
+    }
+
+    @Test
+    void getUserById_shouldTrimCachedUser_whenFieldsAreGiven() {
+        when(userRepository.findActiveUserById(1L)).thenReturn(Optional.of(user));
+        userService.getUserById(1L);
+
+        UserResponse response = userService.getUserById(1L, EnumSet.of(UserField.ID, UserField.LAST_NAME));
+
+        assertThat(response.getUserData().getId()).isEqualTo(1L);
+        assertThat(response.getUserData().getFamilyName()).isEqualTo(user.getFamilyName());
+        assertThat(response.getUserData().getSsn()).isNull();
+        assertThat(response.getUserSettings()).isNull();
+        verify(userRepository, never()).findActiveUserData(anyLong(), any());
+    }
+
+    @Test
+    void getUserSettings_shouldQueryOnlySettings_whenUserIsNotCached() {
+        when(userSettingService.getUserSettings(1L)).thenReturn(Map.of("biometric_login", "false"));
+
+        assertThat(userService.getUserSettings(1L)).containsEntry("biometric_login", "false");
+        verify(userRepository, never()).findActiveUserById(any());
+    }
+
+    @Test
+    void getUserSettings_shouldAnswerFromCache_whenUserIsCached() {
+        when(userRepository.findActiveUserById(1L)).thenReturn(Optional.of(user));
+        UserResponse cached = userService.getUserById(1L);
+
+        Map<String, String> settings = userService.getUserSettings(1L);
+
+        assertThat(settings).hasSize(cached.getUserSettings().size());
+        verify(userSettingService, never()).getUserSettings(any());
+    }
+
+    @Test
+    void getUsersByIds_shouldReturnFoundUsersAndMissingIds() {
+        when(userRepository.findActiveUsersByIds(anyCollection())).thenReturn(List.of(user));
+
+        UserBatchResponse response = userService.getUsersByIds(List.of(1L, 999L, 1L));
+
+        assertThat(response.getUsers()).hasSize(1);
+        assertThat(response.getUsers().get(0).getUserData().getId()).isEqualTo(1L);
+        assertThat(response.getMissingIds()).containsExactly(999L);
+        verify(userRepository, times(1)).findActiveUsersByIds(anyCollection());
+        verify(userRepository, never()).findActiveUserById(any());
+    }
+
+    @Test
+    void getUsersByIds_shouldLoadOnlyUsersMissingFromCache_andCacheThem() {
+        User other = User.builder()
+                .id(2L)
+                .ssn("0000000000002946")
+                .firstName("Jane")
+                .familyName("Doe")
+                .birthDate(LocalDate.of(1990, 1, 1))
+                .isActive(true)
+                .build();
+        when(userRepository.findActiveUserById(1L)).thenReturn(Optional.of(user));
+        UserResponse cached = userService.getUserById(1L);
+        when(userRepository.findActiveUsersByIds(anyCollection())).thenReturn(List.of(other));
+
+        UserBatchResponse response = userService.getUsersByIds(List.of(1L, 2L));
+        userService.getUsersByIds(List.of(1L, 2L));
+
+        assertThat(response.getUsers()).hasSize(2);
+        assertThat(response.getUsers().get(0)).isSameAs(cached);
+        assertThat(response.getUsers().get(1).getUserData().getId()).isEqualTo(2L);
+        verify(userRepository).findActiveUsersByIds(argThat(ids -> ids.size() == 1 && ids.contains(2L)));
+        verify(userRepository, times(1)).findActiveUsersByIds(anyCollection());
+    }
+
     @Test
     void createUser_shouldCreateUserWithPaddedSsn() {
         when(userRepository.existsBySsn("0000000000002945")).thenReturn(false);
@@ -143,6 +314,8 @@ public class UserServiceImplTest {
         verify(userRepository).existsBySsn("0000000000002945");
         verify(userRepository).save(any(User.class));
         verify(userSettingService).createDefaultSettings(any(User.class));
+        verify(userCountService).adjustAfterCommit(1);
+        verify(changeFeedService).recordChange(any(), eq(UserChangeType.CREATED));
     }
 
     @Test
@@ -210,6 +383,8 @@ public class UserServiceImplTest {
 
         verify(userRepository).findActiveUserById(1L);
         verify(userRepository).save(any(User.class));
+        verify(userCountService).adjustAfterCommit(-1);
+        verify(changeFeedService).recordChange(1L, UserChangeType.DELETED);
     }
 
     @Test
@@ -242,6 +417,63 @@ public class UserServiceImplTest {
                 .isInstanceOf(ResourceNotFoundException.class);
     }
 
+    @Test
+    void restoreUser_shouldRestoreFromArchive_whenUserIsArchived() {
+        user.setIsActive(false);
+        user.setDeletedTime(Instant.now());
+        when(userRepository.findAllUserById(1L)).thenReturn(Optional.empty());
+        when(userArchiveService.restoreFromArchive(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenReturn(user);
+
+        UserResponse response = userService.restoreUser(1L);
+
+        assertThat(response.getUserData().getIsActive()).isTrue();
+        verify(userArchiveService).restoreFromArchive(1L);
+    }
+
+    @Test
+    void createUser_shouldThrowException_whenSsnIsArchived() {
+        when(userRepository.existsBySsn("0000000000002945")).thenReturn(false);
+        when(userArchiveService.existsBySsn("0000000000002945")).thenReturn(true);
+
+        assertThatThrownBy(() -> userService.createUser(createRequest))
+                .isInstanceOf(DuplicateResourceException.class);
+
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void deleteUsers_shouldReportPerIdResults() {
+        when(userRepository.findActiveIds(List.of(1L, 2L))).thenReturn(List.of(1L));
+        when(userRepository.softDeleteByIds(anyCollection(), any(Instant.class))).thenReturn(1);
+
+        BulkUserResultResponse response = userService.deleteUsers(List.of(1L, 2L, 1L));
+
+        assertThat(response.getSucceeded()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(BulkUserResultResponse.UserResult::getStatus)
+                .containsExactly("DELETED", "NOT_FOUND");
+        verify(userRepository, never()).save(any(User.class));
+        verify(userCountService).adjustAfterCommit(-1);
+        verify(changeFeedService).recordChanges(Set.of(1L), UserChangeType.DELETED);
+    }
+
+    @Test
+    void restoreUsers_shouldReportAlreadyActiveAndArchivedUsers() {
+        when(userRepository.findDeletedIds(List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(1L));
+        when(userRepository.findActiveIds(List.of(1L, 2L, 3L, 4L))).thenReturn(List.of(2L));
+        when(userArchiveService.restoreFromArchive(3L)).thenReturn(Optional.of(user));
+        when(userArchiveService.restoreFromArchive(4L)).thenReturn(Optional.empty());
+        when(userRepository.restoreByIds(anyCollection(), any(Instant.class))).thenReturn(2);
+
+        BulkUserResultResponse response = userService.restoreUsers(List.of(1L, 2L, 3L, 4L));
+
+        assertThat(response.getResults()).extracting(BulkUserResultResponse.UserResult::getStatus)
+                .containsExactly("RESTORED", "ALREADY_ACTIVE", "RESTORED", "NOT_FOUND");
+        assertThat(response.getResults().get(1).getMessage()).isEqualTo("User is already active");
+        verify(userCountService).adjustAfterCommit(2);
+    }
+
     @Test
     void restoreUser_shouldThrowException_whenUserIsAlreadyActive() {
         user.setIsActive(true);
@@ -8,11 +8,13 @@ import com.springboottest.user_management_api.exception.ResourceNotFoundExceptio
 import com.springboottest.user_management_api.repository.UserRepository;
 import com.springboottest.user_management_api.repository.UserSettingRepository;
 import com.springboottest.user_management_api.service.implementation.UserSettingServiceImpl;
+import com.springboottest.user_management_api.util.SettingsSchemaRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
@@ -36,6 +38,9 @@ public class UserSettingServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private SettingsSchemaRegistry settingsSchemaRegistry = SettingsSchemaRegistry.builtIn();
+
     @InjectMocks
     private UserSettingServiceImpl userSettingService;
 
@@ -142,4 +147,40 @@ public class UserSettingServiceImplTest {
         assertThatThrownBy(() -> userSettingService.updateUserSettings(1L, settings))
                 .isInstanceOf(InvalidRequestException.class);
     }
+
+    @Test
+    void getUserSettings_shouldReturnPairsInQueryOrder() {
+        when(userSettingRepository.findActiveUserSettingValues(1L)).thenReturn(List.of(
+                settingValue("biometric_login", "false"),
+                settingValue("push_notification", "true")));
+
+        Map<String, String> result = userSettingService.getUserSettings(1L);
+
+        assertThat(result).containsExactly(Map.entry("biometric_login", "false"),
+                Map.entry("push_notification", "true"));
+        verify(userRepository, never()).findActiveIds(any());
+    }
+
+    @Test
+    void getUserSettings_shouldThrowException_whenUserNotFound() {
+        when(userSettingRepository.findActiveUserSettingValues(999L)).thenReturn(List.of());
+        when(userRepository.findActiveIds(List.of(999L))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> userSettingService.getUserSettings(999L))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private static UserSettingRepository.SettingValue settingValue(String key, String value) {
+        return new UserSettingRepository.SettingValue() {
+            @Override
+            public String getKey() {
+                return key;
+            }
+
+            @Override
+            public String getValue() {
+                return value;
+            }
+        };
+    }
 }
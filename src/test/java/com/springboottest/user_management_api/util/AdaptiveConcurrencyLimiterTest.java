@@ -0,0 +1,80 @@
+package com.springboottest.user_management_api.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void tryAcquire_shouldRefuse_whenLimitReached() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0, 0.2, 100);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release();
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void limit_shouldGrow_whenSaturatedAndLatencyStable() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 2.0, 0.2, 100);
+
+        runSaturated(limiter, 50, 10 * MILLIS);
+
+        assertThat(limiter.getLimit()).isGreaterThan(10);
+    }
+
+    @Test
+    void limit_shouldShrink_whenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 5, 100, 2.0, 0.2, 100);
+        runSaturated(limiter, 20, 10 * MILLIS);
+        int before = limiter.getLimit();
+
+        runSaturated(limiter, 30, 100 * MILLIS);
+
+        assertThat(limiter.getLimit()).isLessThan(before);
+    }
+
+    @Test
+    void limit_shouldStayWithinBounds() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 4, 12, 2.0, 1.0, 100);
+
+        runSaturated(limiter, 50, MILLIS);
+        assertThat(limiter.getLimit()).isEqualTo(12);
+
+        runSaturated(limiter, 20, 1000 * MILLIS);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void limit_shouldNotGrow_whenMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 2.0, 0.2, 100);
+
+        for (int i = 0; i < 50; i++) {
+            limiter.tryAcquire();
+            limiter.release(MILLIS);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    /*
+    * fills every slot, then releases one per round with the given latency
+    * */
+    private void runSaturated(AdaptiveConcurrencyLimiter limiter, int rounds, long rttNanos) {
+        for (int i = 0; i < rounds; i++) {
+            while (limiter.tryAcquire()) {
+                // take every free slot
+            }
+            limiter.release(rttNanos);
+        }
+        while (limiter.getInFlight() > 0) {
+            limiter.release();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.springboottest.user_management_api.util;
+
+import com.springboottest.user_management_api.exception.DeadlineExceededException;
+import com.springboottest.user_management_api.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BulkheadTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Bulkhead bulkhead;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        bulkhead.close();
+    }
+
+    @Test
+    void submit_shouldCompleteWithResultOrException() {
+        bulkhead = new Bulkhead("read", 1, 1, Duration.ofSeconds(5), task -> task, meterRegistry);
+
+        assertThat(bulkhead.submit(() -> "ok").join()).isEqualTo("ok");
+        assertThatThrownBy(() -> bulkhead.submit(() -> {
+            throw new IllegalStateException("boom");
+        }).join()).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void submit_shouldRejectAtOnce_whenThreadsAndQueueAreFull() {
+        bulkhead = new Bulkhead("write", 1, 1, Duration.ofSeconds(5), task -> task, meterRegistry);
+        bulkhead.submit(this::blockUntilReleased);
+        bulkhead.submit(this::blockUntilReleased);
+
+        CompletableFuture<String> rejected = bulkhead.submit(() -> "never");
+
+        assertThatThrownBy(rejected::join).hasCauseInstanceOf(ServiceOverloadedException.class);
+        assertThat(meterRegistry.get("bulkhead.rejected").tag("bulkhead", "write").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("bulkhead.queue.depth").tag("bulkhead", "write").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void submit_shouldFailAtDeadline_andSkipWorkStillQueued() throws Exception {
+        bulkhead = new Bulkhead("read", 1, 1, Duration.ofMillis(100), task -> task, meterRegistry);
+        AtomicBoolean queuedWorkRan = new AtomicBoolean();
+        CompletableFuture<String> running = bulkhead.submit(this::blockUntilReleased);
+        CompletableFuture<Boolean> queued = bulkhead.submit(() -> queuedWorkRan.getAndSet(true));
+
+        assertThatThrownBy(() -> queued.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(DeadlineExceededException.class);
+        assertThatThrownBy(() -> running.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(DeadlineExceededException.class);
+
+        release.countDown();
+        awaitIdle();
+        assertThat(bulkhead.submit(() -> "after").get(5, TimeUnit.SECONDS)).isEqualTo("after");
+        assertThat(queuedWorkRan).isFalse();
+        assertThat(meterRegistry.get("bulkhead.deadline.exceeded").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void submit_shouldApplyDeadlineOnlyWhileQueued_whenAskedTo() throws Exception {
+        bulkhead = new Bulkhead("write", 1, 1, Duration.ofMillis(100), true, task -> task, meterRegistry);
+        AtomicBoolean queuedWorkRan = new AtomicBoolean();
+        CompletableFuture<String> running = bulkhead.submit(this::blockUntilReleased);
+        CompletableFuture<Boolean> queued = bulkhead.submit(() -> queuedWorkRan.getAndSet(true));
+
+        assertThatThrownBy(() -> queued.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(DeadlineExceededException.class);
+        assertThat(meterRegistry.get("bulkhead.queue.depth").tag("bulkhead", "write").gauge().value()).isZero();
+        assertThat(running).isNotDone();
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("released");
+        assertThat(queuedWorkRan).isFalse();
+        assertThat(meterRegistry.get("bulkhead.deadline.exceeded").counter().count()).isEqualTo(1);
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((meterRegistry.get("bulkhead.queue.depth").gauge().value() > 0
+                || meterRegistry.get("bulkhead.active").gauge().value() > 0) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private String blockUntilReleased() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "released";
+    }
+}
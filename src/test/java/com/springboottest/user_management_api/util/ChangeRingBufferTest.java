@@ -0,0 +1,107 @@
+package com.springboottest.user_management_api.util;
+
+import com.springboottest.user_management_api.entity.UserChange;
+import com.springboottest.user_management_api.util.enums.UserChangeType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChangeRingBufferTest {
+
+    @Test
+    void readAfter_shouldReturnChangesAfterCursorInOrder() {
+        ChangeRingBuffer buffer = new ChangeRingBuffer(8, 0);
+        // gaps come from rolled back transactions
+        List.of(1L, 2L, 4L, 5L).forEach(seq -> buffer.publish(change(seq)));
+
+        Optional<List<UserChange>> result = buffer.readAfter(2, 10);
+
+        assertThat(result).isPresent();
+        assertThat(result.get()).extracting(UserChange::getSeq).containsExactly(4L, 5L);
+    }
+
+    @Test
+    void readAfter_shouldRespectLimit() {
+        ChangeRingBuffer buffer = new ChangeRingBuffer(8, 0);
+        List.of(1L, 2L, 3L).forEach(seq -> buffer.publish(change(seq)));
+
+        assertThat(buffer.readAfter(0, 2).get()).extracting(UserChange::getSeq).containsExactly(1L, 2L);
+        assertThat(buffer.readAfter(3, 2).get()).isEmpty();
+    }
+
+    @Test
+    void readAfter_shouldMiss_whenCursorIsOlderThanBuffer() {
+        ChangeRingBuffer buffer = new ChangeRingBuffer(4, 10);
+        for (long seq = 11; seq <= 16; seq++) {
+            buffer.publish(change(seq));
+        }
+
+        // 11 and 12 were evicted
+        assertThat(buffer.readAfter(10, 10)).isEmpty();
+        assertThat(buffer.readAfter(12, 10).get()).extracting(UserChange::getSeq)
+                .containsExactly(13L, 14L, 15L, 16L);
+    }
+
+    @Test
+    void readAfter_shouldMiss_whenCursorPredatesStartup() {
+        ChangeRingBuffer buffer = new ChangeRingBuffer(4, 10);
+
+        assertThat(buffer.readAfter(3, 10)).isEmpty();
+        assertThat(buffer.readAfter(10, 10).get()).isEmpty();
+    }
+
+    @Test
+    void readAfter_shouldNeverSkipOrReorder_whilePublishingLapsTheBuffer() throws InterruptedException {
+        ChangeRingBuffer buffer = new ChangeRingBuffer(4, 0);
+        AtomicLong latest = new AtomicLong();
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<String> errors = new CopyOnWriteArrayList<>();
+
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                // cursors at and just behind the lap boundary
+                long cursor = Math.max(0, latest.get() - 4);
+                buffer.readAfter(cursor, 10).ifPresent(changes -> {
+                    long expected = cursor + 1;
+                    for (UserChange change : changes) {
+                        if (change.getSeq() != expected++) {
+                            errors.add("after " + cursor + " got " + changes.stream().map(UserChange::getSeq).toList());
+                            return;
+                        }
+                    }
+                });
+            }
+        });
+        reader.start();
+        for (long seq = 1; seq <= 2_000_000; seq++) {
+            buffer.publish(change(seq));
+            latest.set(seq);
+        }
+        running.set(false);
+        reader.join();
+
+        assertThat(errors).isEmpty();
+    }
+
+    @Test
+    void constructor_shouldRoundCapacityToPowerOfTwo() {
+        assertThat(new ChangeRingBuffer(1000, 0).capacity()).isEqualTo(1024);
+        assertThat(new ChangeRingBuffer(1024, 0).capacity()).isEqualTo(1024);
+    }
+
+    private UserChange change(long seq) {
+        return UserChange.builder()
+                .seq(seq)
+                .userId(seq)
+                .changeType(UserChangeType.UPDATED)
+                .changedTime(Instant.now())
+                .build();
+    }
+}
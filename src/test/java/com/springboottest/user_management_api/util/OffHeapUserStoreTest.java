@@ -0,0 +1,300 @@
+package com.springboottest.user_management_api.util;
+
+import com.springboottest.user_management_api.util.OffHeapUserStore.UserRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32C;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OffHeapUserStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void insert_shouldRoundTripEveryField() {
+        OffHeapUserStore store = new OffHeapUserStore(4, 4);
+        Instant now = Instant.parse("2026-01-02T03:04:05.123456789Z");
+
+        UserRecord stored = store.insert(new UserRecord(0, 2945, "John", null, "Doe", LocalDate.of(1990, 1, 1),
+                true, now, now, null, "SYSTEM", "SYSTEM", 0b101, new byte[]{5, 4, 3, 2, 1})).orElseThrow();
+        UserRecord read = store.find(stored.id()).orElseThrow();
+
+        assertThat(read.id()).isEqualTo(1L);
+        assertThat(read.ssn()).isEqualTo(2945L);
+        assertThat(read.firstName()).isEqualTo("John");
+        assertThat(read.middleName()).isNull();
+        assertThat(read.familyName()).isEqualTo("Doe");
+        assertThat(read.birthDate()).isEqualTo(LocalDate.of(1990, 1, 1));
+        assertThat(read.active()).isTrue();
+        assertThat(read.createdTime()).isEqualTo(now);
+        assertThat(read.deletedTime()).isNull();
+        assertThat(read.updatedBy()).isEqualTo("SYSTEM");
+        assertThat(read.settingFlags()).isEqualTo(0b101);
+        assertThat(read.widgetOrder()).containsExactly(5, 4, 3, 2, 1);
+    }
+
+    @Test
+    void insert_shouldRejectTakenSsn_andNamesWiderThanTheirField() {
+        OffHeapUserStore store = new OffHeapUserStore(4, 4);
+        store.insert(user(2945, "John"));
+
+        assertThat(store.insert(user(2945, "Jane"))).isEmpty();
+        assertThatThrownBy(() -> store.insert(user(3000, "J".repeat(OffHeapUserStore.NAME_BYTES + 1))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    void update_shouldLeaveUserUntouched_whenChangeThrows() {
+        OffHeapUserStore store = new OffHeapUserStore(4, 4);
+        long id = store.insert(user(2945, "John")).orElseThrow().id();
+
+        assertThatThrownBy(() -> store.update(id, user -> {
+            throw new IllegalStateException("rejected");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(store.find(id).orElseThrow().firstName()).isEqualTo("John");
+        assertThat(store.update(999L, user -> user)).isEmpty();
+    }
+
+    @Test
+    void purgeDeletedBefore_shouldReuseFreedSlots_andForgetIdAndSsn() {
+        OffHeapUserStore store = new OffHeapUserStore(2, 4);
+        for (int i = 0; i < 4; i++) {
+            store.insert(user(3000 + i, "User"));
+        }
+        long bytes = store.allocatedBytes();
+        Instant deletedTime = Instant.now().minusSeconds(60);
+        store.update(2L, user -> deleted(user, deletedTime));
+        store.update(3L, user -> deleted(user, Instant.now()));
+
+        int purged = store.purgeDeletedBefore(Instant.now().minusSeconds(30), 10);
+        store.insert(user(4000, "Reused"));
+
+        assertThat(purged).isEqualTo(1);
+        assertThat(store.find(2L)).isEmpty();
+        assertThat(store.existsBySsn(3001)).isFalse();
+        assertThat(store.find(3L)).isPresent();
+        assertThat(store.allocatedBytes()).isEqualTo(bytes);
+        assertThat(store.findActive(0, 10)).extracting(UserRecord::id).containsExactly(1L, 4L, 5L);
+        assertThat(store.activeCount()).isEqualTo(3);
+    }
+
+    @Test
+    void findActive_shouldPageInIdOrderAcrossPages() {
+        OffHeapUserStore store = new OffHeapUserStore(2, 4);
+        for (int i = 0; i < 7; i++) {
+            store.insert(user(3000 + i, "User"));
+        }
+        store.update(3L, user -> deleted(user, Instant.now()));
+
+        assertThat(store.findActive(2, 3)).extracting(UserRecord::id).containsExactly(4L, 5L, 6L);
+        assertThat(store.findActive(6, 3)).isEmpty();
+    }
+
+    @Test
+    void findActiveAfter_shouldStartAfterTheCursor_whetherItIsStoredOrNot() {
+        OffHeapUserStore store = new OffHeapUserStore(2, 4);
+        for (int i = 0; i < 7; i++) {
+            store.insert(user(3000 + i, "User"));
+        }
+        store.update(3L, user -> deleted(user, Instant.now()));
+        store.purgeDeletedBefore(Instant.now().plusSeconds(60), 10);
+
+        assertThat(store.findActiveAfter(0, 3)).extracting(UserRecord::id).containsExactly(1L, 2L, 4L);
+        assertThat(store.findActiveAfter(2, 2)).extracting(UserRecord::id).containsExactly(4L, 5L);
+        assertThat(store.findActiveAfter(3, 10)).extracting(UserRecord::id).containsExactly(4L, 5L, 6L, 7L);
+        assertThat(store.findActiveAfter(7, 10)).isEmpty();
+    }
+
+    @Test
+    void recover_shouldRebuildStore_fromLogAlone() throws IOException {
+        try (UserEventLog log = eventLog()) {
+            OffHeapUserStore store = new OffHeapUserStore(2, 4);
+            store.recover(log);
+            for (int i = 0; i < 5; i++) {
+                store.insert(user(3000 + i, "User" + i));
+            }
+            store.update(2L, user -> deleted(user, Instant.now().minusSeconds(60)));
+            store.update(4L, user -> deleted(user, Instant.now()));
+            store.purgeDeletedBefore(Instant.now().minusSeconds(30), 10);
+        }
+
+        try (UserEventLog log = eventLog()) {
+            OffHeapUserStore recovered = new OffHeapUserStore(2, 4);
+            recovered.recover(log);
+
+            assertThat(recovered.findActive(0, 10)).extracting(UserRecord::id).containsExactly(1L, 3L, 5L);
+            assertThat(recovered.find(2L)).isEmpty();
+            assertThat(recovered.find(4L).orElseThrow().active()).isFalse();
+            assertThat(recovered.activeCount()).isEqualTo(3);
+            assertThat(recovered.existsBySsn(3001)).isFalse();
+            assertThat(recovered.insert(user(5000, "Next")).orElseThrow().id()).isEqualTo(6L);
+        }
+    }
+
+    @Test
+    void recover_shouldLoadSnapshot_andReplayOnlyTheTail() throws IOException {
+        try (UserEventLog log = eventLog()) {
+            OffHeapUserStore store = new OffHeapUserStore(2, 4);
+            store.recover(log);
+            for (int i = 0; i < 4; i++) {
+                store.insert(user(3000 + i, "User" + i));
+            }
+            long snapshotSeq = store.writeSnapshot();
+
+            store.update(1L, user -> deleted(user, Instant.now()));
+            store.insert(user(4000, "AfterSnapshot"));
+            assertThat(snapshotSeq).isEqualTo(4);
+            assertThat(log.latestSnapshot()).contains(log.snapshotPath(4));
+        }
+
+        try (UserEventLog log = eventLog()) {
+            OffHeapUserStore recovered = new OffHeapUserStore(2, 4);
+            recovered.recover(log);
+
+            assertThat(recovered.size()).isEqualTo(5);
+            assertThat(recovered.findActive(0, 10)).extracting(UserRecord::firstName)
+                    .containsExactly("User1", "User2", "User3", "AfterSnapshot");
+            assertThat(recovered.find(1L).orElseThrow().active()).isFalse();
+            assertThat(log.lastSeq()).isEqualTo(6);
+        }
+    }
+
+    /*
+    * A snapshot copies one page at a time, so it can hold a user from before its purge on an
+    * early page and the user that took over its ssn on a later page. The fuzzy snapshot is
+    * put together from a snapshot taken before the purge and one taken after
+    * */
+    @Test
+    void recover_shouldKeepReusedSsn_whenFuzzySnapshotHoldsPurgedUserAndItsSuccessor() throws IOException {
+        byte[] beforePurge;
+        byte[] afterPurge;
+        try (UserEventLog log = eventLog()) {
+            OffHeapUserStore store = new OffHeapUserStore(2, 4);
+            store.recover(log);
+            store.insert(user(3000, "Purged"));
+            store.insert(user(3001, "Filler"));
+            long snapshotSeq = store.writeSnapshot();
+            beforePurge = Files.readAllBytes(log.snapshotPath(snapshotSeq));
+
+            store.update(1L, user -> deleted(user, Instant.now().minusSeconds(60)));
+            store.purgeDeletedBefore(Instant.now().minusSeconds(30), 10);
+            store.insert(user(3002, "TookFreedSlot"));
+            store.insert(user(3000, "Successor"));
+            afterPurge = Files.readAllBytes(log.snapshotPath(store.writeSnapshot()));
+
+            // page 0 as it was before the purge, page 1 with the successor in slot 2
+            int header = beforePurge.length - 2 * OffHeapUserStore.RECORD_SIZE;
+            ByteBuffer fuzzy = ByteBuffer.allocate(beforePurge.length + OffHeapUserStore.RECORD_SIZE)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .put(beforePurge)
+                    .put(afterPurge, header + 2 * OffHeapUserStore.RECORD_SIZE, OffHeapUserStore.RECORD_SIZE);
+            CRC32C crc = new CRC32C();
+            crc.update(fuzzy.array(), header, 3 * OffHeapUserStore.RECORD_SIZE);
+            fuzzy.putLong(24, 3).putLong(32, crc.getValue());
+            Files.delete(log.latestSnapshot().orElseThrow());
+            Files.write(log.snapshotPath(snapshotSeq), fuzzy.array());
+        }
+
+        try (UserEventLog log = eventLog()) {
+            OffHeapUserStore recovered = new OffHeapUserStore(2, 4);
+            recovered.recover(log);
+
+            assertThat(recovered.find(1L)).isEmpty();
+            assertThat(recovered.findActive(0, 10)).extracting(UserRecord::firstName)
+                    .containsExactly("Filler", "TookFreedSlot", "Successor");
+            assertThat(recovered.existsBySsn(3000)).isTrue();
+            assertThat(recovered.insert(user(3000, "Duplicate"))).isEmpty();
+        }
+    }
+
+    @Test
+    void longIndex_shouldMatchHashMap_underRandomPutsAndRemoves() {
+        LongIndex index = new LongIndex(4);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            long key = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(index.remove(key)).isEqualTo(expected.getOrDefault(key, LongIndex.MISSING));
+                expected.remove(key);
+            } else {
+                assertThat(index.put(key, i)).isEqualTo(expected.getOrDefault(key, LongIndex.MISSING));
+                expected.put(key, (long) i);
+            }
+        }
+
+        assertThat(index.size()).isEqualTo(expected.size());
+        List<Long> mismatches = new ArrayList<>();
+        for (long key = 0; key < 2_000; key++) {
+            if (index.get(key) != expected.getOrDefault(key, LongIndex.MISSING)) {
+                mismatches.add(key);
+            }
+        }
+        assertThat(mismatches).isEmpty();
+    }
+
+    @Test
+    void insert_shouldLeaveStoreUntouched_onceLogSyncFailed() throws IOException {
+        AtomicBoolean failing = new AtomicBoolean();
+        try (UserEventLog log = new UserEventLog(directory, 4096, Duration.ZERO, (segment, from, length) -> {
+            if (failing.get()) {
+                throw new UncheckedIOException(new IOException("Disk is gone"));
+            }
+            segment.force(from, length);
+        })) {
+            OffHeapUserStore store = new OffHeapUserStore(2, 4);
+            store.recover(log);
+            store.insert(user(3000, "First"));
+            failing.set(true);
+            // the write in flight when the force fails is not reported durable
+            assertThatThrownBy(() -> store.update(1L, user -> deleted(user, Instant.now())))
+                    .isInstanceOf(UncheckedIOException.class);
+
+            assertThatThrownBy(() -> store.insert(user(3001, "Second")))
+                    .isInstanceOf(UncheckedIOException.class);
+            assertThatThrownBy(() -> store.purgeDeletedBefore(Instant.now().plusSeconds(60), 10))
+                    .isInstanceOf(UncheckedIOException.class);
+            assertThat(store.size()).isEqualTo(1);
+            assertThat(store.existsBySsn(3001)).isFalse();
+            assertThat(store.find(2L)).isEmpty();
+            assertThat(store.find(1L)).isPresent();
+        }
+    }
+
+    private UserEventLog eventLog() throws IOException {
+        return new UserEventLog(directory, 4096, Duration.ZERO);
+    }
+
+    private static UserRecord user(long ssn, String firstName) {
+        Instant now = Instant.now();
+        return new UserRecord(0, ssn, firstName, null, "Test", LocalDate.of(1990, 1, 1), true,
+                now, now, null, "SYSTEM", "SYSTEM", 0, new byte[]{1, 2, 3, 4, 5});
+    }
+
+    private static UserRecord deleted(UserRecord user, Instant deletedTime) {
+        return new UserRecord(user.id(), user.ssn(), user.firstName(), user.middleName(), user.familyName(),
+                user.birthDate(), false, user.createdTime(), deletedTime, deletedTime, user.createdBy(),
+                user.updatedBy(), user.settingFlags(), user.widgetOrder());
+    }
+}
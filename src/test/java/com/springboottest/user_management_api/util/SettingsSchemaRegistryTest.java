@@ -0,0 +1,90 @@
+package com.springboottest.user_management_api.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SettingsSchemaRegistryTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void builtIn_shouldMatchUserSettingKeyEnum() {
+        SettingsSchema schema = SettingsSchemaRegistry.builtIn().current();
+
+        assertThat(schema.defaults()).containsEntry("widget_order", "1,2,3,4,5").hasSize(5);
+        assertThat(schema.validate(Map.of("biometric_login", "maybe")))
+                .containsExactly("Invalid value for setting biometric_login: maybe (expected pattern: ^(true|false)$)");
+    }
+
+    @Test
+    void compile_shouldBuildMatchersForEveryValidatorKind() {
+        SettingsSchema schema = SettingsSchema.compile(List.of(
+                new SettingsSchema.Spec("dark_mode", "false", "boolean"),
+                new SettingsSchema.Spec("theme", "light", "enum:light|dark|system"),
+                new SettingsSchema.Spec("font_size", "14", "int:8..32"),
+                new SettingsSchema.Spec("locale", "en", "regex:[a-z]{2}")));
+
+        assertThat(schema.validate(Map.of("dark_mode", "true", "theme", "system", "font_size", "32", "locale", "id")))
+                .isEmpty();
+        assertThat(schema.validate(Map.of("theme", "blue"))).hasSize(1);
+        assertThat(schema.validate(Map.of("font_size", "40"))).hasSize(1);
+        assertThat(schema.validate(Map.of("font_size", "big"))).hasSize(1);
+        assertThat(schema.validate(Map.of("locale", "eng"))).hasSize(1);
+        assertThat(schema.validate(Map.of("widget_order", "1,2,3,4,5")))
+                .containsExactly("Invalid setting key: widget_order");
+    }
+
+    @Test
+    void compile_shouldRejectDefaultsFailingTheirValidator() {
+        assertThatThrownBy(() -> SettingsSchema.compile(List.of(new SettingsSchema.Spec("font_size", "99", "int:8..32"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("font_size");
+        assertThatThrownBy(() -> SettingsSchema.compile(List.of(new SettingsSchema.Spec("a", "x", "uuid"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("unknown validator");
+    }
+
+    @Test
+    void reloadIfChanged_shouldSwapSchema_andKeepItWhenTheFileIsInvalid() throws IOException {
+        Path path = directory.resolve("settings.json");
+        write(path, "[{\"key\": \"dark_mode\", \"default_value\": \"false\", \"validator\": \"boolean\"}]", 1);
+        SettingsSchemaRegistry registry = SettingsSchemaRegistry.fromFile(path, objectMapper);
+        SettingsSchema first = registry.current();
+        assertThat(registry.reloadIfChanged()).isFalse();
+
+        write(path, "[{\"key\": \"dark_mode\", \"default_value\": \"false\", \"validator\": \"boolean\"}," +
+                "{\"key\": \"theme\", \"default_value\": \"light\", \"validator\": \"enum:light|dark\"}]", 2);
+        assertThat(registry.reloadIfChanged()).isTrue();
+        assertThat(registry.current().defaults()).containsOnlyKeys("dark_mode", "theme");
+        // a reader holding the old schema keeps a consistent view
+        assertThat(first.defaults()).containsOnlyKeys("dark_mode");
+
+        write(path, "[{\"key\": \"theme\", \"default_value\": \"blue\", \"validator\": \"enum:light|dark\"}]", 3);
+        assertThatThrownBy(registry::reloadIfChanged).isInstanceOf(IllegalArgumentException.class);
+        assertThat(registry.current().defaults()).containsOnlyKeys("dark_mode", "theme");
+        assertThat(registry.reloadIfChanged()).isFalse();
+    }
+
+    private static void write(Path path, String content, int version) throws IOException {
+        Files.writeString(path, content);
+        // file systems with coarse timestamps would otherwise see no change between writes
+        Files.setLastModifiedTime(path, FileTime.from(Instant.parse("2026-01-01T00:00:00Z").plusSeconds(version)));
+    }
+}
@@ -0,0 +1,149 @@
+package com.springboottest.user_management_api.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class SingleFlightTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SingleFlight<Long, String> singleFlight;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>("test", Duration.ofSeconds(5), meterRegistry);
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void load_shouldShareOneLoad_betweenConcurrentCallers() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        Future<String> leader = executor.submit(() -> singleFlight.load(1L, blockingLoad(started, release, loads, "a")));
+        started.await();
+        Future<String> follower = executor.submit(() -> singleFlight.load(1L, () -> "b"));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("a");
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("a");
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void load_shouldPropagateLeaderException_toFollowers() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.load(1L, () -> {
+            started.countDown();
+            await(release);
+            throw new IllegalStateException("db down");
+        }));
+        started.await();
+        Future<String> follower = executor.submit(() -> singleFlight.load(1L, () -> "b"));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("db down");
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("db down");
+        assertThat(singleFlight.load(1L, () -> "fresh")).isEqualTo("fresh");
+    }
+
+    @Test
+    void load_shouldLoadItself_whenFollowerTimesOut() throws Exception {
+        singleFlight = new SingleFlight<>("test", Duration.ofMillis(50), meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.load(1L, blockingLoad(started, release, new AtomicInteger(), "a")));
+        started.await();
+
+        assertThat(singleFlight.load(1L, () -> "own")).isEqualTo("own");
+        assertThat(meterRegistry.get("single.flight.timeouts").counter().count()).isEqualTo(1);
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("a");
+    }
+
+    @Test
+    void loadAll_shouldJoinRunningLoads_andLeadTheRest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.load(1L, blockingLoad(started, release, new AtomicInteger(), "one")));
+        started.await();
+        Future<Map<Long, String>> batch = executor.submit(() -> singleFlight.loadAll(Set.of(1L, 2L, 3L), ids -> ids.stream()
+                .collect(Collectors.toMap(id -> id, id -> "batch-" + id))));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertThat(batch.get(5, TimeUnit.SECONDS))
+                .containsEntry(1L, "one")
+                .containsEntry(2L, "batch-2")
+                .containsEntry(3L, "batch-3");
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("one");
+    }
+
+    @Test
+    void forget_shouldStartFreshLoad_forLaterCallers() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = executor.submit(() -> singleFlight.load(1L, blockingLoad(started, release, new AtomicInteger(), "old")));
+        started.await();
+        singleFlight.forget(1L);
+
+        assertThat(singleFlight.load(1L, () -> "new")).isEqualTo("new");
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("old");
+    }
+
+    private Supplier<String> blockingLoad(CountDownLatch started, CountDownLatch release, AtomicInteger loads, String value) {
+        return () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return value;
+        };
+    }
+
+    private void awaitCoalesced(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("single.flight.coalesced").counter().count() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
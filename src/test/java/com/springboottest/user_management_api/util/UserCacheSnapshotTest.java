@@ -0,0 +1,75 @@
+package com.springboottest.user_management_api.util;
+
+import com.springboottest.user_management_api.dto.response.UserResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class UserCacheSnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void read_shouldReturnWhatWasWritten() throws IOException {
+        Path path = directory.resolve("cache.bin");
+        Instant exportedAt = Instant.parse("2026-01-01T00:00:00Z");
+        UserResponse user = UserResponse.builder()
+                .userData(UserResponse.UserData.builder()
+                        .id(7L)
+                        .ssn("0000000000002945")
+                        .firstName("Jöhn")
+                        .familyName("Doe")
+                        .birthDate(LocalDate.of(1990, 1, 1))
+                        .createdTime(Instant.parse("2025-06-01T10:15:30.123456789Z"))
+                        .createdBy("SYSTEM")
+                        .isActive(true)
+                        .build())
+                .userSettings(List.of(Map.of("push_notification", "true"), Map.of("widget_order", "1,2,3,4,5")))
+                .build();
+
+        UserCacheSnapshot.write(path, 42, exportedAt, List.of(new UserResponseCache.Entry(7L, user)));
+        UserCacheSnapshot.Snapshot snapshot = UserCacheSnapshot.read(path).orElseThrow();
+
+        assertThat(snapshot.changeSeq()).isEqualTo(42);
+        assertThat(snapshot.exportedAt()).isEqualTo(exportedAt);
+        assertThat(snapshot.entries()).hasSize(1);
+        UserResponse read = snapshot.entries().get(0).response();
+        assertThat(read.getUserData()).usingRecursiveComparison().isEqualTo(user.getUserData());
+        assertThat(read.getUserSettings()).isEqualTo(user.getUserSettings());
+    }
+
+    @Test
+    void read_shouldBeEmpty_whenThereIsNoSnapshot() throws IOException {
+        assertThat(UserCacheSnapshot.read(directory.resolve("missing.bin"))).isEmpty();
+    }
+
+    @Test
+    void read_shouldRefuseCorruptSnapshot() throws IOException {
+        Path path = directory.resolve("cache.bin");
+        UserResponse user = UserResponse.builder()
+                .userData(UserResponse.UserData.builder().id(1L).firstName("John").build())
+                .build();
+        UserCacheSnapshot.write(path, 1, Instant.now(), List.of(new UserResponseCache.Entry(1L, user)));
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), 40);
+        }
+
+        assertThatThrownBy(() -> UserCacheSnapshot.read(path))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("checksum");
+    }
+}
@@ -0,0 +1,146 @@
+package com.springboottest.user_management_api.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class UserEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replay_shouldReturnEntriesAcrossSegmentsInOrder() throws IOException {
+        try (UserEventLog log = open()) {
+            log.replay(0, (seq, type, payload) -> { });
+            for (long value = 1; value <= 10; value++) {
+                log.awaitDurable(log.append((byte) 1, payload(value)));
+            }
+        }
+
+        List<Long> values = new ArrayList<>();
+        try (UserEventLog log = open()) {
+            long last = log.replay(0, (seq, type, payload) -> values.add(payload.getLong(0)));
+
+            assertThat(last).isEqualTo(10);
+            assertThat(log.append((byte) 1, payload(11))).isEqualTo(11);
+        }
+        assertThat(values).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        // 40 byte segments hold one 25 byte entry each
+        assertThat(segments()).hasSize(11);
+    }
+
+    @Test
+    void replay_shouldSkipEntriesCoveredBySnapshot_andDropThemOnCompact() throws IOException {
+        try (UserEventLog log = open()) {
+            log.replay(0, (seq, type, payload) -> { });
+            for (long value = 1; value <= 5; value++) {
+                log.awaitDurable(log.append((byte) 1, payload(value)));
+            }
+            Files.createFile(log.snapshotPath(3));
+            log.compact(3);
+        }
+
+        List<Long> seqs = new ArrayList<>();
+        try (UserEventLog log = open()) {
+            log.replay(3, (seq, type, payload) -> seqs.add(seq));
+            assertThat(log.latestSnapshot()).contains(log.snapshotPath(3));
+        }
+        assertThat(seqs).containsExactly(4L, 5L);
+        assertThat(segments()).hasSize(2);
+    }
+
+    @Test
+    void replay_shouldStopAtTornEntry_andResumeAppendsThere() throws IOException {
+        try (UserEventLog log = new UserEventLog(directory, 1024, Duration.ZERO)) {
+            log.replay(0, (seq, type, payload) -> { });
+            for (long value = 1; value <= 3; value++) {
+                log.awaitDurable(log.append((byte) 1, payload(value)));
+            }
+        }
+        // flip a payload byte of the second entry
+        try (FileChannel channel = FileChannel.open(segments().get(0), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), 25 + 17);
+        }
+
+        List<Long> values = new ArrayList<>();
+        try (UserEventLog log = new UserEventLog(directory, 1024, Duration.ZERO)) {
+            assertThat(log.replay(0, (seq, type, payload) -> values.add(payload.getLong(0)))).isEqualTo(1);
+            log.awaitDurable(log.append((byte) 1, payload(20)));
+        }
+        assertThat(values).containsExactly(1L);
+
+        values.clear();
+        try (UserEventLog log = new UserEventLog(directory, 1024, Duration.ZERO)) {
+            log.replay(0, (seq, type, payload) -> values.add(payload.getLong(0)));
+        }
+        assertThat(values).containsExactly(1L, 20L);
+    }
+
+    @Test
+    void awaitDurable_shouldReturnForConcurrentWriters() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (UserEventLog log = new UserEventLog(directory, 64 * 1024, Duration.ofMillis(1))) {
+            log.replay(0, (seq, type, payload) -> { });
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (long value = 0; value < 200; value++) {
+                        log.awaitDurable(log.append((byte) 1, payload(value)));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            assertThat(log.lastSeq()).isEqualTo(1600);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void append_shouldBeRejected_onceASyncFailed() throws IOException {
+        try (UserEventLog log = new UserEventLog(directory, 1024, Duration.ZERO, (segment, from, length) -> {
+            throw new UncheckedIOException(new IOException("Disk is gone"));
+        })) {
+            log.replay(0, (seq, type, payload) -> { });
+            long seq = log.append((byte) 1, payload(1));
+
+            assertThatThrownBy(() -> log.awaitDurable(seq)).isInstanceOf(UncheckedIOException.class);
+            assertThatThrownBy(() -> log.append((byte) 1, payload(2))).isInstanceOf(UncheckedIOException.class);
+            assertThat(log.lastSeq()).isEqualTo(1);
+        }
+    }
+
+    private UserEventLog open() throws IOException {
+        return new UserEventLog(directory, 40, Duration.ZERO);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.toString().endsWith(UserEventLog.SEGMENT_SUFFIX)).sorted().toList();
+        }
+    }
+
+    private static ByteBuffer payload(long value) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(0, value);
+    }
+}
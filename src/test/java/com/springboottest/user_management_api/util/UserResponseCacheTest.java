@@ -0,0 +1,91 @@
+package com.springboottest.user_management_api.util;
+
+import com.springboottest.user_management_api.dto.response.UserResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserResponseCacheTest {
+
+    @Test
+    void put_shouldBeRefused_whenUserWasInvalidatedAfterTheStamp() {
+        UserResponseCache cache = new UserResponseCache(10, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        long stamp = cache.stamp(1L);
+
+        cache.invalidate(1L);
+        cache.put(1L, user(1L), stamp);
+
+        assertThat(cache.get(1L)).isNull();
+        cache.put(1L, user(1L), cache.stamp(1L));
+        assertThat(cache.get(1L)).isNotNull();
+    }
+
+    @Test
+    void get_shouldMiss_onceTheEntryOutlivedItsTtl() throws InterruptedException {
+        UserResponseCache cache = new UserResponseCache(10, Duration.ofMillis(20), new SimpleMeterRegistry());
+        cache.put(1L, user(1L), cache.stamp(1L));
+        assertThat(cache.get(1L)).isNotNull();
+
+        Thread.sleep(50);
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.hottest(10)).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void put_shouldEvictColdestUsers_whenFull() {
+        UserResponseCache cache = new UserResponseCache(10, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        for (long id = 1; id <= 10; id++) {
+            cache.put(id, user(id), cache.stamp(id));
+        }
+        for (long id = 1; id <= 9; id++) {
+            cache.get(id);
+        }
+
+        cache.put(11L, user(11L), cache.stamp(11L));
+
+        assertThat(cache.size()).isLessThanOrEqualTo(10);
+        assertThat(cache.get(10L)).isNull();
+        assertThat(cache.get(1L)).isNotNull();
+    }
+
+    @Test
+    void hottest_shouldRankByReads_andPreloadShouldKeepTheRanking() {
+        UserResponseCache cache = new UserResponseCache(10, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        for (long id = 1; id <= 3; id++) {
+            cache.put(id, user(id), cache.stamp(id));
+        }
+        cache.get(3L);
+        cache.get(3L);
+        cache.get(2L);
+
+        List<UserResponseCache.Entry> hottest = cache.hottest(2);
+        assertThat(hottest).extracting(UserResponseCache.Entry::id).containsExactly(3L, 2L);
+
+        UserResponseCache restarted = new UserResponseCache(10, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        assertThat(restarted.preload(cache.hottest(3))).isEqualTo(3);
+        assertThat(restarted.hottest(3)).extracting(UserResponseCache.Entry::id).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    void disabledCache_shouldHoldNothing() {
+        UserResponseCache cache = new UserResponseCache(0, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+        cache.put(1L, user(1L), cache.stamp(1L));
+
+        assertThat(cache.isEnabled()).isFalse();
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    private static UserResponse user(long id) {
+        return UserResponse.builder()
+                .userData(UserResponse.UserData.builder().id(id).build())
+                .build();
+    }
+}